@@ -0,0 +1,19 @@
+package simian.testing.archive;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Ringkasan satu kali pengarsipan user nonaktif
+ * @param cutoff User yang tidak berubah dan tidak beraktivitas sejak waktu ini diarsipkan
+ * @param moved Jumlah user yang dipindahkan ke user_archive
+ * @param batches Jumlah batch (transaksi) yang dijalankan
+ * @param userBefore Ukuran tabel user sebelum pengarsipan
+ * @param userAfter Ukuran tabel user sesudah pengarsipan
+ * @param archiveBefore Ukuran tabel user_archive sebelum pengarsipan
+ * @param archiveAfter Ukuran tabel user_archive sesudah pengarsipan
+ * @param duration Durasi total, termasuk jeda antar batch
+ */
+public record ArchiveReport(LocalDateTime cutoff, int moved, int batches, TableSize userBefore, TableSize userAfter,
+                            TableSize archiveBefore, TableSize archiveAfter, Duration duration) {
+}
@@ -0,0 +1,11 @@
+package simian.testing.archive;
+
+/**
+ * Ukuran satu tabel menurut information_schema (estimasi statistik InnoDB)
+ * @param table Nama tabel
+ * @param rows Jumlah baris (COUNT(*))
+ * @param dataBytes Ukuran data, -1 jika database tidak menyediakan statistik
+ * @param indexBytes Ukuran seluruh index sekunder, -1 jika database tidak menyediakan statistik
+ */
+public record TableSize(String table, long rows, long dataBytes, long indexBytes) {
+}
@@ -0,0 +1,209 @@
+package simian.testing.archive;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import simian.testing.dao.HibernateUserDAO;
+import simian.testing.event.RbacChangeEvent;
+import simian.testing.event.RbacChangeEvent.Action;
+import simian.testing.event.RbacChangeEvent.EntityType;
+
+/**
+ * Memindahkan user yang lama nonaktif dari tabel user ke user_archive
+ * Tabel user (dan index username, email, role, updated_date) hanya berisi user yang masih relevan,
+ * sedangkan user arsip tetap bisa dipulihkan lewat UserService.activateUser dengan ID yang sama
+ *
+ * User diarsipkan jika is_active = 0, updated_date dan last_activity_date lebih lama dari
+ * simian.archive.inactive-days. Pemindahan dilakukan per batch kecil dalam transaksi sendiri dengan jeda
+ * antar batch, sehingga lock dan beban replikasi tidak menumpuk. Baris dikunci (FOR UPDATE) dan kriteria
+ * dicek ulang di dalam transaksi, sehingga user yang diaktifkan bersamaan tidak ikut terarsip
+ *
+ * Setiap user yang dipindahkan dipublikasikan sebagai USER DELETED di transaksi batch-nya, sehingga tombstone
+ * change feed ikut tercatat dan cache principal, index pemegang access serta snapshot permission diperbarui
+ * seperti penghapusan biasa. Restore lewat activateUser mempublikasikan USER UPDATED
+ *
+ * Username dan email tetap unik lintas kedua tabel: UserDAO.existsByUsername/existsByEmail membaca
+ * keduanya dalam satu statement
+ */
+@Service
+public class UserArchiver {
+
+    private static final Logger log = LoggerFactory.getLogger(UserArchiver.class);
+
+    private static final String CANDIDATE_CRITERIA =
+        "is_active = 0 AND updated_date < ? AND (last_activity_date IS NULL OR last_activity_date < ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${simian.archive.enabled:true}")
+    private boolean enabled;
+
+    @Value("${simian.archive.inactive-days:365}")
+    private int inactiveDays;
+
+    @Value("${simian.archive.batch-size:200}")
+    private int batchSize;
+
+    @Value("${simian.archive.pause-ms:500}")
+    private long pauseMs;
+
+    @Value("${simian.archive.interval-ms:86400000}")
+    private long intervalMs;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private TransactionTemplate batchTemplate;
+    private ScheduledExecutorService scheduler;
+    private volatile boolean stopping;
+
+    @PostConstruct
+    void start() {
+        batchTemplate = new TransactionTemplate(transactionManager);
+        batchTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        if (!enabled) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "user-archiver");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::archiveQuietly, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        stopping = true;
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * Mengarsipkan semua user yang nonaktif lebih lama dari simian.archive.inactive-days
+     * @return Ringkasan termasuk ukuran tabel dan index sebelum dan sesudah
+     * @throws IllegalStateException jika pengarsipan lain sedang berjalan
+     */
+    public ArchiveReport archiveInactiveUsers() {
+        return archiveInactiveUsers(LocalDateTime.now().minusDays(inactiveDays));
+    }
+
+    /**
+     * Mengarsipkan user nonaktif yang tidak berubah dan tidak beraktivitas sejak cutoff
+     * @throws IllegalStateException jika pengarsipan lain sedang berjalan
+     */
+    public ArchiveReport archiveInactiveUsers(LocalDateTime cutoff) {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("Pengarsipan user sedang berjalan");
+        }
+        try {
+            long start = System.nanoTime();
+            TableSize userBefore = tableSize("user");
+            TableSize archiveBefore = tableSize("user_archive");
+
+            int moved = 0;
+            int batches = 0;
+            while (!stopping) {
+                int batchMoved = batchTemplate.execute(status -> moveBatch(cutoff));
+                if (batchMoved == 0) {
+                    break;
+                }
+                moved += batchMoved;
+                batches++;
+                if (batchMoved < batchSize || !pause()) {
+                    break;
+                }
+            }
+
+            ArchiveReport report = new ArchiveReport(cutoff, moved, batches, userBefore, tableSize("user"),
+                archiveBefore, tableSize("user_archive"), Duration.ofNanos(System.nanoTime() - start));
+            log.info("Pengarsipan user selesai: {}", report);
+            return report;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * Satu batch: kunci kandidat, salin ke user_archive, hapus dari user dan publikasikan USER DELETED
+     * untuk setiap user dalam satu transaksi
+     */
+    private int moveBatch(LocalDateTime cutoff) {
+        List<Integer> userIds = jdbcTemplate.queryForList(
+            "SELECT user_id FROM user WHERE " + CANDIDATE_CRITERIA + " ORDER BY user_id LIMIT ? FOR UPDATE",
+            Integer.class, cutoff, cutoff, batchSize);
+        if (userIds.isEmpty()) {
+            return 0;
+        }
+        String placeholders = String.join(", ", Collections.nCopies(userIds.size(), "?"));
+        Object[] args = userIds.toArray();
+        jdbcTemplate.update("INSERT INTO user_archive (" + HibernateUserDAO.ARCHIVED_COLUMNS + ") SELECT "
+            + HibernateUserDAO.ARCHIVED_COLUMNS + " FROM user WHERE user_id IN (" + placeholders + ")", args);
+        int moved = jdbcTemplate.update("DELETE FROM user WHERE user_id IN (" + placeholders + ")", args);
+        for (Integer userId : userIds) {
+            eventPublisher.publishEvent(RbacChangeEvent.of(EntityType.USER, Action.DELETED, userId));
+        }
+        return moved;
+    }
+
+    /**
+     * Ukuran tabel dari information_schema (MySQL); database lain hanya melaporkan jumlah baris
+     */
+    TableSize tableSize(String table) {
+        long rows = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Long.class);
+        try {
+            return jdbcTemplate.queryForObject(
+                "SELECT data_length, index_length FROM information_schema.TABLES "
+                + "WHERE table_schema = DATABASE() AND table_name = ?",
+                (rs, rowNum) -> new TableSize(table, rows, rs.getLong("data_length"), rs.getLong("index_length")),
+                table);
+        } catch (DataAccessException e) {
+            return new TableSize(table, rows, -1, -1);
+        }
+    }
+
+    /**
+     * Jeda antar batch; false jika thread di-interrupt (aplikasi shutdown)
+     */
+    private boolean pause() {
+        try {
+            Thread.sleep(pauseMs);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void archiveQuietly() {
+        try {
+            archiveInactiveUsers();
+        } catch (RuntimeException e) {
+            log.warn("Pengarsipan user terjadwal gagal", e);
+        }
+    }
+}
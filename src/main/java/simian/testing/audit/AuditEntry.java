@@ -0,0 +1,13 @@
+package simian.testing.audit;
+
+import java.time.Instant;
+import simian.testing.event.RbacChangeEvent;
+
+/**
+ * Satu baris audit yang menunggu ditulis ke audit_log
+ * @param event Perubahan RBAC yang sudah commit
+ * @param occurredAt Waktu commit (saat listener menerima event)
+ * @param enqueuedNanos System.nanoTime() saat masuk buffer, untuk metric lag
+ */
+public record AuditEntry(RbacChangeEvent event, Instant occurredAt, long enqueuedNanos) {
+}
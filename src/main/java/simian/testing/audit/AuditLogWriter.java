@@ -0,0 +1,233 @@
+package simian.testing.audit;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import simian.testing.event.RbacChangeEvent;
+
+/**
+ * Pipeline audit asinkron untuk semua mutasi user, role, access dan grant
+ * Event diterima setelah transaksi commit, dimasukkan ke ring buffer lock-free, lalu satu thread
+ * writer menguras buffer dan menulisnya ke tabel append-only audit_log dalam JDBC batch
+ *
+ * Transaksi bisnis tidak pernah menunggu INSERT audit (kecuali kebijakan CALLER_RUNS saat buffer penuh)
+ */
+@Component
+public class AuditLogWriter {
+
+    private static final Logger log = LoggerFactory.getLogger(AuditLogWriter.class);
+
+    private static final String INSERT_SQL =
+        "INSERT INTO audit_log (entity_type, action, entity_id, related_id, occurred_at) VALUES (?, ?, ?, ?, ?)";
+
+    private static final long BLOCK_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${simian.audit.capacity:8192}")
+    private int capacity;
+
+    @Value("${simian.audit.batch-size:200}")
+    private int batchSize;
+
+    @Value("${simian.audit.idle-wait-ms:20}")
+    private long idleWaitMs;
+
+    @Value("${simian.audit.backpressure:BLOCK}")
+    private BackpressurePolicy backpressure;
+
+    @Value("${simian.audit.block-timeout-ms:100}")
+    private long blockTimeoutMs;
+
+    @Value("${simian.audit.max-retries:3}")
+    private int maxRetries;
+
+    private AuditRingBuffer<AuditEntry> buffer;
+    private TransactionTemplate writeTemplate;
+    private Thread writerThread;
+    private volatile boolean running;
+
+    private Timer lagTimer;
+    private Timer batchTimer;
+    private Counter writtenCounter;
+    private Counter droppedCounter;
+    private Counter failedCounter;
+    private Counter callerRunsCounter;
+
+    @PostConstruct
+    void start() {
+        buffer = new AuditRingBuffer<>(capacity);
+        // Satu transaksi per batch; REQUIRES_NEW karena CALLER_RUNS menulis dari callback after-commit
+        writeTemplate = new TransactionTemplate(transactionManager);
+        writeTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        Gauge.builder("simian.audit.queue.size", buffer, AuditRingBuffer::size)
+            .description("Jumlah entry audit yang menunggu ditulis")
+            .register(meterRegistry);
+        lagTimer = Timer.builder("simian.audit.lag")
+            .description("Jeda antara commit dan entry audit tertulis")
+            .register(meterRegistry);
+        batchTimer = Timer.builder("simian.audit.batch")
+            .description("Latensi satu JDBC batch audit_log")
+            .register(meterRegistry);
+        writtenCounter = meterRegistry.counter("simian.audit.written");
+        droppedCounter = meterRegistry.counter("simian.audit.dropped");
+        failedCounter = meterRegistry.counter("simian.audit.failed");
+        callerRunsCounter = meterRegistry.counter("simian.audit.caller-runs");
+
+        running = true;
+        writerThread = new Thread(this::writeLoop, "audit-log-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    /**
+     * Menulis sisa buffer sebelum aplikasi berhenti
+     */
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(writerThread);
+        writerThread.join(TimeUnit.SECONDS.toMillis(10));
+        List<AuditEntry> batch = new ArrayList<>(batchSize);
+        while (buffer.drainTo(batch, batchSize) > 0) {
+            writeBatch(batch);
+            batch.clear();
+        }
+    }
+
+    /**
+     * Menerima event hanya setelah commit; mutasi yang di-rollback tidak pernah masuk audit
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onRbacChange(RbacChangeEvent event) {
+        enqueue(new AuditEntry(event, Instant.now(), System.nanoTime()));
+    }
+
+    /**
+     * Perkiraan jumlah entry yang belum ditulis
+     */
+    public int getPendingCount() {
+        return buffer.size();
+    }
+
+    void enqueue(AuditEntry entry) {
+        if (buffer.offer(entry)) {
+            return;
+        }
+        switch (backpressure) {
+            case DROP -> drop(entry);
+            case BLOCK -> {
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(blockTimeoutMs);
+                LockSupport.unpark(writerThread);
+                while (!buffer.offer(entry)) {
+                    if (System.nanoTime() - deadline >= 0 || Thread.currentThread().isInterrupted()) {
+                        drop(entry);
+                        return;
+                    }
+                    LockSupport.parkNanos(BLOCK_PARK_NANOS);
+                }
+            }
+            case CALLER_RUNS -> {
+                callerRunsCounter.increment();
+                writeBatch(List.of(entry));
+            }
+        }
+    }
+
+    private void drop(AuditEntry entry) {
+        droppedCounter.increment();
+        log.warn("Buffer audit penuh, entry dibuang: {}", entry.event());
+    }
+
+    private void writeLoop() {
+        List<AuditEntry> batch = new ArrayList<>(batchSize);
+        while (running) {
+            if (buffer.drainTo(batch, batchSize) == 0) {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(idleWaitMs));
+                continue;
+            }
+            try {
+                writeBatch(batch);
+            } catch (RuntimeException e) {
+                // Thread writer tidak boleh mati karena satu batch bermasalah
+                failedCounter.increment(batch.size());
+                log.error("Batch audit dibuang karena error tak terduga", e);
+            }
+            batch.clear();
+        }
+    }
+
+    /**
+     * Menulis satu batch; jika gagal, diulang dengan jeda sampai max-retries lalu dibuang dengan log error
+     */
+    private void writeBatch(List<AuditEntry> batch) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                long start = System.nanoTime();
+                writeTemplate.executeWithoutResult(status ->
+                    jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (ps, entry) -> {
+                        RbacChangeEvent event = entry.event();
+                        ps.setString(1, event.entityType().name());
+                        ps.setString(2, event.action().name());
+                        setNullableInt(ps, 3, event.entityId());
+                        setNullableInt(ps, 4, event.relatedId());
+                        ps.setTimestamp(5, Timestamp.from(entry.occurredAt()));
+                    }));
+                long now = System.nanoTime();
+                batchTimer.record(now - start, TimeUnit.NANOSECONDS);
+                for (AuditEntry entry : batch) {
+                    lagTimer.record(now - entry.enqueuedNanos(), TimeUnit.NANOSECONDS);
+                }
+                writtenCounter.increment(batch.size());
+                return;
+            } catch (DataAccessException e) {
+                if (attempt > maxRetries) {
+                    failedCounter.increment(batch.size());
+                    log.error("Gagal menulis {} entry audit setelah {} percobaan", batch.size(), attempt, e);
+                    return;
+                }
+                log.warn("Gagal menulis batch audit (percobaan {}), diulang: {}", attempt, e.getMessage());
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(idleWaitMs * attempt));
+            }
+        }
+    }
+
+    private static void setNullableInt(PreparedStatement ps, int index, Integer value) throws SQLException {
+        if (value == null) {
+            ps.setNull(index, Types.INTEGER);
+        } else {
+            ps.setInt(index, value);
+        }
+    }
+}
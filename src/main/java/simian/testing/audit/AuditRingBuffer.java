@@ -0,0 +1,119 @@
+package simian.testing.audit;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Ring buffer bounded multi-producer/multi-consumer tanpa lock (algoritma Vyukov)
+ * Setiap slot punya nomor urut: producer meng-klaim posisi tail dengan CAS lalu menerbitkan slot
+ * dengan menaikkan nomor urutnya, consumer melakukan hal yang sama pada posisi head
+ *
+ * offer dan poll tidak pernah blocking; kebijakan saat penuh ditentukan oleh pemanggil
+ * @param <T> Tipe elemen
+ */
+public class AuditRingBuffer<T> {
+
+    private final int mask;
+    private final AtomicReferenceArray<T> slots;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong head = new AtomicLong();
+
+    /**
+     * @param capacity Kapasitas, dibulatkan ke atas menjadi pangkat dua
+     */
+    public AuditRingBuffer(int capacity) {
+        if (capacity < 2) {
+            throw new IllegalArgumentException("Kapasitas ring buffer minimal 2");
+        }
+        int size = Integer.highestOneBit(capacity - 1) << 1;
+        this.mask = size - 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Menambahkan elemen
+     * @return false jika buffer penuh
+     */
+    public boolean offer(T element) {
+        long position = tail.get();
+        while (true) {
+            int index = (int) position & mask;
+            long sequence = sequences.get(index);
+            long difference = sequence - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    slots.lazySet(index, element);
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    /**
+     * Mengambil elemen tertua
+     * @return null jika buffer kosong
+     */
+    public T poll() {
+        long position = head.get();
+        while (true) {
+            int index = (int) position & mask;
+            long sequence = sequences.get(index);
+            long difference = sequence - (position + 1);
+            if (difference == 0) {
+                if (head.compareAndSet(position, position + 1)) {
+                    T element = slots.get(index);
+                    slots.lazySet(index, null);
+                    sequences.set(index, position + mask + 1);
+                    return element;
+                }
+                position = head.get();
+            } else if (difference < 0) {
+                return null;
+            } else {
+                position = head.get();
+            }
+        }
+    }
+
+    /**
+     * Memindahkan sampai maxElements elemen ke target
+     * @return Jumlah elemen yang dipindahkan
+     */
+    public int drainTo(List<? super T> target, int maxElements) {
+        int drained = 0;
+        while (drained < maxElements) {
+            T element = poll();
+            if (element == null) {
+                break;
+            }
+            target.add(element);
+            drained++;
+        }
+        return drained;
+    }
+
+    /**
+     * Perkiraan jumlah elemen (bisa sedikit meleset saat ada offer/poll bersamaan)
+     */
+    public int size() {
+        long size = tail.get() - head.get();
+        return (int) Math.max(0, Math.min(size, capacity()));
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+}
@@ -0,0 +1,22 @@
+package simian.testing.audit;
+
+/**
+ * Kebijakan saat ring buffer audit penuh
+ */
+public enum BackpressurePolicy {
+
+    /**
+     * Entry baru dibuang dan dihitung di metric simian.audit.dropped; request tidak pernah tertahan
+     */
+    DROP,
+
+    /**
+     * Thread pemanggil menunggu slot kosong sampai simian.audit.block-timeout-ms, setelah itu entry dibuang
+     */
+    BLOCK,
+
+    /**
+     * Thread pemanggil menulis entry langsung ke database (satu INSERT); tidak ada entry yang hilang
+     */
+    CALLER_RUNS
+}
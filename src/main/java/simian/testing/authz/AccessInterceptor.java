@@ -0,0 +1,122 @@
+package simian.testing.authz;
+
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+import simian.testing.service.PermissionMatcher;
+import simian.testing.snapshot.PermissionSnapshot;
+import simian.testing.snapshot.PermissionSnapshotService;
+
+/**
+ * Menegakkan {@link RequiresAccess} sebelum handler controller dijalankan
+ * Anotasi semua handler dibaca sekali saat startup menjadi map Method -> nama access,
+ * sehingga per request hanya ada lookup map, resolve principal dan probe PermissionMatcher yang sudah
+ * di-compile di memory (tanpa refleksi maupun query database selama cache permission masih berlaku)
+ *
+ * Sebelum ApplicationReadyEvent (warm-up belum selesai) pengecekan role dijawab dari snapshot permission
+ * yang di-memory-map jika tersedia, tanpa compile permission maupun query database. Request HTTP baru
+ * masuk setelah Hibernate siap (web server start di akhir refresh), jadi yang dihemat adalah jeda warm-up
+ *
+ * Request tanpa principal yang valid dijawab 401, principal yang role-nya tidak memiliki access dijawab 403
+ */
+@Component
+public class AccessInterceptor implements HandlerInterceptor, SmartInitializingSingleton {
+
+    @Autowired
+    private RequestPrincipalResolver principalResolver;
+
+    @Autowired
+    private PermissionMatcher permissionMatcher;
+
+    @Autowired
+    private PermissionSnapshotService snapshotService;
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    private volatile Map<Method, String[]> requiredAccesses = Map.of();
+
+    /**
+     * Membaca anotasi semua handler yang terdaftar di RequestMappingHandlerMapping
+     * Berjalan setelah semua singleton dibuat dan sebelum web server mulai menerima request
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        for (RequestMappingHandlerMapping mapping
+                : applicationContext.getBeansOfType(RequestMappingHandlerMapping.class).values()) {
+            register(mapping.getHandlerMethods().values());
+        }
+    }
+
+    /**
+     * Mendaftarkan access yang dibutuhkan handler-handler; hanya dipanggil saat startup
+     */
+    void register(Collection<HandlerMethod> handlers) {
+        Map<Method, String[]> result = new HashMap<>(requiredAccesses);
+        for (HandlerMethod handler : handlers) {
+            RequiresAccess annotation = handler.getMethodAnnotation(RequiresAccess.class);
+            if (annotation == null) {
+                annotation = AnnotatedElementUtils.findMergedAnnotation(handler.getBeanType(), RequiresAccess.class);
+            }
+            if (annotation == null) {
+                continue;
+            }
+            if (annotation.value().length == 0) {
+                throw new IllegalStateException("@RequiresAccess tanpa nama access di " + handler.getShortLogMessage());
+            }
+            result.put(handler.getMethod(), annotation.value().clone());
+        }
+        requiredAccesses = result;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+            throws Exception {
+        if (!(handler instanceof HandlerMethod handlerMethod)) {
+            return true;
+        }
+        String[] accessNames = requiredAccesses.get(handlerMethod.getMethod());
+        if (accessNames == null) {
+            return true;
+        }
+
+        RequestPrincipal principal = principalResolver.resolve(request);
+        if (principal == null) {
+            response.setHeader(HttpHeaders.WWW_AUTHENTICATE, "Bearer");
+            response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Capability token tidak ada atau tidak valid");
+            return false;
+        }
+        for (String accessName : accessNames) {
+            if (!isPermitted(principal.roleId(), accessName)) {
+                response.sendError(HttpServletResponse.SC_FORBIDDEN, "Role tidak memiliki access " + accessName);
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean isPermitted(Integer roleId, String accessName) {
+        PermissionSnapshot snapshot = snapshotService.snapshotForCheck();
+        if (snapshot != null) {
+            return snapshot.roleHasAccess(roleId, accessName);
+        }
+        try {
+            return permissionMatcher.hasAccess(roleId, accessName);
+        } catch (IllegalArgumentException e) {
+            // Role di token sudah dihapus
+            return false;
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package simian.testing.authz;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Mendaftarkan AccessInterceptor ke Spring MVC
+ */
+@Configuration
+public class AuthorizationConfig implements WebMvcConfigurer {
+
+    @Autowired
+    private AccessInterceptor accessInterceptor;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(accessInterceptor);
+    }
+}
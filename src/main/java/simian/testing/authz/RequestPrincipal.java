@@ -0,0 +1,15 @@
+package simian.testing.authz;
+
+import java.time.Instant;
+
+/**
+ * User yang melakukan request, hasil verifikasi capability token di header Authorization
+ * Tersedia untuk controller lewat {@code @RequestAttribute(RequestPrincipal.ATTRIBUTE)}
+ * @param userId ID user
+ * @param roleId ID role user saat request di-resolve (bukan role yang tertulis di token)
+ * @param expiresAt Waktu kedaluwarsa token
+ */
+public record RequestPrincipal(Integer userId, Integer roleId, Instant expiresAt) {
+
+    public static final String ATTRIBUTE = RequestPrincipal.class.getName();
+}
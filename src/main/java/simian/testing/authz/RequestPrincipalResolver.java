@@ -0,0 +1,157 @@
+package simian.testing.authz;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import simian.testing.event.RbacChangeEvent;
+import simian.testing.service.UserActivityTracker;
+import simian.testing.snapshot.PermissionSnapshot;
+import simian.testing.snapshot.PermissionSnapshotService;
+import simian.testing.token.CapabilityToken;
+import simian.testing.token.CapabilityTokenIssuer;
+
+/**
+ * Menentukan user sebuah request dari header {@code Authorization: Bearer <capability token>}
+ * Token yang sudah lolos verifikasi tanda tangan disimpan di memory sampai kedaluwarsa, sehingga request berikutnya
+ * dengan token yang sama cukup satu lookup map tanpa verifikasi Ed25519 maupun database
+ *
+ * Token hanya membuktikan identitas user. Role dan status aktif diambil dari state user di memory yang
+ * dibuang setiap kali event USER commit, sehingga user yang dinonaktifkan, diarsipkan atau dipindah role
+ * langsung kehilangan access lamanya walaupun tokennya belum kedaluwarsa.
+ * Setiap state membawa generation saat mulai dibaca dan hanya dipakai selama generation itu masih berlaku.
+ * Sebelum aplikasi siap, role user dibaca dari snapshot permission jika tersedia
+ *
+ * Setiap request dengan principal valid dicatat sebagai aktivitas user di UserActivityTracker (write-behind,
+ * tanpa write ke database di jalur request)
+ */
+@Component
+public class RequestPrincipalResolver {
+
+    private static final String BEARER = "Bearer ";
+
+    private static final String USER_STATE_SQL = "SELECT role_id FROM user WHERE user_id = ? AND is_active = 1";
+
+    @Autowired
+    private CapabilityTokenIssuer tokenIssuer;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PermissionSnapshotService snapshotService;
+
+    @Autowired
+    private UserActivityTracker activityTracker;
+
+    @Value("${simian.authz.principal-cache-size:10000}")
+    private int cacheSize;
+
+    private final Map<String, VerifiedToken> verifiedTokens = new ConcurrentHashMap<>();
+    private final Map<Integer, UserState> userStates = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+
+    /**
+     * Principal request, di-resolve sekali per request lalu disimpan sebagai request attribute
+     * @return Principal dengan role user saat ini, atau null jika header tidak ada, token tidak valid,
+     *         sudah kedaluwarsa atau usernya sudah tidak aktif
+     */
+    public RequestPrincipal resolve(HttpServletRequest request) {
+        Object resolved = request.getAttribute(RequestPrincipal.ATTRIBUTE);
+        if (resolved != null) {
+            return (RequestPrincipal) resolved;
+        }
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (header == null || !header.regionMatches(true, 0, BEARER, 0, BEARER.length())) {
+            return null;
+        }
+        String token = header.substring(BEARER.length()).trim();
+
+        VerifiedToken verified = verifiedTokens.get(token);
+        if (verified != null && verified.expiresAt().toEpochMilli() <= System.currentTimeMillis()) {
+            verifiedTokens.remove(token);
+            return null;
+        }
+        if (verified == null) {
+            verified = verify(token);
+            if (verified == null) {
+                return null;
+            }
+            // Batas kasar jumlah token di memory; token yang masih berlaku cukup diverifikasi ulang
+            if (verifiedTokens.size() >= cacheSize) {
+                verifiedTokens.clear();
+            }
+            verifiedTokens.put(token, verified);
+        }
+
+        Integer roleId = currentRoleOf(verified.userId());
+        if (roleId == null) {
+            return null;
+        }
+        RequestPrincipal principal = new RequestPrincipal(verified.userId(), roleId, verified.expiresAt());
+        request.setAttribute(RequestPrincipal.ATTRIBUTE, principal);
+        activityTracker.recordActivity(principal.userId());
+        return principal;
+    }
+
+    /**
+     * Membuang state user setelah user dibuat, diubah, dinonaktifkan, dipindah role, dihapus atau diarsipkan commit
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRbacChange(RbacChangeEvent event) {
+        if (event.entityType() == RbacChangeEvent.EntityType.USER) {
+            generation.incrementAndGet();
+            userStates.remove(event.entityId());
+        }
+    }
+
+    private Integer currentRoleOf(Integer userId) {
+        PermissionSnapshot snapshot = snapshotService.currentSnapshot();
+        if (snapshot != null) {
+            int roleId = snapshot.findRoleOfUser(userId);
+            return roleId < 0 ? null : roleId;
+        }
+        long currentGeneration = generation.get();
+        UserState cached = userStates.get(userId);
+        if (cached != null && cached.generation() == currentGeneration) {
+            return cached.roleId();
+        }
+        List<Integer> roleIds = jdbcTemplate.queryForList(USER_STATE_SQL, Integer.class, userId);
+        UserState loaded = new UserState(roleIds.isEmpty() ? null : roleIds.get(0), currentGeneration);
+        if (userStates.size() >= cacheSize) {
+            userStates.clear();
+        }
+        userStates.merge(userId, loaded,
+            (existing, built) -> existing.generation() >= built.generation() ? existing : built);
+        return loaded.roleId();
+    }
+
+    private VerifiedToken verify(String token) {
+        try {
+            CapabilityToken verified = tokenIssuer.verify(token);
+            return new VerifiedToken(verified.getUserId(), verified.getExpiresAt());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Identitas dari token yang tanda tangannya sudah diverifikasi
+     */
+    private record VerifiedToken(Integer userId, Instant expiresAt) {
+    }
+
+    /**
+     * Role user aktif (null jika user tidak ada atau tidak aktif) beserta generation saat mulai dibaca
+     */
+    private record UserState(Integer roleId, long generation) {
+    }
+}
@@ -0,0 +1,27 @@
+package simian.testing.authz;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Menandai method (atau semua method) controller yang hanya boleh dipanggil user dengan access tertentu
+ * Diperiksa oleh AccessInterceptor sebelum handler dijalankan; anotasi di method menggantikan anotasi di class
+ * <pre>
+ * &#64;RequiresAccess("CREATE_PROJECT_ORDER")
+ * &#64;PostMapping("/project-orders")
+ * public ProjectOrder create(...)
+ * </pre>
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface RequiresAccess {
+
+    /**
+     * Nama access (access_name) yang wajib dimiliki role user; jika lebih dari satu, semuanya wajib
+     */
+    String[] value();
+}
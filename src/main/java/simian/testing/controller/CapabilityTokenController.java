@@ -0,0 +1,81 @@
+package simian.testing.controller;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import simian.testing.authz.RequestPrincipal;
+import simian.testing.authz.RequestPrincipalResolver;
+import simian.testing.service.UserActivityTracker;
+import simian.testing.token.CapabilityTokenIssuer;
+import simian.testing.token.CapabilityTokenIssuer.IssuedToken;
+
+/**
+ * REST endpoint penerbitan capability token
+ * Service downstream menyimpan token dan memverifikasinya sendiri (CapabilityTokenVerifier)
+ * alih-alih menanyakan "boleh user X melakukan Y" ke aplikasi ini di setiap request
+ *
+ * Token hanya diterbitkan untuk pemanggil yang terautentikasi: user memperbarui tokennya sendiri dengan
+ * bearer token yang masih berlaku, sedangkan penerbitan atas nama user lain wajib membawa credential service
+ */
+@RestController
+@RequestMapping("/api/tokens")
+public class CapabilityTokenController {
+
+    public static final String SERVICE_KEY_HEADER = "X-Simian-Service-Key";
+
+    @Autowired
+    private CapabilityTokenIssuer tokenIssuer;
+
+    @Autowired
+    private RequestPrincipalResolver principalResolver;
+
+    @Autowired
+    private UserActivityTracker activityTracker;
+
+    /**
+     * Menerbitkan token baru untuk user pemilik bearer token request ini
+     * Role dan status aktif dibaca ulang, sehingga perpindahan role langsung terlihat di token baru
+     */
+    @PostMapping("/self")
+    public IssuedToken refresh(HttpServletRequest request) {
+        RequestPrincipal principal = principalResolver.resolve(request);
+        if (principal == null) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Capability token tidak ada atau tidak valid");
+        }
+        return issue(principal.userId());
+    }
+
+    /**
+     * Menerbitkan token untuk user aktif atas permintaan service internal setelah user login
+     * Penerbitan yang berhasil dicatat sebagai login user
+     * @param userId ID user
+     * @param serviceKey Credential service, harus sama dengan simian.token.service-key
+     */
+    @PostMapping("/users/{userId}")
+    public IssuedToken issueForUser(@PathVariable Integer userId,
+            @RequestHeader(name = SERVICE_KEY_HEADER, required = false) String serviceKey) {
+        if (!tokenIssuer.isServiceKey(serviceKey)) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Credential service tidak valid");
+        }
+        IssuedToken issued = issue(userId);
+        activityTracker.recordLogin(userId);
+        return issued;
+    }
+
+    private IssuedToken issue(Integer userId) {
+        if (!tokenIssuer.isEnabled()) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Capability token tidak aktif");
+        }
+        try {
+            return tokenIssuer.issue(userId);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage());
+        }
+    }
+}
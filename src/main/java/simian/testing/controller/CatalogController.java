@@ -0,0 +1,55 @@
+package simian.testing.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import simian.testing.service.CatalogCache;
+import simian.testing.service.CatalogCache.CachedJson;
+
+/**
+ * REST endpoint katalog role dan access untuk client
+ * Mengirim JSON yang sudah di-serialize dengan strong ETag; request dengan
+ * If-None-Match yang cocok dijawab 304 tanpa body
+ */
+@RestController
+@RequestMapping("/api/catalog")
+public class CatalogController {
+
+    @Autowired
+    private CatalogCache catalogCache;
+
+    /**
+     * Mengambil semua role beserta nama access-nya
+     */
+    @GetMapping("/roles")
+    public ResponseEntity<byte[]> getRoles(WebRequest request) {
+        return serve(catalogCache.getRoles(), request);
+    }
+
+    /**
+     * Mengambil semua access, atau access dalam satu module
+     * @param module Nama module (opsional)
+     */
+    @GetMapping("/accesses")
+    public ResponseEntity<byte[]> getAccesses(@RequestParam(required = false) String module, WebRequest request) {
+        return serve(catalogCache.getAccesses(module), request);
+    }
+
+    private ResponseEntity<byte[]> serve(CachedJson json, WebRequest request) {
+        if (request.checkNotModified(json.etag())) {
+            // checkNotModified sudah menyiapkan status 304 beserta header ETag
+            return null;
+        }
+        return ResponseEntity.ok()
+            .eTag(json.etag())
+            .cacheControl(CacheControl.noCache())
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(json.body());
+    }
+}
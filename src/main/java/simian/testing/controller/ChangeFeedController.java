@@ -0,0 +1,91 @@
+package simian.testing.controller;
+
+import java.time.LocalDateTime;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import simian.testing.feed.ChangeFeedService;
+import simian.testing.feed.ChangePage;
+import simian.testing.feed.GrantChange;
+import simian.testing.feed.RoleChange;
+import simian.testing.feed.Tombstone;
+import simian.testing.feed.UserChange;
+import simian.testing.feed.Watermark;
+import simian.testing.token.CapabilityTokenIssuer;
+
+/**
+ * REST endpoint change feed untuk sistem downstream
+ * Consumer menyimpan "next" dari response dan mengirimkannya kembali sebagai since/afterId
+ * sampai hasMore bernilai false
+ *
+ * Feed berisi data pribadi user, sehingga setiap endpoint wajib membawa header X-Simian-Service-Key
+ * sama dengan simian.token.service-key (403 jika salah atau property kosong)
+ */
+@RestController
+@RequestMapping("/api/changes")
+public class ChangeFeedController {
+
+    private static final String DEFAULT_LIMIT = "500";
+
+    @Autowired
+    private ChangeFeedService changeFeedService;
+
+    @Autowired
+    private CapabilityTokenIssuer tokenIssuer;
+
+    @GetMapping("/users")
+    public ChangePage<UserChange> getUserChanges(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since,
+            @RequestParam(defaultValue = "0") long afterId,
+            @RequestParam(defaultValue = DEFAULT_LIMIT) int limit,
+            @RequestHeader(name = CapabilityTokenController.SERVICE_KEY_HEADER, required = false) String serviceKey) {
+        requireServiceKey(serviceKey);
+        return changeFeedService.getUserChanges(watermark(since, afterId), limit);
+    }
+
+    @GetMapping("/roles")
+    public ChangePage<RoleChange> getRoleChanges(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since,
+            @RequestParam(defaultValue = "0") long afterId,
+            @RequestParam(defaultValue = DEFAULT_LIMIT) int limit,
+            @RequestHeader(name = CapabilityTokenController.SERVICE_KEY_HEADER, required = false) String serviceKey) {
+        requireServiceKey(serviceKey);
+        return changeFeedService.getRoleChanges(watermark(since, afterId), limit);
+    }
+
+    @GetMapping("/grants")
+    public ChangePage<GrantChange> getGrantChanges(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since,
+            @RequestParam(defaultValue = "0") long afterId,
+            @RequestParam(defaultValue = DEFAULT_LIMIT) int limit,
+            @RequestHeader(name = CapabilityTokenController.SERVICE_KEY_HEADER, required = false) String serviceKey) {
+        requireServiceKey(serviceKey);
+        return changeFeedService.getGrantChanges(watermark(since, afterId), limit);
+    }
+
+    @GetMapping("/tombstones")
+    public ChangePage<Tombstone> getTombstones(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since,
+            @RequestParam(defaultValue = "0") long afterId,
+            @RequestParam(defaultValue = DEFAULT_LIMIT) int limit,
+            @RequestHeader(name = CapabilityTokenController.SERVICE_KEY_HEADER, required = false) String serviceKey) {
+        requireServiceKey(serviceKey);
+        return changeFeedService.getTombstones(watermark(since, afterId), limit);
+    }
+
+    private void requireServiceKey(String serviceKey) {
+        if (!tokenIssuer.isServiceKey(serviceKey)) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Credential service tidak valid");
+        }
+    }
+
+    private static Watermark watermark(LocalDateTime since, long afterId) {
+        return since != null ? new Watermark(since, afterId) : null;
+    }
+}
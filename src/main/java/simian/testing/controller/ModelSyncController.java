@@ -0,0 +1,27 @@
+package simian.testing.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import simian.testing.feed.ModelDelta;
+import simian.testing.feed.ModelSyncService;
+
+/**
+ * REST endpoint delta sync model role/access
+ * Client menyimpan "version" dari response dan mengirimkannya kembali sebagai since;
+ * tanpa since (request pertama) response berisi snapshot penuh
+ */
+@RestController
+@RequestMapping("/api/model")
+public class ModelSyncController {
+
+    @Autowired
+    private ModelSyncService modelSyncService;
+
+    @GetMapping("/changes")
+    public ModelDelta getChanges(@RequestParam(required = false) Long since) {
+        return modelSyncService.getChangesSince(since);
+    }
+}
@@ -0,0 +1,49 @@
+package simian.testing.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import simian.testing.snapshot.SnapshotExportService;
+import simian.testing.snapshot.SnapshotWireWriter;
+import simian.testing.token.CapabilityTokenIssuer;
+
+/**
+ * REST endpoint snapshot lengkap user, role dan permission untuk service internal
+ * Dikirim dalam format biner SnapshotWireWriter dan di-stream langsung dari database;
+ * consumer membacanya dengan SnapshotWireReader
+ *
+ * Snapshot berisi username, email dan nama semua user, sehingga hanya dilayani untuk service internal
+ * yang membawa header X-Simian-Service-Key sama dengan simian.token.service-key
+ */
+@RestController
+@RequestMapping("/api/snapshots")
+public class SnapshotController {
+
+    @Autowired
+    private SnapshotExportService snapshotExportService;
+
+    @Autowired
+    private CapabilityTokenIssuer tokenIssuer;
+
+    @GetMapping("/full")
+    public ResponseEntity<StreamingResponseBody> getFullSnapshot(
+            @RequestHeader(name = CapabilityTokenController.SERVICE_KEY_HEADER, required = false) String serviceKey) {
+        // Dicek sebelum body mulai di-stream, agar penolakan masih bisa dikirim sebagai status 403
+        if (!tokenIssuer.isServiceKey(serviceKey)) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Credential service tidak valid");
+        }
+        return ResponseEntity.ok()
+            .cacheControl(CacheControl.noStore())
+            .contentType(MediaType.parseMediaType(SnapshotWireWriter.MEDIA_TYPE))
+            .header("X-Snapshot-Format-Version", String.valueOf(SnapshotWireWriter.FORMAT_VERSION))
+            .body(snapshotExportService::export);
+    }
+}
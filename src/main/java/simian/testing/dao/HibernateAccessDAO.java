@@ -0,0 +1,111 @@
+package simian.testing.dao;
+
+import java.util.List;
+import java.util.Optional;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.query.Query;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import simian.testing.entity.Access;
+
+/**
+ * Implementasi AccessDAO dengan Hibernate (MySQL)
+ */
+@Repository
+@Transactional
+public class HibernateAccessDAO implements AccessDAO {
+
+    @Autowired
+    private SessionFactory sessionFactory;
+
+    @Override
+    public Integer create(Access access) {
+        Session session = sessionFactory.getCurrentSession();
+        session.persist(access);
+        return access.getAccessId();
+    }
+
+    @Override
+    public Optional<Access> read(Integer accessId) {
+        Session session = sessionFactory.getCurrentSession();
+        Access access = session.find(Access.class, accessId);
+        return Optional.ofNullable(access);
+    }
+
+    @Override
+    public void update(Access access) {
+        Session session = sessionFactory.getCurrentSession();
+        session.merge(access);
+    }
+
+    @Override
+    public void delete(Integer accessId) {
+        Session session = sessionFactory.getCurrentSession();
+        Access access = session.find(Access.class, accessId);
+        if (access != null) {
+            session.remove(access);
+        }
+    }
+
+    @Override
+    public List<Access> getAll() {
+        Session session = sessionFactory.getCurrentSession();
+        Query<Access> query = session.createQuery("FROM Access", Access.class);
+        return query.list();
+    }
+
+    @Override
+    public Optional<Access> findByName(String accessName) {
+        Session session = sessionFactory.getCurrentSession();
+        Query<Access> query = session.createQuery("FROM Access WHERE accessName = :accessName", Access.class);
+        query.setParameter("accessName", accessName);
+        return query.uniqueResultOptional();
+    }
+
+    @Override
+    public List<Access> findByModule(String moduleName) {
+        Session session = sessionFactory.getCurrentSession();
+        Query<Access> query = session.createQuery(
+            "FROM Access WHERE moduleName = :moduleName", Access.class);
+        query.setParameter("moduleName", moduleName);
+        return query.list();
+    }
+
+    @Override
+    public List<Access> findByActionType(String actionType) {
+        Session session = sessionFactory.getCurrentSession();
+        Query<Access> query = session.createQuery(
+            "FROM Access WHERE actionType = :actionType", Access.class);
+        query.setParameter("actionType", actionType);
+        return query.list();
+    }
+
+    @Override
+    public boolean exists(Integer accessId) {
+        Session session = sessionFactory.getCurrentSession();
+        Query<Long> query = session.createQuery(
+            "SELECT COUNT(*) FROM Access WHERE accessId = :accessId", Long.class);
+        query.setParameter("accessId", accessId);
+        return query.uniqueResult() > 0;
+    }
+
+    @Override
+    public boolean existsByName(String accessName) {
+        Session session = sessionFactory.getCurrentSession();
+        Query<Long> query = session.createQuery(
+            "SELECT COUNT(*) FROM Access WHERE accessName = :accessName", Long.class);
+        query.setParameter("accessName", accessName);
+        return query.uniqueResult() > 0;
+    }
+
+    @Override
+    public List<Access> findAccessesByRole(Integer roleId) {
+        Session session = sessionFactory.getCurrentSession();
+        Query<Access> query = session.createQuery(
+            "SELECT a FROM Access a JOIN a.roles r WHERE r.roleId = :roleId", Access.class);
+        query.setParameter("roleId", roleId);
+        return query.list();
+    }
+}
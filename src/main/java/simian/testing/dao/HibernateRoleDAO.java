@@ -0,0 +1,121 @@
+package simian.testing.dao;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import org.hibernate.BatchSize;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.query.Query;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import simian.testing.entity.Role;
+
+/**
+ * Implementasi RoleDAO dengan Hibernate (MySQL)
+ */
+@Repository
+@Transactional
+public class HibernateRoleDAO implements RoleDAO {
+
+    @Autowired
+    private SessionFactory sessionFactory;
+
+    @Override
+    public Integer create(Role role) {
+        Session session = sessionFactory.getCurrentSession();
+        session.persist(role);
+        return role.getRoleId();
+    }
+
+    @Override
+    public Optional<Role> read(Integer roleId) {
+        Session session = sessionFactory.getCurrentSession();
+        Role role = session.find(Role.class, roleId);
+        return Optional.ofNullable(role);
+    }
+
+    /**
+     * Multi-load Hibernate, satu IN-list per CHUNK_SIZE ID
+     */
+    @Override
+    public List<Role> readAll(Collection<Integer> roleIds) {
+        Session session = sessionFactory.getCurrentSession();
+        List<Role> result = new ArrayList<>(roleIds.size());
+        for (List<Integer> chunk : InLists.chunks(roleIds)) {
+            for (Role role : session.findMultiple(Role.class, chunk, new BatchSize(InLists.CHUNK_SIZE))) {
+                if (role != null) {
+                    result.add(role);
+                }
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public void update(Role role) {
+        Session session = sessionFactory.getCurrentSession();
+        session.merge(role);
+    }
+
+    @Override
+    public void delete(Integer roleId) {
+        Session session = sessionFactory.getCurrentSession();
+        Role role = session.find(Role.class, roleId);
+        if (role != null) {
+            session.remove(role);
+        }
+    }
+
+    @Override
+    public List<Role> getAll() {
+        Session session = sessionFactory.getCurrentSession();
+        Query<Role> query = session.createQuery("FROM Role", Role.class);
+        return query.list();
+    }
+
+    @Override
+    public Optional<Role> findByName(String roleName) {
+        Session session = sessionFactory.getCurrentSession();
+        Query<Role> query = session.createQuery("FROM Role WHERE roleName = :roleName", Role.class);
+        query.setParameter("roleName", roleName);
+        return query.uniqueResultOptional();
+    }
+
+    @Override
+    public boolean exists(Integer roleId) {
+        Session session = sessionFactory.getCurrentSession();
+        Query<Long> query = session.createQuery(
+            "SELECT COUNT(*) FROM Role WHERE roleId = :roleId", Long.class);
+        query.setParameter("roleId", roleId);
+        return query.uniqueResult() > 0;
+    }
+
+    @Override
+    public boolean existsByName(String roleName) {
+        Session session = sessionFactory.getCurrentSession();
+        Query<Long> query = session.createQuery(
+            "SELECT COUNT(*) FROM Role WHERE roleName = :roleName", Long.class);
+        query.setParameter("roleName", roleName);
+        return query.uniqueResult() > 0;
+    }
+
+    @Override
+    public Long getUserCountByRole(Integer roleId) {
+        Session session = sessionFactory.getCurrentSession();
+        Query<Long> query = session.createQuery(
+            "SELECT COUNT(*) FROM User WHERE role.roleId = :roleId", Long.class);
+        query.setParameter("roleId", roleId);
+        return query.uniqueResult();
+    }
+
+    @Override
+    public Long getArchivedUserCountByRole(Integer roleId) {
+        Session session = sessionFactory.getCurrentSession();
+        return session.createNativeQuery("SELECT COUNT(*) FROM user_archive WHERE role_id = :roleId", Long.class)
+            .setParameter("roleId", roleId)
+            .uniqueResult();
+    }
+}
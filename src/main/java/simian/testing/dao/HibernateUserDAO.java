@@ -0,0 +1,210 @@
+package simian.testing.dao;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import org.hibernate.BatchSize;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.query.Query;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import simian.testing.dto.UserSummary;
+import simian.testing.entity.User;
+
+/**
+ * Implementasi UserDAO dengan Hibernate (MySQL)
+ */
+@Repository
+@Transactional
+public class HibernateUserDAO implements UserDAO {
+
+    /**
+     * Kolom yang dipindahkan antara tabel user dan user_archive
+     */
+    public static final String ARCHIVED_COLUMNS = "user_id, username, email, password, first_name, last_name, "
+        + "is_active, role_id, last_login_date, last_activity_date, version, created_date, updated_date";
+
+    @Autowired
+    private SessionFactory sessionFactory;
+
+    @Override
+    public Integer create(User user) {
+        Session session = sessionFactory.getCurrentSession();
+        session.persist(user);
+        return user.getUserId();
+    }
+
+    @Override
+    public Optional<User> read(Integer userId) {
+        Session session = sessionFactory.getCurrentSession();
+        User user = session.find(User.class, userId);
+        return Optional.ofNullable(user);
+    }
+
+    /**
+     * Multi-load Hibernate, satu IN-list per CHUNK_SIZE ID; user yang sudah ada di session tidak di-query ulang
+     */
+    @Override
+    public List<User> readAll(Collection<Integer> userIds) {
+        Session session = sessionFactory.getCurrentSession();
+        List<User> result = new ArrayList<>(userIds.size());
+        for (List<Integer> chunk : InLists.chunks(userIds)) {
+            for (User user : session.findMultiple(User.class, chunk, new BatchSize(InLists.CHUNK_SIZE))) {
+                if (user != null) {
+                    result.add(user);
+                }
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public void update(User user) {
+        Session session = sessionFactory.getCurrentSession();
+        session.merge(user);
+    }
+
+    @Override
+    public void delete(Integer userId) {
+        Session session = sessionFactory.getCurrentSession();
+        User user = session.find(User.class, userId);
+        if (user != null) {
+            session.remove(user);
+        }
+    }
+
+    @Override
+    public List<User> getAll() {
+        Session session = sessionFactory.getCurrentSession();
+        Query<User> query = session.createQuery("FROM User", User.class);
+        return query.list();
+    }
+
+    @Override
+    public Optional<User> findByUsername(String username) {
+        Session session = sessionFactory.getCurrentSession();
+        Query<User> query = session.createQuery("FROM User WHERE username = :username", User.class);
+        query.setParameter("username", username);
+        return query.uniqueResultOptional();
+    }
+
+    @Override
+    public Optional<User> findByEmail(String email) {
+        Session session = sessionFactory.getCurrentSession();
+        Query<User> query = session.createQuery("FROM User WHERE email = :email", User.class);
+        query.setParameter("email", email);
+        return query.uniqueResultOptional();
+    }
+
+    @Override
+    public List<User> findByRole(Integer roleId) {
+        Session session = sessionFactory.getCurrentSession();
+        Query<User> query = session.createQuery("FROM User WHERE role.roleId = :roleId", User.class);
+        query.setParameter("roleId", roleId);
+        return query.list();
+    }
+
+    /**
+     * Satu IN-list per CHUNK_SIZE roleId
+     */
+    @Override
+    public List<User> findByRoles(Collection<Integer> roleIds) {
+        Session session = sessionFactory.getCurrentSession();
+        List<User> result = new ArrayList<>();
+        for (List<Integer> chunk : InLists.chunks(roleIds)) {
+            result.addAll(session.createQuery(
+                    "SELECT u FROM User u JOIN FETCH u.role r WHERE r.roleId IN (:roleIds) ORDER BY r.roleId, u.userId",
+                    User.class)
+                .setParameterList("roleIds", chunk)
+                .list());
+        }
+        return result;
+    }
+
+    @Override
+    public List<User> findActiveByRole(Integer roleId) {
+        Session session = sessionFactory.getCurrentSession();
+        Query<User> query = session.createQuery(
+            "FROM User WHERE role.roleId = :roleId AND isActive = 1", User.class);
+        query.setParameter("roleId", roleId);
+        return query.list();
+    }
+
+    /**
+     * Projection, tanpa memuat entity
+     */
+    @Override
+    public List<UserSummary> findSummariesByIds(Collection<Integer> userIds) {
+        Session session = sessionFactory.getCurrentSession();
+        List<UserSummary> result = new ArrayList<>(userIds.size());
+        for (List<Integer> chunk : InLists.chunks(userIds)) {
+            Query<UserSummary> query = session.createQuery(
+                "SELECT new simian.testing.dto.UserSummary(userId, username, email, firstName, lastName, role.roleId) "
+                + "FROM User WHERE userId IN (:userIds) ORDER BY userId", UserSummary.class);
+            query.setParameterList("userIds", chunk);
+            result.addAll(query.list());
+        }
+        if (result.size() > InLists.CHUNK_SIZE) {
+            // Setiap chunk terurut sendiri; gabungannya diurutkan ulang
+            result.sort(Comparator.comparing(UserSummary::userId));
+        }
+        return result;
+    }
+
+    @Override
+    public List<User> findAllActive() {
+        Session session = sessionFactory.getCurrentSession();
+        Query<User> query = session.createQuery("FROM User WHERE isActive = 1", User.class);
+        return query.list();
+    }
+
+    /**
+     * Kedua tabel dibaca dalam satu statement (snapshot yang sama), sehingga user yang sedang dipindahkan
+     * UserArchiver selalu terlihat di salah satunya
+     */
+    @Override
+    public boolean existsByUsername(String username) {
+        return existsInUserOrArchive("username", username);
+    }
+
+    @Override
+    public boolean existsByEmail(String email) {
+        return existsInUserOrArchive("email", email);
+    }
+
+    @Override
+    public boolean restoreFromArchive(Integer userId) {
+        Session session = sessionFactory.getCurrentSession();
+        // Kunci baris arsip agar dua pemulihan bersamaan tidak sama-sama meng-INSERT
+        List<Integer> archived = session.createNativeQuery(
+                "SELECT user_id FROM user_archive WHERE user_id = :userId FOR UPDATE", Integer.class)
+            .setParameter("userId", userId)
+            .list();
+        if (archived.isEmpty()) {
+            return false;
+        }
+        session.createNativeMutationQuery(
+                "INSERT INTO user (" + ARCHIVED_COLUMNS + ") SELECT " + ARCHIVED_COLUMNS
+                + " FROM user_archive WHERE user_id = :userId")
+            .setParameter("userId", userId)
+            .executeUpdate();
+        session.createNativeMutationQuery("DELETE FROM user_archive WHERE user_id = :userId")
+            .setParameter("userId", userId)
+            .executeUpdate();
+        return true;
+    }
+
+    private boolean existsInUserOrArchive(String column, String value) {
+        Session session = sessionFactory.getCurrentSession();
+        Long count = session.createNativeQuery(
+                "SELECT (SELECT COUNT(*) FROM user WHERE " + column + " = :value) "
+                + "+ (SELECT COUNT(*) FROM user_archive WHERE " + column + " = :value)", Long.class)
+            .setParameter("value", value)
+            .uniqueResult();
+        return count > 0;
+    }
+}
@@ -0,0 +1,32 @@
+package simian.testing.dao;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+/**
+ * Pemecah daftar ID untuk query IN
+ * Satu IN-list dibatasi CHUNK_SIZE parameter agar tetap di bawah batas parameter database/driver
+ * dan rencana query tetap di-cache (jumlah variasi panjang IN-list terbatas)
+ */
+final class InLists {
+
+    static final int CHUNK_SIZE = 500;
+
+    private InLists() {
+    }
+
+    /**
+     * ID unik (urutan input dipertahankan, null dibuang) dalam potongan maksimal CHUNK_SIZE
+     */
+    static <T> List<List<T>> chunks(Collection<T> ids) {
+        List<T> distinct = new ArrayList<>(new LinkedHashSet<>(ids));
+        distinct.removeIf(id -> id == null);
+        List<List<T>> chunks = new ArrayList<>((distinct.size() + CHUNK_SIZE - 1) / CHUNK_SIZE);
+        for (int from = 0; from < distinct.size(); from += CHUNK_SIZE) {
+            chunks.add(distinct.subList(from, Math.min(from + CHUNK_SIZE, distinct.size())));
+        }
+        return chunks;
+    }
+}
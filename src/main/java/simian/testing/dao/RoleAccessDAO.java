@@ -0,0 +1,158 @@
+package simian.testing.dao;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.query.MutationQuery;
+import org.hibernate.query.Query;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import simian.testing.entity.GrantClock;
+import simian.testing.entity.RoleAccess;
+
+/**
+ * DAO (Data Access Object) untuk RoleAccess Entity
+ * Menulis dan mengecek grant role-access per baris tanpa me-load koleksi Role.accesses
+ */
+@Repository
+@Transactional
+public class RoleAccessDAO {
+
+    /**
+     * Grant sementara yang sudah lewat validUntil dianggap tidak ada, meskipun barisnya belum dihapus scheduler
+     */
+    private static final String GRANT_VALID = "(validUntil IS NULL OR validUntil > :now)";
+
+    private static final String GRANT_LAPSED = "validUntil IS NOT NULL AND validUntil <= :now";
+
+    /**
+     * Role, access dan ketiadaan grant untuk pasangan yang sama dicek di dalam INSERT itu sendiri;
+     * created_date diisi default kolom (jam database)
+     */
+    private static final String INSERT_IF_ABSENT_SQL =
+        "INSERT INTO role_access (role_id, access_id, valid_until) "
+        + "SELECT r.role_id, a.access_id, :validUntil FROM role r JOIN access a ON a.access_id = :accessId "
+        + "WHERE r.role_id = :roleId AND NOT EXISTS "
+        + "(SELECT 1 FROM role_access ra WHERE ra.role_id = r.role_id AND ra.access_id = a.access_id)";
+
+    @Autowired
+    private SessionFactory sessionFactory;
+
+    /**
+     * Create - Menambah satu grant (satu INSERT)
+     * @param roleAccess Grant yang akan disimpan
+     * @return roleAccessId dari grant yang baru dibuat
+     */
+    public Integer create(RoleAccess roleAccess) {
+        Session session = sessionFactory.getCurrentSession();
+        session.persist(roleAccess);
+        return roleAccess.getRoleAccessId();
+    }
+
+    /**
+     * Create - Menambah grant dalam satu statement INSERT ... SELECT ... WHERE NOT EXISTS
+     * Tidak menulis apa pun jika role atau access tidak ada, atau pasangan itu sudah punya baris grant
+     * (termasuk grant sementara yang sudah lewat tetapi belum dihapus). roleAccessId tidak diisi
+     * @param roleAccess Grant yang akan disimpan
+     * @return true jika baris grant tertulis
+     */
+    public boolean createIfAbsent(RoleAccess roleAccess) {
+        Session session = sessionFactory.getCurrentSession();
+        return session.createNativeMutationQuery(INSERT_IF_ABSENT_SQL)
+            .setParameter("validUntil", roleAccess.getValidUntil(), LocalDateTime.class)
+            .setParameter("accessId", roleAccess.getAccessId())
+            .setParameter("roleId", roleAccess.getRoleId())
+            .executeUpdate() > 0;
+    }
+
+    /**
+     * Delete - Menghapus satu grant
+     * roleAccessId dibaca lebih dulu (lookup unique key) lalu baris dihapus berdasarkan ID itu,
+     * sehingga tombstone menunjuk tepat ke grant yang dihapus
+     * @param roleId ID role
+     * @param accessId ID access
+     * @return roleAccessId grant yang terhapus, atau Optional kosong jika tidak ada
+     */
+    public Optional<Integer> delete(Integer roleId, Integer accessId) {
+        Session session = sessionFactory.getCurrentSession();
+        List<Integer> roleAccessIds = session.createQuery(
+                "SELECT roleAccessId FROM RoleAccess WHERE roleId = :roleId AND accessId = :accessId", Integer.class)
+            .setParameter("roleId", roleId)
+            .setParameter("accessId", accessId)
+            .list();
+        return deleteById(session, roleAccessIds, false);
+    }
+
+    /**
+     * Menghapus grant sementara yang sudah lewat validUntil tetapi belum dihapus scheduler,
+     * agar grant baru untuk pasangan yang sama tidak bentrok dengan unique key
+     * @param roleId ID role
+     * @param accessId ID access
+     * @return roleAccessId grant yang terhapus, atau Optional kosong jika tidak ada grant yang sudah lewat
+     */
+    public Optional<Integer> deleteLapsed(Integer roleId, Integer accessId) {
+        Session session = sessionFactory.getCurrentSession();
+        List<Integer> roleAccessIds = session.createQuery(
+                "SELECT roleAccessId FROM RoleAccess WHERE roleId = :roleId AND accessId = :accessId AND " + GRANT_LAPSED,
+                Integer.class)
+            .setParameter("roleId", roleId)
+            .setParameter("accessId", accessId)
+            .setParameter("now", GrantClock.now())
+            .list();
+        return deleteById(session, roleAccessIds, true);
+    }
+
+    /**
+     * Menghapus grant hasil lookup; baris yang sudah dihapus transaksi lain di antaranya dianggap tidak ada
+     */
+    private Optional<Integer> deleteById(Session session, List<Integer> roleAccessIds, boolean lapsedOnly) {
+        if (roleAccessIds.isEmpty()) {
+            return Optional.empty();
+        }
+        Integer roleAccessId = roleAccessIds.get(0);
+        MutationQuery delete = session.createMutationQuery("DELETE FROM RoleAccess WHERE roleAccessId = :roleAccessId"
+            + (lapsedOnly ? " AND " + GRANT_LAPSED : ""));
+        delete.setParameter("roleAccessId", roleAccessId);
+        if (lapsedOnly) {
+            delete.setParameter("now", GrantClock.now());
+        }
+        return delete.executeUpdate() > 0 ? Optional.of(roleAccessId) : Optional.empty();
+    }
+
+    /**
+     * Mengecek apakah role memiliki grant access tertentu yang masih berlaku
+     * @param roleId ID role
+     * @param accessId ID access
+     * @return true jika grant sudah ada dan belum lewat validUntil
+     */
+    public boolean exists(Integer roleId, Integer accessId) {
+        Session session = sessionFactory.getCurrentSession();
+        Query<Long> query = session.createQuery(
+            "SELECT COUNT(*) FROM RoleAccess WHERE roleId = :roleId AND accessId = :accessId AND " + GRANT_VALID,
+            Long.class);
+        query.setParameter("roleId", roleId);
+        query.setParameter("accessId", accessId);
+        query.setParameter("now", GrantClock.now());
+        return query.uniqueResult() > 0;
+    }
+
+    /**
+     * Mengambil ID access yang di-grant ke role dan masih berlaku (tanpa me-load entity Access)
+     * @param roleId ID role
+     * @return Set dari accessId
+     */
+    public Set<Integer> findAccessIdsByRole(Integer roleId) {
+        Session session = sessionFactory.getCurrentSession();
+        Query<Integer> query = session.createQuery(
+            "SELECT accessId FROM RoleAccess WHERE roleId = :roleId AND " + GRANT_VALID, Integer.class);
+        query.setParameter("roleId", roleId);
+        query.setParameter("now", GrantClock.now());
+        List<Integer> accessIds = query.list();
+        return new HashSet<>(accessIds);
+    }
+}
@@ -0,0 +1,280 @@
+package simian.testing.dao;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import org.hibernate.BatchSize;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import simian.testing.entity.Access;
+import simian.testing.entity.GrantClock;
+
+/**
+ * DAO untuk hierarki role yang disimpan sebagai transitive closure (tabel role_closure)
+ * Setiap role punya baris (role, role, 0) dan satu baris untuk setiap ancestor-nya,
+ * sehingga access efektif cukup dicari dengan satu join berindeks tanpa menelusuri hierarki
+ *
+ * Perubahan hierarki dilakukan inkremental: hanya pasangan ancestor x subtree yang terdampak yang ditulis ulang
+ */
+@Repository
+@Transactional
+public class RoleHierarchyDAO {
+
+    /**
+     * Grant sementara yang sudah lewat valid_until tidak dihitung, meskipun barisnya belum dihapus scheduler
+     * Waktu dari GrantClock dikirim sebagai parameter agar konversi zona waktunya sama dengan saat valid_until ditulis
+     */
+    private static final String GRANT_VALID = "(ra.valid_until IS NULL OR ra.valid_until > :now)";
+
+    @Autowired
+    private SessionFactory sessionFactory;
+
+    /**
+     * Menambah baris closure diri sendiri untuk role baru
+     * @param roleId ID role yang baru dibuat
+     */
+    public void insertSelf(Integer roleId) {
+        Session session = sessionFactory.getCurrentSession();
+        session.createNativeMutationQuery(
+                "INSERT INTO role_closure (ancestor_id, descendant_id, depth) VALUES (:roleId, :roleId, 0)")
+            .setParameter("roleId", roleId)
+            .executeUpdate();
+    }
+
+    /**
+     * Menyambungkan subtree milik childId di bawah parentId
+     * Setiap ancestor parent (termasuk parent) dipasangkan dengan setiap anggota subtree child
+     * @param childId Root subtree yang dipindahkan (harus sudah terlepas dari parent lama)
+     * @param parentId Parent baru
+     * @return Jumlah baris closure yang ditambahkan
+     */
+    public int attach(Integer childId, Integer parentId) {
+        Session session = sessionFactory.getCurrentSession();
+        return session.createNativeMutationQuery(
+                "INSERT INTO role_closure (ancestor_id, descendant_id, depth) " +
+                "SELECT a.ancestor_id, d.descendant_id, a.depth + d.depth + 1 " +
+                "FROM role_closure a JOIN role_closure d ON a.descendant_id = :parentId AND d.ancestor_id = :childId")
+            .setParameter("parentId", parentId)
+            .setParameter("childId", childId)
+            .executeUpdate();
+    }
+
+    /**
+     * Melepas subtree milik roleId dari semua ancestor-nya; closure di dalam subtree tetap utuh
+     * @param roleId Root subtree yang dilepas
+     * @return Jumlah baris closure yang dihapus
+     */
+    public int detach(Integer roleId) {
+        List<Integer> ancestors = findAncestorIds(roleId);
+        if (ancestors.isEmpty()) {
+            return 0;
+        }
+        List<Integer> subtree = new ArrayList<>(findDescendantIds(roleId));
+        subtree.add(roleId);
+
+        Session session = sessionFactory.getCurrentSession();
+        return session.createNativeMutationQuery(
+                "DELETE FROM role_closure WHERE ancestor_id IN (:ancestors) AND descendant_id IN (:subtree)")
+            .setParameterList("ancestors", ancestors)
+            .setParameterList("subtree", subtree)
+            .executeUpdate();
+    }
+
+    /**
+     * Mengambil semua ancestor role (tanpa role itu sendiri), dari yang terdekat
+     * @param roleId ID role
+     * @return List dari roleId ancestor
+     */
+    public List<Integer> findAncestorIds(Integer roleId) {
+        Session session = sessionFactory.getCurrentSession();
+        return session.createNativeQuery(
+                "SELECT ancestor_id FROM role_closure WHERE descendant_id = :roleId AND depth > 0 ORDER BY depth",
+                Integer.class)
+            .setParameter("roleId", roleId)
+            .list();
+    }
+
+    /**
+     * Mengambil semua descendant role (tanpa role itu sendiri)
+     * @param roleId ID role
+     * @return List dari roleId descendant
+     */
+    public List<Integer> findDescendantIds(Integer roleId) {
+        Session session = sessionFactory.getCurrentSession();
+        return session.createNativeQuery(
+                "SELECT descendant_id FROM role_closure WHERE ancestor_id = :roleId AND depth > 0 ORDER BY depth",
+                Integer.class)
+            .setParameter("roleId", roleId)
+            .list();
+    }
+
+    /**
+     * Mengecek apakah ancestorId adalah ancestor dari descendantId (atau role yang sama)
+     * Dipakai untuk mencegah siklus saat mengubah parent
+     */
+    public boolean isAncestorOrSelf(Integer ancestorId, Integer descendantId) {
+        Session session = sessionFactory.getCurrentSession();
+        Long count = session.createNativeQuery(
+                "SELECT COUNT(*) FROM role_closure WHERE ancestor_id = :ancestorId AND descendant_id = :descendantId",
+                Long.class)
+            .setParameter("ancestorId", ancestorId)
+            .setParameter("descendantId", descendantId)
+            .uniqueResult();
+        return count > 0;
+    }
+
+    /**
+     * Mengunci baris role (SELECT ... FOR UPDATE) terurut roleId, sehingga transaksi yang mengunci role yang sama
+     * selalu mengantre dengan urutan yang sama
+     * @param roleIds ID role yang dikunci
+     * @return ID role yang ada, terurut
+     */
+    public List<Integer> lockRoles(Collection<Integer> roleIds) {
+        Session session = sessionFactory.getCurrentSession();
+        return session.createNativeQuery(
+                "SELECT role_id FROM role WHERE role_id IN (:roleIds) ORDER BY role_id FOR UPDATE", Integer.class)
+            .setParameterList("roleIds", new LinkedHashSet<>(roleIds))
+            .list();
+    }
+
+    /**
+     * Cek siklus untuk perubahan parent: rantai parent_role_id dari descendantId ke atas dibaca dengan locking read
+     * Closure dibaca dari snapshot transaksi dan bisa sudah basi; dengan locking read, perubahan parent bersamaan
+     * pada role mana pun di rantai ini menunggu transaksi ini selesai (atau sebaliknya), sehingga dua perubahan
+     * yang bersama-sama membentuk siklus tidak bisa sama-sama lolos
+     */
+    public boolean isAncestorOrSelfForUpdate(Integer ancestorId, Integer descendantId) {
+        Session session = sessionFactory.getCurrentSession();
+        Set<Integer> visited = new HashSet<>();
+        Integer current = descendantId;
+        while (current != null) {
+            if (current.equals(ancestorId) || !visited.add(current)) {
+                return true;
+            }
+            List<Integer> parents = session.createNativeQuery(
+                    "SELECT parent_role_id FROM role WHERE role_id = :roleId FOR UPDATE", Integer.class)
+                .setParameter("roleId", current)
+                .list();
+            current = parents.isEmpty() ? null : parents.get(0);
+        }
+        return false;
+    }
+
+    /**
+     * Menghitung jumlah child langsung dari sebuah role
+     * @param roleId ID role
+     * @return Jumlah role yang parent-nya roleId
+     */
+    public Long getChildCount(Integer roleId) {
+        Session session = sessionFactory.getCurrentSession();
+        return session.createQuery("SELECT COUNT(*) FROM Role WHERE parentRoleId = :roleId", Long.class)
+            .setParameter("roleId", roleId)
+            .uniqueResult();
+    }
+
+    /**
+     * Mengambil access efektif role: grant langsung ditambah grant semua ancestor
+     * @param roleId ID role
+     * @return List dari access efektif (tanpa duplikat)
+     */
+    public List<Access> findEffectiveAccesses(Integer roleId) {
+        Session session = sessionFactory.getCurrentSession();
+        return session.createNativeQuery(
+                "SELECT a.* FROM access a WHERE a.access_id IN (" +
+                "SELECT ra.access_id FROM role_closure c JOIN role_access ra ON ra.role_id = c.ancestor_id " +
+                "WHERE c.descendant_id = :roleId AND " + GRANT_VALID + ")",
+                Access.class)
+            .setParameter("roleId", roleId)
+            .setParameter("now", GrantClock.now())
+            .list();
+    }
+
+    /**
+     * Mengambil access efektif banyak role sekaligus
+     * Pasangan role -> accessId dibaca dengan satu query IN per CHUNK_SIZE role, lalu entity access-nya
+     * di-multi-load sekali, sehingga access yang dimiliki banyak role hanya dimuat satu kali
+     * @param roleIds Daftar roleId
+     * @return Map roleId -> access efektif (terurut accessId) untuk setiap roleId yang diminta;
+     *         role tanpa grant atau yang tidak ada mendapat list kosong
+     */
+    public Map<Integer, List<Access>> findEffectiveAccessesByRoles(Collection<Integer> roleIds) {
+        Session session = sessionFactory.getCurrentSession();
+        Map<Integer, List<Integer>> accessIdsByRole = new LinkedHashMap<>();
+        Set<Integer> accessIds = new LinkedHashSet<>();
+        for (List<Integer> chunk : InLists.chunks(roleIds)) {
+            for (Integer roleId : chunk) {
+                accessIdsByRole.put(roleId, new ArrayList<>());
+            }
+            List<Object[]> rows = session.createNativeQuery(
+                    "SELECT DISTINCT c.descendant_id, ra.access_id FROM role_closure c " +
+                    "JOIN role_access ra ON ra.role_id = c.ancestor_id " +
+                    "WHERE c.descendant_id IN (:roleIds) AND " + GRANT_VALID + " " +
+                    "ORDER BY c.descendant_id, ra.access_id",
+                    Object[].class)
+                .setParameterList("roleIds", chunk)
+                .setParameter("now", GrantClock.now())
+                .list();
+            for (Object[] row : rows) {
+                Integer accessId = ((Number) row[1]).intValue();
+                accessIdsByRole.get(((Number) row[0]).intValue()).add(accessId);
+                accessIds.add(accessId);
+            }
+        }
+
+        Map<Integer, Access> accessesById = new HashMap<>(accessIds.size() * 2);
+        for (List<Integer> chunk : InLists.chunks(accessIds)) {
+            for (Access access : session.findMultiple(Access.class, chunk, new BatchSize(InLists.CHUNK_SIZE))) {
+                if (access != null) {
+                    accessesById.put(access.getAccessId(), access);
+                }
+            }
+        }
+        Map<Integer, List<Access>> result = new LinkedHashMap<>(accessIdsByRole.size() * 2);
+        accessIdsByRole.forEach((roleId, ids) -> result.put(roleId,
+            ids.stream().map(accessesById::get).filter(Objects::nonNull).toList()));
+        return result;
+    }
+
+    /**
+     * Mengecek apakah role memiliki access (langsung atau diwarisi) berdasarkan ID access
+     */
+    public boolean hasEffectiveAccess(Integer roleId, Integer accessId) {
+        Session session = sessionFactory.getCurrentSession();
+        Long count = session.createNativeQuery(
+                "SELECT COUNT(*) FROM role_closure c JOIN role_access ra ON ra.role_id = c.ancestor_id " +
+                "WHERE c.descendant_id = :roleId AND ra.access_id = :accessId AND " + GRANT_VALID,
+                Long.class)
+            .setParameter("roleId", roleId)
+            .setParameter("now", GrantClock.now())
+            .setParameter("accessId", accessId)
+            .uniqueResult();
+        return count > 0;
+    }
+
+    /**
+     * Mengecek apakah role memiliki access (langsung atau diwarisi) berdasarkan nama access
+     */
+    public boolean hasEffectiveAccessByName(Integer roleId, String accessName) {
+        Session session = sessionFactory.getCurrentSession();
+        Long count = session.createNativeQuery(
+                "SELECT COUNT(*) FROM role_closure c JOIN role_access ra ON ra.role_id = c.ancestor_id " +
+                "JOIN access a ON a.access_id = ra.access_id " +
+                "WHERE c.descendant_id = :roleId AND a.access_name = :accessName AND " + GRANT_VALID,
+                Long.class)
+            .setParameter("roleId", roleId)
+            .setParameter("now", GrantClock.now())
+            .setParameter("accessName", accessName)
+            .uniqueResult();
+        return count > 0;
+    }
+}
@@ -0,0 +1,73 @@
+package simian.testing.dao.memory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Tabel dengan key int (ID auto increment) di atas array, tanpa boxing key maupun hashing
+ * Baca lock-free; tulis hanya di bawah write lock InMemoryStore. ID dibagikan naik mulai 1 dan tidak dipakai ulang
+ */
+final class IdTable<T> {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private volatile AtomicReferenceArray<T> slots = new AtomicReferenceArray<>(INITIAL_CAPACITY);
+    private int lastId;
+    private volatile int size;
+
+    T get(Integer id) {
+        if (id == null || id <= 0) {
+            return null;
+        }
+        AtomicReferenceArray<T> current = slots;
+        return id < current.length() ? current.get(id) : null;
+    }
+
+    int nextId() {
+        return ++lastId;
+    }
+
+    void put(int id, T value) {
+        AtomicReferenceArray<T> current = slots;
+        if (id >= current.length()) {
+            AtomicReferenceArray<T> grown = new AtomicReferenceArray<>(Math.max(id + 1, current.length() * 2));
+            for (int i = 0; i < current.length(); i++) {
+                grown.set(i, current.get(i));
+            }
+            slots = grown;
+            current = grown;
+        }
+        if (current.getAndSet(id, value) == null) {
+            size++;
+        }
+    }
+
+    T remove(int id) {
+        AtomicReferenceArray<T> current = slots;
+        T removed = id > 0 && id < current.length() ? current.getAndSet(id, null) : null;
+        if (removed != null) {
+            size--;
+        }
+        return removed;
+    }
+
+    /**
+     * Semua nilai terurut ID
+     */
+    List<T> values() {
+        AtomicReferenceArray<T> current = slots;
+        List<T> result = new ArrayList<>(size);
+        for (int i = 1; i < current.length(); i++) {
+            T value = current.get(i);
+            if (value != null) {
+                result.add(value);
+            }
+        }
+        return result;
+    }
+
+    int size() {
+        return size;
+    }
+}
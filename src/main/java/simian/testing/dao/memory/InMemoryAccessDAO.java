@@ -0,0 +1,200 @@
+package simian.testing.dao.memory;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import simian.testing.dao.AccessDAO;
+import simian.testing.dao.memory.InMemoryStore.AccessRow;
+import simian.testing.dao.memory.InMemoryStore.RoleRow;
+import simian.testing.entity.Access;
+
+/**
+ * Implementasi AccessDAO di memory
+ * accessName unik lewat indeks nama; findByModule dan findByActionType memakai indeks sekunder
+ */
+public class InMemoryAccessDAO implements AccessDAO {
+
+    private final InMemoryStore store;
+
+    public InMemoryAccessDAO(InMemoryStore store) {
+        this.store = store;
+    }
+
+    @Override
+    public Integer create(Access access) {
+        if (access.getAccessId() != null) {
+            throw new InvalidDataAccessApiUsageException(
+                "Access baru tidak boleh sudah memiliki ID " + access.getAccessId());
+        }
+        AccessRow row = store.write(() -> insert(access));
+        access.setAccessId(row.accessId());
+        access.setVersion(row.version());
+        access.setCreatedDate(row.createdDate());
+        access.setUpdatedDate(row.updatedDate());
+        return row.accessId();
+    }
+
+    @Override
+    public Optional<Access> read(Integer accessId) {
+        return Optional.ofNullable(store.accesses.get(accessId)).map(store::toAccess);
+    }
+
+    /**
+     * Seperti merge: entity tanpa ID disimpan sebagai baris baru, versi entity yang dikirim tidak diubah
+     */
+    @Override
+    public void update(Access access) {
+        store.write(() -> {
+            if (access.getAccessId() == null) {
+                return insert(access);
+            }
+            AccessRow current = store.accesses.get(access.getAccessId());
+            InMemoryStore.checkVersion(access.getVersion(), current != null ? current.version() : null,
+                Access.class, access.getAccessId());
+            AccessRow changed = new AccessRow(current.accessId(),
+                InMemoryStore.required(access.getAccessName(), "access", "access_name"),
+                access.getAccessDescription(), access.getModuleName(), access.getActionType(),
+                current.version(), current.createdDate(), current.updatedDate());
+            if (changed.equals(current)) {
+                return current;
+            }
+            String key = InMemoryStore.key(changed.accessName());
+            Integer owner = store.accessIdsByName.get(key);
+            if (owner != null && owner != current.accessId()) {
+                throw InMemoryStore.duplicate("access", "access_name", changed.accessName());
+            }
+            AccessRow row = new AccessRow(changed.accessId(), changed.accessName(), changed.accessDescription(),
+                changed.moduleName(), changed.actionType(), current.version() + 1, current.createdDate(),
+                LocalDateTime.now());
+            unindex(current);
+            store.accesses.put(row.accessId(), row);
+            index(row);
+            return row;
+        });
+    }
+
+    /**
+     * Grant access ini ikut dicabut dari semua role (ON DELETE CASCADE di role_access)
+     */
+    @Override
+    public void delete(Integer accessId) {
+        store.write(() -> {
+            AccessRow current = accessId != null ? store.accesses.remove(accessId) : null;
+            if (current != null) {
+                unindex(current);
+                for (RoleRow role : store.roles.values()) {
+                    int index = Arrays.binarySearch(role.accessIds(), accessId);
+                    if (index >= 0) {
+                        int[] remaining = new int[role.accessIds().length - 1];
+                        System.arraycopy(role.accessIds(), 0, remaining, 0, index);
+                        System.arraycopy(role.accessIds(), index + 1, remaining, index, remaining.length - index);
+                        store.roles.put(role.roleId(), new RoleRow(role.roleId(), role.roleName(),
+                            role.roleDescription(), role.parentRoleId(), remaining, role.version(),
+                            role.createdDate(), role.updatedDate()));
+                    }
+                }
+            }
+            return current;
+        });
+    }
+
+    @Override
+    public List<Access> getAll() {
+        return toAccesses(store.accesses.values());
+    }
+
+    @Override
+    public Optional<Access> findByName(String accessName) {
+        Integer accessId = accessName != null ? store.accessIdsByName.get(InMemoryStore.key(accessName)) : null;
+        return read(accessId);
+    }
+
+    @Override
+    public List<Access> findByModule(String moduleName) {
+        return findIndexed(store.accessIdsByModule, moduleName);
+    }
+
+    @Override
+    public List<Access> findByActionType(String actionType) {
+        return findIndexed(store.accessIdsByAction, actionType);
+    }
+
+    @Override
+    public boolean exists(Integer accessId) {
+        return store.accesses.get(accessId) != null;
+    }
+
+    @Override
+    public boolean existsByName(String accessName) {
+        return accessName != null && store.accessIdsByName.containsKey(InMemoryStore.key(accessName));
+    }
+
+    @Override
+    public List<Access> findAccessesByRole(Integer roleId) {
+        RoleRow role = store.roles.get(roleId);
+        if (role == null) {
+            return new ArrayList<>();
+        }
+        List<Access> result = new ArrayList<>(role.accessIds().length);
+        for (int accessId : role.accessIds()) {
+            AccessRow access = store.accesses.get(accessId);
+            if (access != null) {
+                result.add(store.toAccess(access));
+            }
+        }
+        return result;
+    }
+
+    private AccessRow insert(Access access) {
+        String name = InMemoryStore.required(access.getAccessName(), "access", "access_name");
+        if (store.accessIdsByName.containsKey(InMemoryStore.key(name))) {
+            throw InMemoryStore.duplicate("access", "access_name", name);
+        }
+        LocalDateTime now = LocalDateTime.now();
+        AccessRow row = new AccessRow(store.accesses.nextId(), name, access.getAccessDescription(),
+            access.getModuleName(), access.getActionType(), 0, now, now);
+        store.accesses.put(row.accessId(), row);
+        index(row);
+        return row;
+    }
+
+    private void index(AccessRow row) {
+        store.accessIdsByName.put(InMemoryStore.key(row.accessName()), row.accessId());
+        InMemoryStore.index(store.accessIdsByModule, row.moduleName(), row.accessId());
+        InMemoryStore.index(store.accessIdsByAction, row.actionType(), row.accessId());
+    }
+
+    private void unindex(AccessRow row) {
+        store.accessIdsByName.remove(InMemoryStore.key(row.accessName()), row.accessId());
+        InMemoryStore.unindex(store.accessIdsByModule, row.moduleName(), row.accessId());
+        InMemoryStore.unindex(store.accessIdsByAction, row.actionType(), row.accessId());
+    }
+
+    private List<Access> findIndexed(Map<String, NavigableSet<Integer>> index, String value) {
+        NavigableSet<Integer> accessIds = value != null ? index.get(InMemoryStore.key(value)) : null;
+        if (accessIds == null) {
+            return new ArrayList<>();
+        }
+        List<Access> result = new ArrayList<>(accessIds.size());
+        for (Integer accessId : accessIds) {
+            AccessRow row = store.accesses.get(accessId);
+            if (row != null) {
+                result.add(store.toAccess(row));
+            }
+        }
+        return result;
+    }
+
+    private List<Access> toAccesses(List<AccessRow> rows) {
+        List<Access> result = new ArrayList<>(rows.size());
+        for (AccessRow row : rows) {
+            result.add(store.toAccess(row));
+        }
+        return result;
+    }
+}
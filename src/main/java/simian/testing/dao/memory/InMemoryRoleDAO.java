@@ -0,0 +1,212 @@
+package simian.testing.dao.memory;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import simian.testing.dao.RoleDAO;
+import simian.testing.dao.memory.InMemoryStore.RoleRow;
+import simian.testing.dao.memory.InMemoryStore.UserRow;
+import simian.testing.entity.Access;
+import simian.testing.entity.Role;
+
+/**
+ * Implementasi RoleDAO di memory
+ * Role.accesses ikut disimpan saat create/update (pengganti RoleAccessDAO yang hanya ada di MySQL);
+ * parentRoleId dan accessId harus merujuk baris yang ada
+ */
+public class InMemoryRoleDAO implements RoleDAO {
+
+    private final InMemoryStore store;
+
+    public InMemoryRoleDAO(InMemoryStore store) {
+        this.store = store;
+    }
+
+    @Override
+    public Integer create(Role role) {
+        if (role.getRoleId() != null) {
+            throw new InvalidDataAccessApiUsageException("Role baru tidak boleh sudah memiliki ID " + role.getRoleId());
+        }
+        RoleRow row = store.write(() -> insert(role));
+        role.setRoleId(row.roleId());
+        role.setVersion(row.version());
+        role.setCreatedDate(row.createdDate());
+        role.setUpdatedDate(row.updatedDate());
+        return row.roleId();
+    }
+
+    @Override
+    public Optional<Role> read(Integer roleId) {
+        return Optional.ofNullable(store.roles.get(roleId)).map(store::toRole);
+    }
+
+    @Override
+    public List<Role> readAll(Collection<Integer> roleIds) {
+        List<Role> result = new ArrayList<>(roleIds.size());
+        for (Integer roleId : new LinkedHashSet<>(roleIds)) {
+            RoleRow row = store.roles.get(roleId);
+            if (row != null) {
+                result.add(store.toRole(row));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Seperti merge: entity tanpa ID disimpan sebagai baris baru, versi entity yang dikirim tidak diubah
+     */
+    @Override
+    public void update(Role role) {
+        store.write(() -> {
+            if (role.getRoleId() == null) {
+                return insert(role);
+            }
+            RoleRow current = store.roles.get(role.getRoleId());
+            InMemoryStore.checkVersion(role.getVersion(), current != null ? current.version() : null,
+                Role.class, role.getRoleId());
+            RoleRow changed = toRow(role, current.roleId(), current.version(), current.createdDate(),
+                current.updatedDate());
+            if (sameRow(changed, current)) {
+                return current;
+            }
+            String key = InMemoryStore.key(changed.roleName());
+            Integer owner = store.roleIdsByName.get(key);
+            if (owner != null && owner != current.roleId()) {
+                throw InMemoryStore.duplicate("role", "role_name", changed.roleName());
+            }
+            RoleRow row = new RoleRow(changed.roleId(), changed.roleName(), changed.roleDescription(),
+                changed.parentRoleId(), changed.accessIds(), current.version() + 1, current.createdDate(),
+                LocalDateTime.now());
+            store.roleIdsByName.remove(InMemoryStore.key(current.roleName()), current.roleId());
+            store.roles.put(row.roleId(), row);
+            store.roleIdsByName.put(key, row.roleId());
+            return row;
+        });
+    }
+
+    /**
+     * User dengan role ini ikut dihapus (cascade Role.users); role yang masih menjadi parent ditolak
+     */
+    @Override
+    public void delete(Integer roleId) {
+        store.write(() -> {
+            RoleRow current = store.roles.get(roleId);
+            if (current == null) {
+                return null;
+            }
+            for (RoleRow other : store.roles.values()) {
+                if (roleId.equals(other.parentRoleId())) {
+                    throw new DataIntegrityViolationException(
+                        "Role " + roleId + " masih menjadi parent role " + other.roleId());
+                }
+            }
+            NavigableSet<Integer> userIds = store.userIdsByRole.get(roleId);
+            if (userIds != null) {
+                for (Integer userId : List.copyOf(userIds)) {
+                    UserRow user = store.users.get(userId);
+                    if (user != null) {
+                        store.removeUser(user);
+                    }
+                }
+            }
+            store.roles.remove(roleId);
+            store.roleIdsByName.remove(InMemoryStore.key(current.roleName()), roleId);
+            return current;
+        });
+    }
+
+    @Override
+    public List<Role> getAll() {
+        List<RoleRow> rows = store.roles.values();
+        List<Role> result = new ArrayList<>(rows.size());
+        for (RoleRow row : rows) {
+            result.add(store.toRole(row));
+        }
+        return result;
+    }
+
+    @Override
+    public Optional<Role> findByName(String roleName) {
+        Integer roleId = roleName != null ? store.roleIdsByName.get(InMemoryStore.key(roleName)) : null;
+        return read(roleId);
+    }
+
+    @Override
+    public boolean exists(Integer roleId) {
+        return store.roles.get(roleId) != null;
+    }
+
+    @Override
+    public boolean existsByName(String roleName) {
+        return roleName != null && store.roleIdsByName.containsKey(InMemoryStore.key(roleName));
+    }
+
+    @Override
+    public Long getUserCountByRole(Integer roleId) {
+        NavigableSet<Integer> userIds = roleId != null ? store.userIdsByRole.get(roleId) : null;
+        return userIds != null ? (long) userIds.size() : 0L;
+    }
+
+    /**
+     * Tidak ada tabel arsip di memory
+     */
+    @Override
+    public Long getArchivedUserCountByRole(Integer roleId) {
+        return 0L;
+    }
+
+    private RoleRow insert(Role role) {
+        LocalDateTime now = LocalDateTime.now();
+        RoleRow checked = toRow(role, 0, 0, now, now);
+        if (store.roleIdsByName.containsKey(InMemoryStore.key(checked.roleName()))) {
+            throw InMemoryStore.duplicate("role", "role_name", checked.roleName());
+        }
+        RoleRow row = new RoleRow(store.roles.nextId(), checked.roleName(), checked.roleDescription(),
+            checked.parentRoleId(), checked.accessIds(), 0, now, now);
+        store.roles.put(row.roleId(), row);
+        store.roleIdsByName.put(InMemoryStore.key(row.roleName()), row.roleId());
+        return row;
+    }
+
+    /**
+     * Memvalidasi kolom wajib dan foreign key lalu membentuk baris dari entity
+     */
+    private RoleRow toRow(Role role, int roleId, int version, LocalDateTime createdDate, LocalDateTime updatedDate) {
+        String name = InMemoryStore.required(role.getRoleName(), "role", "role_name");
+        Integer parentRoleId = role.getParentRoleId();
+        if (parentRoleId != null && store.roles.get(parentRoleId) == null) {
+            throw new DataIntegrityViolationException("Parent role dengan ID " + parentRoleId + " tidak ada");
+        }
+        Set<Access> accesses = role.getAccesses();
+        int[] accessIds = new int[accesses != null ? accesses.size() : 0];
+        int count = 0;
+        if (accesses != null) {
+            for (Access access : accesses) {
+                Integer accessId = access.getAccessId();
+                if (accessId == null || store.accesses.get(accessId) == null) {
+                    throw new DataIntegrityViolationException("Access dengan ID " + accessId + " tidak ada");
+                }
+                accessIds[count++] = accessId;
+            }
+        }
+        accessIds = Arrays.stream(accessIds, 0, count).sorted().distinct().toArray();
+        return new RoleRow(roleId, name, role.getRoleDescription(), parentRoleId, accessIds, version, createdDate,
+            updatedDate);
+    }
+
+    private static boolean sameRow(RoleRow a, RoleRow b) {
+        return a.roleName().equals(b.roleName())
+            && Objects.equals(a.roleDescription(), b.roleDescription())
+            && Objects.equals(a.parentRoleId(), b.parentRoleId())
+            && Arrays.equals(a.accessIds(), b.accessIds());
+    }
+}
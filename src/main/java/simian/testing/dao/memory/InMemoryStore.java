@@ -0,0 +1,231 @@
+package simian.testing.dao.memory;
+
+import java.text.Normalizer;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import simian.testing.entity.Access;
+import simian.testing.entity.Role;
+import simian.testing.entity.User;
+
+/**
+ * Tabel dan indeks bersama untuk InMemoryUserDAO, InMemoryRoleDAO dan InMemoryAccessDAO
+ * Satu store = satu "database"; ketiga DAO harus memakai instance yang sama agar foreign key dan cascade konsisten
+ *
+ * Baris disimpan sebagai record immutable di IdTable (key int, tanpa boxing) dan diganti utuh setiap update.
+ * Baca tidak memakai lock dan selalu menghasilkan entity baru, sehingga pemanggil bebas mengubah hasilnya
+ * seperti entity detached. Semua tulis diserialkan lewat write(); tidak ada transaksi atau rollback,
+ * operasi yang ditolak tidak mengubah apa pun
+ *
+ * Key unik dinormalisasi mendekati utf8mb4_unicode_ci: huruf besar/kecil dan aksen diabaikan,
+ * spasi di akhir tidak dihitung
+ *
+ * Cakupan: backend ini hanya untuk test dan pemakaian embedded yang membuat store dan DAO-nya sendiri
+ * (new InMemoryUserDAO(store), ...). Sengaja tidak ada bean atau profile yang mengganti DAO Hibernate,
+ * karena grant, hierarki role, dan komponen JDBC (PermissionMatcher, AccessHolderIndex, feed, snapshot,
+ * archive, token) membaca tabel MySQL secara langsung; aplikasi yang setengah di memory akan tidak konsisten
+ */
+public final class InMemoryStore {
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{Mn}+");
+
+    final IdTable<UserRow> users = new IdTable<>();
+    final IdTable<RoleRow> roles = new IdTable<>();
+    final IdTable<AccessRow> accesses = new IdTable<>();
+
+    final Map<String, Integer> userIdsByUsername = new ConcurrentHashMap<>();
+    final Map<String, Integer> userIdsByEmail = new ConcurrentHashMap<>();
+    final Map<Integer, NavigableSet<Integer>> userIdsByRole = new ConcurrentHashMap<>();
+    final Map<String, Integer> roleIdsByName = new ConcurrentHashMap<>();
+    final Map<String, Integer> accessIdsByName = new ConcurrentHashMap<>();
+    final Map<String, NavigableSet<Integer>> accessIdsByModule = new ConcurrentHashMap<>();
+    final Map<String, NavigableSet<Integer>> accessIdsByAction = new ConcurrentHashMap<>();
+
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    <T> T write(Supplier<T> operation) {
+        writeLock.lock();
+        try {
+            return operation.get();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    static <T> T required(T value, String table, String column) {
+        if (value == null) {
+            throw new DataIntegrityViolationException("Kolom " + table + "." + column + " tidak boleh kosong");
+        }
+        return value;
+    }
+
+    static DataIntegrityViolationException duplicate(String table, String column, String value) {
+        return new DataIntegrityViolationException(
+            "Nilai " + column + " '" + value + "' sudah dipakai di tabel " + table);
+    }
+
+    /**
+     * Menolak update baris yang sudah dihapus atau dengan versi lama, sama seperti merge entity @Version
+     * @param current Versi baris saat ini, null jika baris tidak ada
+     */
+    static void checkVersion(Integer expected, Integer current, Class<?> type, Integer id) {
+        if (current == null || expected != null && !expected.equals(current)) {
+            throw new ObjectOptimisticLockingFailureException(type, id);
+        }
+    }
+
+    static String key(String value) {
+        if (value == null) {
+            return null;
+        }
+        String folded = Normalizer.normalize(value, Normalizer.Form.NFD);
+        if (folded.length() != value.length()) {
+            folded = COMBINING_MARKS.matcher(folded).replaceAll("");
+        }
+        return folded.stripTrailing().toLowerCase(Locale.ROOT);
+    }
+
+    static void index(Map<String, NavigableSet<Integer>> index, String value, int id) {
+        if (value != null) {
+            index.computeIfAbsent(key(value), k -> new ConcurrentSkipListSet<>()).add(id);
+        }
+    }
+
+    static void unindex(Map<String, NavigableSet<Integer>> index, String value, int id) {
+        if (value != null) {
+            index.computeIfPresent(key(value), (k, ids) -> {
+                ids.remove(id);
+                return ids.isEmpty() ? null : ids;
+            });
+        }
+    }
+
+    /**
+     * Dipanggil di dalam write()
+     */
+    void putUser(UserRow previous, UserRow row) {
+        if (previous != null) {
+            unindexUser(previous);
+        }
+        users.put(row.userId(), row);
+        userIdsByUsername.put(key(row.username()), row.userId());
+        userIdsByEmail.put(key(row.email()), row.userId());
+        userIdsByRole.computeIfAbsent(row.roleId(), k -> new ConcurrentSkipListSet<>()).add(row.userId());
+    }
+
+    /**
+     * Dipanggil di dalam write()
+     */
+    void removeUser(UserRow row) {
+        users.remove(row.userId());
+        unindexUser(row);
+    }
+
+    private void unindexUser(UserRow row) {
+        userIdsByUsername.remove(key(row.username()), row.userId());
+        userIdsByEmail.remove(key(row.email()), row.userId());
+        userIdsByRole.computeIfPresent(row.roleId(), (k, ids) -> {
+            ids.remove(row.userId());
+            return ids.isEmpty() ? null : ids;
+        });
+    }
+
+    /**
+     * ID unik terurut naik, null dibuang
+     */
+    static List<Integer> sortedIds(Collection<Integer> ids) {
+        return ids.stream().filter(Objects::nonNull).distinct().sorted().toList();
+    }
+
+    User toUser(UserRow row) {
+        return toUser(row, new HashMap<>());
+    }
+
+    /**
+     * @param rolesById Role yang sudah dibentuk untuk hasil yang sama; user dengan role sama berbagi satu instance
+     *                  seperti dalam satu session Hibernate
+     */
+    User toUser(UserRow row, Map<Integer, Role> rolesById) {
+        User user = new User();
+        user.setUserId(row.userId());
+        user.setUsername(row.username());
+        user.setEmail(row.email());
+        user.setPassword(row.password());
+        user.setFirstName(row.firstName());
+        user.setLastName(row.lastName());
+        user.setIsActive(row.isActive());
+        user.setVersion(row.version());
+        user.setCreatedDate(row.createdDate());
+        user.setUpdatedDate(row.updatedDate());
+        user.setRole(rolesById.computeIfAbsent(row.roleId(), roleId -> {
+            RoleRow role = roles.get(roleId);
+            return role != null ? toRole(role) : null;
+        }));
+        return user;
+    }
+
+    /**
+     * Role.users tidak diisi (di Hibernate lazy); Role.accesses diisi seperti fetch EAGER
+     */
+    Role toRole(RoleRow row) {
+        Role role = new Role();
+        role.setRoleId(row.roleId());
+        role.setRoleName(row.roleName());
+        role.setRoleDescription(row.roleDescription());
+        role.setParentRoleId(row.parentRoleId());
+        role.setVersion(row.version());
+        role.setCreatedDate(row.createdDate());
+        role.setUpdatedDate(row.updatedDate());
+        Set<Access> granted = new HashSet<>();
+        for (int accessId : row.accessIds()) {
+            AccessRow access = accesses.get(accessId);
+            if (access != null) {
+                granted.add(toAccess(access));
+            }
+        }
+        role.setAccesses(granted);
+        return role;
+    }
+
+    Access toAccess(AccessRow row) {
+        Access access = new Access();
+        access.setAccessId(row.accessId());
+        access.setAccessName(row.accessName());
+        access.setAccessDescription(row.accessDescription());
+        access.setModuleName(row.moduleName());
+        access.setActionType(row.actionType());
+        access.setVersion(row.version());
+        access.setCreatedDate(row.createdDate());
+        access.setUpdatedDate(row.updatedDate());
+        return access;
+    }
+
+    record UserRow(int userId, String username, String email, String password, String firstName, String lastName,
+                   Integer isActive, int roleId, int version, LocalDateTime createdDate, LocalDateTime updatedDate) {
+    }
+
+    /**
+     * @param accessIds Grant langsung role (isi role_access), terurut naik
+     */
+    record RoleRow(int roleId, String roleName, String roleDescription, Integer parentRoleId, int[] accessIds,
+                   int version, LocalDateTime createdDate, LocalDateTime updatedDate) {
+    }
+
+    record AccessRow(int accessId, String accessName, String accessDescription, String moduleName, String actionType,
+                     int version, LocalDateTime createdDate, LocalDateTime updatedDate) {
+    }
+}
@@ -0,0 +1,234 @@
+package simian.testing.dao.memory;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import simian.testing.dao.UserDAO;
+import simian.testing.dao.memory.InMemoryStore.UserRow;
+import simian.testing.dto.UserSummary;
+import simian.testing.entity.Role;
+import simian.testing.entity.User;
+
+/**
+ * Implementasi UserDAO di memory
+ * Username dan email unik lewat indeks; user per role memakai indeks terurut userId.
+ * Tidak ada tabel user_archive: existsByUsername/existsByEmail hanya melihat user aktif di store
+ * dan restoreFromArchive selalu false. lastLoginDate/lastActivityDate tidak disimpan (di MySQL ditulis ActivityTracker)
+ */
+public class InMemoryUserDAO implements UserDAO {
+
+    private final InMemoryStore store;
+
+    public InMemoryUserDAO(InMemoryStore store) {
+        this.store = store;
+    }
+
+    @Override
+    public Integer create(User user) {
+        if (user.getUserId() != null) {
+            throw new InvalidDataAccessApiUsageException("User baru tidak boleh sudah memiliki ID " + user.getUserId());
+        }
+        UserRow row = store.write(() -> insert(user));
+        user.setUserId(row.userId());
+        user.setVersion(row.version());
+        user.setCreatedDate(row.createdDate());
+        user.setUpdatedDate(row.updatedDate());
+        return row.userId();
+    }
+
+    @Override
+    public Optional<User> read(Integer userId) {
+        return Optional.ofNullable(store.users.get(userId)).map(store::toUser);
+    }
+
+    @Override
+    public List<User> readAll(Collection<Integer> userIds) {
+        List<UserRow> rows = new ArrayList<>(userIds.size());
+        for (Integer userId : new LinkedHashSet<>(userIds)) {
+            UserRow row = store.users.get(userId);
+            if (row != null) {
+                rows.add(row);
+            }
+        }
+        return toUsers(rows, false);
+    }
+
+    /**
+     * Seperti merge: entity tanpa ID disimpan sebagai baris baru, versi entity yang dikirim tidak diubah
+     */
+    @Override
+    public void update(User user) {
+        store.write(() -> {
+            if (user.getUserId() == null) {
+                return insert(user);
+            }
+            UserRow current = store.users.get(user.getUserId());
+            InMemoryStore.checkVersion(user.getVersion(), current != null ? current.version() : null,
+                User.class, user.getUserId());
+            UserRow changed = toRow(user, current.userId(), current.version(), current.createdDate(),
+                current.updatedDate());
+            if (changed.equals(current)) {
+                return current;
+            }
+            checkUnique(changed);
+            UserRow row = new UserRow(changed.userId(), changed.username(), changed.email(), changed.password(),
+                changed.firstName(), changed.lastName(), changed.isActive(), changed.roleId(), current.version() + 1,
+                current.createdDate(), LocalDateTime.now());
+            store.putUser(current, row);
+            return row;
+        });
+    }
+
+    @Override
+    public void delete(Integer userId) {
+        store.write(() -> {
+            UserRow current = store.users.get(userId);
+            if (current != null) {
+                store.removeUser(current);
+            }
+            return current;
+        });
+    }
+
+    @Override
+    public List<User> getAll() {
+        return toUsers(store.users.values(), false);
+    }
+
+    @Override
+    public Optional<User> findByUsername(String username) {
+        return read(username != null ? store.userIdsByUsername.get(InMemoryStore.key(username)) : null);
+    }
+
+    @Override
+    public Optional<User> findByEmail(String email) {
+        return read(email != null ? store.userIdsByEmail.get(InMemoryStore.key(email)) : null);
+    }
+
+    @Override
+    public List<User> findByRole(Integer roleId) {
+        return findByRole(roleId, false);
+    }
+
+    @Override
+    public List<User> findByRoles(Collection<Integer> roleIds) {
+        List<UserRow> rows = new ArrayList<>();
+        for (Integer roleId : InMemoryStore.sortedIds(roleIds)) {
+            rows.addAll(rowsByRole(roleId));
+        }
+        return toUsers(rows, false);
+    }
+
+    @Override
+    public List<User> findActiveByRole(Integer roleId) {
+        return findByRole(roleId, true);
+    }
+
+    @Override
+    public List<UserSummary> findSummariesByIds(Collection<Integer> userIds) {
+        List<UserSummary> result = new ArrayList<>(userIds.size());
+        for (Integer userId : InMemoryStore.sortedIds(userIds)) {
+            UserRow row = store.users.get(userId);
+            if (row != null) {
+                result.add(new UserSummary(row.userId(), row.username(), row.email(), row.firstName(),
+                    row.lastName(), row.roleId()));
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public List<User> findAllActive() {
+        return toUsers(store.users.values(), true);
+    }
+
+    @Override
+    public boolean existsByUsername(String username) {
+        return username != null && store.userIdsByUsername.containsKey(InMemoryStore.key(username));
+    }
+
+    @Override
+    public boolean existsByEmail(String email) {
+        return email != null && store.userIdsByEmail.containsKey(InMemoryStore.key(email));
+    }
+
+    @Override
+    public boolean restoreFromArchive(Integer userId) {
+        return false;
+    }
+
+    private UserRow insert(User user) {
+        LocalDateTime now = LocalDateTime.now();
+        UserRow checked = toRow(user, 0, 0, now, now);
+        checkUnique(checked);
+        UserRow row = new UserRow(store.users.nextId(), checked.username(), checked.email(), checked.password(),
+            checked.firstName(), checked.lastName(), checked.isActive(), checked.roleId(), 0, now, now);
+        store.putUser(null, row);
+        return row;
+    }
+
+    /**
+     * Memvalidasi kolom wajib dan foreign key role lalu membentuk baris dari entity
+     */
+    private UserRow toRow(User user, int userId, int version, LocalDateTime createdDate, LocalDateTime updatedDate) {
+        Integer roleId = user.getRole() != null ? user.getRole().getRoleId() : null;
+        InMemoryStore.required(roleId, "user", "role_id");
+        if (store.roles.get(roleId) == null) {
+            throw new DataIntegrityViolationException("Role dengan ID " + roleId + " tidak ada");
+        }
+        return new UserRow(userId, InMemoryStore.required(user.getUsername(), "user", "username"),
+            InMemoryStore.required(user.getEmail(), "user", "email"),
+            InMemoryStore.required(user.getPassword(), "user", "password"), user.getFirstName(), user.getLastName(),
+            InMemoryStore.required(user.getIsActive(), "user", "is_active"), roleId, version, createdDate,
+            updatedDate);
+    }
+
+    private void checkUnique(UserRow row) {
+        Integer owner = store.userIdsByUsername.get(InMemoryStore.key(row.username()));
+        if (owner != null && owner != row.userId()) {
+            throw InMemoryStore.duplicate("user", "username", row.username());
+        }
+        owner = store.userIdsByEmail.get(InMemoryStore.key(row.email()));
+        if (owner != null && owner != row.userId()) {
+            throw InMemoryStore.duplicate("user", "email", row.email());
+        }
+    }
+
+    private List<User> findByRole(Integer roleId, boolean activeOnly) {
+        return toUsers(rowsByRole(roleId), activeOnly);
+    }
+
+    private List<UserRow> rowsByRole(Integer roleId) {
+        NavigableSet<Integer> userIds = roleId != null ? store.userIdsByRole.get(roleId) : null;
+        if (userIds == null) {
+            return new ArrayList<>();
+        }
+        List<UserRow> rows = new ArrayList<>(userIds.size());
+        for (Integer userId : userIds) {
+            UserRow row = store.users.get(userId);
+            if (row != null) {
+                rows.add(row);
+            }
+        }
+        return rows;
+    }
+
+    private List<User> toUsers(List<UserRow> rows, boolean activeOnly) {
+        List<User> result = new ArrayList<>(rows.size());
+        Map<Integer, Role> rolesById = new HashMap<>();
+        for (UserRow row : rows) {
+            if (!activeOnly || row.isActive() == 1) {
+                result.add(store.toUser(row, rolesById));
+            }
+        }
+        return result;
+    }
+}
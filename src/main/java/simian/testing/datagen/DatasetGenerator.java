@@ -0,0 +1,438 @@
+package simian.testing.datagen;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Mengisi schema dengan dataset sintetis berskala produksi untuk pengujian performa
+ * Role, access, grant dan hierarki dibuat di satu thread; user (bagian terbesar) dibagi per chunk ke beberapa
+ * thread, masing-masing dengan koneksi sendiri, JDBC batch dan satu commit per batch
+ *
+ * Setiap chunk user memakai Random dengan seed turunan dari seed dataset dan nomor chunk, sehingga hasilnya
+ * sama berapa pun jumlah thread-nya. Timestamp dihitung mundur dari waktu generate.
+ * Distribusi user per role mengikuti Zipf (beberapa role memegang sebagian besar user), access populer
+ * lebih sering di-grant, dan username unik dibentuk dari kombinasi nama depan/belakang plus nomor urut
+ *
+ * Hanya memakai SQL standar sehingga bisa dijalankan ke MySQL maupun database embedded (H2 mode MySQL)
+ */
+public class DatasetGenerator {
+
+    private static final Logger log = LoggerFactory.getLogger(DatasetGenerator.class);
+
+    static final String ROLE_PREFIX = "Gen Role ";
+    static final String ACCESS_PREFIX = "GEN_";
+    static final int USERS_PER_CHUNK = 10_000;
+
+    private static final String[] ACTIONS = {
+        "CREATE", "READ", "UPDATE", "DELETE", "VIEW", "CLOSE", "APPROVE", "EXPORT", "IMPORT", "ASSIGN"
+    };
+    private static final String[] DEPARTMENTS = {
+        "Finance", "Engineering", "Sales", "Marketing", "Operations", "Legal", "Support", "Procurement",
+        "Human Capital", "Consulting", "Delivery", "Quality"
+    };
+    private static final String[] FIRST_NAMES = {
+        "Adi", "Agus", "Andi", "Anisa", "Arief", "Ayu", "Bambang", "Bayu", "Budi", "Citra", "Dani", "Dewi",
+        "Dian", "Dimas", "Eka", "Endang", "Fajar", "Fitri", "Gilang", "Hadi", "Hendra", "Ika", "Indah", "Irfan",
+        "Joko", "Kartika", "Lestari", "Lina", "Made", "Maya", "Nanda", "Nur", "Oki", "Putri", "Rahmat", "Rina",
+        "Rizky", "Sari", "Siti", "Sri", "Taufik", "Tika", "Tono", "Umar", "Vina", "Wahyu", "Wulan", "Yanti",
+        "Yoga", "Yudi", "Yusuf", "Zahra"
+    };
+    private static final String[] LAST_NAMES = {
+        "Anggraini", "Budiman", "Daulay", "Gunawan", "Halim", "Harahap", "Hidayat", "Irawan", "Kurniawan",
+        "Kusuma", "Lubis", "Mahendra", "Maulana", "Nasution", "Nugroho", "Pane", "Permana", "Pratama",
+        "Purnomo", "Putra", "Rahayu", "Ramadhan", "Saputra", "Setiawan", "Siregar", "Simanjuntak", "Sinaga",
+        "Situmorang", "Susanto", "Syahputra", "Tanjung", "Utomo", "Wibowo", "Wijaya", "Wirawan", "Yulianto"
+    };
+    private static final String[] DOMAINS = {"simian.com", "simian.co.id", "mail.simian.com", "partner.simian.com"};
+    private static final char[] PASSWORD_CHARS =
+        "ABCDEFGHJKLMNPQRSTUVWXYZabcdefghijkmnopqrstuvwxyz23456789".toCharArray();
+    /** Bilangan prima untuk mengacak urutan kombinasi nama tanpa bentrok (bijektif modulo jumlah kombinasi) */
+    private static final long NAME_STRIDE = 1_000_003L;
+
+    private static final String USER_INSERT_SQL =
+        "INSERT INTO user (username, email, password, first_name, last_name, is_active, role_id, last_login_date, "
+        + "last_activity_date, created_date, updated_date) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final DataSource dataSource;
+    private final Clock clock;
+
+    public DatasetGenerator(DataSource dataSource) {
+        this(dataSource, Clock.systemDefaultZone());
+    }
+
+    DatasetGenerator(DataSource dataSource, Clock clock) {
+        this.dataSource = dataSource;
+        this.clock = clock;
+    }
+
+    /**
+     * Membuat dataset; schema harus sudah ada dan tabel user masih kosong
+     * @throws IllegalStateException jika tabel user tidak kosong, dataset sintetis sudah pernah dibuat,
+     *         atau insert gagal (baris yang sudah commit tidak dihapus)
+     */
+    public GenerationReport generate(DatasetSpec spec) {
+        long start = System.nanoTime();
+        LocalDateTime now = LocalDateTime.now(clock).truncatedTo(ChronoUnit.SECONDS);
+        Random random = new Random(spec.seed());
+
+        int[] accessIds;
+        int[] roleIds;
+        int grants;
+        int closureRows;
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            ensureEmpty(connection);
+            accessIds = insertAccesses(connection, spec);
+            roleIds = insertRoles(connection, spec);
+            closureRows = insertHierarchy(connection, spec, roleIds, random);
+            grants = insertGrants(connection, spec, roleIds, accessIds, random);
+        } catch (SQLException e) {
+            throw new IllegalStateException("Gagal membuat role dan access sintetis", e);
+        }
+        log.info("{} role, {} access, {} grant dan {} baris closure dibuat", roleIds.length, accessIds.length,
+            grants, closureRows);
+
+        // Urutan popularitas role diacak dengan seed agar role pertama tidak selalu yang terbesar
+        int[] roleByRank = shuffled(roleIds, random);
+        ZipfSampler roleSampler = new ZipfSampler(roleIds.length, spec.roleSkew());
+        long inactive = insertUsers(spec, roleByRank, roleSampler, now);
+
+        Duration duration = Duration.ofNanos(System.nanoTime() - start);
+        log.info("{} user dibuat ({} nonaktif) dalam {} ms", spec.users(), inactive, duration.toMillis());
+        return new GenerationReport(roleIds.length, accessIds.length, grants, closureRows, spec.users(), inactive,
+            duration);
+    }
+
+    private void ensureEmpty(Connection connection) throws SQLException {
+        if (count(connection, "SELECT COUNT(*) FROM user") > 0) {
+            throw new IllegalStateException("Tabel user harus kosong sebelum dataset sintetis dibuat");
+        }
+        if (count(connection, "SELECT COUNT(*) FROM role WHERE role_name LIKE '" + ROLE_PREFIX + "%'") > 0) {
+            throw new IllegalStateException("Dataset sintetis sudah pernah dibuat di database ini");
+        }
+    }
+
+    private int[] insertAccesses(Connection connection, DatasetSpec spec) throws SQLException {
+        String[] names = new String[spec.accesses()];
+        try (PreparedStatement ps = connection.prepareStatement(
+                "INSERT INTO access (access_name, access_description, module_name, action_type) VALUES (?, ?, ?, ?)")) {
+            for (int i = 0; i < names.length; i++) {
+                String module = String.format("MOD%04d", i / ACTIONS.length);
+                String action = ACTIONS[i % ACTIONS.length];
+                names[i] = ACCESS_PREFIX + module + "_" + action;
+                ps.setString(1, names[i]);
+                ps.setString(2, action + " " + module);
+                ps.setString(3, module);
+                ps.setString(4, action);
+                addBatch(connection, ps, i + 1, spec.batchSize());
+            }
+            flush(connection, ps);
+        }
+        return idsByName(connection, "SELECT access_id, access_name FROM access", names);
+    }
+
+    private int[] insertRoles(Connection connection, DatasetSpec spec) throws SQLException {
+        String[] names = new String[spec.roles()];
+        try (PreparedStatement ps = connection.prepareStatement(
+                "INSERT INTO role (role_name, role_description) VALUES (?, ?)")) {
+            for (int i = 0; i < names.length; i++) {
+                String department = DEPARTMENTS[i % DEPARTMENTS.length];
+                names[i] = String.format("%s%05d %s", ROLE_PREFIX, i + 1, department);
+                ps.setString(1, names[i]);
+                ps.setString(2, "Role sintetis divisi " + department);
+                addBatch(connection, ps, i + 1, spec.batchSize());
+            }
+            flush(connection, ps);
+        }
+        return idsByName(connection, "SELECT role_id, role_name FROM role", names);
+    }
+
+    /**
+     * Sebagian role diberi parent di antara role sebelumnya, lalu role_closure diisi (termasuk baris diri sendiri)
+     * @return Jumlah baris closure
+     */
+    private int insertHierarchy(Connection connection, DatasetSpec spec, int[] roleIds, Random random)
+            throws SQLException {
+        int[] parents = new int[roleIds.length];
+        Arrays.fill(parents, -1);
+        try (PreparedStatement ps = connection.prepareStatement(
+                "UPDATE role SET parent_role_id = ? WHERE role_id = ?")) {
+            int updates = 0;
+            for (int i = 1; i < roleIds.length; i++) {
+                if (random.nextDouble() < spec.hierarchyRatio()) {
+                    parents[i] = random.nextInt(i);
+                    ps.setInt(1, roleIds[parents[i]]);
+                    ps.setInt(2, roleIds[i]);
+                    addBatch(connection, ps, ++updates, spec.batchSize());
+                }
+            }
+            flush(connection, ps);
+        }
+
+        int rows = 0;
+        try (PreparedStatement ps = connection.prepareStatement(
+                "INSERT INTO role_closure (ancestor_id, descendant_id, depth) VALUES (?, ?, ?)")) {
+            for (int i = 0; i < roleIds.length; i++) {
+                int depth = 0;
+                for (int ancestor = i; ancestor >= 0; ancestor = parents[ancestor]) {
+                    ps.setInt(1, roleIds[ancestor]);
+                    ps.setInt(2, roleIds[i]);
+                    ps.setInt(3, depth++);
+                    addBatch(connection, ps, ++rows, spec.batchSize());
+                }
+            }
+            flush(connection, ps);
+        }
+        return rows;
+    }
+
+    /**
+     * Setiap role mendapat 1..2x grantsPerRole access berbeda; access populer (Zipf) lebih sering terpilih
+     * @return Jumlah grant
+     */
+    private int insertGrants(Connection connection, DatasetSpec spec, int[] roleIds, int[] accessIds, Random random)
+            throws SQLException {
+        if (spec.grantsPerRole() == 0) {
+            return 0;
+        }
+        int[] accessByRank = shuffled(accessIds, random);
+        ZipfSampler accessSampler = new ZipfSampler(accessIds.length, 1.0);
+        int rows = 0;
+        try (PreparedStatement ps = connection.prepareStatement(
+                "INSERT INTO role_access (role_id, access_id) VALUES (?, ?)")) {
+            for (int roleId : roleIds) {
+                int target = Math.min(1 + random.nextInt(2 * spec.grantsPerRole()), accessIds.length);
+                boolean[] granted = new boolean[accessIds.length];
+                int count = 0;
+                // Sampling tanpa pengembalian; setelah banyak percobaan gagal, sisanya diambil merata
+                for (int attempt = 0; count < target; attempt++) {
+                    int rank = attempt < target * 8 ? accessSampler.sample(random) : random.nextInt(accessIds.length);
+                    if (!granted[rank]) {
+                        granted[rank] = true;
+                        count++;
+                        ps.setInt(1, roleId);
+                        ps.setInt(2, accessByRank[rank]);
+                        addBatch(connection, ps, ++rows, spec.batchSize());
+                    }
+                }
+            }
+            flush(connection, ps);
+        }
+        return rows;
+    }
+
+    private long insertUsers(DatasetSpec spec, int[] roleByRank, ZipfSampler roleSampler, LocalDateTime now) {
+        long chunks = (spec.users() + USERS_PER_CHUNK - 1) / USERS_PER_CHUNK;
+        AtomicLong inserted = new AtomicLong();
+        ExecutorService executor = Executors.newFixedThreadPool(spec.threads(), runnable -> {
+            Thread thread = new Thread(runnable, "dataset-generator");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Future<Long>> results = new ArrayList<>();
+            for (long chunk = 0; chunk < chunks; chunk++) {
+                long from = chunk * USERS_PER_CHUNK;
+                long to = Math.min(from + USERS_PER_CHUNK, spec.users());
+                long chunkSeed = spec.seed() * 0x9E3779B97F4A7C15L + chunk;
+                results.add(executor.submit(() -> {
+                    long inactive = insertUserChunk(spec, from, to, new Random(chunkSeed), roleByRank, roleSampler,
+                        now);
+                    long done = inserted.addAndGet(to - from);
+                    if (done % (USERS_PER_CHUNK * 50L) == 0) {
+                        log.info("{} / {} user dibuat", done, spec.users());
+                    }
+                    return inactive;
+                }));
+            }
+            long inactive = 0;
+            for (Future<Long> result : results) {
+                inactive += result.get();
+            }
+            return inactive;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Gagal membuat user sintetis", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Pembuatan user sintetis dihentikan", e);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Membuat user dengan indeks [from, to) di koneksi dan transaksi sendiri
+     * @return Jumlah user nonaktif di chunk ini
+     */
+    private long insertUserChunk(DatasetSpec spec, long from, long to, Random random, int[] roleByRank,
+                                 ZipfSampler roleSampler, LocalDateTime now) throws SQLException {
+        long combinations = (long) FIRST_NAMES.length * LAST_NAMES.length;
+        long inactive = 0;
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement ps = connection.prepareStatement(USER_INSERT_SQL)) {
+            connection.setAutoCommit(false);
+            for (long index = from; index < to; index++) {
+                long combination = (index * NAME_STRIDE) % combinations;
+                long occurrence = index / combinations;
+                String firstName = FIRST_NAMES[(int) (combination / LAST_NAMES.length)];
+                String lastName = LAST_NAMES[(int) (combination % LAST_NAMES.length)];
+                String username = (firstName + "." + lastName).toLowerCase()
+                    + (occurrence == 0 ? "" : String.valueOf(occurrence + 1));
+                boolean active = random.nextDouble() >= spec.inactiveRatio();
+
+                LocalDateTime created = now.minusDays(random.nextInt(5 * 365)).minusSeconds(random.nextInt(86_400));
+                long sinceCreated = Math.max(1, ChronoUnit.SECONDS.between(created, now));
+                LocalDateTime updated = created.plusSeconds(nextLong(random, sinceCreated));
+                LocalDateTime lastLogin = null;
+                LocalDateTime lastActivity = null;
+                if (active) {
+                    // Mayoritas user aktif login dalam 90 hari terakhir, sebagian belum pernah login
+                    if (random.nextInt(10) < 8) {
+                        lastLogin = max(created, now.minusSeconds(random.nextInt(90 * 86_400)));
+                        lastActivity = min(now, lastLogin.plusMinutes(random.nextInt(8 * 60)));
+                    }
+                } else {
+                    inactive++;
+                    // User nonaktif terakhir beraktivitas sebelum dinonaktifkan (updated_date)
+                    if (random.nextInt(10) < 7) {
+                        long activeSeconds = Math.max(1, ChronoUnit.SECONDS.between(created, updated));
+                        lastActivity = created.plusSeconds(nextLong(random, activeSeconds));
+                        lastLogin = lastActivity;
+                    }
+                }
+
+                ps.setString(1, username);
+                ps.setString(2, username + "@" + DOMAINS[random.nextInt(DOMAINS.length)]);
+                ps.setString(3, password(random));
+                ps.setString(4, firstName);
+                ps.setString(5, lastName);
+                ps.setBoolean(6, active);
+                ps.setInt(7, roleByRank[roleSampler.sample(random)]);
+                ps.setTimestamp(8, timestamp(lastLogin));
+                ps.setTimestamp(9, timestamp(lastActivity));
+                ps.setTimestamp(10, timestamp(created));
+                ps.setTimestamp(11, timestamp(updated));
+                addBatch(connection, ps, index - from + 1, spec.batchSize());
+            }
+            flush(connection, ps);
+        }
+        return inactive;
+    }
+
+    private static void addBatch(Connection connection, PreparedStatement ps, long count, int batchSize)
+            throws SQLException {
+        ps.addBatch();
+        if (count % batchSize == 0) {
+            flush(connection, ps);
+        }
+    }
+
+    private static void flush(Connection connection, PreparedStatement ps) throws SQLException {
+        ps.executeBatch();
+        connection.commit();
+    }
+
+    private static long count(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement(); ResultSet rs = statement.executeQuery(sql)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    /**
+     * Membaca ID auto increment baris yang baru dibuat berdasarkan namanya, sesuai urutan names
+     */
+    private static int[] idsByName(Connection connection, String sql, String[] names) throws SQLException {
+        Map<String, Integer> ids = new HashMap<>(names.length * 2);
+        try (Statement statement = connection.createStatement(); ResultSet rs = statement.executeQuery(sql)) {
+            while (rs.next()) {
+                ids.put(rs.getString(2), rs.getInt(1));
+            }
+        }
+        int[] result = new int[names.length];
+        for (int i = 0; i < names.length; i++) {
+            result[i] = ids.get(names[i]);
+        }
+        return result;
+    }
+
+    private static int[] shuffled(int[] values, Random random) {
+        int[] result = values.clone();
+        for (int i = result.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = result[i];
+            result[i] = result[j];
+            result[j] = swap;
+        }
+        return result;
+    }
+
+    private static String password(Random random) {
+        char[] chars = new char[16];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = PASSWORD_CHARS[random.nextInt(PASSWORD_CHARS.length)];
+        }
+        return new String(chars);
+    }
+
+    private static long nextLong(Random random, long bound) {
+        return (long) (random.nextDouble() * bound);
+    }
+
+    private static LocalDateTime max(LocalDateTime a, LocalDateTime b) {
+        return a.isAfter(b) ? a : b;
+    }
+
+    private static LocalDateTime min(LocalDateTime a, LocalDateTime b) {
+        return a.isBefore(b) ? a : b;
+    }
+
+    private static Timestamp timestamp(LocalDateTime value) {
+        return value != null ? Timestamp.valueOf(value) : null;
+    }
+
+    /**
+     * Sampler Zipf: peringkat k (0-based) terpilih dengan bobot 1 / (k + 1)^s
+     */
+    private static final class ZipfSampler {
+
+        private final double[] cumulative;
+
+        ZipfSampler(int size, double exponent) {
+            cumulative = new double[size];
+            double total = 0;
+            for (int k = 0; k < size; k++) {
+                total += 1.0 / Math.pow(k + 1, exponent);
+                cumulative[k] = total;
+            }
+        }
+
+        int sample(Random random) {
+            double target = random.nextDouble() * cumulative[cumulative.length - 1];
+            int index = Arrays.binarySearch(cumulative, target);
+            return Math.min(index >= 0 ? index : -index - 1, cumulative.length - 1);
+        }
+    }
+}
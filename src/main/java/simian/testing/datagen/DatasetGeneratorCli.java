@@ -0,0 +1,74 @@
+package simian.testing.datagen;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+/**
+ * Command line untuk DatasetGenerator, tanpa menjalankan aplikasi Spring
+ * <pre>
+ * java -cp target/testing-0.0.1-SNAPSHOT.jar -Dloader.main=simian.testing.datagen.DatasetGeneratorCli \
+ *     org.springframework.boot.loader.launch.PropertiesLauncher \
+ *     --url=jdbc:mysql://localhost:3306/simian?rewriteBatchedStatements=true --username=... --password=... \
+ *     --users=5000000 --roles=500 --accesses=10000 --seed=42
+ * </pre>
+ * Opsi lain: --grants-per-role, --inactive-ratio, --role-skew, --hierarchy-ratio, --threads, --batch-size,
+ * dan --init-schema untuk menjalankan schema.sql lebih dulu (mis. ke H2 file/in-memory dengan MODE=MySQL)
+ */
+public final class DatasetGeneratorCli {
+
+    private DatasetGeneratorCli() {
+    }
+
+    public static void main(String[] args) {
+        DatasetSpec spec = DatasetSpec.production();
+        String url = null;
+        String username = null;
+        String password = null;
+        boolean initSchema = false;
+        for (String arg : args) {
+            if (arg.equals("--init-schema")) {
+                initSchema = true;
+                continue;
+            }
+            int separator = arg.indexOf('=');
+            if (!arg.startsWith("--") || separator < 0) {
+                throw new IllegalArgumentException("Argumen tidak dikenal: " + arg);
+            }
+            String value = arg.substring(separator + 1);
+            switch (arg.substring(2, separator)) {
+                case "url" -> url = value;
+                case "username" -> username = value;
+                case "password" -> password = value;
+                case "users" -> spec = spec.withUsers(Long.parseLong(value));
+                case "roles" -> spec = spec.withRoles(Integer.parseInt(value));
+                case "accesses" -> spec = spec.withAccesses(Integer.parseInt(value));
+                case "grants-per-role" -> spec = spec.withGrantsPerRole(Integer.parseInt(value));
+                case "inactive-ratio" -> spec = spec.withInactiveRatio(Double.parseDouble(value));
+                case "role-skew" -> spec = spec.withRoleSkew(Double.parseDouble(value));
+                case "hierarchy-ratio" -> spec = spec.withHierarchyRatio(Double.parseDouble(value));
+                case "seed" -> spec = spec.withSeed(Long.parseLong(value));
+                case "threads" -> spec = spec.withThreads(Integer.parseInt(value));
+                case "batch-size" -> spec = spec.withBatchSize(Integer.parseInt(value));
+                default -> throw new IllegalArgumentException("Argumen tidak dikenal: " + arg);
+            }
+        }
+        if (url == null) {
+            throw new IllegalArgumentException("--url wajib diisi");
+        }
+
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl(url);
+        config.setUsername(username);
+        config.setPassword(password);
+        config.setMaximumPoolSize(spec.threads() + 1);
+        try (HikariDataSource dataSource = new HikariDataSource(config)) {
+            if (initSchema) {
+                new ResourceDatabasePopulator(new ClassPathResource("schema.sql")).execute(dataSource);
+            }
+            GenerationReport report = new DatasetGenerator(dataSource).generate(spec);
+            System.out.println(report);
+        }
+    }
+}
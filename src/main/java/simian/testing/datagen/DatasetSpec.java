@@ -0,0 +1,94 @@
+package simian.testing.datagen;
+
+/**
+ * Volume dan distribusi dataset sintetis
+ * @param users Jumlah user
+ * @param roles Jumlah role (di luar role seed schema.sql)
+ * @param accesses Jumlah access (di luar access seed schema.sql)
+ * @param grantsPerRole Rata-rata grant langsung per role
+ * @param inactiveRatio Proporsi user nonaktif (0..1)
+ * @param roleSkew Eksponen Zipf distribusi user per role; 0 = merata, makin besar makin timpang
+ * @param hierarchyRatio Proporsi role yang punya parent (0..1)
+ * @param seed Seed tetap; seed dan volume yang sama menghasilkan data yang sama
+ * @param threads Jumlah thread insert user
+ * @param batchSize Jumlah baris per JDBC batch (satu commit per batch)
+ */
+public record DatasetSpec(long users, int roles, int accesses, int grantsPerRole, double inactiveRatio,
+                          double roleSkew, double hierarchyRatio, long seed, int threads, int batchSize) {
+
+    public DatasetSpec {
+        if (users < 0 || roles < 1 || accesses < 1) {
+            throw new IllegalArgumentException("Jumlah user tidak boleh negatif, role dan access minimal 1");
+        }
+        if (grantsPerRole < 0) {
+            throw new IllegalArgumentException("grantsPerRole tidak boleh negatif");
+        }
+        if (inactiveRatio < 0 || inactiveRatio > 1 || hierarchyRatio < 0 || hierarchyRatio > 1) {
+            throw new IllegalArgumentException("inactiveRatio dan hierarchyRatio harus di antara 0 dan 1");
+        }
+        if (roleSkew < 0) {
+            throw new IllegalArgumentException("roleSkew tidak boleh negatif");
+        }
+        if (threads < 1 || batchSize < 1) {
+            throw new IllegalArgumentException("threads dan batchSize minimal 1");
+        }
+    }
+
+    /**
+     * Skala produksi: 5 juta user, 500 role, 10 ribu access
+     */
+    public static DatasetSpec production() {
+        return new DatasetSpec(5_000_000, 500, 10_000, 40, 0.15, 1.1, 0.3, 42L,
+            Runtime.getRuntime().availableProcessors(), 1000);
+    }
+
+    public DatasetSpec withUsers(long users) {
+        return new DatasetSpec(users, roles, accesses, grantsPerRole, inactiveRatio, roleSkew, hierarchyRatio,
+            seed, threads, batchSize);
+    }
+
+    public DatasetSpec withRoles(int roles) {
+        return new DatasetSpec(users, roles, accesses, grantsPerRole, inactiveRatio, roleSkew, hierarchyRatio,
+            seed, threads, batchSize);
+    }
+
+    public DatasetSpec withAccesses(int accesses) {
+        return new DatasetSpec(users, roles, accesses, grantsPerRole, inactiveRatio, roleSkew, hierarchyRatio,
+            seed, threads, batchSize);
+    }
+
+    public DatasetSpec withGrantsPerRole(int grantsPerRole) {
+        return new DatasetSpec(users, roles, accesses, grantsPerRole, inactiveRatio, roleSkew, hierarchyRatio,
+            seed, threads, batchSize);
+    }
+
+    public DatasetSpec withInactiveRatio(double inactiveRatio) {
+        return new DatasetSpec(users, roles, accesses, grantsPerRole, inactiveRatio, roleSkew, hierarchyRatio,
+            seed, threads, batchSize);
+    }
+
+    public DatasetSpec withRoleSkew(double roleSkew) {
+        return new DatasetSpec(users, roles, accesses, grantsPerRole, inactiveRatio, roleSkew, hierarchyRatio,
+            seed, threads, batchSize);
+    }
+
+    public DatasetSpec withHierarchyRatio(double hierarchyRatio) {
+        return new DatasetSpec(users, roles, accesses, grantsPerRole, inactiveRatio, roleSkew, hierarchyRatio,
+            seed, threads, batchSize);
+    }
+
+    public DatasetSpec withSeed(long seed) {
+        return new DatasetSpec(users, roles, accesses, grantsPerRole, inactiveRatio, roleSkew, hierarchyRatio,
+            seed, threads, batchSize);
+    }
+
+    public DatasetSpec withThreads(int threads) {
+        return new DatasetSpec(users, roles, accesses, grantsPerRole, inactiveRatio, roleSkew, hierarchyRatio,
+            seed, threads, batchSize);
+    }
+
+    public DatasetSpec withBatchSize(int batchSize) {
+        return new DatasetSpec(users, roles, accesses, grantsPerRole, inactiveRatio, roleSkew, hierarchyRatio,
+            seed, threads, batchSize);
+    }
+}
@@ -0,0 +1,17 @@
+package simian.testing.datagen;
+
+import java.time.Duration;
+
+/**
+ * Ringkasan satu kali pembuatan dataset sintetis
+ * @param roles Jumlah role yang dibuat
+ * @param accesses Jumlah access yang dibuat
+ * @param grants Jumlah baris role_access yang dibuat
+ * @param closureRows Jumlah baris role_closure yang dibuat (termasuk baris diri sendiri)
+ * @param users Jumlah user yang dibuat
+ * @param inactiveUsers Jumlah user nonaktif di antaranya
+ * @param duration Durasi total
+ */
+public record GenerationReport(int roles, int accesses, int grants, int closureRows, long users, long inactiveUsers,
+                               Duration duration) {
+}
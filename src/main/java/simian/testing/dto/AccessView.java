@@ -0,0 +1,15 @@
+package simian.testing.dto;
+
+import simian.testing.entity.Access;
+
+/**
+ * Representasi JSON access tanpa relasi ke role (menghindari siklus entity graph)
+ */
+public record AccessView(Integer accessId, String accessName, String accessDescription,
+                         String moduleName, String actionType) {
+
+    public static AccessView from(Access access) {
+        return new AccessView(access.getAccessId(), access.getAccessName(), access.getAccessDescription(),
+            access.getModuleName(), access.getActionType());
+    }
+}
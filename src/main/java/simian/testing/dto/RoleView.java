@@ -0,0 +1,21 @@
+package simian.testing.dto;
+
+import java.util.List;
+import simian.testing.entity.Access;
+import simian.testing.entity.Role;
+
+/**
+ * Representasi JSON role beserta parent dan nama access yang diberikan langsung ke role
+ */
+public record RoleView(Integer roleId, String roleName, String roleDescription, Integer parentRoleId,
+                       List<String> accessNames) {
+
+    public static RoleView from(Role role) {
+        List<String> accessNames = role.getAccesses().stream()
+            .map(Access::getAccessName)
+            .sorted()
+            .toList();
+        return new RoleView(role.getRoleId(), role.getRoleName(), role.getRoleDescription(),
+            role.getParentRoleId(), accessNames);
+    }
+}
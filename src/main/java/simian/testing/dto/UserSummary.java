@@ -0,0 +1,8 @@
+package simian.testing.dto;
+
+/**
+ * Ringkasan user untuk daftar hasil review akses, tanpa password dan tanpa memuat entity Role
+ */
+public record UserSummary(Integer userId, String username, String email, String firstName, String lastName,
+                          Integer roleId) {
+}
@@ -37,6 +37,13 @@ public class Access implements Serializable {
     @Column(name = "action_type", length = 50)
     private String actionType;
 
+    /**
+     * Versi untuk optimistic locking: update dengan versi lama akan ditolak
+     */
+    @Version
+    @Column(name = "version", nullable = false)
+    private Integer version;
+
     @CreationTimestamp
     @Column(name = "created_date", nullable = false, updatable = false)
     private LocalDateTime createdDate;
@@ -103,6 +110,14 @@ public class Access implements Serializable {
         this.actionType = actionType;
     }
 
+    public Integer getVersion() {
+        return version;
+    }
+
+    public void setVersion(Integer version) {
+        this.version = version;
+    }
+
     public LocalDateTime getCreatedDate() {
         return createdDate;
     }
@@ -0,0 +1,33 @@
+package simian.testing.entity;
+
+import java.time.LocalDateTime;
+import java.util.function.Supplier;
+
+/**
+ * Sumber waktu tunggal untuk batas berlaku grant sementara (role_access.valid_until)
+ * valid_until ditulis dan dihapus scheduler memakai jam JVM, sehingga semua pengecekan grant yang masih berlaku
+ * (filter koleksi Role.accesses, query RoleHierarchyDAO dan RoleAccessDAO) membandingkannya dengan jam yang sama,
+ * bukan CURRENT_TIMESTAMP database
+ */
+public class GrantClock implements Supplier<LocalDateTime> {
+
+    /**
+     * Nama filter Hibernate koleksi Role.accesses, aktif otomatis di setiap session
+     */
+    public static final String VALID_GRANT_FILTER = "validGrant";
+
+    /**
+     * Waktu sekarang untuk dibandingkan dengan valid_until
+     */
+    public static LocalDateTime now() {
+        return LocalDateTime.now();
+    }
+
+    /**
+     * Resolver parameter :now milik filter VALID_GRANT_FILTER
+     */
+    @Override
+    public LocalDateTime get() {
+        return now();
+    }
+}
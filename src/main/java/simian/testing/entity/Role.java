@@ -5,7 +5,14 @@ import java.time.LocalDateTime;
 import java.util.HashSet;
 import java.util.Set;
 import jakarta.persistence.*;
+import org.hibernate.annotations.BatchSize;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.SourceType;
+import org.hibernate.annotations.Fetch;
+import org.hibernate.annotations.FetchMode;
+import org.hibernate.annotations.FilterDef;
+import org.hibernate.annotations.FilterJoinTable;
+import org.hibernate.annotations.ParamDef;
 import org.hibernate.annotations.UpdateTimestamp;
 
 /**
@@ -13,6 +20,8 @@ import org.hibernate.annotations.UpdateTimestamp;
  * Divisi: Project Manager, Consultant, Development
  */
 @Entity
+@FilterDef(name = GrantClock.VALID_GRANT_FILTER, autoEnabled = true, applyToLoadByKey = true,
+    parameters = @ParamDef(name = "now", type = LocalDateTime.class, resolver = GrantClock.class))
 @Table(name = "role", uniqueConstraints = {
     @UniqueConstraint(columnNames = "role_name")
 })
@@ -31,11 +40,25 @@ public class Role implements Serializable {
     @Column(name = "role_description", length = 255)
     private String roleDescription;
 
-    @CreationTimestamp
+    /**
+     * Parent role: role ini mewarisi semua access milik parent (dan seluruh ancestor-nya)
+     * Diubah lewat RoleService.setParentRole agar tabel role_closure tetap sinkron
+     */
+    @Column(name = "parent_role_id")
+    private Integer parentRoleId;
+
+    /**
+     * Versi untuk optimistic locking: update dengan versi lama akan ditolak
+     */
+    @Version
+    @Column(name = "version", nullable = false)
+    private Integer version;
+
+    @CreationTimestamp(source = SourceType.DB)
     @Column(name = "created_date", nullable = false, updatable = false)
     private LocalDateTime createdDate;
 
-    @UpdateTimestamp
+    @UpdateTimestamp(source = SourceType.DB)
     @Column(name = "updated_date")
     private LocalDateTime updatedDate;
 
@@ -47,8 +70,15 @@ public class Role implements Serializable {
 
     /**
      * Many-to-Many relationship: Satu role memiliki banyak akses
+     * Hanya untuk dibaca; grant ditulis lewat RoleAccessDAO agar tidak perlu me-load dan me-merge seluruh koleksi
+     * Grant sementara yang sudah lewat valid_until tidak ikut dimuat (dibandingkan dengan GrantClock, jam JVM).
+     * Koleksi dimuat dengan select terpisah karena filter join table tidak diterapkan Hibernate pada join fetch
+     * Saat banyak role dimuat lewat query, koleksi access-nya diambil bersama dalam satu IN-list
      */
-    @ManyToMany(fetch = FetchType.EAGER, cascade = {CascadeType.PERSIST, CascadeType.MERGE})
+    @ManyToMany(fetch = FetchType.EAGER)
+    @Fetch(FetchMode.SELECT)
+    @BatchSize(size = 100)
+    @FilterJoinTable(name = GrantClock.VALID_GRANT_FILTER, condition = "(valid_until IS NULL OR valid_until > :now)")
     @JoinTable(name = "role_access",
             joinColumns = @JoinColumn(name = "role_id", referencedColumnName = "role_id"),
             inverseJoinColumns = @JoinColumn(name = "access_id", referencedColumnName = "access_id"))
@@ -88,6 +118,22 @@ public class Role implements Serializable {
         this.roleDescription = roleDescription;
     }
 
+    public Integer getParentRoleId() {
+        return parentRoleId;
+    }
+
+    public void setParentRoleId(Integer parentRoleId) {
+        this.parentRoleId = parentRoleId;
+    }
+
+    public Integer getVersion() {
+        return version;
+    }
+
+    public void setVersion(Integer version) {
+        this.version = version;
+    }
+
     public LocalDateTime getCreatedDate() {
         return createdDate;
     }
@@ -126,6 +172,7 @@ public class Role implements Serializable {
                 "roleId=" + roleId +
                 ", roleName='" + roleName + '\'' +
                 ", roleDescription='" + roleDescription + '\'' +
+                ", parentRoleId=" + parentRoleId +
                 ", createdDate=" + createdDate +
                 ", updatedDate=" + updatedDate +
                 '}';
@@ -0,0 +1,109 @@
+package simian.testing.entity;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import jakarta.persistence.*;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.SourceType;
+
+/**
+ * RoleAccess Entity - Satu baris grant di junction table role_access
+ * Grant ditulis langsung lewat entity ini (satu INSERT/DELETE per grant),
+ * bukan lewat koleksi Role.accesses yang harus di-load seluruhnya lalu di-merge
+ */
+@Entity
+@Table(name = "role_access", uniqueConstraints = {
+    @UniqueConstraint(columnNames = {"role_id", "access_id"})
+})
+public class RoleAccess implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "role_access_id")
+    private Integer roleAccessId;
+
+    @Column(name = "role_id", nullable = false)
+    private Integer roleId;
+
+    @Column(name = "access_id", nullable = false)
+    private Integer accessId;
+
+    @CreationTimestamp(source = SourceType.DB)
+    @Column(name = "created_date", updatable = false)
+    private LocalDateTime createdDate;
+
+    /**
+     * Batas berlaku grant sementara; null untuk grant permanen
+     */
+    @Column(name = "valid_until")
+    private LocalDateTime validUntil;
+
+    // Constructors
+    public RoleAccess() {
+    }
+
+    public RoleAccess(Integer roleId, Integer accessId) {
+        this.roleId = roleId;
+        this.accessId = accessId;
+    }
+
+    public RoleAccess(Integer roleId, Integer accessId, LocalDateTime validUntil) {
+        this.roleId = roleId;
+        this.accessId = accessId;
+        this.validUntil = validUntil;
+    }
+
+    // Getters and Setters
+    public Integer getRoleAccessId() {
+        return roleAccessId;
+    }
+
+    public void setRoleAccessId(Integer roleAccessId) {
+        this.roleAccessId = roleAccessId;
+    }
+
+    public Integer getRoleId() {
+        return roleId;
+    }
+
+    public void setRoleId(Integer roleId) {
+        this.roleId = roleId;
+    }
+
+    public Integer getAccessId() {
+        return accessId;
+    }
+
+    public void setAccessId(Integer accessId) {
+        this.accessId = accessId;
+    }
+
+    public LocalDateTime getCreatedDate() {
+        return createdDate;
+    }
+
+    public void setCreatedDate(LocalDateTime createdDate) {
+        this.createdDate = createdDate;
+    }
+
+    public LocalDateTime getValidUntil() {
+        return validUntil;
+    }
+
+    public void setValidUntil(LocalDateTime validUntil) {
+        this.validUntil = validUntil;
+    }
+
+    @Override
+    public String toString() {
+        return "RoleAccess{" +
+                "roleAccessId=" + roleAccessId +
+                ", roleId=" + roleId +
+                ", accessId=" + accessId +
+                ", createdDate=" + createdDate +
+                ", validUntil=" + validUntil +
+                '}';
+    }
+}
@@ -4,6 +4,7 @@ import java.io.Serializable;
 import java.time.LocalDateTime;
 import jakarta.persistence.*;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.SourceType;
 import org.hibernate.annotations.UpdateTimestamp;
 
 /**
@@ -42,11 +43,28 @@ public class User implements Serializable {
     @Column(name = "is_active", nullable = false)
     private Integer isActive = 1;
 
-    @CreationTimestamp
+    /**
+     * Waktu login dan aktivitas terakhir hanya ditulis oleh UserActivityTracker
+     * (write-behind), sehingga tidak ikut di-insert/update oleh Hibernate
+     */
+    @Column(name = "last_login_date", insertable = false, updatable = false)
+    private LocalDateTime lastLoginDate;
+
+    @Column(name = "last_activity_date", insertable = false, updatable = false)
+    private LocalDateTime lastActivityDate;
+
+    /**
+     * Versi untuk optimistic locking: update dengan versi lama akan ditolak
+     */
+    @Version
+    @Column(name = "version", nullable = false)
+    private Integer version;
+
+    @CreationTimestamp(source = SourceType.DB)
     @Column(name = "created_date", nullable = false, updatable = false)
     private LocalDateTime createdDate;
 
-    @UpdateTimestamp
+    @UpdateTimestamp(source = SourceType.DB)
     @Column(name = "updated_date")
     private LocalDateTime updatedDate;
 
@@ -138,6 +156,30 @@ public class User implements Serializable {
         this.isActive = isActive;
     }
 
+    public LocalDateTime getLastLoginDate() {
+        return lastLoginDate;
+    }
+
+    public void setLastLoginDate(LocalDateTime lastLoginDate) {
+        this.lastLoginDate = lastLoginDate;
+    }
+
+    public LocalDateTime getLastActivityDate() {
+        return lastActivityDate;
+    }
+
+    public void setLastActivityDate(LocalDateTime lastActivityDate) {
+        this.lastActivityDate = lastActivityDate;
+    }
+
+    public Integer getVersion() {
+        return version;
+    }
+
+    public void setVersion(Integer version) {
+        this.version = version;
+    }
+
     public LocalDateTime getCreatedDate() {
         return createdDate;
     }
@@ -186,6 +228,8 @@ public class User implements Serializable {
                 ", lastName='" + lastName + '\'' +
                 ", isActive=" + isActive +
                 ", role=" + (role != null ? role.getRoleName() : "null") +
+                ", lastLoginDate=" + lastLoginDate +
+                ", lastActivityDate=" + lastActivityDate +
                 ", createdDate=" + createdDate +
                 ", updatedDate=" + updatedDate +
                 '}';
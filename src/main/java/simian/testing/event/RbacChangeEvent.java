@@ -0,0 +1,41 @@
+package simian.testing.event;
+
+/**
+ * Event yang dipublish service setiap ada perubahan data RBAC
+ * Listener yang memakai @TransactionalEventListener hanya menerimanya setelah transaksi commit
+ * @param entityType Jenis data yang berubah
+ * @param action Jenis perubahan
+ * @param entityId ID data yang berubah (untuk GRANT: roleId)
+ * @param relatedId ID terkait (untuk GRANT: accessId), null jika tidak ada
+ * @param roleAccessId Untuk GRANT DELETED: role_access_id baris yang dihapus, selain itu null
+ */
+public record RbacChangeEvent(EntityType entityType, Action action, Integer entityId, Integer relatedId,
+                              Integer roleAccessId) {
+
+    public RbacChangeEvent(EntityType entityType, Action action, Integer entityId, Integer relatedId) {
+        this(entityType, action, entityId, relatedId, null);
+    }
+
+    public enum EntityType {
+        USER, ROLE, ACCESS, GRANT
+    }
+
+    public enum Action {
+        CREATED, UPDATED, DELETED
+    }
+
+    public static RbacChangeEvent of(EntityType entityType, Action action, Integer entityId) {
+        return new RbacChangeEvent(entityType, action, entityId, null);
+    }
+
+    public static RbacChangeEvent grant(Action action, Integer roleId, Integer accessId) {
+        return new RbacChangeEvent(EntityType.GRANT, action, roleId, accessId);
+    }
+
+    /**
+     * Grant yang dihapus, beserta role_access_id-nya agar consumer tidak menghapus grant baru untuk pasangan yang sama
+     */
+    public static RbacChangeEvent grantRemoved(Integer roleId, Integer accessId, Integer roleAccessId) {
+        return new RbacChangeEvent(EntityType.GRANT, Action.DELETED, roleId, accessId, roleAccessId);
+    }
+}
@@ -0,0 +1,199 @@
+package simian.testing.expiry;
+
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import simian.testing.entity.GrantClock;
+import simian.testing.event.RbacChangeEvent;
+
+/**
+ * Menghapus grant sementara tepat saat valid_until tercapai
+ * Setiap grant dengan valid_until dijadwalkan di TimerWheel di memory (dimuat sekali saat start, lalu dari
+ * event GRANT CREATED). Thread ticker memajukan wheel setiap tick, menghapus grant yang kedaluwarsa dalam
+ * JDBC batch dan mem-publish GRANT DELETED, sehingga cache permission dibuang seperti penghapusan manual
+ *
+ * Timer tidak dibatalkan saat grant dihapus manual: DELETE hanya mengenai role_access_id yang sama dengan
+ * valid_until yang sudah lewat, sehingga timer untuk grant yang sudah tidak ada (atau sudah diganti grant baru)
+ * cukup menjadi no-op
+ */
+@Component
+public class GrantExpiryScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(GrantExpiryScheduler.class);
+
+    private static final String DELETE_SQL =
+        "DELETE FROM role_access WHERE role_access_id = ? AND valid_until IS NOT NULL AND valid_until <= ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${simian.grant-expiry.tick-ms:100}")
+    private long tickMs;
+
+    @Value("${simian.grant-expiry.batch-size:500}")
+    private int batchSize;
+
+    @Value("${simian.grant-expiry.retry-ms:5000}")
+    private long retryMs;
+
+    private TimerWheel<GrantKey> wheel;
+    private TransactionTemplate deleteTemplate;
+    private Thread tickerThread;
+    private volatile boolean running;
+    private Counter expiredCounter;
+    private Counter failedCounter;
+
+    @PostConstruct
+    void start() {
+        wheel = new TimerWheel<>(tickMs, System.currentTimeMillis());
+        // Dijalankan dari thread ticker, selalu di transaksi sendiri
+        deleteTemplate = new TransactionTemplate(transactionManager);
+        deleteTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        Gauge.builder("simian.grant-expiry.pending", wheel, TimerWheel::size)
+            .description("Jumlah grant sementara yang menunggu kedaluwarsa")
+            .register(meterRegistry);
+        expiredCounter = meterRegistry.counter("simian.grant-expiry.expired");
+        failedCounter = meterRegistry.counter("simian.grant-expiry.failed");
+
+        running = true;
+        tickerThread = new Thread(this::tickLoop, "grant-expiry");
+        tickerThread.setDaemon(true);
+        tickerThread.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(tickerThread);
+        tickerThread.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    /**
+     * Memuat semua grant sementara yang masih tersimpan, termasuk yang kedaluwarsa saat aplikasi mati
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        int[] loaded = {0};
+        jdbcTemplate.query(
+            "SELECT role_access_id, role_id, access_id, valid_until FROM role_access WHERE valid_until IS NOT NULL",
+            rs -> {
+                schedule(new GrantKey(rs.getInt("role_access_id"), rs.getInt("role_id"), rs.getInt("access_id")),
+                    rs.getTimestamp("valid_until").toLocalDateTime());
+                loaded[0]++;
+            });
+        log.info("{} grant sementara dijadwalkan untuk kedaluwarsa", loaded[0]);
+    }
+
+    /**
+     * Menjadwalkan grant sementara yang baru commit
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRbacChange(RbacChangeEvent event) {
+        if (event.entityType() != RbacChangeEvent.EntityType.GRANT
+                || event.action() != RbacChangeEvent.Action.CREATED) {
+            return;
+        }
+        jdbcTemplate.query(
+            "SELECT role_access_id, valid_until FROM role_access WHERE role_id = ? AND access_id = ? "
+                + "AND valid_until IS NOT NULL",
+            rs -> {
+                schedule(new GrantKey(rs.getInt("role_access_id"), event.entityId(), event.relatedId()),
+                    rs.getTimestamp("valid_until").toLocalDateTime());
+            }, event.entityId(), event.relatedId());
+    }
+
+    /**
+     * Jumlah grant sementara yang menunggu kedaluwarsa
+     */
+    public int getPendingCount() {
+        return wheel.size();
+    }
+
+    private void schedule(GrantKey grant, LocalDateTime validUntil) {
+        wheel.schedule(grant, validUntil.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+    }
+
+    private void tickLoop() {
+        List<GrantKey> expired = new ArrayList<>();
+        while (running) {
+            // Bangun tepat di batas tick berikutnya agar keterlambatan tidak bertambah dari drift park
+            long now = System.currentTimeMillis();
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(tickMs - Math.floorMod(now, tickMs)));
+            wheel.advance(System.currentTimeMillis(), expired);
+            for (int from = 0; from < expired.size(); from += batchSize) {
+                expire(expired.subList(from, Math.min(from + batchSize, expired.size())));
+            }
+            expired.clear();
+        }
+    }
+
+    /**
+     * Menghapus satu batch grant kedaluwarsa; jika database gagal, batch dijadwalkan ulang setelah retry-ms
+     */
+    private void expire(List<GrantKey> batch) {
+        Timestamp now = Timestamp.valueOf(GrantClock.now());
+        try {
+            int removed = deleteTemplate.execute(status -> {
+                int[] counts = jdbcTemplate.batchUpdate(DELETE_SQL, batch, batch.size(), (ps, grant) -> {
+                    ps.setInt(1, grant.roleAccessId());
+                    ps.setTimestamp(2, now);
+                })[0];
+                int deleted = 0;
+                for (int i = 0; i < counts.length; i++) {
+                    // Driver dengan batch rewrite melaporkan SUCCESS_NO_INFO; event berlebih hanya membuang cache
+                    if (counts[i] > 0 || counts[i] == Statement.SUCCESS_NO_INFO) {
+                        GrantKey grant = batch.get(i);
+                        eventPublisher.publishEvent(
+                            RbacChangeEvent.grantRemoved(grant.roleId(), grant.accessId(), grant.roleAccessId()));
+                        deleted++;
+                    }
+                }
+                return deleted;
+            });
+            expiredCounter.increment(removed);
+        } catch (DataAccessException e) {
+            failedCounter.increment(batch.size());
+            log.warn("Gagal menghapus {} grant kedaluwarsa, dicoba lagi dalam {} ms", batch.size(), retryMs, e);
+            long retryAt = System.currentTimeMillis() + retryMs;
+            for (GrantKey grant : batch) {
+                wheel.schedule(grant, retryAt);
+            }
+        }
+    }
+
+    private record GrantKey(int roleAccessId, int roleId, int accessId) {
+    }
+}
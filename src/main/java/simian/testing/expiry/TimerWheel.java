@@ -0,0 +1,135 @@
+package simian.testing.expiry;
+
+import java.util.List;
+
+/**
+ * Hierarchical timer wheel (gaya kernel Linux) untuk jutaan deadline dengan biaya O(1) per schedule
+ * Level 0 berisi 64 slot sebesar satu tick, setiap level berikutnya 64 kali lebih kasar. Timer dimasukkan ke
+ * level terkecil yang rentangnya mencakup deadline, lalu turun (cascade) ke level lebih halus saat slot
+ * level atas-nya tercapai, sehingga setiap timer dipindahkan paling banyak sekali per level
+ *
+ * Timer tidak pernah kedaluwarsa sebelum deadline-nya dan paling lambat satu tick setelahnya.
+ * Tidak thread-safe dengan sendirinya; semua method disinkronkan pada instance wheel
+ * @param <T> Tipe payload timer
+ */
+public class TimerWheel<T> {
+
+    private static final int WHEEL_BITS = 6;
+    private static final int WHEEL_SIZE = 1 << WHEEL_BITS;
+    private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+    private static final int LEVELS = 6;
+    private static final long MAX_SPAN = 1L << (WHEEL_BITS * LEVELS);
+
+    private final long tickMillis;
+    private final Node<T>[][] slots;
+    private long currentTick;
+    private int size;
+
+    /**
+     * @param tickMillis Resolusi wheel
+     * @param startMillis Waktu awal (epoch ms)
+     */
+    @SuppressWarnings("unchecked")
+    public TimerWheel(long tickMillis, long startMillis) {
+        if (tickMillis < 1) {
+            throw new IllegalArgumentException("Tick timer wheel minimal 1 ms");
+        }
+        this.tickMillis = tickMillis;
+        this.slots = new Node[LEVELS][WHEEL_SIZE];
+        this.currentTick = Math.floorDiv(startMillis, tickMillis);
+    }
+
+    /**
+     * Menjadwalkan payload pada deadline; deadline yang sudah lewat kedaluwarsa pada tick berikutnya
+     * @param deadlineMillis Deadline (epoch ms)
+     */
+    public synchronized void schedule(T payload, long deadlineMillis) {
+        long deadlineTick = Math.max(-Math.floorDiv(-deadlineMillis, tickMillis), currentTick + 1);
+        insert(new Node<>(payload, deadlineTick));
+        size++;
+    }
+
+    /**
+     * Memajukan wheel sampai waktu sekarang dan mengumpulkan payload yang deadline-nya sudah tercapai
+     * @param nowMillis Waktu sekarang (epoch ms)
+     * @param expired Penampung payload yang kedaluwarsa
+     * @return Jumlah payload yang kedaluwarsa
+     */
+    public synchronized int advance(long nowMillis, List<? super T> expired) {
+        long targetTick = Math.floorDiv(nowMillis, tickMillis);
+        int count = 0;
+        while (currentTick < targetTick) {
+            if (size == 0) {
+                currentTick = targetTick;
+                break;
+            }
+            currentTick++;
+            // Level atas lebih dulu: timer yang turun dari level 2 bisa langsung jatuh ke slot level 1 yang sama
+            for (int level = LEVELS - 1; level >= 1; level--) {
+                if ((currentTick & ((1L << (WHEEL_BITS * level)) - 1)) == 0) {
+                    cascade(level, slotIndex(currentTick, level));
+                }
+            }
+            int slot = slotIndex(currentTick, 0);
+            Node<T> node = slots[0][slot];
+            slots[0][slot] = null;
+            while (node != null) {
+                expired.add(node.payload);
+                count++;
+                size--;
+                node = node.next;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Jumlah timer yang belum kedaluwarsa
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    public long getTickMillis() {
+        return tickMillis;
+    }
+
+    private void cascade(int level, int slot) {
+        Node<T> node = slots[level][slot];
+        slots[level][slot] = null;
+        while (node != null) {
+            Node<T> next = node.next;
+            insert(node);
+            node = next;
+        }
+    }
+
+    private void insert(Node<T> node) {
+        // Deadline di luar rentang level tertinggi diparkir di ujung rentang dan ditempatkan ulang saat cascade
+        long placementTick = Math.min(node.deadlineTick, currentTick + MAX_SPAN - 1);
+        long delta = placementTick - currentTick;
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= 1L << (WHEEL_BITS * (level + 1))) {
+            level++;
+        }
+        int slot = slotIndex(placementTick, level);
+        node.next = slots[level][slot];
+        slots[level][slot] = node;
+    }
+
+    private static int slotIndex(long tick, int level) {
+        return (int) (tick >>> (WHEEL_BITS * level)) & WHEEL_MASK;
+    }
+
+    private static final class Node<T> {
+
+        private final T payload;
+        private final long deadlineTick;
+        private Node<T> next;
+
+        Node(T payload, long deadlineTick) {
+            this.payload = payload;
+            this.deadlineTick = deadlineTick;
+        }
+    }
+}
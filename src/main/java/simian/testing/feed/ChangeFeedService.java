@@ -0,0 +1,134 @@
+package simian.testing.feed;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Function;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+
+/**
+ * Change feed inkremental untuk sistem downstream
+ * Mengembalikan user, role dan grant yang berubah setelah watermark, terurut (timestamp, id)
+ * dengan keyset paging, serta tombstone untuk data yang dihapus
+ *
+ * Baris yang lebih baru dari safety lag belum dikirim: transaksi yang masih berjalan bisa commit
+ * dengan timestamp lebih lama dari baris yang sudah terlihat, dan tanpa jeda ini akan terlewat
+ *
+ * Semua timestamp berasal dari jam database: updated_date/created_date user, role dan grant ditulis
+ * CURRENT_TIMESTAMP oleh Hibernate (source = DB) atau default kolom, tombstone memakai default kolom,
+ * dan batas safety lag dihitung dari CURRENT_TIMESTAMP di query yang sama. Selisih jam JVM dan database
+ * tidak bisa membuat baris terlewat
+ */
+@Service
+public class ChangeFeedService {
+
+    private static final String USER_SELECT =
+        "SELECT user_id, username, email, first_name, last_name, is_active, role_id, updated_date FROM user";
+    private static final String ROLE_SELECT =
+        "SELECT role_id, role_name, role_description, parent_role_id, updated_date FROM role";
+    private static final String GRANT_SELECT =
+        "SELECT role_access_id, role_id, access_id, created_date, valid_until FROM role_access";
+    private static final String TOMBSTONE_SELECT =
+        "SELECT tombstone_id, entity_type, entity_id, related_id, role_access_id, deleted_date FROM change_tombstone";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${simian.feed.safety-lag-ms:5000}")
+    private long safetyLagMs;
+
+    @Value("${simian.feed.max-limit:5000}")
+    private int maxLimit;
+
+    /**
+     * User yang dibuat atau diubah setelah watermark
+     * @param after Watermark terakhir, null untuk mulai dari awal
+     * @param limit Jumlah maksimum baris
+     */
+    public ChangePage<UserChange> getUserChanges(Watermark after, int limit) {
+        return page(USER_SELECT, "updated_date", "user_id", after, limit,
+            (rs, rowNum) -> new UserChange(rs.getInt("user_id"), rs.getString("username"), rs.getString("email"),
+                rs.getString("first_name"), rs.getString("last_name"), rs.getInt("is_active"),
+                rs.getInt("role_id"), toLocalDateTime(rs, "updated_date")),
+            change -> new Watermark(change.updatedDate(), change.userId()));
+    }
+
+    /**
+     * Role yang dibuat atau diubah (termasuk perubahan parent) setelah watermark
+     * @param after Watermark terakhir, null untuk mulai dari awal
+     * @param limit Jumlah maksimum baris
+     */
+    public ChangePage<RoleChange> getRoleChanges(Watermark after, int limit) {
+        return page(ROLE_SELECT, "updated_date", "role_id", after, limit,
+            (rs, rowNum) -> new RoleChange(rs.getInt("role_id"), rs.getString("role_name"),
+                rs.getString("role_description"), rs.getObject("parent_role_id", Integer.class),
+                toLocalDateTime(rs, "updated_date")),
+            change -> new Watermark(change.updatedDate(), change.roleId()));
+    }
+
+    /**
+     * Grant role-access yang dibuat setelah watermark
+     * @param after Watermark terakhir, null untuk mulai dari awal
+     * @param limit Jumlah maksimum baris
+     */
+    public ChangePage<GrantChange> getGrantChanges(Watermark after, int limit) {
+        return page(GRANT_SELECT, "created_date", "role_access_id", after, limit,
+            (rs, rowNum) -> new GrantChange(rs.getInt("role_access_id"), rs.getInt("role_id"),
+                rs.getInt("access_id"), toLocalDateTime(rs, "created_date"), toLocalDateTime(rs, "valid_until")),
+            change -> new Watermark(change.createdDate(), change.roleAccessId()));
+    }
+
+    /**
+     * Penghapusan user, role, access dan grant setelah watermark
+     * Penghapusan role atau access juga menghapus grant-nya di database tanpa tombstone GRANT tersendiri,
+     * consumer harus membuang grant milik role/access yang dihapus
+     * @param after Watermark terakhir, null untuk mulai dari awal
+     * @param limit Jumlah maksimum baris
+     */
+    public ChangePage<Tombstone> getTombstones(Watermark after, int limit) {
+        return page(TOMBSTONE_SELECT, "deleted_date", "tombstone_id", after, limit,
+            (rs, rowNum) -> new Tombstone(rs.getLong("tombstone_id"), rs.getString("entity_type"),
+                rs.getObject("entity_id", Integer.class),
+                rs.getObject("related_id", Integer.class), rs.getObject("role_access_id", Integer.class),
+                toLocalDateTime(rs, "deleted_date")),
+            tombstone -> new Watermark(tombstone.deletedDate(), tombstone.tombstoneId()));
+    }
+
+    /**
+     * Keyset paging: (ts > ?) OR (ts = ? AND id > ?), dibatasi safety lag, terurut (ts, id)
+     * Memakai indeks komposit (ts, id) sehingga biaya per halaman tidak bergantung pada ukuran tabel
+     */
+    private <T> ChangePage<T> page(String select, String timestampColumn, String idColumn, Watermark after,
+                                   int limit, RowMapper<T> mapper, Function<T, Watermark> position) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("Limit minimal 1");
+        }
+        int pageSize = Math.min(limit, maxLimit);
+        Watermark from = after != null ? after : Watermark.START;
+        Timestamp fromTimestamp = Timestamp.valueOf(from.timestamp());
+
+        String sql = select
+            + " WHERE (" + timestampColumn + " > ? OR (" + timestampColumn + " = ? AND " + idColumn + " > ?))"
+            + " AND " + timestampColumn + " <= TIMESTAMPADD(MICROSECOND, ?, CURRENT_TIMESTAMP(3))"
+            + " ORDER BY " + timestampColumn + ", " + idColumn
+            + " LIMIT ?";
+        List<T> rows = jdbcTemplate.query(sql, mapper,
+            fromTimestamp, fromTimestamp, from.id(), -safetyLagMs * 1000, pageSize + 1);
+
+        boolean hasMore = rows.size() > pageSize;
+        List<T> items = hasMore ? rows.subList(0, pageSize) : rows;
+        Watermark next = items.isEmpty() ? from : position.apply(items.get(items.size() - 1));
+        return new ChangePage<>(List.copyOf(items), next, hasMore);
+    }
+
+    private static LocalDateTime toLocalDateTime(ResultSet rs, String column) throws SQLException {
+        Timestamp timestamp = rs.getTimestamp(column);
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+}
@@ -0,0 +1,12 @@
+package simian.testing.feed;
+
+import java.util.List;
+
+/**
+ * Satu halaman change feed
+ * @param items Perubahan terurut (timestamp, id)
+ * @param next Watermark untuk request berikutnya (sama dengan watermark request jika tidak ada perubahan)
+ * @param hasMore true jika masih ada perubahan setelah halaman ini
+ */
+public record ChangePage<T>(List<T> items, Watermark next, boolean hasMore) {
+}
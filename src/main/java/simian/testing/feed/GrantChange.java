@@ -0,0 +1,11 @@
+package simian.testing.feed;
+
+import java.time.LocalDateTime;
+
+/**
+ * Grant role-access baru (grant tidak pernah di-update, pencabutan dilaporkan lewat tombstone)
+ * validUntil terisi untuk grant sementara; kedaluwarsanya juga dilaporkan lewat tombstone
+ */
+public record GrantChange(Integer roleAccessId, Integer roleId, Integer accessId, LocalDateTime createdDate,
+                          LocalDateTime validUntil) {
+}
@@ -0,0 +1,19 @@
+package simian.testing.feed;
+
+import java.util.List;
+import simian.testing.dto.AccessView;
+import simian.testing.dto.RoleView;
+
+/**
+ * Perubahan model role/access antara versi client dan versi terbaru
+ *
+ * Jika full bernilai true, roles dan accesses berisi seluruh model dan client mengganti mirror-nya.
+ * Jika tidak, client menerapkan: role di roles menggantikan role dengan ID yang sama, access di accesses
+ * menggantikan access dengan ID yang sama, role di deletedRoleIds dihapus, dan access di deletedAccessIds
+ * dihapus beserta namanya dari accessNames semua role (grant ikut terhapus lewat cascade)
+ * @param fromVersion Versi yang dikirim client
+ * @param version Versi terbaru; dikirim kembali sebagai since pada request berikutnya
+ */
+public record ModelDelta(long fromVersion, long version, boolean full, List<RoleView> roles,
+                         List<AccessView> accesses, List<Integer> deletedRoleIds, List<Integer> deletedAccessIds) {
+}
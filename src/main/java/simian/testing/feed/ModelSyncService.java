@@ -0,0 +1,144 @@
+package simian.testing.feed;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import simian.testing.dto.AccessView;
+import simian.testing.dto.RoleView;
+import simian.testing.entity.Role;
+import simian.testing.event.RbacChangeEvent;
+import simian.testing.service.AccessService;
+import simian.testing.service.RoleService;
+
+/**
+ * Delta sync model role/access berbasis versi monoton (lihat ModelVersionRecorder)
+ * Client mengirim versi terakhir yang dimilikinya dan hanya menerima role dan access yang berubah sejak itu,
+ * bukan seluruh getAllRoles() dengan access eager. Beberapa perubahan pada entity yang sama digabung
+ * menjadi keadaan terbarunya
+ *
+ * Jika riwayat di model_change sudah terpangkas melewati versi client (atau versi client tidak dikenal),
+ * response berisi snapshot penuh
+ */
+@Service
+@Transactional(readOnly = true)
+public class ModelSyncService {
+
+    private static final String CHANGE_SELECT =
+        "SELECT entity_type, action, entity_id FROM model_change WHERE version > ? AND version <= ? ORDER BY version";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private RoleService roleService;
+
+    @Autowired
+    private AccessService accessService;
+
+    /**
+     * Versi model saat ini
+     */
+    public long getCurrentVersion() {
+        List<Long> versions = jdbcTemplate.queryForList("SELECT version FROM model_version WHERE id = 1", Long.class);
+        return versions.isEmpty() ? 0 : versions.get(0);
+    }
+
+    /**
+     * Perubahan sejak versi client
+     * @param sinceVersion Versi terakhir client, null atau negatif untuk meminta snapshot penuh
+     */
+    public ModelDelta getChangesSince(Long sinceVersion) {
+        // Versi dibaca lebih dulu sehingga perubahan dan entity di bawah ini berasal dari snapshot yang sama
+        long current = getCurrentVersion();
+        long since = sinceVersion != null ? sinceVersion : -1;
+        if (since == current) {
+            return new ModelDelta(since, current, false, List.of(), List.of(), List.of(), List.of());
+        }
+        Long oldest = jdbcTemplate.queryForObject("SELECT MIN(version) FROM model_change", Long.class);
+        if (since < 0 || since > current || oldest == null || oldest > since + 1) {
+            return fullSnapshot(since, current);
+        }
+
+        Set<Integer> roleIds = new LinkedHashSet<>();
+        Set<Integer> deletedRoleIds = new LinkedHashSet<>();
+        Set<Integer> accessIds = new LinkedHashSet<>();
+        Set<Integer> deletedAccessIds = new LinkedHashSet<>();
+        Set<Integer> updatedAccessIds = new LinkedHashSet<>();
+        jdbcTemplate.query(CHANGE_SELECT, rs -> {
+            RbacChangeEvent.EntityType type = RbacChangeEvent.EntityType.valueOf(rs.getString("entity_type"));
+            boolean deleted = RbacChangeEvent.Action.DELETED.name().equals(rs.getString("action"));
+            int entityId = rs.getInt("entity_id");
+            switch (type) {
+                case ROLE -> track(entityId, deleted, roleIds, deletedRoleIds);
+                case GRANT -> roleIds.add(entityId);
+                case ACCESS -> {
+                    track(entityId, deleted, accessIds, deletedAccessIds);
+                    if (!deleted) {
+                        updatedAccessIds.add(entityId);
+                    }
+                }
+                default -> { }
+            }
+        }, since, current);
+
+        // Role menyimpan nama access, sehingga role pemegang access yang diubah ikut dikirim
+        roleIds.addAll(findRolesGranting(updatedAccessIds));
+        roleIds.removeAll(deletedRoleIds);
+        accessIds.removeAll(deletedAccessIds);
+
+        Map<Integer, Role> roles = roleService.getRolesByIds(roleIds);
+        List<RoleView> roleViews = new ArrayList<>(roles.size());
+        for (Integer roleId : roleIds) {
+            Role role = roles.get(roleId);
+            if (role != null) {
+                roleViews.add(RoleView.from(role));
+            } else {
+                deletedRoleIds.add(roleId);
+            }
+        }
+        List<AccessView> accessViews = new ArrayList<>(accessIds.size());
+        for (Integer accessId : accessIds) {
+            accessService.findAccessById(accessId).ifPresentOrElse(
+                access -> accessViews.add(AccessView.from(access)), () -> deletedAccessIds.add(accessId));
+        }
+        return new ModelDelta(since, current, false, roleViews, accessViews,
+            List.copyOf(deletedRoleIds), List.copyOf(deletedAccessIds));
+    }
+
+    private ModelDelta fullSnapshot(long since, long current) {
+        List<RoleView> roles = roleService.getAllRoles().stream().map(RoleView::from).toList();
+        List<AccessView> accesses = accessService.getAllAccess().stream().map(AccessView::from).toList();
+        return new ModelDelta(since, current, true, roles, accesses, List.of(), List.of());
+    }
+
+    private List<Integer> findRolesGranting(Collection<Integer> accessIds) {
+        if (accessIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        String placeholders = String.join(", ", Collections.nCopies(accessIds.size(), "?"));
+        return jdbcTemplate.queryForList(
+            "SELECT DISTINCT role_id FROM role_access WHERE access_id IN (" + placeholders + ")",
+            Integer.class, accessIds.toArray());
+    }
+
+    /**
+     * Perubahan terakhir per ID yang menentukan apakah entity dikirim atau dihapus
+     */
+    private static void track(int id, boolean deleted, Set<Integer> changed, Set<Integer> removed) {
+        if (deleted) {
+            changed.remove(id);
+            removed.add(id);
+        } else {
+            removed.remove(id);
+            changed.add(id);
+        }
+    }
+}
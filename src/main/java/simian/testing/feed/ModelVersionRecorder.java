@@ -0,0 +1,73 @@
+package simian.testing.feed;
+
+import java.sql.Types;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import simian.testing.event.RbacChangeEvent;
+
+/**
+ * Menaikkan versi model role/access dan mencatat perubahannya di model_change untuk ModelSyncService
+ * Ditulis sebelum commit di transaksi yang sama dengan mutasinya. Baris model_version terkunci sampai commit,
+ * sehingga versi dibagikan dan terlihat oleh pembaca sesuai urutan commit tanpa celah
+ *
+ * Perubahan user tidak mempengaruhi model role/access dan diabaikan
+ */
+@Component
+public class ModelVersionRecorder {
+
+    /**
+     * Satu statement atomik: baris versi dibuat jika belum ada, sehingga dua transaksi pertama
+     * tidak bisa sama-sama gagal UPDATE lalu bertabrakan di INSERT
+     */
+    private static final String BUMP_SQL =
+        "INSERT INTO model_version (id, version) VALUES (1, 1) ON DUPLICATE KEY UPDATE version = version + 1";
+    private static final String INSERT_SQL =
+        "INSERT INTO model_change (version, entity_type, action, entity_id, related_id) VALUES (?, ?, ?, ?, ?)";
+
+    /**
+     * Riwayat dipangkas sekali setiap sekian versi, bukan di setiap mutasi
+     */
+    private static final int PRUNE_INTERVAL = 100;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${simian.model-sync.history-size:10000}")
+    private long historySize;
+
+    private TransactionTemplate writeTemplate;
+
+    @PostConstruct
+    void init() {
+        // Ikut transaksi mutasi; transaksi sendiri hanya jika event dipublish di luar transaksi
+        writeTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onRbacChange(RbacChangeEvent event) {
+        if (event.entityType() == RbacChangeEvent.EntityType.USER) {
+            return;
+        }
+        writeTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update(BUMP_SQL);
+            long version = jdbcTemplate.queryForObject("SELECT version FROM model_version WHERE id = 1", Long.class);
+            jdbcTemplate.update(INSERT_SQL,
+                new Object[] {version, event.entityType().name(), event.action().name(), event.entityId(),
+                    event.relatedId()},
+                new int[] {Types.BIGINT, Types.VARCHAR, Types.VARCHAR, Types.INTEGER, Types.INTEGER});
+            if (version % PRUNE_INTERVAL == 0) {
+                jdbcTemplate.update("DELETE FROM model_change WHERE version <= ?", version - historySize);
+            }
+        });
+    }
+}
@@ -0,0 +1,10 @@
+package simian.testing.feed;
+
+import java.time.LocalDateTime;
+
+/**
+ * Keadaan terbaru role yang berubah
+ */
+public record RoleChange(Integer roleId, String roleName, String roleDescription, Integer parentRoleId,
+                         LocalDateTime updatedDate) {
+}
@@ -0,0 +1,17 @@
+package simian.testing.feed;
+
+import java.time.LocalDateTime;
+
+/**
+ * Penanda penghapusan untuk consumer change feed
+ * @param tombstoneId ID tombstone (urutan penghapusan)
+ * @param entityType USER, ROLE, ACCESS atau GRANT
+ * @param entityId ID yang dihapus (untuk GRANT: roleId)
+ * @param relatedId Untuk GRANT: accessId, selain itu null
+ * @param roleAccessId Untuk GRANT: role_access_id grant yang dihapus (sama dengan GrantChange.roleAccessId),
+ *                     sehingga grant baru untuk pasangan role-access yang sama tidak ikut terhapus; selain itu null
+ * @param deletedDate Waktu penghapusan
+ */
+public record Tombstone(Long tombstoneId, String entityType, Integer entityId, Integer relatedId,
+                        Integer roleAccessId, LocalDateTime deletedDate) {
+}
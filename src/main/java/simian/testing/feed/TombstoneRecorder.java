@@ -0,0 +1,34 @@
+package simian.testing.feed;
+
+import java.sql.Types;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import simian.testing.event.RbacChangeEvent;
+
+/**
+ * Mencatat tombstone untuk setiap penghapusan user, role, access dan grant
+ * Ditulis sebelum commit di transaksi yang sama, sehingga tombstone ada jika dan hanya jika penghapusannya commit.
+ * deleted_date diisi CURRENT_TIMESTAMP(3) database, jam yang sama dengan timestamp baris lain di change feed
+ */
+@Component
+public class TombstoneRecorder {
+
+    private static final String INSERT_SQL =
+        "INSERT INTO change_tombstone (entity_type, entity_id, related_id, role_access_id) VALUES (?, ?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onRbacChange(RbacChangeEvent event) {
+        if (event.action() != RbacChangeEvent.Action.DELETED) {
+            return;
+        }
+        jdbcTemplate.update(INSERT_SQL,
+            new Object[] {event.entityType().name(), event.entityId(), event.relatedId(), event.roleAccessId()},
+            new int[] {Types.VARCHAR, Types.INTEGER, Types.INTEGER, Types.INTEGER});
+    }
+}
@@ -0,0 +1,10 @@
+package simian.testing.feed;
+
+import java.time.LocalDateTime;
+
+/**
+ * Keadaan terbaru user yang berubah (tanpa password)
+ */
+public record UserChange(Integer userId, String username, String email, String firstName, String lastName,
+                         Integer isActive, Integer roleId, LocalDateTime updatedDate) {
+}
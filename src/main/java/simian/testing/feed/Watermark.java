@@ -0,0 +1,16 @@
+package simian.testing.feed;
+
+import java.time.LocalDateTime;
+
+/**
+ * Posisi keyset di change feed: baris dengan (timestamp, id) lebih besar dari watermark belum dikirim
+ * @param timestamp Timestamp perubahan terakhir yang sudah diterima consumer
+ * @param id ID baris terakhir pada timestamp tersebut
+ */
+public record Watermark(LocalDateTime timestamp, long id) {
+
+    /**
+     * Watermark awal: semua baris dianggap berubah
+     */
+    public static final Watermark START = new Watermark(LocalDateTime.of(1970, 1, 1, 0, 0, 1), 0);
+}
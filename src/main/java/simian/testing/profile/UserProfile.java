@@ -0,0 +1,17 @@
+package simian.testing.profile;
+
+import java.util.List;
+import java.util.Map;
+import simian.testing.dto.AccessView;
+import simian.testing.dto.RoleView;
+import simian.testing.dto.UserSummary;
+
+/**
+ * Data halaman profil user
+ * @param effectiveAccesses Access efektif role (grant langsung dan warisan dari ancestor), terurut nama
+ * @param roleUserCount Jumlah user dengan role yang sama
+ * @param permissionsByModule Module -> action yang diizinkan, terurut; access tanpa module tidak ikut
+ */
+public record UserProfile(UserSummary user, RoleView role, List<AccessView> effectiveAccesses, long roleUserCount,
+                          Map<String, List<String>> permissionsByModule) {
+}
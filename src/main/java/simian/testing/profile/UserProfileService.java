@@ -0,0 +1,144 @@
+package simian.testing.profile;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import simian.testing.dto.AccessView;
+import simian.testing.dto.RoleView;
+import simian.testing.dto.UserSummary;
+import simian.testing.entity.Access;
+import simian.testing.entity.User;
+import simian.testing.service.AccessService;
+import simian.testing.service.RoleService;
+import simian.testing.service.UserService;
+
+/**
+ * Facade async untuk halaman profil user
+ * Setelah user dibaca (roleId dibutuhkan semua load lain), role, access efektif dan jumlah user role
+ * dibaca paralel di virtual thread, masing-masing di transaksi read-only sendiri (bagian profil bisa berasal
+ * dari snapshot yang sedikit berbeda jika ada mutasi serentak). Breakdown per module dihitung dari access
+ * efektif tanpa query tambahan
+ *
+ * Seluruh profil dibatasi satu timeout end-to-end (simian.profile.timeout-ms). Load yang masih berjalan
+ * saat timeout tidak dihentikan; hasilnya dibuang dan koneksinya kembali ke pool setelah query selesai
+ */
+@Service
+public class UserProfileService {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private RoleService roleService;
+
+    @Autowired
+    private AccessService accessService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${simian.profile.timeout-ms:2000}")
+    private long timeoutMs;
+
+    private ExecutorService executor;
+    private TransactionTemplate readTemplate;
+
+    @PostConstruct
+    void init() {
+        executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("user-profile-", 0).factory());
+        readTemplate = new TransactionTemplate(transactionManager);
+        readTemplate.setReadOnly(true);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Memuat profil user secara async
+     * @param userId ID user
+     * @return Future yang gagal dengan IllegalArgumentException jika user tidak ditemukan,
+     *         atau TimeoutException jika profil tidak selesai dalam simian.profile.timeout-ms
+     */
+    public CompletableFuture<UserProfile> getProfileAsync(Integer userId) {
+        return load(() -> toSummary(userService.getUserById(userId)))
+            .thenCompose(user -> {
+                Integer roleId = user.roleId();
+                CompletableFuture<RoleView> role = load(() -> RoleView.from(roleService.getRoleById(roleId)));
+                CompletableFuture<List<AccessView>> accesses =
+                    load(() -> toViews(accessService.getAccessesByRole(roleId)));
+                CompletableFuture<Long> userCount = load(() -> roleService.getUserCountByRole(roleId));
+                return CompletableFuture.allOf(role, accesses, userCount)
+                    .thenApply(ignored -> new UserProfile(user, role.join(), accesses.join(), userCount.join(),
+                        permissionsByModule(accesses.join())));
+            })
+            .orTimeout(timeoutMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Memuat profil user dan menunggu hasilnya
+     * @param userId ID user
+     * @return Profil user
+     * @throws IllegalArgumentException jika user tidak ditemukan
+     * @throws IllegalStateException jika profil tidak selesai dalam simian.profile.timeout-ms
+     */
+    public UserProfile getProfile(Integer userId) {
+        try {
+            return getProfileAsync(userId).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof TimeoutException) {
+                throw new IllegalStateException(
+                    "Profil user dengan ID " + userId + " tidak selesai dalam " + timeoutMs + " ms", e.getCause());
+            }
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private <T> CompletableFuture<T> load(Supplier<T> loader) {
+        return CompletableFuture.supplyAsync(() -> readTemplate.execute(status -> loader.get()), executor);
+    }
+
+    static UserSummary toSummary(User user) {
+        return new UserSummary(user.getUserId(), user.getUsername(), user.getEmail(), user.getFirstName(),
+            user.getLastName(), user.getRole().getRoleId());
+    }
+
+    static List<AccessView> toViews(List<Access> accesses) {
+        return accesses.stream()
+            .map(AccessView::from)
+            .sorted(Comparator.comparing(AccessView::accessName))
+            .toList();
+    }
+
+    static Map<String, List<String>> permissionsByModule(List<AccessView> accesses) {
+        Map<String, TreeSet<String>> actions = new TreeMap<>();
+        for (AccessView access : accesses) {
+            if (access.moduleName() != null && access.actionType() != null) {
+                actions.computeIfAbsent(access.moduleName(), module -> new TreeSet<>()).add(access.actionType());
+            }
+        }
+        Map<String, List<String>> result = new TreeMap<>();
+        actions.forEach((module, moduleActions) -> result.put(module, List.copyOf(moduleActions)));
+        return result;
+    }
+}
@@ -0,0 +1,391 @@
+package simian.testing.service;
+
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import simian.testing.event.RbacChangeEvent;
+
+/**
+ * Inverted index untuk menjawab "siapa yang memegang access X"
+ * Dua tingkat bitmap: access -> role yang memilikinya (langsung, warisan atau wildcard) dan
+ * role -> user aktif. Pemegang access adalah OR dari bitmap user semua role tersebut, sehingga
+ * operasi himpunan (punya X tapi tidak Y, punya semua, punya salah satu) cukup and/or/andNot bitmap
+ *
+ * Index dibangun saat pertama dipakai lalu diperbarui secara inkremental dari RbacChangeEvent:
+ * perubahan user hanya menggeser satu bit, grant hanya menghitung ulang role tersebut beserta descendant-nya
+ * untuk access yang diberikan (atau yang dicakup wildcard-nya), perubahan parent role hanya subtree role itu,
+ * dan perubahan access hanya kolom access tersebut (ditambah kolom yang dicakup jika access-nya wildcard)
+ *
+ * Pembaca tidak pernah mengambil lock: index dipublikasikan sebagai objek immutable lewat field volatile.
+ * Update disusun di salinan map (hanya bitmap yang berubah yang di-clone) lalu ditukar sekaligus,
+ * dan antar-update diserialkan dengan lock yang tidak pernah disentuh pembaca
+ *
+ * Bitmap user per role memakai CompactBitmap (bergaya roaring): BitSet berukuran sebesar userId terbesar
+ * di role tersebut, sehingga 500 role dengan user yang tersebar di 5 juta ID menjadi sekitar 300 MB.
+ * CompactBitmap hanya sekitar 2 byte per user aktif ditambah overhead per blok 65536 ID (kurang dari 15 MB
+ * untuk contoh yang sama), dan update user hanya menyalin satu blok. Role per user tidak disimpan terpisah;
+ * role lama dicari dari bitmap. Bitmap role per access tetap BitSet karena roleId sedikit dan padat
+ */
+@Component
+public class AccessHolderIndex {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PermissionMatcher permissionMatcher;
+
+    private final ReentrantLock updateLock = new ReentrantLock();
+    private volatile Index index;
+
+    // Hanya disentuh oleh pemegang updateLock
+    private final Map<Integer, AccessKey> accessKeys = new HashMap<>();
+
+    /**
+     * User aktif yang memegang access, langsung lewat grant role-nya atau lewat warisan/wildcard
+     * @return Bitmap userId baru (boleh diubah pemanggil)
+     */
+    public BitSet holdersOf(Integer accessId) {
+        return ensureBuilt().holders(accessId);
+    }
+
+    /**
+     * User aktif yang memegang semua access
+     */
+    public BitSet holdersOfAll(Collection<Integer> accessIds) {
+        Index current = ensureBuilt();
+        BitSet result = null;
+        for (Integer accessId : accessIds) {
+            BitSet holders = current.holders(accessId);
+            if (result == null) {
+                result = holders;
+            } else {
+                result.and(holders);
+            }
+            if (result.isEmpty()) {
+                break;
+            }
+        }
+        return result != null ? result : new BitSet();
+    }
+
+    /**
+     * User aktif yang memegang minimal satu access
+     */
+    public BitSet holdersOfAny(Collection<Integer> accessIds) {
+        Index current = ensureBuilt();
+        BitSet result = new BitSet();
+        for (Integer accessId : accessIds) {
+            result.or(current.holders(accessId));
+        }
+        return result;
+    }
+
+    /**
+     * User aktif yang memegang access tetapi tidak memegang access lain
+     */
+    public BitSet holdersOfExcept(Integer accessId, Integer excludedAccessId) {
+        Index current = ensureBuilt();
+        BitSet result = current.holders(accessId);
+        result.andNot(current.holders(excludedAccessId));
+        return result;
+    }
+
+    /**
+     * Memperbarui index setelah mutasi commit
+     * Harus berjalan setelah PermissionMatcher membuang cache-nya (urutan default listener paling akhir)
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRbacChange(RbacChangeEvent event) {
+        updateLock.lock();
+        try {
+            Index current = index;
+            if (current == null) {
+                return;
+            }
+            index = switch (event.entityType()) {
+                case USER -> refreshUser(current, event.entityId());
+                case GRANT -> refreshGrant(current, event.entityId(), event.relatedId());
+                case ROLE -> refreshRole(current, event);
+                case ACCESS -> refreshAccess(current, event);
+            };
+        } finally {
+            updateLock.unlock();
+        }
+    }
+
+    private Index ensureBuilt() {
+        Index current = index;
+        if (current != null) {
+            return current;
+        }
+        updateLock.lock();
+        try {
+            if (index == null) {
+                index = build();
+            }
+            return index;
+        } finally {
+            updateLock.unlock();
+        }
+    }
+
+    private Index build() {
+        Map<Integer, CompactBitmap.Builder> builders = new HashMap<>();
+        jdbcTemplate.query("SELECT user_id, role_id FROM user WHERE is_active = 1", rs -> {
+            builders.computeIfAbsent(rs.getInt("role_id"), key -> new CompactBitmap.Builder()).add(rs.getInt("user_id"));
+        });
+        Map<Integer, CompactBitmap> users = new HashMap<>(builders.size() * 2);
+        builders.forEach((roleId, builder) -> users.put(roleId, builder.build()));
+        accessKeys.putAll(loadAccessKeys());
+        Map<Integer, BitSet> rolesByAccess = recompute(Map.of(), accessKeys.keySet(), allRoleIds());
+        return new Index(rolesByAccess, users);
+    }
+
+    /**
+     * Perkiraan memori bitmap user per role, dalam byte
+     */
+    public long estimatedUserBitmapBytes() {
+        Index current = index;
+        if (current == null) {
+            return 0;
+        }
+        long result = 0;
+        for (CompactBitmap users : current.usersByRole().values()) {
+            result += users.estimatedBytes();
+        }
+        return result;
+    }
+
+    /**
+     * Memindahkan bit user sesuai role dan status aktif terbarunya (user dihapus atau nonaktif dikeluarkan)
+     */
+    private Index refreshUser(Index current, Integer userId) {
+        List<Integer> currentRole = jdbcTemplate.queryForList(
+            "SELECT role_id FROM user WHERE user_id = ? AND is_active = 1", Integer.class, userId);
+        Integer roleId = currentRole.isEmpty() ? null : currentRole.get(0);
+        Integer previousRole = current.roleOf(userId);
+        if (Objects.equals(previousRole, roleId)) {
+            return current;
+        }
+
+        Map<Integer, CompactBitmap> usersByRole = new HashMap<>(current.usersByRole());
+        if (previousRole != null) {
+            CompactBitmap users = usersByRole.get(previousRole).without(userId);
+            if (users.isEmpty()) {
+                usersByRole.remove(previousRole);
+            } else {
+                usersByRole.put(previousRole, users);
+            }
+        }
+        if (roleId != null) {
+            usersByRole.put(roleId, usersByRole.getOrDefault(roleId, CompactBitmap.EMPTY).with(userId));
+        }
+        return new Index(current.rolesByAccess(), usersByRole);
+    }
+
+    /**
+     * Grant berubah: hanya role tersebut dan descendant-nya, dan hanya kolom access yang diberikan
+     * beserta yang dicakupnya jika access itu wildcard
+     */
+    private Index refreshGrant(Index current, Integer roleId, Integer accessId) {
+        Collection<Integer> accessIds = accessId != null && accessKeys.containsKey(accessId)
+            ? coveredBy(accessId, accessKeys.get(accessId), null)
+            : accessKeys.keySet();
+        return new Index(recompute(current.rolesByAccess(), accessIds, descendantsOf(roleId)), current.usersByRole());
+    }
+
+    /**
+     * Role baru belum punya grant maupun user; role yang dihapus pasti tanpa child dan user (dicegah RoleService)
+     * sehingga cukup bitnya dibuang; update (termasuk parent) mengubah warisan subtree role tersebut
+     */
+    private Index refreshRole(Index current, RbacChangeEvent event) {
+        Integer roleId = event.entityId();
+        return switch (event.action()) {
+            case CREATED -> current;
+            case UPDATED -> new Index(
+                recompute(current.rolesByAccess(), accessKeys.keySet(), descendantsOf(roleId)), current.usersByRole());
+            case DELETED -> {
+                Map<Integer, BitSet> rolesByAccess = new HashMap<>(current.rolesByAccess());
+                rolesByAccess.replaceAll((accessId, roles) -> {
+                    if (!roles.get(roleId)) {
+                        return roles;
+                    }
+                    BitSet changed = (BitSet) roles.clone();
+                    changed.clear(roleId);
+                    return changed;
+                });
+                Map<Integer, CompactBitmap> usersByRole = new HashMap<>(current.usersByRole());
+                usersByRole.remove(roleId);
+                yield new Index(rolesByAccess, usersByRole);
+            }
+        };
+    }
+
+    /**
+     * Access berubah: kolom access tersebut untuk semua role; jika access lama atau barunya wildcard,
+     * kolom access yang dicakupnya ikut dihitung ulang
+     */
+    private Index refreshAccess(Index current, RbacChangeEvent event) {
+        Integer accessId = event.entityId();
+        AccessKey previous = accessKeys.remove(accessId);
+        AccessKey updated = null;
+        if (event.action() != RbacChangeEvent.Action.DELETED) {
+            List<AccessKey> keys = jdbcTemplate.query(
+                "SELECT module_name, action_type FROM access WHERE access_id = ?",
+                (rs, rowNum) -> new AccessKey(rs.getString("module_name"), rs.getString("action_type")), accessId);
+            if (!keys.isEmpty()) {
+                updated = keys.get(0);
+                accessKeys.put(accessId, updated);
+            }
+        }
+
+        Set<Integer> accessIds = new LinkedHashSet<>();
+        if (previous != null) {
+            accessIds.addAll(coveredBy(accessId, previous, accessId));
+        }
+        if (updated != null) {
+            accessIds.addAll(coveredBy(accessId, updated, null));
+        }
+        Map<Integer, BitSet> rolesByAccess = recompute(current.rolesByAccess(), accessIds, allRoleIds());
+        if (updated == null && rolesByAccess.containsKey(accessId)) {
+            rolesByAccess = new HashMap<>(rolesByAccess);
+            rolesByAccess.remove(accessId);
+        }
+        return new Index(rolesByAccess, current.usersByRole());
+    }
+
+    /**
+     * Access itu sendiri ditambah semua access yang module/action-nya dicakup jika access itu wildcard
+     * (perkiraan atas; hasil akhirnya tetap ditentukan PermissionMatcher)
+     * @param excluded Access yang tidak dimasukkan (access yang sudah dihapus), boleh null
+     */
+    private Collection<Integer> coveredBy(Integer accessId, AccessKey key, Integer excluded) {
+        Set<Integer> result = new LinkedHashSet<>();
+        if (!accessId.equals(excluded)) {
+            result.add(accessId);
+        }
+        if (key.isWildcard()) {
+            accessKeys.forEach((otherId, other) -> {
+                if (key.covers(other)) {
+                    result.add(otherId);
+                }
+            });
+        }
+        return result;
+    }
+
+    /**
+     * Menghitung ulang bit role-role tertentu di kolom access tertentu
+     * Map dan bitmap yang sudah ada tidak diubah; kolom yang berubah di-clone ke map baru
+     * @return Map lama jika tidak ada bit yang berubah
+     */
+    private Map<Integer, BitSet> recompute(Map<Integer, BitSet> rolesByAccess, Collection<Integer> accessIds,
+                                           Collection<Integer> roleIds) {
+        Map<Integer, BitSet> result = null;
+        for (Integer accessId : accessIds) {
+            BitSet before = rolesByAccess.get(accessId);
+            BitSet after = before == null ? new BitSet() : null;
+            for (Integer roleId : roleIds) {
+                boolean permitted = isPermitted(roleId, accessId);
+                if (permitted != (before != null && before.get(roleId))) {
+                    if (after == null) {
+                        after = (BitSet) before.clone();
+                    }
+                    after.set(roleId, permitted);
+                }
+            }
+            if (after != null) {
+                if (result == null) {
+                    result = new HashMap<>(rolesByAccess);
+                }
+                result.put(accessId, after);
+            }
+        }
+        return result != null ? result : rolesByAccess;
+    }
+
+    private List<Integer> descendantsOf(Integer roleId) {
+        return jdbcTemplate.queryForList(
+            "SELECT descendant_id FROM role_closure WHERE ancestor_id = ?", Integer.class, roleId);
+    }
+
+    private List<Integer> allRoleIds() {
+        return jdbcTemplate.queryForList("SELECT role_id FROM role", Integer.class);
+    }
+
+    private Map<Integer, AccessKey> loadAccessKeys() {
+        Map<Integer, AccessKey> result = new HashMap<>();
+        jdbcTemplate.query("SELECT access_id, module_name, action_type FROM access", rs -> {
+            result.put(rs.getInt("access_id"), new AccessKey(rs.getString("module_name"), rs.getString("action_type")));
+        });
+        return result;
+    }
+
+    private boolean isPermitted(Integer roleId, Integer accessId) {
+        try {
+            return permissionMatcher.hasAccess(roleId, accessId);
+        } catch (IllegalArgumentException e) {
+            // Role sudah dihapus
+            return false;
+        }
+    }
+
+    /**
+     * Isi index yang dipublikasikan; map dan bitmap di dalamnya tidak pernah diubah setelah dipublikasikan
+     */
+    private record Index(Map<Integer, BitSet> rolesByAccess, Map<Integer, CompactBitmap> usersByRole) {
+
+        BitSet holders(Integer accessId) {
+            BitSet result = new BitSet();
+            BitSet roles = rolesByAccess.get(accessId);
+            if (roles == null) {
+                return result;
+            }
+            for (int roleId = roles.nextSetBit(0); roleId >= 0; roleId = roles.nextSetBit(roleId + 1)) {
+                CompactBitmap users = usersByRole.get(roleId);
+                if (users != null) {
+                    users.orInto(result);
+                }
+            }
+            return result;
+        }
+
+        /**
+         * Role user aktif menurut index, null jika user tidak ada di index
+         */
+        Integer roleOf(int userId) {
+            for (Map.Entry<Integer, CompactBitmap> entry : usersByRole.entrySet()) {
+                if (entry.getValue().contains(userId)) {
+                    return entry.getKey();
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Module dan action sebuah access, untuk menentukan kolom yang dicakup access wildcard
+     */
+    private record AccessKey(String moduleName, String actionType) {
+
+        boolean isWildcard() {
+            return PermissionMatcher.WILDCARD.equals(moduleName) || PermissionMatcher.WILDCARD.equals(actionType);
+        }
+
+        boolean covers(AccessKey other) {
+            return (PermissionMatcher.WILDCARD.equals(moduleName) || Objects.equals(moduleName, other.moduleName))
+                && (PermissionMatcher.WILDCARD.equals(actionType) || Objects.equals(actionType, other.actionType));
+        }
+    }
+}
@@ -1,12 +1,23 @@
 package simian.testing.service;
 
+import java.util.BitSet;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import simian.testing.dao.AccessDAO;
+import simian.testing.dao.RoleHierarchyDAO;
+import simian.testing.dao.UserDAO;
+import simian.testing.dto.UserSummary;
 import simian.testing.entity.Access;
+import simian.testing.event.RbacChangeEvent;
+import simian.testing.event.RbacChangeEvent.Action;
+import simian.testing.event.RbacChangeEvent.EntityType;
 
 /**
  * Service untuk Access Management
@@ -20,6 +31,21 @@ public class AccessService {
     @Autowired
     private AccessDAO accessDAO;
 
+    @Autowired
+    private RoleHierarchyDAO roleHierarchyDAO;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private OptimisticRetryTemplate retryTemplate;
+
+    @Autowired
+    private AccessHolderIndex accessHolderIndex;
+
+    @Autowired
+    private UserDAO userDAO;
+
     /**
      * Create - Membuat access baru
      * @param accessName Nama access (harus unik)
@@ -42,9 +68,29 @@ public class AccessService {
         Integer accessId = accessDAO.create(access);
         access.setAccessId(accessId);
         
+        eventPublisher.publishEvent(RbacChangeEvent.of(EntityType.ACCESS, Action.CREATED, accessId));
         return access;
     }
 
+    /**
+     * Membuat access wildcard, mis. PROJECT_ORDER:* (semua action di module) atau *:VIEW (VIEW di semua module)
+     * Nama access dibentuk otomatis sebagai moduleName:actionType
+     * @param moduleName Nama module atau "*"
+     * @param actionType Tipe aksi atau "*"
+     * @param accessDescription Deskripsi access
+     * @return Access wildcard yang telah dibuat
+     * @throws IllegalArgumentException jika tidak ada wildcard atau access sudah ada
+     */
+    public Access createWildcardAccess(String moduleName, String actionType, String accessDescription) {
+        if (moduleName == null || actionType == null) {
+            throw new IllegalArgumentException("Module dan action wajib diisi");
+        }
+        if (!PermissionMatcher.WILDCARD.equals(moduleName) && !PermissionMatcher.WILDCARD.equals(actionType)) {
+            throw new IllegalArgumentException("Access wildcard harus memakai '*' pada module atau action");
+        }
+        return createAccess(moduleName + ":" + actionType, accessDescription, moduleName, actionType);
+    }
+
     /**
      * Read - Mengambil access berdasarkan accessId
      * @param accessId ID access yang dicari
@@ -52,11 +98,17 @@ public class AccessService {
      * @throws IllegalArgumentException jika access tidak ditemukan
      */
     public Access getAccessById(Integer accessId) {
-        Optional<Access> access = accessDAO.read(accessId);
-        if (!access.isPresent()) {
-            throw new IllegalArgumentException("Access dengan ID " + accessId + " tidak ditemukan");
-        }
-        return access.get();
+        return findAccessById(accessId).orElseThrow(() ->
+            new IllegalArgumentException("Access dengan ID " + accessId + " tidak ditemukan"));
+    }
+
+    /**
+     * Read - Mencari access berdasarkan accessId tanpa exception jika tidak ditemukan
+     * @param accessId ID access yang dicari
+     * @return Access, atau Optional kosong jika tidak ditemukan
+     */
+    public Optional<Access> findAccessById(Integer accessId) {
+        return accessDAO.read(accessId);
     }
 
     /**
@@ -69,8 +121,15 @@ public class AccessService {
      * @return Access yang telah diupdate
      * @throws IllegalArgumentException jika access tidak ditemukan atau access name sudah ada
      */
+    @Transactional(propagation = Propagation.SUPPORTS)
     public Access updateAccess(Integer accessId, String accessName, String accessDescription,
                               String moduleName, String actionType) {
+        return retryTemplate.execute("access.update",
+            () -> doUpdateAccess(accessId, accessName, accessDescription, moduleName, actionType));
+    }
+
+    private Access doUpdateAccess(Integer accessId, String accessName, String accessDescription,
+                              String moduleName, String actionType) {
         
         Access access = getAccessById(accessId);
         
@@ -98,6 +157,7 @@ public class AccessService {
         }
         
         accessDAO.update(access);
+        eventPublisher.publishEvent(RbacChangeEvent.of(EntityType.ACCESS, Action.UPDATED, accessId));
         return access;
     }
 
@@ -109,6 +169,7 @@ public class AccessService {
     public void deleteAccess(Integer accessId) {
         getAccessById(accessId); // Validasi access ada
         accessDAO.delete(accessId);
+        eventPublisher.publishEvent(RbacChangeEvent.of(EntityType.ACCESS, Action.DELETED, accessId));
     }
 
     /**
@@ -126,11 +187,17 @@ public class AccessService {
      * @throws IllegalArgumentException jika access tidak ditemukan
      */
     public Access getAccessByName(String accessName) {
-        Optional<Access> access = accessDAO.findByName(accessName);
-        if (!access.isPresent()) {
-            throw new IllegalArgumentException("Access '" + accessName + "' tidak ditemukan");
-        }
-        return access.get();
+        return findAccessByName(accessName).orElseThrow(() ->
+            new IllegalArgumentException("Access '" + accessName + "' tidak ditemukan"));
+    }
+
+    /**
+     * Mencari access berdasarkan nama tanpa exception jika tidak ditemukan
+     * @param accessName Nama access yang dicari
+     * @return Access, atau Optional kosong jika tidak ditemukan
+     */
+    public Optional<Access> findAccessByName(String accessName) {
+        return accessDAO.findByName(accessName);
     }
 
     /**
@@ -161,11 +228,80 @@ public class AccessService {
     }
 
     /**
-     * Mengambil semua access untuk role tertentu
+     * Mengambil semua access efektif untuk role tertentu (grant langsung dan yang diwarisi dari ancestor)
      * @param roleId ID role yang dicari
      * @return List dari access yang dimiliki role tersebut
      */
     public List<Access> getAccessesByRole(Integer roleId) {
-        return accessDAO.findAccessesByRole(roleId);
+        return roleHierarchyDAO.findEffectiveAccesses(roleId);
+    }
+
+    /**
+     * Mengambil access efektif banyak role sekaligus, pengganti getAccessesByRole di dalam loop
+     * @param roleIds Daftar roleId
+     * @return Map roleId -> access efektif untuk setiap roleId yang diminta; role tanpa grant mendapat list kosong
+     */
+    public Map<Integer, List<Access>> getAccessesByRoles(Collection<Integer> roleIds) {
+        return roleHierarchyDAO.findEffectiveAccessesByRoles(roleIds);
+    }
+
+    /**
+     * Mengambil userId semua user aktif yang memegang access (lewat role, warisan atau wildcard)
+     * @param accessName Nama access, mis. DELETE_PROJECT_ORDER
+     * @return List userId terurut
+     * @throws IllegalArgumentException jika access tidak ditemukan
+     */
+    public List<Integer> getUserIdsWithAccess(String accessName) {
+        return toList(accessHolderIndex.holdersOf(getAccessByName(accessName).getAccessId()));
+    }
+
+    /**
+     * Mengambil ringkasan semua user aktif yang memegang access
+     * @param accessName Nama access
+     * @return List ringkasan user terurut userId
+     * @throws IllegalArgumentException jika access tidak ditemukan
+     */
+    public List<UserSummary> getUsersWithAccess(String accessName) {
+        return userDAO.findSummariesByIds(getUserIdsWithAccess(accessName));
+    }
+
+    /**
+     * Mengambil userId user aktif yang memegang access tetapi tidak memegang access lain
+     * @param accessName Nama access yang dimiliki
+     * @param excludedAccessName Nama access yang tidak boleh dimiliki
+     * @return List userId terurut
+     * @throws IllegalArgumentException jika salah satu access tidak ditemukan
+     */
+    public List<Integer> getUserIdsWithAccessExcept(String accessName, String excludedAccessName) {
+        return toList(accessHolderIndex.holdersOfExcept(
+            getAccessByName(accessName).getAccessId(), getAccessByName(excludedAccessName).getAccessId()));
+    }
+
+    /**
+     * Mengambil userId user aktif yang memegang semua access
+     * @param accessNames Daftar nama access
+     * @return List userId terurut
+     * @throws IllegalArgumentException jika salah satu access tidak ditemukan
+     */
+    public List<Integer> getUserIdsWithAllAccesses(List<String> accessNames) {
+        return toList(accessHolderIndex.holdersOfAll(toAccessIds(accessNames)));
+    }
+
+    /**
+     * Mengambil userId user aktif yang memegang minimal satu access
+     * @param accessNames Daftar nama access
+     * @return List userId terurut
+     * @throws IllegalArgumentException jika salah satu access tidak ditemukan
+     */
+    public List<Integer> getUserIdsWithAnyAccess(List<String> accessNames) {
+        return toList(accessHolderIndex.holdersOfAny(toAccessIds(accessNames)));
+    }
+
+    private List<Integer> toAccessIds(List<String> accessNames) {
+        return accessNames.stream().map(name -> getAccessByName(name).getAccessId()).toList();
+    }
+
+    private static List<Integer> toList(BitSet userIds) {
+        return userIds.stream().boxed().toList();
     }
 }
@@ -0,0 +1,141 @@
+package simian.testing.service;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import simian.testing.dto.AccessView;
+import simian.testing.dto.RoleView;
+import simian.testing.event.RbacChangeEvent;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Cache JSON katalog role dan access yang sudah di-serialize beserta strong ETag-nya
+ * Dibangun ulang hanya setelah mutasi role/access/grant commit, sehingga request berulang
+ * tidak menyentuh Hibernate maupun Jackson
+ */
+@Component
+public class CatalogCache {
+
+    /**
+     * Batas jumlah module yang di-cache agar parameter module sembarang tidak membuat cache membengkak
+     */
+    private static final int MAX_CACHED_MODULES = 256;
+
+    private static final String ALL_MODULES = "";
+
+    @Autowired
+    private RoleService roleService;
+
+    @Autowired
+    private AccessService accessService;
+
+    @Autowired
+    private JsonMapper jsonMapper;
+
+    private final AtomicLong generation = new AtomicLong();
+    private volatile Entry roles;
+    private final Map<String, Entry> accessesByModule = new ConcurrentHashMap<>();
+
+    /**
+     * JSON semua role
+     */
+    public CachedJson getRoles() {
+        CachedJson cached = current(roles);
+        if (cached != null) {
+            return cached;
+        }
+        synchronized (this) {
+            cached = current(roles);
+            if (cached != null) {
+                return cached;
+            }
+            long expectedGeneration = generation.get();
+            CachedJson built = build(() -> roleService.getAllRoles().stream().map(RoleView::from).toList());
+            roles = new Entry(built, expectedGeneration);
+            return built;
+        }
+    }
+
+    /**
+     * JSON access, seluruhnya atau dalam satu module
+     * @param moduleName Nama module, null untuk semua access
+     */
+    public CachedJson getAccesses(String moduleName) {
+        String key = moduleName != null ? moduleName : ALL_MODULES;
+        CachedJson cached = current(accessesByModule.get(key));
+        if (cached != null) {
+            return cached;
+        }
+        synchronized (this) {
+            cached = current(accessesByModule.get(key));
+            if (cached != null) {
+                return cached;
+            }
+            long expectedGeneration = generation.get();
+            CachedJson built = build(() -> (moduleName != null
+                    ? accessService.getAccessesByModule(moduleName)
+                    : accessService.getAllAccess())
+                .stream().map(AccessView::from).toList());
+            if (accessesByModule.size() < MAX_CACHED_MODULES || accessesByModule.containsKey(key)) {
+                accessesByModule.put(key, new Entry(built, expectedGeneration));
+            }
+            return built;
+        }
+    }
+
+    /**
+     * Membuang cache setelah perubahan role, access atau grant commit
+     * Generation dinaikkan lebih dulu: hasil build yang berjalan bersamaan tetap bisa tersimpan setelah clear(),
+     * tetapi membawa generation lama sehingga tidak pernah dikembalikan
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRbacChange(RbacChangeEvent event) {
+        if (event.entityType() == RbacChangeEvent.EntityType.USER) {
+            return;
+        }
+        generation.incrementAndGet();
+        roles = null;
+        accessesByModule.clear();
+    }
+
+    /**
+     * Isi cache, atau null jika kosong atau dibangun sebelum perubahan terakhir
+     */
+    private CachedJson current(Entry entry) {
+        return entry != null && entry.generation() == generation.get() ? entry.json() : null;
+    }
+
+    private CachedJson build(Supplier<List<?>> loader) {
+        byte[] body = jsonMapper.writeValueAsBytes(loader.get());
+        return new CachedJson(body, strongETag(body));
+    }
+
+    private static String strongETag(byte[] body) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+            return "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 tidak tersedia", e);
+        }
+    }
+
+    /**
+     * Body JSON siap kirim dan strong ETag (sudah dalam tanda kutip)
+     */
+    public record CachedJson(byte[] body, String etag) {
+    }
+
+    /**
+     * JSON cache beserta generation saat mulai dibangun
+     */
+    private record Entry(CachedJson json, long generation) {
+    }
+}
@@ -0,0 +1,276 @@
+package simian.testing.service;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Bitmap int immutable bergaya roaring untuk himpunan userId per role
+ * ID dibagi per blok 65536 (16 bit atas). Blok dengan maksimal 4096 anggota disimpan sebagai array char terurut
+ * (2 byte per anggota), blok yang lebih padat sebagai 1024 long (tetap 8 KB), sehingga memori mengikuti jumlah
+ * anggota dan bukan nilai ID terbesar: role dengan 10 ribu user yang tersebar di 5 juta ID sekitar 20 KB,
+ * bukan 625 KB seperti BitSet
+ *
+ * with/without menghasilkan bitmap baru yang hanya menyalin blok yang berubah; bitmap lama tidak pernah diubah
+ * sehingga aman dibaca tanpa lock setelah dipublikasikan
+ */
+final class CompactBitmap {
+
+    static final CompactBitmap EMPTY = new CompactBitmap(new int[0], new Object[0], new int[0]);
+
+    private static final int ARRAY_LIMIT = 4096;
+    private static final int BITMAP_WORDS = 1024;
+
+    // Kunci blok (16 bit atas) terurut; container berupa char[] (array) atau long[] (bitmap)
+    private final int[] keys;
+    private final Object[] containers;
+    private final int[] sizes;
+
+    private CompactBitmap(int[] keys, Object[] containers, int[] sizes) {
+        this.keys = keys;
+        this.containers = containers;
+        this.sizes = sizes;
+    }
+
+    boolean contains(int value) {
+        int index = Arrays.binarySearch(keys, value >>> 16);
+        if (index < 0) {
+            return false;
+        }
+        char low = (char) value;
+        return containers[index] instanceof char[] array
+            ? Arrays.binarySearch(array, low) >= 0
+            : (((long[]) containers[index])[low >>> 6] & (1L << low)) != 0;
+    }
+
+    /**
+     * @return Bitmap dengan value sebagai anggota (this jika sudah menjadi anggota)
+     */
+    CompactBitmap with(int value) {
+        requireNonNegative(value);
+        int high = value >>> 16;
+        char low = (char) value;
+        int index = Arrays.binarySearch(keys, high);
+        if (index < 0) {
+            return insertContainer(-index - 1, high, new char[] {low});
+        }
+        if (containers[index] instanceof char[] array) {
+            int position = Arrays.binarySearch(array, low);
+            if (position >= 0) {
+                return this;
+            }
+            if (array.length == ARRAY_LIMIT) {
+                long[] bitmap = toBitmap(array);
+                bitmap[low >>> 6] |= 1L << low;
+                return replaceContainer(index, bitmap, array.length + 1);
+            }
+            int insertAt = -position - 1;
+            char[] grown = new char[array.length + 1];
+            System.arraycopy(array, 0, grown, 0, insertAt);
+            grown[insertAt] = low;
+            System.arraycopy(array, insertAt, grown, insertAt + 1, array.length - insertAt);
+            return replaceContainer(index, grown, grown.length);
+        }
+        long[] bitmap = (long[]) containers[index];
+        if ((bitmap[low >>> 6] & (1L << low)) != 0) {
+            return this;
+        }
+        long[] changed = bitmap.clone();
+        changed[low >>> 6] |= 1L << low;
+        return replaceContainer(index, changed, sizes[index] + 1);
+    }
+
+    /**
+     * @return Bitmap tanpa value (this jika value bukan anggota)
+     */
+    CompactBitmap without(int value) {
+        int index = value < 0 ? -1 : Arrays.binarySearch(keys, value >>> 16);
+        if (index < 0) {
+            return this;
+        }
+        char low = (char) value;
+        if (containers[index] instanceof char[] array) {
+            int position = Arrays.binarySearch(array, low);
+            if (position < 0) {
+                return this;
+            }
+            if (array.length == 1) {
+                return removeContainer(index);
+            }
+            char[] shrunk = new char[array.length - 1];
+            System.arraycopy(array, 0, shrunk, 0, position);
+            System.arraycopy(array, position + 1, shrunk, position, shrunk.length - position);
+            return replaceContainer(index, shrunk, shrunk.length);
+        }
+        long[] bitmap = (long[]) containers[index];
+        if ((bitmap[low >>> 6] & (1L << low)) == 0) {
+            return this;
+        }
+        long[] changed = bitmap.clone();
+        changed[low >>> 6] &= ~(1L << low);
+        int size = sizes[index] - 1;
+        return replaceContainer(index, size <= ARRAY_LIMIT ? toArray(changed, size) : changed, size);
+    }
+
+    int cardinality() {
+        int result = 0;
+        for (int size : sizes) {
+            result += size;
+        }
+        return result;
+    }
+
+    boolean isEmpty() {
+        return keys.length == 0;
+    }
+
+    /**
+     * Menambahkan semua anggota ke target
+     */
+    void orInto(BitSet target) {
+        for (int i = 0; i < keys.length; i++) {
+            int base = keys[i] << 16;
+            if (containers[i] instanceof char[] array) {
+                for (char low : array) {
+                    target.set(base | low);
+                }
+            } else {
+                long[] bitmap = (long[]) containers[i];
+                for (int word = 0; word < BITMAP_WORDS; word++) {
+                    for (long bits = bitmap[word]; bits != 0; bits &= bits - 1) {
+                        target.set(base | (word << 6) | Long.numberOfTrailingZeros(bits));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Perkiraan ukuran di heap (array dan header objek), untuk memantau batas memori index
+     */
+    long estimatedBytes() {
+        long result = 16 + 3 * 16L + keys.length * (4L + 4 + 4);
+        for (Object container : containers) {
+            result += container instanceof char[] array ? 16 + 2L * array.length : 16 + 8L * BITMAP_WORDS;
+        }
+        return result;
+    }
+
+    private CompactBitmap insertContainer(int index, int key, Object container) {
+        int[] newKeys = new int[keys.length + 1];
+        Object[] newContainers = new Object[containers.length + 1];
+        int[] newSizes = new int[sizes.length + 1];
+        System.arraycopy(keys, 0, newKeys, 0, index);
+        System.arraycopy(containers, 0, newContainers, 0, index);
+        System.arraycopy(sizes, 0, newSizes, 0, index);
+        newKeys[index] = key;
+        newContainers[index] = container;
+        newSizes[index] = 1;
+        System.arraycopy(keys, index, newKeys, index + 1, keys.length - index);
+        System.arraycopy(containers, index, newContainers, index + 1, containers.length - index);
+        System.arraycopy(sizes, index, newSizes, index + 1, sizes.length - index);
+        return new CompactBitmap(newKeys, newContainers, newSizes);
+    }
+
+    private CompactBitmap replaceContainer(int index, Object container, int size) {
+        Object[] newContainers = containers.clone();
+        int[] newSizes = sizes.clone();
+        newContainers[index] = container;
+        newSizes[index] = size;
+        return new CompactBitmap(keys, newContainers, newSizes);
+    }
+
+    private CompactBitmap removeContainer(int index) {
+        if (keys.length == 1) {
+            return EMPTY;
+        }
+        int[] newKeys = new int[keys.length - 1];
+        Object[] newContainers = new Object[containers.length - 1];
+        int[] newSizes = new int[sizes.length - 1];
+        System.arraycopy(keys, 0, newKeys, 0, index);
+        System.arraycopy(containers, 0, newContainers, 0, index);
+        System.arraycopy(sizes, 0, newSizes, 0, index);
+        System.arraycopy(keys, index + 1, newKeys, index, newKeys.length - index);
+        System.arraycopy(containers, index + 1, newContainers, index, newContainers.length - index);
+        System.arraycopy(sizes, index + 1, newSizes, index, newSizes.length - index);
+        return new CompactBitmap(newKeys, newContainers, newSizes);
+    }
+
+    private static long[] toBitmap(char[] array) {
+        long[] bitmap = new long[BITMAP_WORDS];
+        for (char low : array) {
+            bitmap[low >>> 6] |= 1L << low;
+        }
+        return bitmap;
+    }
+
+    private static char[] toArray(long[] bitmap, int size) {
+        char[] array = new char[size];
+        int position = 0;
+        for (int word = 0; word < BITMAP_WORDS; word++) {
+            for (long bits = bitmap[word]; bits != 0; bits &= bits - 1) {
+                array[position++] = (char) ((word << 6) | Long.numberOfTrailingZeros(bits));
+            }
+        }
+        return array;
+    }
+
+    private static void requireNonNegative(int value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Nilai bitmap tidak boleh negatif: " + value);
+        }
+    }
+
+    /**
+     * Pengumpul anggota untuk membangun bitmap sekaligus (urutan dan duplikat bebas),
+     * tanpa menyalin blok untuk setiap anggota seperti with
+     */
+    static final class Builder {
+
+        private int[] values = new int[16];
+        private int size;
+
+        Builder add(int value) {
+            requireNonNegative(value);
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+            return this;
+        }
+
+        CompactBitmap build() {
+            int[] sorted = Arrays.copyOf(values, size);
+            Arrays.sort(sorted);
+            // Paling banyak 32768 blok untuk ID non-negatif
+            int capacity = Math.min(size, 1 << 15);
+            int[] keys = new int[capacity];
+            Object[] containers = new Object[capacity];
+            int[] sizes = new int[capacity];
+            int count = 0;
+            int from = 0;
+            while (from < sorted.length) {
+                int high = sorted[from] >>> 16;
+                int to = from;
+                char[] lows = new char[Math.min(sorted.length - from, 1 << 16)];
+                int distinct = 0;
+                while (to < sorted.length && sorted[to] >>> 16 == high) {
+                    char low = (char) sorted[to++];
+                    if (distinct == 0 || lows[distinct - 1] != low) {
+                        lows[distinct++] = low;
+                    }
+                }
+                char[] array = Arrays.copyOf(lows, distinct);
+                keys[count] = high;
+                containers[count] = distinct <= ARRAY_LIMIT ? array : toBitmap(array);
+                sizes[count] = distinct;
+                count++;
+                from = to;
+            }
+            if (count == 0) {
+                return EMPTY;
+            }
+            return new CompactBitmap(Arrays.copyOf(keys, count), Arrays.copyOf(containers, count),
+                Arrays.copyOf(sizes, count));
+        }
+    }
+}
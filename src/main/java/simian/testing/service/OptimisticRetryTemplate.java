@@ -0,0 +1,174 @@
+package simian.testing.service;
+
+import java.sql.SQLException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.OptimisticLockException;
+import jakarta.persistence.PessimisticLockException;
+import org.hibernate.StaleStateException;
+import org.hibernate.exception.LockAcquisitionException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Menjalankan mutasi dalam transaksi sendiri dan mengulanginya jika terjadi konflik optimistic locking (@Version)
+ * atau deadlock
+ * Backoff antar percobaan memakai full jitter agar penulis yang bentrok tidak bertabrakan lagi bersamaan
+ *
+ * Lock wait timeout tidak diulang: pemanggil sudah menunggu selama timeout lock database, dan mengulanginya hanya
+ * menambah antrean di baris yang sama. Timeout dicatat di metric tersendiri lalu diteruskan ke pemanggil
+ *
+ * Jika pemanggil sudah berada di dalam transaksi, mutasi dijalankan sekali tanpa retry:
+ * transaksi luar yang harus diulang, bukan bagian di dalamnya
+ */
+@Component
+public class OptimisticRetryTemplate {
+
+    private static final Logger log = LoggerFactory.getLogger(OptimisticRetryTemplate.class);
+
+    /**
+     * SQLSTATE transaksi yang dikorbankan database (deadlock MySQL 1213, H2 40001)
+     */
+    private static final String SERIALIZATION_FAILURE = "40001";
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${simian.optimistic.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${simian.optimistic.base-backoff-ms:10}")
+    private long baseBackoffMs;
+
+    @Value("${simian.optimistic.max-backoff-ms:200}")
+    private long maxBackoffMs;
+
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Menjalankan mutasi dengan retry saat konflik versi atau deadlock
+     * @param operation Nama operasi untuk tag metric
+     * @param mutation Mutasi yang dijalankan di dalam transaksi
+     * @return Hasil mutasi
+     * @throws OptimisticLockingFailureException jika masih konflik setelah percobaan maksimum
+     * @throws PessimisticLockingFailureException saat lock wait timeout (tanpa retry)
+     */
+    public <T> T execute(String operation, Supplier<T> mutation) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return mutation.get();
+        }
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> mutation.get());
+            } catch (RuntimeException e) {
+                Conflict conflict = classify(e);
+                if (conflict == Conflict.NONE) {
+                    throw e;
+                }
+                meterRegistry.counter(conflict.metric, "operation", operation).increment();
+                if (conflict == Conflict.LOCK_TIMEOUT) {
+                    throw e;
+                }
+                if (attempt >= maxAttempts) {
+                    meterRegistry.counter("simian.optimistic.exhausted", "operation", operation).increment();
+                    throw e;
+                }
+                meterRegistry.counter("simian.optimistic.retries", "operation", operation).increment();
+                log.debug("{} pada {} (percobaan {}), diulang", conflict, operation, attempt);
+                backoff(attempt);
+            }
+        }
+    }
+
+    /**
+     * Versi tanpa nilai kembalian
+     */
+    public void run(String operation, Runnable mutation) {
+        execute(operation, () -> {
+            mutation.run();
+            return null;
+        });
+    }
+
+    /**
+     * Konflik versi bisa datang sebagai exception Spring (sudah ditranslasi) atau masih berupa
+     * exception JPA/Hibernate jika terjadi saat flush di luar proxy @Repository
+     * Deadlock dikenali dari SQLSTATE 40001: transaksinya sudah di-rollback utuh oleh database sehingga aman diulang
+     * dengan cara yang sama (mis. cek siklus hierarki role dengan locking read). Exception locking pesimis lain
+     * (lock wait timeout) tidak diulang
+     */
+    static Conflict classify(Throwable error) {
+        boolean lockFailure = false;
+        for (Throwable t = error; t != null; t = t.getCause()) {
+            if (t instanceof OptimisticLockingFailureException
+                    || t instanceof OptimisticLockException
+                    || t instanceof StaleStateException) {
+                return Conflict.VERSION;
+            }
+            if (t instanceof SQLException sqlException && SERIALIZATION_FAILURE.equals(sqlException.getSQLState())) {
+                return Conflict.DEADLOCK;
+            }
+            if (t instanceof PessimisticLockingFailureException || t instanceof LockAcquisitionException
+                    || t instanceof PessimisticLockException) {
+                lockFailure = true;
+            }
+            if (t.getCause() == t) {
+                break;
+            }
+        }
+        return lockFailure ? Conflict.LOCK_TIMEOUT : Conflict.NONE;
+    }
+
+    /**
+     * Jeda sebelum percobaan berikutnya: acak antara 0 dan min(max-backoff, base-backoff * 2^attempt)
+     */
+    long nextBackoffMs(int attempt) {
+        long ceiling = Math.min(maxBackoffMs, baseBackoffMs << Math.min(attempt, 20));
+        return ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+    private void backoff(int attempt) {
+        try {
+            TimeUnit.MILLISECONDS.sleep(nextBackoffMs(attempt));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Retry dibatalkan karena thread di-interrupt", e);
+        }
+    }
+
+    /**
+     * Jenis kegagalan mutasi beserta metric yang mencatatnya
+     */
+    enum Conflict {
+        VERSION("simian.optimistic.conflicts"),
+        DEADLOCK("simian.optimistic.deadlocks"),
+        LOCK_TIMEOUT("simian.optimistic.lock-timeouts"),
+        NONE(null);
+
+        private final String metric;
+
+        Conflict(String metric) {
+            this.metric = metric;
+        }
+    }
+}
@@ -0,0 +1,327 @@
+package simian.testing.service;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import simian.testing.dao.AccessDAO;
+import simian.testing.dao.RoleDAO;
+import simian.testing.dao.RoleHierarchyDAO;
+import simian.testing.entity.Access;
+import simian.testing.event.RbacChangeEvent;
+
+/**
+ * Matcher permission yang sudah di-compile per role, termasuk grant wildcard
+ * Access dengan moduleName atau actionType "*" (mis. PROJECT_ORDER:* atau *:VIEW) berlaku untuk semua
+ * action di module tersebut atau action tersebut di semua module
+ *
+ * Nama module dan action di-intern menjadi kode integer. Grant efektif setiap role (termasuk warisan)
+ * di-compile menjadi lookup dua tingkat module -> BitSet action, sehingga pengecekan hanya berupa
+ * probe array/BitSet berapa pun jumlah grant wildcard-nya. Hasil compile dibuang setelah mutasi
+ * role, access atau grant commit
+ *
+ * Setiap hasil compile menyimpan generation saat mulai dibaca dan hanya dipakai selama generation belum berubah,
+ * sehingga hasil yang selesai dibangun bersamaan dengan perubahan tidak pernah dipakai meskipun masih tersimpan
+ */
+@Component
+public class PermissionMatcher {
+
+    public static final String WILDCARD = "*";
+
+    private static final int UNKNOWN = -1;
+
+    @Autowired
+    private RoleDAO roleDAO;
+
+    @Autowired
+    private AccessDAO accessDAO;
+
+    @Autowired
+    private RoleHierarchyDAO roleHierarchyDAO;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final CodeTable modules = new CodeTable();
+    private final CodeTable actions = new CodeTable();
+    private final AtomicLong generation = new AtomicLong();
+    private final Map<Integer, CompiledPermissions> compiledByRole = new ConcurrentHashMap<>();
+    private volatile Catalog catalog;
+    private TransactionTemplate readTemplate;
+
+    @PostConstruct
+    void init() {
+        // Hanya dipakai saat pemanggil tidak berada di transaksi, sehingga tidak pernah mengambil koneksi pool kedua
+        readTemplate = new TransactionTemplate(transactionManager);
+        readTemplate.setReadOnly(true);
+    }
+
+    /**
+     * Mengecek apakah role boleh melakukan action di module (grant langsung, warisan maupun wildcard)
+     * @throws IllegalArgumentException jika role tidak ditemukan
+     */
+    public boolean isPermitted(Integer roleId, String moduleName, String actionType) {
+        return permissionsOf(roleId).permits(modules.find(moduleName), actions.find(actionType));
+    }
+
+    /**
+     * Mengecek apakah role memiliki access berdasarkan nama
+     * Terpenuhi oleh grant langsung atas access tersebut atau grant wildcard yang mencakup module/action-nya
+     * @throws IllegalArgumentException jika role tidak ditemukan
+     */
+    public boolean hasAccess(Integer roleId, String accessName) {
+        CompiledPermissions permissions = permissionsOf(roleId);
+        AccessCode code = catalog().byName().get(accessName);
+        return code != null && permissions.covers(code);
+    }
+
+    /**
+     * Mengecek apakah role memiliki access berdasarkan ID
+     * @throws IllegalArgumentException jika role tidak ditemukan
+     */
+    public boolean hasAccess(Integer roleId, Integer accessId) {
+        CompiledPermissions permissions = permissionsOf(roleId);
+        AccessCode code = catalog().byId().get(accessId);
+        return code != null && permissions.covers(code);
+    }
+
+    /**
+     * Membuang semua hasil compile setelah perubahan role, access atau grant commit
+     * Perubahan hierarki ikut memengaruhi descendant, sehingga seluruh cache dibuang
+     * Berjalan paling awal agar listener lain yang membaca permission tidak melihat hasil compile lama
+     */
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRbacChange(RbacChangeEvent event) {
+        if (event.entityType() == RbacChangeEvent.EntityType.USER) {
+            return;
+        }
+        generation.incrementAndGet();
+        catalog = null;
+        compiledByRole.clear();
+    }
+
+    /**
+     * Di dalam transaksi pemanggil, cache yang kosong atau basi diisi dengan compile lewat koneksi transaksi itu
+     * dan hanya disimpan sampai transaksi selesai: hasilnya bisa memuat perubahan yang belum commit atau snapshot
+     * yang lebih tua dari perubahan terakhir. Hanya compile di transaksi read-only sendiri (mulai setelah
+     * generation dibaca) yang masuk cache bersama
+     */
+    private CompiledPermissions permissionsOf(Integer roleId) {
+        long currentGeneration = generation.get();
+        CompiledPermissions compiled = compiledByRole.get(roleId);
+        if (compiled != null && compiled.generation == currentGeneration) {
+            return compiled;
+        }
+        TransactionScoped scoped = transactionScoped();
+        if (scoped != null) {
+            return scoped.compiledByRole.computeIfAbsent(roleId, id -> compile(id, currentGeneration));
+        }
+        compiled = readTemplate.execute(status -> compile(roleId, currentGeneration));
+        // Hasil yang lebih baru tidak ditimpa hasil compile lain yang mulai lebih awal
+        compiledByRole.merge(roleId, compiled, (cached, built) -> cached.generation >= built.generation ? cached : built);
+        return compiled;
+    }
+
+    private Catalog catalog() {
+        long currentGeneration = generation.get();
+        Catalog cached = catalog;
+        if (cached != null && cached.generation() == currentGeneration) {
+            return cached;
+        }
+        TransactionScoped scoped = transactionScoped();
+        if (scoped != null) {
+            if (scoped.catalog == null) {
+                scoped.catalog = buildCatalog(accessDAO.getAll(), currentGeneration);
+            }
+            return scoped.catalog;
+        }
+        Catalog built = readTemplate.execute(status -> buildCatalog(accessDAO.getAll(), currentGeneration));
+        synchronized (this) {
+            if (catalog == null || catalog.generation() < built.generation()) {
+                catalog = built;
+            }
+        }
+        return built;
+    }
+
+    /**
+     * Cache milik transaksi pemanggil, dibuat saat pertama dipakai dan dilepas saat transaksi selesai
+     * @return null jika pemanggil tidak berada di transaksi
+     */
+    private TransactionScoped transactionScoped() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()
+                || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return null;
+        }
+        TransactionScoped scoped = (TransactionScoped) TransactionSynchronizationManager.getResource(this);
+        if (scoped == null) {
+            scoped = new TransactionScoped();
+            TransactionSynchronizationManager.bindResource(this, scoped);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(PermissionMatcher.this);
+                }
+            });
+        }
+        return scoped;
+    }
+
+    private CompiledPermissions compile(Integer roleId, long compiledGeneration) {
+        if (!roleDAO.exists(roleId)) {
+            throw new IllegalArgumentException("Role dengan ID " + roleId + " tidak ditemukan");
+        }
+        List<Access> grants = roleHierarchyDAO.findEffectiveAccesses(roleId);
+
+        boolean all = false;
+        BitSet accessIds = new BitSet();
+        BitSet wildcardModules = new BitSet();
+        BitSet wildcardActions = new BitSet();
+        Map<Integer, BitSet> exact = new HashMap<>();
+
+        for (Access access : grants) {
+            accessIds.set(access.getAccessId());
+            String moduleName = access.getModuleName();
+            String actionType = access.getActionType();
+            if (moduleName == null || actionType == null) {
+                continue;
+            }
+            boolean anyModule = WILDCARD.equals(moduleName);
+            boolean anyAction = WILDCARD.equals(actionType);
+            if (anyModule && anyAction) {
+                all = true;
+            } else if (anyModule) {
+                wildcardActions.set(actions.intern(actionType));
+            } else if (anyAction) {
+                wildcardModules.set(modules.intern(moduleName));
+            } else {
+                exact.computeIfAbsent(modules.intern(moduleName), code -> new BitSet())
+                    .set(actions.intern(actionType));
+            }
+        }
+
+        BitSet[] actionsByModule = new BitSet[modules.size()];
+        exact.forEach((moduleCode, actionCodes) -> actionsByModule[moduleCode] = actionCodes);
+        return new CompiledPermissions(compiledGeneration, all, accessIds, wildcardModules, wildcardActions,
+            actionsByModule);
+    }
+
+    private Catalog buildCatalog(List<Access> accesses, long builtGeneration) {
+        Map<String, AccessCode> byName = new HashMap<>(accesses.size() * 2);
+        Map<Integer, AccessCode> byId = new HashMap<>(accesses.size() * 2);
+        for (Access access : accesses) {
+            AccessCode code = new AccessCode(access.getAccessId(),
+                concreteCode(modules, access.getModuleName()), concreteCode(actions, access.getActionType()));
+            byName.put(access.getAccessName(), code);
+            byId.put(access.getAccessId(), code);
+        }
+        return new Catalog(builtGeneration, byName, byId);
+    }
+
+    /**
+     * Kode untuk module/action konkret; null dan "*" tidak punya kode sehingga hanya cocok lewat grant langsung
+     */
+    private static int concreteCode(CodeTable table, String value) {
+        return value == null || WILDCARD.equals(value) ? UNKNOWN : table.intern(value);
+    }
+
+    /**
+     * Tabel intern nama -> kode integer berurutan; kode tidak pernah berubah selama aplikasi berjalan
+     */
+    private static final class CodeTable {
+
+        private final Map<String, Integer> codes = new ConcurrentHashMap<>();
+
+        int intern(String value) {
+            Integer code = codes.get(value);
+            if (code != null) {
+                return code;
+            }
+            synchronized (this) {
+                return codes.computeIfAbsent(value, key -> codes.size());
+            }
+        }
+
+        int find(String value) {
+            if (value == null) {
+                return UNKNOWN;
+            }
+            Integer code = codes.get(value);
+            return code != null ? code : UNKNOWN;
+        }
+
+        int size() {
+            return codes.size();
+        }
+    }
+
+    /**
+     * Grant efektif satu role dalam bentuk siap probe
+     */
+    private static final class CompiledPermissions {
+
+        private final long generation;
+        private final boolean all;
+        private final BitSet accessIds;
+        private final BitSet wildcardModules;
+        private final BitSet wildcardActions;
+        private final BitSet[] actionsByModule;
+
+        CompiledPermissions(long generation, boolean all, BitSet accessIds, BitSet wildcardModules,
+                            BitSet wildcardActions, BitSet[] actionsByModule) {
+            this.generation = generation;
+            this.all = all;
+            this.accessIds = accessIds;
+            this.wildcardModules = wildcardModules;
+            this.wildcardActions = wildcardActions;
+            this.actionsByModule = actionsByModule;
+        }
+
+        boolean permits(int module, int action) {
+            if (all) {
+                return true;
+            }
+            // Kode yang belum pernah di-intern (UNKNOWN) hanya bisa cocok lewat wildcard di sisi lainnya
+            if (module != UNKNOWN && wildcardModules.get(module)) {
+                return true;
+            }
+            if (action != UNKNOWN && wildcardActions.get(action)) {
+                return true;
+            }
+            if (module == UNKNOWN || action == UNKNOWN || module >= actionsByModule.length) {
+                return false;
+            }
+            BitSet moduleActions = actionsByModule[module];
+            return moduleActions != null && moduleActions.get(action);
+        }
+
+        boolean covers(AccessCode code) {
+            return accessIds.get(code.accessId()) || permits(code.module(), code.action());
+        }
+    }
+
+    private static final class TransactionScoped {
+
+        private final Map<Integer, CompiledPermissions> compiledByRole = new HashMap<>();
+        private Catalog catalog;
+    }
+
+    private record AccessCode(int accessId, int module, int action) {
+    }
+
+    private record Catalog(long generation, Map<String, AccessCode> byName, Map<Integer, AccessCode> byId) {
+    }
+}
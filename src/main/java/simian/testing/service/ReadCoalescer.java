@@ -0,0 +1,87 @@
+package simian.testing.service;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Lapisan single-flight di depan read DAO (mis. UserDAO.findByUsername, RoleDAO.read)
+ * Saat ratusan thread meminta user atau role populer yang sama secara bersamaan (mis. setelah cache dibuang),
+ * hanya satu query yang berjalan dan hasilnya dibagi ke semua pemanggil
+ *
+ * Hanya berlaku untuk pemanggil di luar transaksi. Pemanggil di dalam transaksi (termasuk alur mutasi di service)
+ * membaca langsung lewat DAO agar tetap mendapat entity managed dan melihat perubahan transaksinya sendiri.
+ * Leader me-load di transaksi read-only sendiri lalu men-detach entity-nya, sehingga semua pemanggil menerima
+ * instance detached yang sama: hasil hanya untuk dibaca dan relasi lazy (mis. Role.users) tidak bisa di-load
+ */
+@Component
+public class ReadCoalescer {
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private SessionFactory sessionFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${simian.singleflight.enabled:true}")
+    private boolean enabled;
+
+    private final Map<String, SingleFlight<Object, Optional<?>>> flights = new ConcurrentHashMap<>();
+    private TransactionTemplate readTemplate;
+
+    @PostConstruct
+    void init() {
+        readTemplate = new TransactionTemplate(transactionManager);
+        readTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        readTemplate.setReadOnly(true);
+    }
+
+    /**
+     * Menjalankan read, digabung dengan read serentak lain untuk operation dan key yang sama
+     * @param operation Nama read, juga dipakai sebagai tag metrik (mis. "user.by-username")
+     * @param key Parameter read
+     * @param loader Read ke DAO
+     * @return Hasil read; di luar transaksi berupa entity detached yang dibagi antar pemanggil
+     */
+    @SuppressWarnings("unchecked")
+    public <K, T> Optional<T> load(String operation, K key, Supplier<Optional<T>> loader) {
+        if (!enabled || TransactionSynchronizationManager.isActualTransactionActive()) {
+            return loader.get();
+        }
+        SingleFlight<Object, Optional<?>> flight = flights.computeIfAbsent(operation, this::newFlight);
+        return (Optional<T>) flight.execute(key, () -> readTemplate.execute(status -> {
+            Optional<T> result = loader.get();
+            // Open-session-in-view bisa membuat session tetap terbuka setelah commit; lepaskan secara eksplisit
+            result.ifPresent(sessionFactory.getCurrentSession()::detach);
+            return result;
+        }));
+    }
+
+    private SingleFlight<Object, Optional<?>> newFlight(String operation) {
+        SingleFlight<Object, Optional<?>> flight = new SingleFlight<>();
+        FunctionCounter.builder("simian.singleflight.loads", flight, SingleFlight::getLoadCount)
+            .description("Read yang benar-benar dijalankan ke database")
+            .tag("operation", operation)
+            .register(meterRegistry);
+        FunctionCounter.builder("simian.singleflight.deduplicated", flight, SingleFlight::getDeduplicatedCount)
+            .description("Read yang menumpang hasil read serentak lain")
+            .tag("operation", operation)
+            .register(meterRegistry);
+        return flight;
+    }
+}
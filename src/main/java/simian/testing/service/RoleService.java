@@ -1,14 +1,29 @@
 package simian.testing.service;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import simian.testing.dao.RoleDAO;
 import simian.testing.dao.AccessDAO;
+import simian.testing.dao.RoleAccessDAO;
+import simian.testing.dao.RoleHierarchyDAO;
 import simian.testing.entity.Role;
 import simian.testing.entity.Access;
+import simian.testing.entity.GrantClock;
+import simian.testing.entity.RoleAccess;
+import simian.testing.event.RbacChangeEvent;
+import simian.testing.event.RbacChangeEvent.Action;
+import simian.testing.event.RbacChangeEvent.EntityType;
 
 /**
  * Service untuk Role Management
@@ -25,6 +40,24 @@ public class RoleService {
     @Autowired
     private AccessDAO accessDAO;
 
+    @Autowired
+    private RoleAccessDAO roleAccessDAO;
+
+    @Autowired
+    private RoleHierarchyDAO roleHierarchyDAO;
+
+    @Autowired
+    private PermissionMatcher permissionMatcher;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private OptimisticRetryTemplate retryTemplate;
+
+    @Autowired
+    private ReadCoalescer readCoalescer;
+
     /**
      * Create - Membuat role baru
      * @param roleName Nama role (harus unik)
@@ -43,22 +76,47 @@ public class RoleService {
         Role role = new Role(roleName, roleDescription);
         Integer roleId = roleDAO.create(role);
         role.setRoleId(roleId);
+        roleHierarchyDAO.insertSelf(roleId);
         
+        eventPublisher.publishEvent(RbacChangeEvent.of(EntityType.ROLE, Action.CREATED, roleId));
         return role;
     }
 
     /**
      * Read - Mengambil role berdasarkan roleId
+     * Di luar transaksi, pemanggilan serentak untuk roleId yang sama digabung menjadi satu query (ReadCoalescer)
+     * dan semua pemanggil menerima entity detached yang sama: hanya untuk dibaca, relasi lazy tidak bisa di-load
      * @param roleId ID role yang dicari
      * @return Role jika ditemukan
      * @throws IllegalArgumentException jika role tidak ditemukan
      */
+    @Transactional(propagation = Propagation.SUPPORTS)
     public Role getRoleById(Integer roleId) {
-        Optional<Role> role = roleDAO.read(roleId);
-        if (!role.isPresent()) {
-            throw new IllegalArgumentException("Role dengan ID " + roleId + " tidak ditemukan");
+        return findRoleById(roleId).orElseThrow(() ->
+            new IllegalArgumentException("Role dengan ID " + roleId + " tidak ditemukan"));
+    }
+
+    /**
+     * Read - Mencari role berdasarkan roleId tanpa exception jika tidak ditemukan
+     * @param roleId ID role yang dicari
+     * @return Role, atau Optional kosong jika tidak ditemukan; di luar transaksi entity detached yang dibagi (read-only)
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public Optional<Role> findRoleById(Integer roleId) {
+        return readCoalescer.load("role.by-id", roleId, () -> roleDAO.read(roleId));
+    }
+
+    /**
+     * Read - Mengambil banyak role sekaligus
+     * @param roleIds Daftar roleId (duplikat dan null diabaikan)
+     * @return Map roleId -> Role sesuai urutan input; roleId yang tidak ditemukan tidak ada di map
+     */
+    public Map<Integer, Role> getRolesByIds(Collection<Integer> roleIds) {
+        Map<Integer, Role> result = new LinkedHashMap<>();
+        for (Role role : roleDAO.readAll(roleIds)) {
+            result.put(role.getRoleId(), role);
         }
-        return role.get();
+        return result;
     }
 
     /**
@@ -69,7 +127,12 @@ public class RoleService {
      * @return Role yang telah diupdate
      * @throws IllegalArgumentException jika role tidak ditemukan atau role name sudah ada
      */
+    @Transactional(propagation = Propagation.SUPPORTS)
     public Role updateRole(Integer roleId, String roleName, String roleDescription) {
+        return retryTemplate.execute("role.update", () -> doUpdateRole(roleId, roleName, roleDescription));
+    }
+
+    private Role doUpdateRole(Integer roleId, String roleName, String roleDescription) {
         
         Role role = getRoleById(roleId);
         
@@ -87,6 +150,7 @@ public class RoleService {
         }
         
         roleDAO.update(role);
+        eventPublisher.publishEvent(RbacChangeEvent.of(EntityType.ROLE, Action.UPDATED, roleId));
         return role;
     }
 
@@ -100,6 +164,14 @@ public class RoleService {
         
         Role role = getRoleById(roleId); // Validasi role ada
         
+        // Role yang masih menjadi parent tidak boleh dihapus agar hierarki tidak terputus
+        Long childCount = roleHierarchyDAO.getChildCount(roleId);
+        if (childCount > 0) {
+            throw new IllegalArgumentException(
+                "Role '" + role.getRoleName() + "' tidak dapat dihapus karena masih menjadi parent dari " +
+                childCount + " role");
+        }
+        
         // Cek apakah ada user yang menggunakan role ini
         Long userCount = roleDAO.getUserCountByRole(roleId);
         if (userCount > 0) {
@@ -107,8 +179,15 @@ public class RoleService {
                 "Role '" + role.getRoleName() + "' tidak dapat dihapus karena masih ada " + 
                 userCount + " user yang menggunakannya");
         }
+        Long archivedUserCount = roleDAO.getArchivedUserCountByRole(roleId);
+        if (archivedUserCount > 0) {
+            throw new IllegalArgumentException(
+                "Role '" + role.getRoleName() + "' tidak dapat dihapus karena masih dipakai " +
+                archivedUserCount + " user arsip");
+        }
         
         roleDAO.delete(roleId);
+        eventPublisher.publishEvent(RbacChangeEvent.of(EntityType.ROLE, Action.DELETED, roleId));
     }
 
     /**
@@ -121,12 +200,15 @@ public class RoleService {
 
     /**
      * Mengambil role berdasarkan nama
+     * Di luar transaksi, pemanggilan serentak untuk roleName yang sama digabung menjadi satu query (ReadCoalescer)
+     * dan semua pemanggil menerima entity detached yang sama: hanya untuk dibaca, relasi lazy tidak bisa di-load
      * @param roleName Nama role yang dicari
      * @return Role jika ditemukan
      * @throws IllegalArgumentException jika role tidak ditemukan
      */
+    @Transactional(propagation = Propagation.SUPPORTS)
     public Role getRoleByName(String roleName) {
-        Optional<Role> role = roleDAO.findByName(roleName);
+        Optional<Role> role = readCoalescer.load("role.by-name", roleName, () -> roleDAO.findByName(roleName));
         if (!role.isPresent()) {
             throw new IllegalArgumentException("Role '" + roleName + "' tidak ditemukan");
         }
@@ -135,58 +217,115 @@ public class RoleService {
 
     /**
      * Menambahkan access ke role
+     * Grant ditulis dengan satu statement INSERT tanpa me-load koleksi access milik role; validasi role/access
+     * dan pengecekan grant yang sudah ada hanya dijalankan jika INSERT tidak menulis baris
      * @param roleId ID role yang akan ditambahi access
      * @param accessId ID access yang akan ditambahkan
-     * @return Role dengan access yang telah ditambahkan
+     * @return Grant yang telah dibuat (roleAccessId tidak diisi)
+     * @throws IllegalArgumentException jika role/access tidak ditemukan atau grant sudah ada
      */
-    public Role addAccessToRole(Integer roleId, Integer accessId) {
-        
-        Role role = getRoleById(roleId);
-        Optional<Access> access = accessDAO.read(accessId);
+    public RoleAccess addAccessToRole(Integer roleId, Integer accessId) {
+        return grant(new RoleAccess(roleId, accessId));
+    }
+
+    /**
+     * Menambahkan access sementara ke role, mis. DELETE_PROJECT_ORDER untuk Consultant selama 48 jam
+     * Grant tidak lagi dihitung setelah validUntil dan dihapus otomatis oleh GrantExpiryScheduler
+     * @param roleId ID role yang akan ditambahi access
+     * @param accessId ID access yang akan ditambahkan
+     * @param validUntil Batas berlaku grant (harus di masa depan)
+     * @return Grant yang telah dibuat
+     * @throws IllegalArgumentException jika role/access tidak ditemukan, grant sudah ada atau validUntil sudah lewat
+     */
+    public RoleAccess addTemporaryAccessToRole(Integer roleId, Integer accessId, LocalDateTime validUntil) {
         
-        if (!access.isPresent()) {
-            throw new IllegalArgumentException("Access dengan ID " + accessId + " tidak ditemukan");
+        if (validUntil == null || !validUntil.isAfter(GrantClock.now())) {
+            throw new IllegalArgumentException("Batas berlaku grant harus di masa depan");
         }
         
-        // Cek apakah access sudah ditambahkan ke role ini
-        if (role.getAccesses().contains(access.get())) {
-            throw new IllegalArgumentException(
-                "Access '" + access.get().getAccessName() + "' sudah ada di role ini");
-        }
-        
-        role.getAccesses().add(access.get());
-        roleDAO.update(role);
-        
-        return role;
+        return grant(new RoleAccess(roleId, accessId, validUntil));
     }
 
     /**
      * Menghapus access dari role
+     * Grant dihapus berdasarkan role_access_id tanpa me-load koleksi access milik role
      * @param roleId ID role yang akan dikurangi access
      * @param accessId ID access yang akan dihapus
-     * @return Role dengan access yang telah dihapus
      */
-    public Role removeAccessFromRole(Integer roleId, Integer accessId) {
+    public void removeAccessFromRole(Integer roleId, Integer accessId) {
         
-        Role role = getRoleById(roleId);
-        Optional<Access> access = accessDAO.read(accessId);
+        Access access = getGrantTarget(roleId, accessId);
+        
+        // Cek apakah access ada di role ini
+        Integer roleAccessId = roleAccessDAO.delete(roleId, accessId).orElseThrow(() ->
+            new IllegalArgumentException("Access '" + access.getAccessName() + "' tidak ada di role ini"));
         
-        if (!access.isPresent()) {
-            throw new IllegalArgumentException("Access dengan ID " + accessId + " tidak ditemukan");
+        eventPublisher.publishEvent(RbacChangeEvent.grantRemoved(roleId, accessId, roleAccessId));
+    }
+
+    /**
+     * Mengatur parent role: role (beserta seluruh descendant-nya) mewarisi access milik parent dan ancestor-nya
+     * Tabel role_closure diperbarui inkremental untuk subtree yang dipindahkan saja
+     * @param roleId ID role yang diubah
+     * @param parentRoleId ID parent baru, atau null untuk melepas dari parent
+     * @return Role yang telah diupdate
+     * @throws IllegalArgumentException jika role/parent tidak ditemukan atau perubahan membentuk siklus
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public Role setParentRole(Integer roleId, Integer parentRoleId) {
+        return retryTemplate.execute("role.set-parent", () -> doSetParentRole(roleId, parentRoleId));
+    }
+
+    private Role doSetParentRole(Integer roleId, Integer parentRoleId) {
+        
+        // Role dan parent baru dikunci (urut ID) sebelum dibaca, agar setParentRole(A, B) dan setParentRole(B, A)
+        // yang bersamaan berjalan bergantian dan yang kedua melihat hasil yang pertama
+        roleHierarchyDAO.lockRoles(parentRoleId != null ? List.of(roleId, parentRoleId) : List.of(roleId));
+        Role role = getRoleById(roleId);
+        if (Objects.equals(role.getParentRoleId(), parentRoleId)) {
+            return role;
         }
         
-        // Cek apakah access ada di role ini
-        if (!role.getAccesses().contains(access.get())) {
-            throw new IllegalArgumentException(
-                "Access '" + access.get().getAccessName() + "' tidak ada di role ini");
+        if (parentRoleId != null) {
+            requireRole(parentRoleId);
+            // Parent tidak boleh role itu sendiri atau salah satu descendant-nya
+            if (roleHierarchyDAO.isAncestorOrSelfForUpdate(roleId, parentRoleId)) {
+                throw new IllegalArgumentException(
+                    "Role dengan ID " + parentRoleId + " tidak dapat menjadi parent karena membentuk siklus");
+            }
         }
         
-        role.getAccesses().remove(access.get());
+        // Version role ikut naik, sehingga dua perubahan parent yang bersamaan pada role ini saling mendeteksi
+        role.setParentRoleId(parentRoleId);
         roleDAO.update(role);
         
+        roleHierarchyDAO.detach(roleId);
+        if (parentRoleId != null) {
+            roleHierarchyDAO.attach(roleId, parentRoleId);
+        }
+        
+        eventPublisher.publishEvent(RbacChangeEvent.of(EntityType.ROLE, Action.UPDATED, roleId));
         return role;
     }
 
+    /**
+     * Mengambil semua ancestor role, dari parent langsung sampai root
+     * @param roleId ID role
+     * @return List dari role ancestor
+     */
+    public List<Role> getAncestorRoles(Integer roleId) {
+        
+        requireRole(roleId);
+
+        // Semua ancestor dibaca dengan satu query, lalu diurutkan kembali sesuai kedalaman
+        List<Integer> ancestorIds = roleHierarchyDAO.findAncestorIds(roleId);
+        Map<Integer, Role> ancestors = getRolesByIds(ancestorIds);
+        return ancestorIds.stream()
+                .map(ancestors::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
     /**
      * Mengambil semua access untuk role tertentu
      * @param roleId ID role yang dicari
@@ -194,41 +333,44 @@ public class RoleService {
      */
     public List<Access> getRoleAccesses(Integer roleId) {
         
-        getRoleById(roleId); // Validasi role ada
+        requireRole(roleId);
         
         return accessDAO.findAccessesByRole(roleId);
     }
 
     /**
-     * Mengecek apakah role memiliki access tertentu
+     * Mengecek apakah role memiliki access tertentu (termasuk yang diwarisi dari ancestor dan grant wildcard)
      * @param roleId ID role
      * @param accessId ID access
      * @return true jika role memiliki access tersebut
      */
+    @Transactional(propagation = Propagation.SUPPORTS)
     public boolean roleHasAccess(Integer roleId, Integer accessId) {
-        
-        Role role = getRoleById(roleId);
-        Optional<Access> access = accessDAO.read(accessId);
-        
-        if (!access.isPresent()) {
-            return false;
-        }
-        
-        return role.getAccesses().contains(access.get());
+        return permissionMatcher.hasAccess(roleId, accessId);
     }
 
     /**
      * Mengecek apakah role memiliki access berdasarkan nama access
+     * (termasuk yang diwarisi dari ancestor dan grant wildcard seperti SUBTASK:*)
      * @param roleId ID role
      * @param accessName Nama access
      * @return true jika role memiliki access tersebut
      */
+    @Transactional(propagation = Propagation.SUPPORTS)
     public boolean roleHasAccessByName(Integer roleId, String accessName) {
-        
-        Role role = getRoleById(roleId);
-        
-        return role.getAccesses().stream()
-                .anyMatch(access -> access.getAccessName().equals(accessName));
+        return permissionMatcher.hasAccess(roleId, accessName);
+    }
+
+    /**
+     * Mengecek apakah role boleh melakukan action di module tertentu
+     * @param roleId ID role
+     * @param moduleName Nama module, mis. PROJECT_ORDER
+     * @param actionType Action, mis. VIEW
+     * @return true jika ada grant langsung, warisan atau wildcard yang mencakup module/action tersebut
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public boolean roleHasPermission(Integer roleId, String moduleName, String actionType) {
+        return permissionMatcher.isPermitted(roleId, moduleName, actionType);
     }
 
     /**
@@ -238,7 +380,7 @@ public class RoleService {
      */
     public Long getUserCountByRole(Integer roleId) {
         
-        getRoleById(roleId); // Validasi role ada
+        requireRole(roleId);
         
         return roleDAO.getUserCountByRole(roleId);
     }
@@ -254,28 +396,81 @@ public class RoleService {
 
     /**
      * Memberikan multiple access ke role sekaligus
+     * Grant yang masih berlaku dilewati; hanya ID access yang di-load untuk pengecekan
      * @param roleId ID role yang akan ditambahi access
      * @param accessIds List dari access IDs yang akan ditambahkan
-     * @return Role dengan semua access yang telah ditambahkan
+     * @return Jumlah grant baru yang ditambahkan
      */
-    public Role addMultipleAccessToRole(Integer roleId, List<Integer> accessIds) {
+    public int addMultipleAccessToRole(Integer roleId, List<Integer> accessIds) {
         
-        Role role = getRoleById(roleId);
+        requireRole(roleId);
+        
+        Set<Integer> granted = roleAccessDAO.findAccessIdsByRole(roleId);
+        int added = 0;
         
         for (Integer accessId : accessIds) {
-            Optional<Access> access = accessDAO.read(accessId);
-            
-            if (!access.isPresent()) {
+            if (!accessDAO.exists(accessId)) {
                 throw new IllegalArgumentException("Access dengan ID " + accessId + " tidak ditemukan");
             }
             
             // Hanya tambahkan jika belum ada
-            if (!role.getAccesses().contains(access.get())) {
-                role.getAccesses().add(access.get());
+            if (granted.add(accessId)) {
+                replaceLapsedGrant(roleId, accessId);
+                roleAccessDAO.create(new RoleAccess(roleId, accessId));
+                eventPublisher.publishEvent(RbacChangeEvent.grant(Action.CREATED, roleId, accessId));
+                added++;
             }
         }
         
-        roleDAO.update(role);
-        return role;
+        return added;
+    }
+
+    /**
+     * Menulis grant baru; jalur normal hanya satu INSERT
+     * Jika tidak ada baris yang tertulis, penyebabnya dicari: role/access tidak ada, grant masih berlaku,
+     * atau grant sementara yang sudah lewat dan belum dihapus scheduler (diganti dengan grant baru)
+     */
+    private RoleAccess grant(RoleAccess roleAccess) {
+        Integer roleId = roleAccess.getRoleId();
+        Integer accessId = roleAccess.getAccessId();
+        if (!roleAccessDAO.createIfAbsent(roleAccess)) {
+            Access access = getGrantTarget(roleId, accessId);
+            if (!replaceLapsedGrant(roleId, accessId) || !roleAccessDAO.createIfAbsent(roleAccess)) {
+                throw new IllegalArgumentException(
+                    "Access '" + access.getAccessName() + "' sudah ada di role ini");
+            }
+        }
+        eventPublisher.publishEvent(RbacChangeEvent.grant(Action.CREATED, roleId, accessId));
+        return roleAccess;
+    }
+
+    /**
+     * Grant sementara yang sudah lewat tetapi belum dihapus scheduler dianggap tidak ada;
+     * barisnya dibuang (beserta event DELETED-nya) sebelum grant baru ditulis
+     * @return true jika ada grant yang sudah lewat dan dihapus
+     */
+    private boolean replaceLapsedGrant(Integer roleId, Integer accessId) {
+        Optional<Integer> removed = roleAccessDAO.deleteLapsed(roleId, accessId);
+        removed.ifPresent(roleAccessId ->
+            eventPublisher.publishEvent(RbacChangeEvent.grantRemoved(roleId, accessId, roleAccessId)));
+        return removed.isPresent();
+    }
+
+    /**
+     * Validasi role ada tanpa me-load koleksi access milik role
+     */
+    private void requireRole(Integer roleId) {
+        if (!roleDAO.exists(roleId)) {
+            throw new IllegalArgumentException("Role dengan ID " + roleId + " tidak ditemukan");
+        }
+    }
+
+    /**
+     * Validasi role dan access untuk operasi grant tanpa me-load koleksi access milik role
+     */
+    private Access getGrantTarget(Integer roleId, Integer accessId) {
+        requireRole(roleId);
+        return accessDAO.read(accessId).orElseThrow(() ->
+            new IllegalArgumentException("Access dengan ID " + accessId + " tidak ditemukan"));
     }
 }
@@ -0,0 +1,87 @@
+package simian.testing.service;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Menggabungkan pemanggilan serentak untuk key yang sama menjadi satu load (single-flight)
+ * Pemanggil pertama (leader) memasang future di map lock-free lalu menjalankan loader di thread-nya sendiri;
+ * pemanggil lain yang datang selama load berjalan menunggu future tersebut dan menerima hasil atau exception
+ * yang sama. Key dilepas begitu load selesai, sehingga tidak ada hasil yang di-cache
+ *
+ * Loader tidak boleh memanggil execute dengan key yang sama secara rekursif (menunggu future-nya sendiri)
+ * @param <K> Tipe key
+ * @param <V> Tipe hasil load
+ */
+public class SingleFlight<K, V> {
+
+    private final Map<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder deduplicated = new LongAdder();
+
+    /**
+     * Menjalankan loader, atau menunggu load yang sedang berjalan untuk key yang sama
+     * @param key Key load
+     * @param loader Load sebenarnya, hanya dijalankan oleh leader
+     * @return Hasil load (instance yang sama untuk semua pemanggil yang digabungkan)
+     */
+    public V execute(K key, Supplier<V> loader) {
+        CompletableFuture<V> call = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, call);
+        if (existing != null) {
+            deduplicated.increment();
+            return await(existing);
+        }
+        loads.increment();
+        try {
+            V value = loader.get();
+            call.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            call.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, call);
+        }
+    }
+
+    /**
+     * Jumlah load yang benar-benar dijalankan
+     */
+    public long getLoadCount() {
+        return loads.sum();
+    }
+
+    /**
+     * Jumlah pemanggilan yang ikut menunggu load lain alih-alih menjalankan load sendiri
+     */
+    public long getDeduplicatedCount() {
+        return deduplicated.sum();
+    }
+
+    /**
+     * Jumlah key yang sedang di-load
+     */
+    public int getInFlightCount() {
+        return inFlight.size();
+    }
+
+    private static <V> V await(CompletableFuture<V> call) {
+        try {
+            return call.join();
+        } catch (CompletionException e) {
+            // Lempar ulang exception leader apa adanya agar pemanggil menangkap tipe yang sama
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
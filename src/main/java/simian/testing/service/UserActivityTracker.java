@@ -0,0 +1,228 @@
+package simian.testing.service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+/**
+ * Tracker write-behind untuk waktu login dan aktivitas terakhir user
+ * Update di-coalesce per user di memory lalu di-flush secara periodik
+ * sebagai satu JDBC batch UPDATE, sehingga request tidak menambah write ke database
+ */
+@Service
+public class UserActivityTracker {
+
+    private static final Logger log = LoggerFactory.getLogger(UserActivityTracker.class);
+
+    /**
+     * GREATEST/COALESCE menjaga nilai yang lebih baru jika flush datang tidak berurutan,
+     * updated_date = updated_date mencegah ON UPDATE CURRENT_TIMESTAMP ikut berubah
+     */
+    private static final String FLUSH_SQL =
+        "UPDATE user SET "
+        + "last_login_date = COALESCE(GREATEST(last_login_date, ?), ?, last_login_date), "
+        + "last_activity_date = COALESCE(GREATEST(last_activity_date, ?), ?, last_activity_date), "
+        + "updated_date = updated_date "
+        + "WHERE user_id = ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${simian.activity.flush-interval-ms:5000}")
+    private long flushIntervalMs;
+
+    @Value("${simian.activity.max-pending:100000}")
+    private int maxPending;
+
+    @Value("${simian.activity.batch-size:500}")
+    private int batchSize;
+
+    private final Map<Integer, PendingActivity> pending = new ConcurrentHashMap<>();
+    private final AtomicBoolean earlyFlushRequested = new AtomicBoolean();
+
+    private ScheduledExecutorService scheduler;
+    private Timer flushTimer;
+    private Counter droppedCounter;
+    private Counter flushedCounter;
+
+    @PostConstruct
+    void start() {
+        Gauge.builder("simian.user.activity.pending", pending, Map::size)
+            .description("Jumlah user dengan update aktivitas yang belum di-flush")
+            .register(meterRegistry);
+        flushTimer = Timer.builder("simian.user.activity.flush")
+            .description("Latensi flush batch aktivitas user")
+            .register(meterRegistry);
+        droppedCounter = meterRegistry.counter("simian.user.activity.dropped");
+        flushedCounter = meterRegistry.counter("simian.user.activity.flushed");
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "user-activity-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::flushQuietly,
+            flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Flush terakhir saat aplikasi shutdown agar update yang tertunda tidak hilang
+     */
+    @PreDestroy
+    void stop() throws InterruptedException {
+        scheduler.shutdown();
+        scheduler.awaitTermination(flushIntervalMs, TimeUnit.MILLISECONDS);
+        flush();
+    }
+
+    /**
+     * Mencatat login user (login juga dihitung sebagai aktivitas)
+     * @param userId ID user yang login
+     * @return true jika tercatat, false jika dibuang karena buffer penuh
+     */
+    public boolean recordLogin(Integer userId) {
+        LocalDateTime now = LocalDateTime.now();
+        return record(userId, new PendingActivity(now, now));
+    }
+
+    /**
+     * Mencatat aktivitas user
+     * @param userId ID user yang aktif
+     * @return true jika tercatat, false jika dibuang karena buffer penuh
+     */
+    public boolean recordActivity(Integer userId) {
+        return record(userId, new PendingActivity(null, LocalDateTime.now()));
+    }
+
+    /**
+     * Jumlah user yang update-nya masih menunggu flush
+     */
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    private boolean record(Integer userId, PendingActivity activity) {
+        // Batas memory: user baru ditolak saat buffer penuh, user yang sudah ada tetap di-coalesce
+        if (pending.size() >= maxPending && !pending.containsKey(userId)) {
+            droppedCounter.increment();
+            requestEarlyFlush();
+            return false;
+        }
+        pending.merge(userId, activity, PendingActivity::merge);
+        return true;
+    }
+
+    private void requestEarlyFlush() {
+        if (earlyFlushRequested.compareAndSet(false, true) && !scheduler.isShutdown()) {
+            scheduler.execute(() -> {
+                earlyFlushRequested.set(false);
+                flushQuietly();
+            });
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.warn("Flush aktivitas user gagal, akan dicoba lagi pada flush berikutnya", e);
+        }
+    }
+
+    /**
+     * Flush semua update tertunda ke database dalam batch
+     * Hanya dipanggil dari thread scheduler atau saat shutdown
+     * @return jumlah user yang di-flush
+     */
+    int flush() {
+        if (pending.isEmpty()) {
+            return 0;
+        }
+
+        List<Integer> userIds = new ArrayList<>();
+        List<Object[]> batchArgs = new ArrayList<>();
+        for (Integer userId : pending.keySet()) {
+            PendingActivity activity = pending.remove(userId);
+            if (activity != null) {
+                Timestamp login = toTimestamp(activity.loginDate());
+                Timestamp lastActivity = toTimestamp(activity.activityDate());
+                userIds.add(userId);
+                batchArgs.add(new Object[] {login, login, lastActivity, lastActivity, userId});
+            }
+        }
+
+        long start = System.nanoTime();
+        int written = 0;
+        try {
+            for (int from = 0; from < batchArgs.size(); from += batchSize) {
+                int to = Math.min(from + batchSize, batchArgs.size());
+                jdbcTemplate.batchUpdate(FLUSH_SQL, batchArgs.subList(from, to));
+                written = to;
+            }
+        } catch (RuntimeException e) {
+            // Kembalikan entry yang belum tertulis agar tidak hilang
+            for (int i = written; i < batchArgs.size(); i++) {
+                Object[] args = batchArgs.get(i);
+                PendingActivity activity = new PendingActivity(
+                    toLocalDateTime((Timestamp) args[0]), toLocalDateTime((Timestamp) args[2]));
+                pending.merge(userIds.get(i), activity, PendingActivity::merge);
+            }
+            throw e;
+        } finally {
+            flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            flushedCounter.increment(written);
+        }
+        return written;
+    }
+
+    private static Timestamp toTimestamp(LocalDateTime dateTime) {
+        return dateTime != null ? Timestamp.valueOf(dateTime) : null;
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+
+    /**
+     * Update aktivitas yang sudah di-coalesce untuk satu user
+     */
+    private record PendingActivity(LocalDateTime loginDate, LocalDateTime activityDate) {
+
+        PendingActivity merge(PendingActivity other) {
+            return new PendingActivity(latest(loginDate, other.loginDate),
+                latest(activityDate, other.activityDate));
+        }
+
+        private static LocalDateTime latest(LocalDateTime a, LocalDateTime b) {
+            if (a == null) {
+                return b;
+            }
+            if (b == null) {
+                return a;
+            }
+            return a.isAfter(b) ? a : b;
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package simian.testing.service;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Tabel reservasi username/email lokal per node (lock-free)
+ * createUser meng-klaim username dan email sebelum insert ke database dan melepasnya
+ * setelah commit/rollback, sehingga request yang kalah balapan gagal cepat tanpa round trip ke database
+ *
+ * Reservasi punya TTL agar klaim yang tidak pernah dilepas (mis. thread mati) tidak mengunci selamanya.
+ * Ini hanya optimasi: unique constraint di database tetap menjadi penjaga terakhir antar node
+ */
+@Component
+public class UserReservationRegistry {
+
+    private static final int PURGE_EVERY = 1024;
+
+    private final Map<String, Reservation> usernames = new ConcurrentHashMap<>();
+    private final Map<String, Reservation> emails = new ConcurrentHashMap<>();
+    private final AtomicInteger claimCount = new AtomicInteger();
+    private final long ttlNanos;
+    private final LongSupplier clock;
+
+    @Autowired
+    public UserReservationRegistry(@Value("${simian.reservation.ttl-ms:30000}") long ttlMs) {
+        this(TimeUnit.MILLISECONDS.toNanos(ttlMs), System::nanoTime);
+    }
+
+    UserReservationRegistry(long ttlNanos, LongSupplier clock) {
+        this.ttlNanos = ttlNanos;
+        this.clock = clock;
+    }
+
+    /**
+     * Membuat reservasi kosong; username/email di-klaim terpisah agar pesan error tetap spesifik
+     */
+    public Reservation newReservation() {
+        return new Reservation(clock.getAsLong() + ttlNanos);
+    }
+
+    /**
+     * Meng-klaim username untuk reservasi
+     * @return true jika berhasil, false jika sedang di-klaim request lain
+     */
+    public boolean claimUsername(Reservation reservation, String username) {
+        reservation.usernameKey = normalize(username);
+        return claim(usernames, reservation.usernameKey, reservation);
+    }
+
+    /**
+     * Meng-klaim email untuk reservasi
+     * @return true jika berhasil, false jika sedang di-klaim request lain
+     */
+    public boolean claimEmail(Reservation reservation, String email) {
+        reservation.emailKey = normalize(email);
+        return claim(emails, reservation.emailKey, reservation);
+    }
+
+    /**
+     * Melepas semua klaim milik reservasi (aman dipanggil berkali-kali)
+     * Klaim yang sudah diambil alih reservasi lain setelah kedaluwarsa tidak ikut terhapus
+     */
+    public void release(Reservation reservation) {
+        if (reservation.usernameKey != null) {
+            usernames.remove(reservation.usernameKey, reservation);
+        }
+        if (reservation.emailKey != null) {
+            emails.remove(reservation.emailKey, reservation);
+        }
+    }
+
+    /**
+     * Jumlah klaim yang sedang tersimpan (username + email)
+     */
+    public int size() {
+        return usernames.size() + emails.size();
+    }
+
+    private boolean claim(Map<String, Reservation> table, String key, Reservation reservation) {
+        if (claimCount.incrementAndGet() % PURGE_EVERY == 0) {
+            purgeExpired();
+        }
+        long now = clock.getAsLong();
+        while (true) {
+            Reservation existing = table.putIfAbsent(key, reservation);
+            if (existing == null || existing == reservation) {
+                return true;
+            }
+            if (!existing.isExpired(now)) {
+                return false;
+            }
+            // Ambil alih klaim yang kedaluwarsa dengan CAS; ulangi jika didahului thread lain
+            if (table.replace(key, existing, reservation)) {
+                return true;
+            }
+        }
+    }
+
+    private void purgeExpired() {
+        long now = clock.getAsLong();
+        usernames.values().removeIf(reservation -> reservation.isExpired(now));
+        emails.values().removeIf(reservation -> reservation.isExpired(now));
+    }
+
+    /**
+     * Username/email tidak case-sensitive di database (utf8mb4_unicode_ci)
+     */
+    private static String normalize(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Klaim milik satu request createUser; dibandingkan berdasarkan identitas objek
+     */
+    public static final class Reservation {
+
+        private final long expiresAtNanos;
+        private volatile String usernameKey;
+        private volatile String emailKey;
+
+        private Reservation(long expiresAtNanos) {
+            this.expiresAtNanos = expiresAtNanos;
+        }
+
+        boolean isExpired(long nowNanos) {
+            return nowNanos - expiresAtNanos >= 0;
+        }
+    }
+}
@@ -1,14 +1,25 @@
 package simian.testing.service;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import simian.testing.dao.UserDAO;
 import simian.testing.dao.RoleDAO;
 import simian.testing.entity.User;
 import simian.testing.entity.Role;
+import simian.testing.event.RbacChangeEvent;
+import simian.testing.event.RbacChangeEvent.Action;
+import simian.testing.event.RbacChangeEvent.EntityType;
 
 /**
  * Service untuk User Management
@@ -25,6 +36,18 @@ public class UserService {
     @Autowired
     private RoleDAO roleDAO;
 
+    @Autowired
+    private UserReservationRegistry reservationRegistry;
+
+    @Autowired
+    private OptimisticRetryTemplate retryTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private ReadCoalescer readCoalescer;
+
     /**
      * Create - Membuat user baru dengan role yang sudah ada
      * @param username Username (harus unik)
@@ -39,6 +62,9 @@ public class UserService {
     public User createUser(String username, String email, String password, 
                           String firstName, String lastName, Integer roleId) {
         
+        // Klaim username/email di memory dulu: request yang kalah balapan gagal tanpa query ke database
+        reserveUntilTransactionEnds(username, email);
+        
         // Validasi username belum ada
         if (userDAO.existsByUsername(username)) {
             throw new IllegalArgumentException("Username '" + username + "' sudah digunakan");
@@ -62,21 +88,70 @@ public class UserService {
         Integer userId = userDAO.create(user);
         user.setUserId(userId);
         
+        eventPublisher.publishEvent(RbacChangeEvent.of(EntityType.USER, Action.CREATED, userId));
         return user;
     }
 
+    /**
+     * Meng-klaim username dan email sampai transaksi createUser selesai (commit atau rollback)
+     * @throws IllegalArgumentException jika username/email sedang didaftarkan request lain
+     */
+    private void reserveUntilTransactionEnds(String username, String email) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        UserReservationRegistry.Reservation reservation = reservationRegistry.newReservation();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                reservationRegistry.release(reservation);
+            }
+        });
+        
+        if (!reservationRegistry.claimUsername(reservation, username)) {
+            throw new IllegalArgumentException("Username '" + username + "' sudah digunakan");
+        }
+        if (!reservationRegistry.claimEmail(reservation, email)) {
+            throw new IllegalArgumentException("Email '" + email + "' sudah digunakan");
+        }
+    }
+
     /**
      * Read - Mengambil user berdasarkan userId
+     * Di luar transaksi, pemanggilan serentak untuk userId yang sama digabung menjadi satu query (ReadCoalescer)
+     * dan semua pemanggil menerima entity detached yang sama: hanya untuk dibaca, relasi lazy tidak bisa di-load
      * @param userId ID user yang dicari
      * @return User jika ditemukan
      * @throws IllegalArgumentException jika user tidak ditemukan
      */
+    @Transactional(propagation = Propagation.SUPPORTS)
     public User getUserById(Integer userId) {
-        Optional<User> user = userDAO.read(userId);
-        if (!user.isPresent()) {
-            throw new IllegalArgumentException("User dengan ID " + userId + " tidak ditemukan");
+        return findUserById(userId).orElseThrow(() ->
+            new IllegalArgumentException("User dengan ID " + userId + " tidak ditemukan"));
+    }
+
+    /**
+     * Read - Mencari user berdasarkan userId tanpa exception jika tidak ditemukan
+     * Untuk jalur dengan banyak miss; tidak ada exception maupun pesan yang dibuat saat user tidak ada
+     * @param userId ID user yang dicari
+     * @return User, atau Optional kosong jika tidak ditemukan; di luar transaksi entity detached yang dibagi (read-only)
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public Optional<User> findUserById(Integer userId) {
+        return readCoalescer.load("user.by-id", userId, () -> userDAO.read(userId));
+    }
+
+    /**
+     * Read - Mengambil banyak user sekaligus, pengganti getUserById di dalam loop
+     * @param userIds Daftar userId (duplikat dan null diabaikan)
+     * @return Map userId -> User sesuai urutan input; userId yang tidak ditemukan tidak ada di map
+     */
+    public Map<Integer, User> getUsersByIds(Collection<Integer> userIds) {
+        Map<Integer, User> result = new LinkedHashMap<>();
+        for (User user : userDAO.readAll(userIds)) {
+            result.put(user.getUserId(), user);
         }
-        return user.get();
+        return result;
     }
 
     /**
@@ -90,8 +165,15 @@ public class UserService {
      * @return User yang telah diupdate
      * @throws IllegalArgumentException jika user atau role tidak ditemukan
      */
+    @Transactional(propagation = Propagation.SUPPORTS)
     public User updateUser(Integer userId, String email, String firstName, 
                           String lastName, Integer roleId, Integer isActive) {
+        return retryTemplate.execute("user.update",
+            () -> doUpdateUser(userId, email, firstName, lastName, roleId, isActive));
+    }
+
+    private User doUpdateUser(Integer userId, String email, String firstName,
+                              String lastName, Integer roleId, Integer isActive) {
         
         User user = getUserById(userId);
         
@@ -126,6 +208,7 @@ public class UserService {
         }
         
         userDAO.update(user);
+        eventPublisher.publishEvent(RbacChangeEvent.of(EntityType.USER, Action.UPDATED, userId));
         return user;
     }
 
@@ -137,6 +220,7 @@ public class UserService {
     public void deleteUser(Integer userId) {
         getUserById(userId); // Validasi user ada
         userDAO.delete(userId);
+        eventPublisher.publishEvent(RbacChangeEvent.of(EntityType.USER, Action.DELETED, userId));
     }
 
     /**
@@ -149,30 +233,51 @@ public class UserService {
 
     /**
      * Mengambil user berdasarkan username
+     * Di luar transaksi, pemanggilan serentak untuk username yang sama digabung menjadi satu query (ReadCoalescer)
+     * dan semua pemanggil menerima entity detached yang sama: hanya untuk dibaca, relasi lazy tidak bisa di-load
      * @param username Username yang dicari
      * @return User jika ditemukan
      * @throws IllegalArgumentException jika user tidak ditemukan
      */
+    @Transactional(propagation = Propagation.SUPPORTS)
     public User getUserByUsername(String username) {
-        Optional<User> user = userDAO.findByUsername(username);
-        if (!user.isPresent()) {
-            throw new IllegalArgumentException("User dengan username '" + username + "' tidak ditemukan");
-        }
-        return user.get();
+        return findUserByUsername(username).orElseThrow(() ->
+            new IllegalArgumentException("User dengan username '" + username + "' tidak ditemukan"));
+    }
+
+    /**
+     * Mencari user berdasarkan username tanpa exception jika tidak ditemukan
+     * Untuk jalur dengan banyak miss seperti percobaan login dengan username salah
+     * @param username Username yang dicari
+     * @return User, atau Optional kosong jika tidak ditemukan; di luar transaksi entity detached yang dibagi (read-only)
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public Optional<User> findUserByUsername(String username) {
+        return readCoalescer.load("user.by-username", username, () -> userDAO.findByUsername(username));
     }
 
     /**
      * Mengambil user berdasarkan email
+     * Di luar transaksi, pemanggilan serentak untuk email yang sama digabung menjadi satu query (ReadCoalescer)
+     * dan semua pemanggil menerima entity detached yang sama: hanya untuk dibaca, relasi lazy tidak bisa di-load
      * @param email Email yang dicari
      * @return User jika ditemukan
      * @throws IllegalArgumentException jika user tidak ditemukan
      */
+    @Transactional(propagation = Propagation.SUPPORTS)
     public User getUserByEmail(String email) {
-        Optional<User> user = userDAO.findByEmail(email);
-        if (!user.isPresent()) {
-            throw new IllegalArgumentException("User dengan email '" + email + "' tidak ditemukan");
-        }
-        return user.get();
+        return findUserByEmail(email).orElseThrow(() ->
+            new IllegalArgumentException("User dengan email '" + email + "' tidak ditemukan"));
+    }
+
+    /**
+     * Mencari user berdasarkan email tanpa exception jika tidak ditemukan
+     * @param email Email yang dicari
+     * @return User, atau Optional kosong jika tidak ditemukan; di luar transaksi entity detached yang dibagi (read-only)
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public Optional<User> findUserByEmail(String email) {
+        return readCoalescer.load("user.by-email", email, () -> userDAO.findByEmail(email));
     }
 
     /**
@@ -186,6 +291,25 @@ public class UserService {
         return userDAO.findByRole(roleId);
     }
 
+    /**
+     * Mengambil user dari banyak role sekaligus, pengganti getUsersByRole di dalam loop
+     * @param roleIds Daftar roleId
+     * @return Map roleId -> user role tersebut (terurut userId) untuk setiap roleId yang diminta;
+     *         role tanpa user atau yang tidak ada mendapat list kosong
+     */
+    public Map<Integer, List<User>> getUsersByRoles(Collection<Integer> roleIds) {
+        Map<Integer, List<User>> result = new LinkedHashMap<>();
+        for (Integer roleId : roleIds) {
+            if (roleId != null) {
+                result.putIfAbsent(roleId, new ArrayList<>());
+            }
+        }
+        for (User user : userDAO.findByRoles(result.keySet())) {
+            result.get(user.getRole().getRoleId()).add(user);
+        }
+        return result;
+    }
+
     /**
      * Mengambil semua user aktif dengan role tertentu
      * @param roleId ID role yang dicari
@@ -207,13 +331,23 @@ public class UserService {
 
     /**
      * Mengaktifkan user
+     * User yang sudah dipindahkan ke user_archive dipulihkan ke tabel user dengan ID yang sama
      * @param userId ID user yang akan diaktifkan
      * @return User yang telah diaktifkan
      */
+    @Transactional(propagation = Propagation.SUPPORTS)
     public User activateUser(Integer userId) {
+        return retryTemplate.execute("user.activate", () -> doActivateUser(userId));
+    }
+
+    private User doActivateUser(Integer userId) {
+        if (userDAO.read(userId).isEmpty() && !userDAO.restoreFromArchive(userId)) {
+            throw new IllegalArgumentException("User dengan ID " + userId + " tidak ditemukan");
+        }
         User user = getUserById(userId);
         user.setIsActive(1);
         userDAO.update(user);
+        eventPublisher.publishEvent(RbacChangeEvent.of(EntityType.USER, Action.UPDATED, userId));
         return user;
     }
 
@@ -222,10 +356,16 @@ public class UserService {
      * @param userId ID user yang akan dinonaktifkan
      * @return User yang telah dinonaktifkan
      */
+    @Transactional(propagation = Propagation.SUPPORTS)
     public User deactivateUser(Integer userId) {
+        return retryTemplate.execute("user.deactivate", () -> doDeactivateUser(userId));
+    }
+
+    private User doDeactivateUser(Integer userId) {
         User user = getUserById(userId);
         user.setIsActive(0);
         userDAO.update(user);
+        eventPublisher.publishEvent(RbacChangeEvent.of(EntityType.USER, Action.UPDATED, userId));
         return user;
     }
 
@@ -235,13 +375,19 @@ public class UserService {
      * @param newPassword Password baru
      * @return User dengan password yang telah diubah
      */
+    @Transactional(propagation = Propagation.SUPPORTS)
     public User changePassword(Integer userId, String newPassword) {
+        return retryTemplate.execute("user.change-password", () -> doChangePassword(userId, newPassword));
+    }
+
+    private User doChangePassword(Integer userId, String newPassword) {
         User user = getUserById(userId);
         if (newPassword == null || newPassword.trim().isEmpty()) {
             throw new IllegalArgumentException("Password tidak boleh kosong");
         }
         user.setPassword(newPassword);
         userDAO.update(user);
+        eventPublisher.publishEvent(RbacChangeEvent.of(EntityType.USER, Action.UPDATED, userId));
         return user;
     }
 
@@ -251,12 +397,18 @@ public class UserService {
      * @param roleId ID role baru
      * @return User dengan role yang telah diubah
      */
+    @Transactional(propagation = Propagation.SUPPORTS)
     public User changeUserRole(Integer userId, Integer roleId) {
+        return retryTemplate.execute("user.change-role", () -> doChangeUserRole(userId, roleId));
+    }
+
+    private User doChangeUserRole(Integer userId, Integer roleId) {
         User user = getUserById(userId);
         Role role = roleDAO.read(roleId).orElseThrow(() -> 
             new IllegalArgumentException("Role dengan ID " + roleId + " tidak ditemukan"));
         user.setRole(role);
         userDAO.update(user);
+        eventPublisher.publishEvent(RbacChangeEvent.of(EntityType.USER, Action.UPDATED, userId));
         return user;
     }
 
@@ -0,0 +1,338 @@
+package simian.testing.snapshot;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Snapshot biner read-only untuk mapping role -> access dan user -> role
+ * File di-memory-map dan dibaca langsung dari buffer, tanpa Hibernate maupun koneksi database,
+ * sehingga pengecekan permission bisa dilayani beberapa milidetik setelah proses start
+ *
+ * Format (big-endian):
+ * <pre>
+ * header  : magic "SMPS" (int), formatVersion (int), dataVersion (long), generatedAt epoch ms (long),
+ *           payloadLength (int), crc32 payload (int)
+ * payload : roleCount, grantCount, accessCount, userCount (int)
+ *           role   [roleCount]   : roleId, offset ke grant, jumlah grant (int) - terurut roleId
+ *           grant  [grantCount]  : accessId (int) - terurut per role, sudah termasuk warisan dan wildcard
+ *           access [accessCount] : accessId, offset nama, panjang nama (int) - terurut nama (byte UTF-8)
+ *           user   [userCount]   : userId, roleId (int) - terurut userId, hanya user aktif
+ *           nama access (UTF-8)
+ * </pre>
+ * Semua lookup berupa binary search di buffer, tidak ada objek yang dibuat per pengecekan
+ */
+public final class PermissionSnapshot {
+
+    public static final int MAGIC = 0x534D5053;
+    public static final int FORMAT_VERSION = 1;
+
+    private static final int HEADER_SIZE = 32;
+    private static final int ROLE_ENTRY = 12;
+    private static final int ACCESS_ENTRY = 12;
+    private static final int USER_ENTRY = 8;
+
+    private final ByteBuffer buffer;
+    private final long dataVersion;
+    private final Instant generatedAt;
+    private final int roleCount;
+    private final int accessCount;
+    private final int userCount;
+    private final int roleBase;
+    private final int grantBase;
+    private final int accessBase;
+    private final int userBase;
+    private final int nameBase;
+
+    private PermissionSnapshot(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        if (buffer.limit() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Bukan file snapshot permission");
+        }
+        int formatVersion = buffer.getInt(4);
+        if (formatVersion != FORMAT_VERSION) {
+            throw new IOException("Versi format snapshot " + formatVersion + " tidak didukung");
+        }
+        this.dataVersion = buffer.getLong(8);
+        this.generatedAt = Instant.ofEpochMilli(buffer.getLong(16));
+        int payloadLength = buffer.getInt(24);
+        if (payloadLength < 16 || payloadLength != buffer.limit() - HEADER_SIZE) {
+            throw new IOException("Panjang payload snapshot tidak sesuai");
+        }
+        CRC32 crc = new CRC32();
+        crc.update(buffer.slice(HEADER_SIZE, payloadLength));
+        if ((int) crc.getValue() != buffer.getInt(28)) {
+            throw new IOException("Checksum snapshot tidak cocok");
+        }
+
+        this.roleCount = buffer.getInt(HEADER_SIZE);
+        int grantCount = buffer.getInt(HEADER_SIZE + 4);
+        this.accessCount = buffer.getInt(HEADER_SIZE + 8);
+        this.userCount = buffer.getInt(HEADER_SIZE + 12);
+        this.roleBase = HEADER_SIZE + 16;
+        this.grantBase = roleBase + roleCount * ROLE_ENTRY;
+        this.accessBase = grantBase + grantCount * 4;
+        this.userBase = accessBase + accessCount * ACCESS_ENTRY;
+        this.nameBase = userBase + userCount * USER_ENTRY;
+        if (roleCount < 0 || grantCount < 0 || accessCount < 0 || userCount < 0 || nameBase > buffer.limit()) {
+            throw new IOException("Ukuran section snapshot tidak valid");
+        }
+    }
+
+    /**
+     * Memory-map file snapshot dan memvalidasi header serta checksum
+     * @throws IOException jika file tidak bisa dibaca, versi format tidak didukung atau checksum tidak cocok
+     */
+    public static PermissionSnapshot open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            // Mapping tetap valid setelah channel ditutup dan setelah file diganti (inode lama tetap dipegang)
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new PermissionSnapshot(mapped.order(ByteOrder.BIG_ENDIAN));
+        }
+    }
+
+    /**
+     * Membaca snapshot dari byte array (untuk pengujian dan transfer lewat jaringan)
+     */
+    public static PermissionSnapshot wrap(byte[] bytes) throws IOException {
+        return new PermissionSnapshot(ByteBuffer.wrap(bytes).asReadOnlyBuffer());
+    }
+
+    /**
+     * Menulis snapshot secara atomik: file sementara di direktori yang sama di-fsync lalu di-rename,
+     * sehingga pembaca hanya pernah melihat snapshot lama atau snapshot baru yang utuh
+     */
+    public static void write(Path target, SnapshotContent content) throws IOException {
+        Path directory = target.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temp = Files.createTempFile(directory, target.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                ByteBuffer bytes = ByteBuffer.wrap(encode(content));
+                while (bytes.hasRemaining()) {
+                    channel.write(bytes);
+                }
+                channel.force(true);
+            }
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Serialisasi snapshot ke format biner
+     */
+    public static byte[] encode(SnapshotContent content) {
+        int[] roleIds = content.accessIdsByRole().keySet().stream().mapToInt(Integer::intValue).sorted().toArray();
+        int grantCount = content.accessIdsByRole().values().stream().mapToInt(ids -> ids.length).sum();
+
+        List<byte[]> names = new ArrayList<>(content.accessIdsByName().size());
+        List<Integer> nameAccessIds = new ArrayList<>(content.accessIdsByName().size());
+        content.accessIdsByName().entrySet().stream()
+            .map(entry -> Map.entry(entry.getKey().getBytes(StandardCharsets.UTF_8), entry.getValue()))
+            .sorted((left, right) -> Arrays.compareUnsigned(left.getKey(), right.getKey()))
+            .forEach(entry -> {
+                names.add(entry.getKey());
+                nameAccessIds.add(entry.getValue());
+            });
+        int namePoolSize = names.stream().mapToInt(name -> name.length).sum();
+
+        int[] userIds = content.roleByUser().keySet().stream().mapToInt(Integer::intValue).sorted().toArray();
+
+        int payloadLength = 16 + roleIds.length * ROLE_ENTRY + grantCount * 4
+            + names.size() * ACCESS_ENTRY + userIds.length * USER_ENTRY + namePoolSize;
+        ByteBuffer out = ByteBuffer.allocate(HEADER_SIZE + payloadLength);
+        out.position(HEADER_SIZE);
+        out.putInt(roleIds.length).putInt(grantCount).putInt(names.size()).putInt(userIds.length);
+
+        int grantOffset = 0;
+        int[][] sortedGrants = new int[roleIds.length][];
+        for (int i = 0; i < roleIds.length; i++) {
+            int[] grants = content.accessIdsByRole().get(roleIds[i]).clone();
+            Arrays.sort(grants);
+            sortedGrants[i] = grants;
+            out.putInt(roleIds[i]).putInt(grantOffset).putInt(grants.length);
+            grantOffset += grants.length;
+        }
+        for (int[] grants : sortedGrants) {
+            for (int accessId : grants) {
+                out.putInt(accessId);
+            }
+        }
+        int nameOffset = 0;
+        for (int i = 0; i < names.size(); i++) {
+            out.putInt(nameAccessIds.get(i)).putInt(nameOffset).putInt(names.get(i).length);
+            nameOffset += names.get(i).length;
+        }
+        for (int userId : userIds) {
+            out.putInt(userId).putInt(content.roleByUser().get(userId));
+        }
+        for (byte[] name : names) {
+            out.put(name);
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(out.array(), HEADER_SIZE, payloadLength);
+        out.putInt(0, MAGIC)
+            .putInt(4, FORMAT_VERSION)
+            .putLong(8, content.dataVersion())
+            .putLong(16, content.generatedAt().toEpochMilli())
+            .putInt(24, payloadLength)
+            .putInt(28, (int) crc.getValue());
+        return out.array();
+    }
+
+    /**
+     * Nomor urut data snapshot, naik setiap kali snapshot ditulis ulang
+     */
+    public long getDataVersion() {
+        return dataVersion;
+    }
+
+    public Instant getGeneratedAt() {
+        return generatedAt;
+    }
+
+    public int getRoleCount() {
+        return roleCount;
+    }
+
+    public int getUserCount() {
+        return userCount;
+    }
+
+    /**
+     * Mengecek apakah role memiliki access (grant langsung, warisan atau wildcard saat snapshot dibuat)
+     */
+    public boolean roleHasAccess(int roleId, int accessId) {
+        int role = findRole(roleId);
+        if (role < 0) {
+            return false;
+        }
+        int entry = roleBase + role * ROLE_ENTRY;
+        int low = buffer.getInt(entry + 4);
+        int high = low + buffer.getInt(entry + 8) - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int value = buffer.getInt(grantBase + mid * 4);
+            if (value < accessId) {
+                low = mid + 1;
+            } else if (value > accessId) {
+                high = mid - 1;
+            } else {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Mengecek apakah role memiliki access berdasarkan nama access
+     */
+    public boolean roleHasAccess(int roleId, String accessName) {
+        int accessId = findAccessId(accessName);
+        return accessId >= 0 && roleHasAccess(roleId, accessId);
+    }
+
+    /**
+     * Mengecek apakah user aktif memiliki access berdasarkan nama access
+     * @return false jika user tidak ada di snapshot atau tidak aktif
+     */
+    public boolean userHasAccess(int userId, String accessName) {
+        int roleId = findRoleOfUser(userId);
+        return roleId >= 0 && roleHasAccess(roleId, accessName);
+    }
+
+    /**
+     * Role milik user aktif
+     * @return roleId, atau -1 jika user tidak ada di snapshot atau tidak aktif
+     */
+    public int findRoleOfUser(int userId) {
+        int low = 0;
+        int high = userCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int value = buffer.getInt(userBase + mid * USER_ENTRY);
+            if (value < userId) {
+                low = mid + 1;
+            } else if (value > userId) {
+                high = mid - 1;
+            } else {
+                return buffer.getInt(userBase + mid * USER_ENTRY + 4);
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * ID access berdasarkan nama
+     * @return accessId, atau -1 jika nama tidak dikenal
+     */
+    public int findAccessId(String accessName) {
+        if (accessName == null) {
+            return -1;
+        }
+        byte[] key = accessName.getBytes(StandardCharsets.UTF_8);
+        int low = 0;
+        int high = accessCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int entry = accessBase + mid * ACCESS_ENTRY;
+            int comparison = compareName(buffer.getInt(entry + 4), buffer.getInt(entry + 8), key);
+            if (comparison < 0) {
+                low = mid + 1;
+            } else if (comparison > 0) {
+                high = mid - 1;
+            } else {
+                return buffer.getInt(entry);
+            }
+        }
+        return -1;
+    }
+
+    private int findRole(int roleId) {
+        int low = 0;
+        int high = roleCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int value = buffer.getInt(roleBase + mid * ROLE_ENTRY);
+            if (value < roleId) {
+                low = mid + 1;
+            } else if (value > roleId) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Membandingkan nama di buffer dengan key secara unsigned per byte, sama dengan urutan saat encode
+     */
+    private int compareName(int offset, int length, byte[] key) {
+        int start = nameBase + offset;
+        int common = Math.min(length, key.length);
+        for (int i = 0; i < common; i++) {
+            int comparison = Byte.compareUnsigned(buffer.get(start + i), key[i]);
+            if (comparison != 0) {
+                return comparison;
+            }
+        }
+        return Integer.compare(length, key.length);
+    }
+}
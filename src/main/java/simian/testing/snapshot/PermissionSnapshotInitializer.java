@@ -0,0 +1,27 @@
+package simian.testing.snapshot;
+
+import java.nio.file.Path;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.ConfigurableEnvironment;
+
+/**
+ * Me-memory-map snapshot permission sebelum context di-refresh
+ * Didaftarkan lewat META-INF/spring.factories sehingga berjalan sebelum bean mana pun dibuat
+ * (termasuk datasource dan EntityManagerFactory), lalu PermissionSnapshotService didaftarkan sebagai singleton
+ */
+public class PermissionSnapshotInitializer implements ApplicationContextInitializer<ConfigurableApplicationContext> {
+
+    public static final String BEAN_NAME = "permissionSnapshotService";
+
+    @Override
+    public void initialize(ConfigurableApplicationContext context) {
+        ConfigurableEnvironment environment = context.getEnvironment();
+        boolean enabled = environment.getProperty("simian.snapshot.enabled", Boolean.class, true);
+        Path path = Path.of(environment.getProperty("simian.snapshot.path", "data/permission-snapshot.bin"));
+
+        PermissionSnapshotService snapshotService = new PermissionSnapshotService(enabled, path);
+        context.getBeanFactory().registerSingleton(BEAN_NAME, snapshotService);
+        context.addApplicationListener(snapshotService);
+    }
+}
@@ -0,0 +1,95 @@
+package simian.testing.snapshot;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+
+/**
+ * Pengecekan permission yang tersedia sejak awal proses start
+ * Dibuat oleh PermissionSnapshotInitializer sebelum context di-refresh, sehingga snapshot sudah di-memory-map
+ * sebelum datasource dan Hibernate mulai dibuat; class ini sengaja tidak bergantung pada bean lain.
+ * Selama aplikasi belum siap, AccessInterceptor dan RequestPrincipalResolver menjawab dari snapshot.
+ * Request HTTP sendiri baru diterima setelah Hibernate siap, karena web server start di akhir refresh;
+ * yang dihemat adalah jeda warm-up sampai ApplicationReadyEvent.
+ * Setelah ApplicationReadyEvent, PermissionMatcher dan state user live mengambil alih dan snapshot dilepas
+ */
+public class PermissionSnapshotService implements ApplicationListener<ApplicationReadyEvent>, MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(PermissionSnapshotService.class);
+
+    private volatile PermissionSnapshot snapshot;
+    private volatile boolean live;
+    private volatile Counter snapshotChecks;
+    private volatile Counter liveChecks;
+
+    /**
+     * @param enabled false jika snapshot tidak dipakai sama sekali
+     * @param path File snapshot yang ditulis PermissionSnapshotWriter
+     */
+    public PermissionSnapshotService(boolean enabled, Path path) {
+        if (!enabled || !Files.exists(path)) {
+            return;
+        }
+        try {
+            snapshot = PermissionSnapshot.open(path);
+            log.info("Snapshot permission versi {} dimuat ({} role, {} user aktif, umur {} detik)",
+                snapshot.getDataVersion(), snapshot.getRoleCount(), snapshot.getUserCount(),
+                Duration.between(snapshot.getGeneratedAt(), Instant.now()).toSeconds());
+        } catch (IOException e) {
+            // Snapshot rusak atau versi lama: pengecekan menunggu data live
+            log.warn("Snapshot permission {} diabaikan: {}", path, e.getMessage());
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        snapshotChecks = registry.counter("simian.snapshot.checks", "source", "snapshot");
+        liveChecks = registry.counter("simian.snapshot.checks", "source", "live");
+    }
+
+    /**
+     * Data live siap; snapshot tidak dipakai lagi
+     */
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        live = true;
+        snapshot = null;
+    }
+
+    /**
+     * true selama pengecekan masih dijawab dari snapshot
+     */
+    public boolean isServingFromSnapshot() {
+        return !live && snapshot != null;
+    }
+
+    /**
+     * Snapshot yang sedang dipakai, tanpa mencatat metrics
+     * @return Snapshot, atau null jika data live sudah siap atau snapshot tidak tersedia
+     *         (pemanggil memakai data live)
+     */
+    public PermissionSnapshot currentSnapshot() {
+        return live ? null : snapshot;
+    }
+
+    /**
+     * Seperti currentSnapshot, dipanggil sekali per pengecekan permission agar metrics sumber jawaban akurat
+     */
+    public PermissionSnapshot snapshotForCheck() {
+        PermissionSnapshot current = currentSnapshot();
+        Counter counter = current != null ? snapshotChecks : liveChecks;
+        if (counter != null) {
+            counter.increment();
+        }
+        return current;
+    }
+}
@@ -0,0 +1,221 @@
+package simian.testing.snapshot;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import simian.testing.event.RbacChangeEvent;
+import simian.testing.event.RbacChangeEvent.EntityType;
+import simian.testing.service.PermissionMatcher;
+
+/**
+ * Menulis ulang snapshot permission setiap kali role, access, grant atau user berubah
+ * Perubahan yang berdekatan digabung (debounce) menjadi satu penulisan di thread background,
+ * sehingga transaksi bisnis tidak pernah menunggu I/O file
+ *
+ * Hanya perubahan role, access dan grant yang menghitung ulang seluruh snapshot. Perubahan user cukup
+ * membaca ulang baris user yang berubah dan menambal bagian user -> role dari snapshot terakhir
+ */
+@Component
+public class PermissionSnapshotWriter {
+
+    private static final Logger log = LoggerFactory.getLogger(PermissionSnapshotWriter.class);
+
+    private static final int USER_CHUNK = 500;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PermissionMatcher permissionMatcher;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${simian.snapshot.enabled:true}")
+    private boolean enabled;
+
+    @Value("${simian.snapshot.path:data/permission-snapshot.bin}")
+    private Path path;
+
+    @Value("${simian.snapshot.debounce-ms:500}")
+    private long debounceMs;
+
+    private final AtomicBoolean writeScheduled = new AtomicBoolean();
+    private final AtomicBoolean modelChanged = new AtomicBoolean(true);
+    private final Set<Integer> changedUserIds = ConcurrentHashMap.newKeySet();
+    // Snapshot terakhir yang berhasil ditulis; hanya diakses thread writer
+    private SnapshotContent current;
+    private ScheduledExecutorService scheduler;
+    private long dataVersion;
+    private Timer writeTimer;
+    private Counter failedCounter;
+
+    @PostConstruct
+    void start() {
+        writeTimer = Timer.builder("simian.snapshot.write")
+            .description("Latensi membangun dan menulis snapshot permission")
+            .register(meterRegistry);
+        failedCounter = meterRegistry.counter("simian.snapshot.write.failed");
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "permission-snapshot-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        scheduler.shutdown();
+        scheduler.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Snapshot pertama ditulis setelah aplikasi siap, menggantikan file dari proses sebelumnya
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        requestWrite();
+    }
+
+    /**
+     * Dipanggil setelah mutasi commit; perubahan user hanya menandai user tersebut untuk ditambal
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRbacChange(RbacChangeEvent event) {
+        if (event.entityType() == EntityType.USER) {
+            changedUserIds.add(event.entityId());
+        } else {
+            modelChanged.set(true);
+        }
+        requestWrite();
+    }
+
+    private void requestWrite() {
+        if (!enabled || scheduler.isShutdown() || !writeScheduled.compareAndSet(false, true)) {
+            return;
+        }
+        scheduler.schedule(() -> {
+            // Dilepas sebelum membaca data: perubahan selama penulisan menjadwalkan penulisan berikutnya
+            writeScheduled.set(false);
+            writeQuietly();
+        }, debounceMs, TimeUnit.MILLISECONDS);
+    }
+
+    private void writeQuietly() {
+        try {
+            writeSnapshot();
+        } catch (IOException | RuntimeException e) {
+            // Perubahan yang sudah diambil hilang bersama penulisan ini; penulisan berikutnya dibangun penuh
+            current = null;
+            failedCounter.increment();
+            log.warn("Gagal menulis snapshot permission ke {}", path, e);
+        }
+    }
+
+    /**
+     * Membangun snapshot dari data yang sudah commit dan menulisnya secara atomik
+     * Hanya dipanggil dari thread writer
+     */
+    void writeSnapshot() throws IOException {
+        long start = System.nanoTime();
+        if (dataVersion == 0) {
+            dataVersion = readExistingVersion();
+        }
+        // Diambil sebelum membaca data: perubahan yang commit setelah ini masuk ke penulisan berikutnya
+        boolean full = modelChanged.getAndSet(false) || current == null;
+        List<Integer> userIds = new ArrayList<>(changedUserIds);
+        changedUserIds.removeAll(userIds);
+
+        SnapshotContent content = full ? buildContent(dataVersion + 1) : patchUsers(current, userIds, dataVersion + 1);
+        PermissionSnapshot.write(path, content);
+        current = content;
+        dataVersion = content.dataVersion();
+        writeTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        log.debug("Snapshot permission versi {} ditulis ({} role, {} user aktif)",
+            dataVersion, content.accessIdsByRole().size(), content.roleByUser().size());
+    }
+
+    private SnapshotContent buildContent(long version) {
+        Instant generatedAt = Instant.now();
+        Map<String, Integer> accessIdsByName = new HashMap<>();
+        jdbcTemplate.query("SELECT access_id, access_name FROM access",
+            rs -> { accessIdsByName.put(rs.getString("access_name"), rs.getInt("access_id")); });
+        List<Integer> roleIds = jdbcTemplate.queryForList("SELECT role_id FROM role", Integer.class);
+        Map<Integer, Integer> roleByUser = new HashMap<>();
+        jdbcTemplate.query("SELECT user_id, role_id FROM user WHERE is_active = 1",
+            rs -> { roleByUser.put(rs.getInt("user_id"), rs.getInt("role_id")); });
+
+        // Grant efektif dihitung lewat PermissionMatcher agar warisan dan wildcard identik dengan pengecekan live
+        Map<Integer, int[]> accessIdsByRole = new HashMap<>(roleIds.size() * 2);
+        for (Integer roleId : roleIds) {
+            List<Integer> granted = new ArrayList<>();
+            try {
+                for (Integer accessId : accessIdsByName.values()) {
+                    if (permissionMatcher.hasAccess(roleId, accessId)) {
+                        granted.add(accessId);
+                    }
+                }
+            } catch (IllegalArgumentException e) {
+                // Role dihapus saat snapshot dibangun; penulisan berikutnya sudah dijadwalkan oleh event DELETED
+                continue;
+            }
+            accessIdsByRole.put(roleId, granted.stream().mapToInt(Integer::intValue).toArray());
+        }
+        return new SnapshotContent(version, generatedAt, accessIdsByRole, accessIdsByName, roleByUser);
+    }
+
+    /**
+     * Snapshot baru dengan role dan access yang sama; hanya user yang berubah dibaca ulang
+     * User yang dihapus atau nonaktif dikeluarkan dari mapping
+     */
+    private SnapshotContent patchUsers(SnapshotContent previous, List<Integer> userIds, long version) {
+        Instant generatedAt = Instant.now();
+        Map<Integer, Integer> roleByUser = new HashMap<>(previous.roleByUser());
+        for (int from = 0; from < userIds.size(); from += USER_CHUNK) {
+            List<Integer> chunk = userIds.subList(from, Math.min(from + USER_CHUNK, userIds.size()));
+            chunk.forEach(roleByUser::remove);
+            String placeholders = String.join(",", Collections.nCopies(chunk.size(), "?"));
+            jdbcTemplate.query("SELECT user_id, role_id FROM user WHERE is_active = 1 AND user_id IN (" + placeholders + ")",
+                rs -> { roleByUser.put(rs.getInt("user_id"), rs.getInt("role_id")); }, chunk.toArray());
+        }
+        return new SnapshotContent(version, generatedAt, previous.accessIdsByRole(), previous.accessIdsByName(),
+            roleByUser);
+    }
+
+    private long readExistingVersion() {
+        if (!Files.exists(path)) {
+            return 0;
+        }
+        try {
+            return PermissionSnapshot.open(path).getDataVersion();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package simian.testing.snapshot;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Isi snapshot permission sebelum di-serialisasi
+ * @param dataVersion Nomor urut snapshot
+ * @param generatedAt Waktu data dibaca dari database
+ * @param accessIdsByRole roleId -> semua accessId efektif (langsung, warisan dan wildcard)
+ * @param accessIdsByName accessName -> accessId
+ * @param roleByUser userId -> roleId, hanya user aktif
+ */
+public record SnapshotContent(long dataVersion, Instant generatedAt, Map<Integer, int[]> accessIdsByRole,
+                              Map<String, Integer> accessIdsByName, Map<Integer, Integer> roleByUser) {
+}
@@ -0,0 +1,141 @@
+package simian.testing.snapshot;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import javax.sql.DataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import simian.testing.service.PermissionMatcher;
+
+/**
+ * Menulis snapshot biner lengkap (access, role beserta permission efektif, dan semua user) ke stream
+ * Baris dibaca lewat JDBC dan langsung di-encode; graph entity User/Role/Access tidak pernah dibuat,
+ * dan tabel user di-stream baris per baris sehingga memory tidak bergantung pada jumlah user
+ *
+ * Ketiga query berjalan di satu transaksi read-only agar snapshot konsisten. Permission efektif dihitung
+ * lewat PermissionMatcher sehingga warisan dan wildcard identik dengan pengecekan live
+ */
+@Service
+public class SnapshotExportService {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PermissionMatcher permissionMatcher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /**
+     * Integer.MIN_VALUE membuat MySQL Connector/J men-stream result set baris per baris
+     */
+    @Value("${simian.snapshot.export.fetch-size:-2147483648}")
+    private int fetchSize;
+
+    private JdbcTemplate streamingJdbcTemplate;
+    private TransactionTemplate readTemplate;
+    private Timer exportTimer;
+
+    @PostConstruct
+    void init() {
+        streamingJdbcTemplate = new JdbcTemplate(dataSource);
+        streamingJdbcTemplate.setFetchSize(fetchSize);
+        readTemplate = new TransactionTemplate(transactionManager);
+        readTemplate.setReadOnly(true);
+        exportTimer = Timer.builder("simian.snapshot.export")
+            .description("Latensi menulis snapshot biner lengkap")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Menulis snapshot ke stream lalu mem-flush-nya (stream tidak ditutup)
+     */
+    public void export(OutputStream out) throws IOException {
+        long start = System.nanoTime();
+        try {
+            readTemplate.executeWithoutResult(status -> {
+                try {
+                    write(new SnapshotWireWriter(out, Instant.now()));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            exportTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void write(SnapshotWireWriter writer) throws IOException {
+        List<Integer> accessIds = new ArrayList<>();
+        jdbcTemplate.query("SELECT access_id, access_name, module_name, action_type FROM access ORDER BY access_id",
+            rs -> {
+                int accessId = rs.getInt("access_id");
+                accessIds.add(accessId);
+                try {
+                    writer.writeAccess(accessId, rs.getString("access_name"), rs.getString("module_name"),
+                        rs.getString("action_type"));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+
+        // Role dibaca dulu (jumlahnya kecil) agar PermissionMatcher boleh query saat cache-nya kosong
+        List<RoleRow> roles = jdbcTemplate.query("SELECT role_id, role_name, parent_role_id FROM role ORDER BY role_id",
+            (rs, rowNum) -> new RoleRow(rs.getInt("role_id"), rs.getString("role_name"),
+                rs.getObject("parent_role_id", Integer.class)));
+        int[] granted = new int[accessIds.size()];
+        for (RoleRow role : roles) {
+            int count = 0;
+            try {
+                for (Integer accessId : accessIds) {
+                    if (permissionMatcher.hasAccess(role.roleId(), accessId)) {
+                        granted[count++] = accessId;
+                    }
+                }
+            } catch (IllegalArgumentException e) {
+                // Role sudah dihapus dari cache matcher tetapi masih terlihat di transaksi ini
+                count = 0;
+            }
+            writer.writeRole(role.roleId(), role.name(), role.parentRoleId(), Arrays.copyOf(granted, count));
+        }
+
+        streamingJdbcTemplate.query(
+            "SELECT user_id, username, email, first_name, last_name, is_active, role_id FROM user ORDER BY user_id",
+            rs -> {
+                try {
+                    writer.writeUser(rs.getInt("user_id"), rs.getString("username"), rs.getString("email"),
+                        rs.getString("first_name"), rs.getString("last_name"), rs.getBoolean("is_active"),
+                        rs.getInt("role_id"));
+                } catch (IOException e) {
+                    // Biasanya client memutus koneksi; hentikan streaming secepatnya
+                    throw new UncheckedIOException(e);
+                }
+            });
+        writer.finish();
+    }
+
+    private record RoleRow(int roleId, String name, Integer parentRoleId) {
+    }
+}
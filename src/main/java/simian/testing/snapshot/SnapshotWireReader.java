@@ -0,0 +1,199 @@
+package simian.testing.snapshot;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Decoder streaming untuk snapshot biner lengkap yang ditulis SnapshotWireWriter
+ * Record dibaca satu per satu lewat next(), sehingga consumer bisa memproses snapshot besar
+ * tanpa menyimpan seluruhnya di memory
+ *
+ * Tidak thread-safe
+ */
+public final class SnapshotWireReader {
+
+    private final InputStream in;
+    private final byte[] buffer = new byte[16 * 1024];
+    private final Instant generatedAt;
+    private final List<String> dictionary = new ArrayList<>();
+    private int[] accessIdsByIndex = new int[64];
+    private int accessCount;
+    private int position;
+    private int limit;
+    private int stage = SnapshotWireWriter.TAG_ACCESS;
+    private int previousId;
+    private boolean ended;
+
+    /**
+     * Membaca dan memvalidasi header
+     * @throws IOException jika stream bukan snapshot biner atau versinya tidak didukung
+     */
+    public SnapshotWireReader(InputStream in) throws IOException {
+        this.in = in;
+        int magic = 0;
+        for (int i = 0; i < 4; i++) {
+            magic = (magic << 8) | (readByte() & 0xFF);
+        }
+        if (magic != SnapshotWireWriter.MAGIC) {
+            throw new IOException("Bukan snapshot biner simian");
+        }
+        long formatVersion = readVarint();
+        if (formatVersion != SnapshotWireWriter.FORMAT_VERSION) {
+            throw new IOException("Versi format snapshot " + formatVersion + " tidak didukung");
+        }
+        this.generatedAt = Instant.ofEpochMilli(readVarint());
+    }
+
+    public Instant getGeneratedAt() {
+        return generatedAt;
+    }
+
+    /**
+     * Record berikutnya
+     * @return Access, Role atau User; null setelah penanda akhir
+     * @throws EOFException jika stream berakhir sebelum penanda akhir (snapshot terpotong)
+     */
+    public WireRecord next() throws IOException {
+        if (ended) {
+            return null;
+        }
+        int tag = readByte();
+        if (tag == SnapshotWireWriter.TAG_END) {
+            ended = true;
+            return null;
+        }
+        if (tag < stage || tag > SnapshotWireWriter.TAG_USER) {
+            throw new IOException("Tag record snapshot " + tag + " tidak valid");
+        }
+        if (tag != stage) {
+            stage = tag;
+            previousId = 0;
+        }
+        int id = previousId + (int) readVarint();
+        previousId = id;
+        return switch (tag) {
+            case SnapshotWireWriter.TAG_ACCESS -> readAccess(id);
+            case SnapshotWireWriter.TAG_ROLE -> readRole(id);
+            default -> readUser(id);
+        };
+    }
+
+    private WireRecord.Access readAccess(int accessId) throws IOException {
+        if (accessCount == accessIdsByIndex.length) {
+            accessIdsByIndex = Arrays.copyOf(accessIdsByIndex, accessCount * 2);
+        }
+        accessIdsByIndex[accessCount++] = accessId;
+        return new WireRecord.Access(accessId, readString(), readDictionary(), readDictionary());
+    }
+
+    private WireRecord.Role readRole(int roleId) throws IOException {
+        String name = readString();
+        int parent = (int) readVarint();
+        int bitmapLength = (int) readVarint();
+        int[] accessIds = new int[Math.min(bitmapLength * 8, accessCount)];
+        int count = 0;
+        for (int i = 0; i < bitmapLength; i++) {
+            int bits = readByte() & 0xFF;
+            while (bits != 0) {
+                int index = i * 8 + Integer.numberOfTrailingZeros(bits);
+                if (index >= accessCount) {
+                    throw new IOException("Bitmap role " + roleId + " merujuk access yang tidak ada");
+                }
+                accessIds[count++] = accessIdsByIndex[index];
+                bits &= bits - 1;
+            }
+        }
+        return new WireRecord.Role(roleId, name, parent != 0 ? parent : null, Arrays.copyOf(accessIds, count));
+    }
+
+    private WireRecord.User readUser(int userId) throws IOException {
+        int flags = readByte();
+        int roleId = (int) readVarint();
+        String username = readString();
+        String localPart = (flags & SnapshotWireWriter.FLAG_EMAIL_IS_USERNAME) != 0 ? username : readString();
+        String domain = readDictionary();
+        String email = domain != null ? localPart + "@" + domain : localPart;
+        return new WireRecord.User(userId, username, email, readDictionary(), readDictionary(),
+            (flags & SnapshotWireWriter.FLAG_ACTIVE) != 0, roleId);
+    }
+
+    private String readString() throws IOException {
+        int length = (int) readVarint() - 1;
+        if (length < 0) {
+            return null;
+        }
+        if (length <= buffer.length) {
+            if (limit - position < length) {
+                compactAndFill(length);
+            }
+            String value = new String(buffer, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            bytes[i] = (byte) readByte();
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private String readDictionary() throws IOException {
+        long ref = readVarint();
+        if (ref == 0) {
+            return null;
+        }
+        if (ref == 1) {
+            String value = readString();
+            if (dictionary.size() < SnapshotWireWriter.MAX_DICTIONARY) {
+                dictionary.add(value);
+            }
+            return value;
+        }
+        if (ref - 2 >= dictionary.size()) {
+            throw new IOException("Referensi kamus snapshot " + (ref - 2) + " tidak valid");
+        }
+        return dictionary.get((int) (ref - 2));
+    }
+
+    private long readVarint() throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Varint snapshot tidak valid");
+    }
+
+    private int readByte() throws IOException {
+        if (position == limit) {
+            compactAndFill(1);
+        }
+        return buffer[position++];
+    }
+
+    /**
+     * Memastikan minimal sejumlah byte tersedia di buffer mulai dari position
+     */
+    private void compactAndFill(int required) throws IOException {
+        int remaining = limit - position;
+        System.arraycopy(buffer, position, buffer, 0, remaining);
+        position = 0;
+        limit = remaining;
+        while (limit < required) {
+            int read = in.read(buffer, limit, buffer.length - limit);
+            if (read < 0) {
+                throw new EOFException("Snapshot terpotong");
+            }
+            limit += read;
+        }
+    }
+}
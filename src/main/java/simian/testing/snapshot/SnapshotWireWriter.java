@@ -0,0 +1,207 @@
+package simian.testing.snapshot;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Encoder streaming untuk snapshot biner lengkap user, role dan permission (format wire untuk service internal)
+ * Setiap record langsung ditulis ke stream; yang disimpan di memory hanya kamus string dan indeks access
+ *
+ * Format:
+ * <pre>
+ * header : magic "SMWS" (4 byte big-endian), formatVersion (varint), generatedAt epoch ms (varint)
+ * record : tag (1 byte) lalu field; tag 0 menandai akhir stream
+ *   1 access : delta accessId, name (str), module (dict), action (dict)
+ *   2 role   : delta roleId, name (str), parentRoleId (varint, 0 = tidak ada),
+ *              panjang bitmap (varint), bitmap indeks access (urutan BitSet.toByteArray)
+ *   3 user   : delta userId, flags (bit 0 = aktif, bit 1 = bagian lokal email sama dengan username),
+ *              roleId (varint), username (str), bagian lokal email (str, dilewati jika bit 1),
+ *              domain email (dict), firstName (dict), lastName (dict)
+ * str  : varint panjang byte UTF-8 + 1 (0 = null), lalu byte-nya
+ * dict : varint 0 = null, 1 = string baru (str, masuk kamus), n >= 2 = entri kamus ke n - 2
+ * </pre>
+ * Semua angka varint unsigned (7 bit per byte). ID ditulis sebagai selisih dari ID record sebelumnya
+ * sehingga harus terurut naik per jenis record. Bitmap role memakai posisi access di stream, bukan accessId,
+ * sehingga tetap padat walaupun accessId bolong. Kamus berhenti bertambah setelah MAX_DICTIONARY entri
+ *
+ * Tidak thread-safe
+ */
+public final class SnapshotWireWriter {
+
+    public static final String MEDIA_TYPE = "application/x-simian-snapshot";
+    public static final int MAGIC = 0x534D5753;
+    public static final int FORMAT_VERSION = 1;
+
+    static final int TAG_END = 0;
+    static final int TAG_ACCESS = 1;
+    static final int TAG_ROLE = 2;
+    static final int TAG_USER = 3;
+    static final int MAX_DICTIONARY = 1 << 16;
+    static final int FLAG_ACTIVE = 1;
+    static final int FLAG_EMAIL_IS_USERNAME = 2;
+
+    private final OutputStream out;
+    private final byte[] buffer = new byte[16 * 1024];
+    private final Map<String, Integer> dictionary = new HashMap<>();
+    private final Map<Integer, Integer> accessIndexes = new HashMap<>();
+    private int position;
+    private int stage = TAG_ACCESS;
+    private int previousId;
+    private boolean finished;
+
+    /**
+     * Menulis header; record berikutnya harus ditulis berurutan: access, role, lalu user
+     */
+    public SnapshotWireWriter(OutputStream out, Instant generatedAt) throws IOException {
+        this.out = out;
+        ensure(4);
+        buffer[position++] = (byte) (MAGIC >>> 24);
+        buffer[position++] = (byte) (MAGIC >>> 16);
+        buffer[position++] = (byte) (MAGIC >>> 8);
+        buffer[position++] = (byte) MAGIC;
+        writeVarint(FORMAT_VERSION);
+        writeVarint(generatedAt.toEpochMilli());
+    }
+
+    public void writeAccess(int accessId, String name, String module, String action) throws IOException {
+        startRecord(TAG_ACCESS, accessId);
+        accessIndexes.put(accessId, accessIndexes.size());
+        writeString(name);
+        writeDictionary(module);
+        writeDictionary(action);
+    }
+
+    /**
+     * @param accessIds Access efektif role; semuanya harus sudah ditulis lewat writeAccess
+     * @throws IllegalArgumentException jika ada accessId yang belum ditulis
+     */
+    public void writeRole(int roleId, String name, Integer parentRoleId, int[] accessIds) throws IOException {
+        BitSet bitmap = new BitSet(accessIndexes.size());
+        for (int accessId : accessIds) {
+            Integer index = accessIndexes.get(accessId);
+            if (index == null) {
+                throw new IllegalArgumentException("Access dengan ID " + accessId + " belum ditulis ke snapshot");
+            }
+            bitmap.set(index);
+        }
+        startRecord(TAG_ROLE, roleId);
+        writeString(name);
+        writeVarint(parentRoleId != null ? parentRoleId : 0);
+        byte[] bytes = bitmap.toByteArray();
+        writeVarint(bytes.length);
+        writeBytes(bytes, bytes.length);
+    }
+
+    public void writeUser(int userId, String username, String email, String firstName, String lastName,
+                          boolean active, int roleId) throws IOException {
+        // Domain email berulang di hampir semua user; bagian lokalnya sering sama dengan username
+        int at = email != null ? email.lastIndexOf('@') : -1;
+        String localPart = at >= 0 ? email.substring(0, at) : email;
+        boolean localIsUsername = localPart != null && localPart.equals(username);
+        startRecord(TAG_USER, userId);
+        ensure(1);
+        buffer[position++] = (byte) ((active ? FLAG_ACTIVE : 0) | (localIsUsername ? FLAG_EMAIL_IS_USERNAME : 0));
+        writeVarint(roleId);
+        writeString(username);
+        if (!localIsUsername) {
+            writeString(localPart);
+        }
+        writeDictionary(at >= 0 ? email.substring(at + 1) : null);
+        writeDictionary(firstName);
+        writeDictionary(lastName);
+    }
+
+    /**
+     * Menulis penanda akhir dan mem-flush stream (stream tidak ditutup)
+     */
+    public void finish() throws IOException {
+        if (!finished) {
+            finished = true;
+            ensure(1);
+            buffer[position++] = TAG_END;
+            drain();
+            out.flush();
+        }
+    }
+
+    private void startRecord(int tag, int id) throws IOException {
+        if (finished || tag < stage) {
+            throw new IllegalStateException("Record snapshot harus ditulis berurutan: access, role, lalu user");
+        }
+        if (tag != stage) {
+            stage = tag;
+            previousId = 0;
+        }
+        if (id <= previousId) {
+            throw new IllegalArgumentException("ID record snapshot harus terurut naik, " + id + " setelah " + previousId);
+        }
+        ensure(1);
+        buffer[position++] = (byte) tag;
+        writeVarint(id - previousId);
+        previousId = id;
+    }
+
+    private void writeString(String value) throws IOException {
+        if (value == null) {
+            writeVarint(0);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarint(bytes.length + 1L);
+        writeBytes(bytes, bytes.length);
+    }
+
+    private void writeDictionary(String value) throws IOException {
+        if (value == null) {
+            writeVarint(0);
+            return;
+        }
+        Integer index = dictionary.get(value);
+        if (index != null) {
+            writeVarint(index + 2L);
+            return;
+        }
+        if (dictionary.size() < MAX_DICTIONARY) {
+            dictionary.put(value, dictionary.size());
+        }
+        writeVarint(1);
+        writeString(value);
+    }
+
+    private void writeVarint(long value) throws IOException {
+        ensure(10);
+        while ((value & ~0x7FL) != 0) {
+            buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[position++] = (byte) value;
+    }
+
+    private void writeBytes(byte[] bytes, int length) throws IOException {
+        if (length > buffer.length - position) {
+            drain();
+            if (length > buffer.length) {
+                out.write(bytes, 0, length);
+                return;
+            }
+        }
+        System.arraycopy(bytes, 0, buffer, position, length);
+        position += length;
+    }
+
+    private void ensure(int bytes) throws IOException {
+        if (buffer.length - position < bytes) {
+            drain();
+        }
+    }
+
+    private void drain() throws IOException {
+        out.write(buffer, 0, position);
+        position = 0;
+    }
+}
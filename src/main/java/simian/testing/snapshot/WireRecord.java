@@ -0,0 +1,39 @@
+package simian.testing.snapshot;
+
+/**
+ * Record yang dibaca dari snapshot biner lengkap (SnapshotWireReader)
+ * Urutan dalam stream selalu semua Access, lalu semua Role, lalu semua User, masing-masing terurut ID
+ */
+public sealed interface WireRecord {
+
+    /**
+     * @param accessId ID access
+     * @param name Nama access
+     * @param module Nama module (boleh null)
+     * @param action Tipe action (boleh null)
+     */
+    record Access(int accessId, String name, String module, String action) implements WireRecord {
+    }
+
+    /**
+     * @param roleId ID role
+     * @param name Nama role
+     * @param parentRoleId ID parent, null jika role root
+     * @param accessIds Access efektif (langsung, warisan dan wildcard), terurut sesuai urutan access di stream
+     */
+    record Role(int roleId, String name, Integer parentRoleId, int[] accessIds) implements WireRecord {
+    }
+
+    /**
+     * @param userId ID user
+     * @param username Username
+     * @param email Email
+     * @param firstName Nama depan (boleh null)
+     * @param lastName Nama belakang (boleh null)
+     * @param active Status aktif
+     * @param roleId ID role user
+     */
+    record User(int userId, String username, String email, String firstName, String lastName, boolean active,
+                int roleId) implements WireRecord {
+    }
+}
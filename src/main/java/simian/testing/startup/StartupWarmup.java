@@ -0,0 +1,251 @@
+package simian.testing.startup;
+
+import java.lang.management.CompilationMXBean;
+import java.lang.management.ManagementFactory;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import javax.sql.DataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import simian.testing.dao.AccessDAO;
+import simian.testing.dao.RoleAccessDAO;
+import simian.testing.dao.RoleDAO;
+import simian.testing.dao.RoleHierarchyDAO;
+import simian.testing.dao.UserDAO;
+import simian.testing.entity.Access;
+import simian.testing.entity.Role;
+import simian.testing.service.AccessService;
+import simian.testing.service.CatalogCache;
+import simian.testing.service.RoleService;
+import simian.testing.service.UserService;
+
+/**
+ * Tahap warm-up sebelum aplikasi dinyatakan siap menerima traffic
+ * ApplicationRunner dijalankan sebelum Spring Boot mem-publish ReadinessState.ACCEPTING_TRAFFIC,
+ * sehingga probe /actuator/health/readiness baru UP setelah warm-up selesai
+ *
+ * Urutan: buka connection pool sampai ukuran minimum, preload role dan access,
+ * siapkan semua query DAO, lalu jalankan beban sintetis sampai kompilasi JIT stabil.
+ * Batas waktu hanya menghentikan beban sintetis; exception di tahap mana pun menggagalkan startup
+ */
+@Component
+public class StartupWarmup implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(StartupWarmup.class);
+
+    private static final String MISSING_USERNAME = "__warmup_missing__";
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserDAO userDAO;
+
+    @Autowired
+    private RoleDAO roleDAO;
+
+    @Autowired
+    private AccessDAO accessDAO;
+
+    @Autowired
+    private RoleAccessDAO roleAccessDAO;
+
+    @Autowired
+    private RoleHierarchyDAO roleHierarchyDAO;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private RoleService roleService;
+
+    @Autowired
+    private AccessService accessService;
+
+    @Autowired
+    private CatalogCache catalogCache;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${simian.warmup.enabled:true}")
+    private boolean enabled;
+
+    @Value("${simian.warmup.max-duration-ms:60000}")
+    private long maxDurationMs;
+
+    @Value("${simian.warmup.iterations-per-round:500}")
+    private int iterationsPerRound;
+
+    @Value("${simian.warmup.stable-rounds:3}")
+    private int stableRounds;
+
+    @Value("${simian.warmup.compile-threshold-ms:20}")
+    private long compileThresholdMs;
+
+    private volatile Duration lastDuration;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            int connections = warmConnectionPool();
+            List<Role> roles = preloadCatalog();
+            prepareDaoQueries();
+            int rounds = runSyntheticLoad(roles, start);
+            lastDuration = Duration.ofNanos(System.nanoTime() - start);
+            log.info("Warm-up selesai dalam {} ms ({} koneksi, {} role, {} putaran beban sintetis)",
+                lastDuration.toMillis(), connections, roles.size(), rounds);
+        } catch (RuntimeException e) {
+            // Aplikasi yang gagal warm-up (mis. database tidak bisa diakses) tidak boleh dinyatakan siap:
+            // exception dari runner menghentikan startup sebelum ReadinessState.ACCEPTING_TRAFFIC dipublish
+            lastDuration = Duration.ofNanos(System.nanoTime() - start);
+            throw new IllegalStateException("Warm-up gagal setelah " + lastDuration.toMillis() + " ms", e);
+        } finally {
+            meterRegistry.timer("simian.warmup.duration").record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Durasi warm-up terakhir, null jika warm-up belum/tidak dijalankan
+     */
+    public Duration getLastDuration() {
+        return lastDuration;
+    }
+
+    /**
+     * Meminjam koneksi sebanyak minimumIdle secara bersamaan agar pool terisi sebelum traffic datang
+     */
+    private int warmConnectionPool() {
+        int target = dataSource instanceof HikariDataSource hikari ? Math.max(1, hikari.getMinimumIdle()) : 1;
+        List<Connection> borrowed = new ArrayList<>(target);
+        try {
+            for (int i = 0; i < target; i++) {
+                Connection connection = dataSource.getConnection();
+                borrowed.add(connection);
+                connection.isValid(1);
+            }
+        } catch (SQLException e) {
+            log.warn("Warm-up connection pool berhenti di {} koneksi: {}", borrowed.size(), e.getMessage());
+        } finally {
+            for (Connection connection : borrowed) {
+                try {
+                    connection.close();
+                } catch (SQLException ignored) {
+                    // Koneksi rusak akan dibuang oleh pool
+                }
+            }
+        }
+        return borrowed.size();
+    }
+
+    private List<Role> preloadCatalog() {
+        List<Role> roles = roleService.getAllRoles();
+        accessService.getAllAccess();
+        catalogCache.getRoles();
+        catalogCache.getAccesses(null);
+        return roles;
+    }
+
+    /**
+     * Menjalankan setiap query DAO sekali dengan parameter yang tidak cocok,
+     * agar Hibernate sudah meng-compile HQL dan prepared statement-nya
+     * getAll()/findAllActive() pada user dilewati karena berupa full table scan
+     */
+    private void prepareDaoQueries() {
+        userDAO.read(-1);
+        userDAO.findByUsername(MISSING_USERNAME);
+        userDAO.findByEmail(MISSING_USERNAME);
+        userDAO.findByRole(-1);
+        userDAO.findActiveByRole(-1);
+        userDAO.existsByUsername(MISSING_USERNAME);
+        userDAO.existsByEmail(MISSING_USERNAME);
+
+        roleDAO.read(-1);
+        roleDAO.exists(-1);
+        roleDAO.getAll();
+        roleDAO.findByName(MISSING_USERNAME);
+        roleDAO.existsByName(MISSING_USERNAME);
+        roleDAO.getUserCountByRole(-1);
+
+        accessDAO.read(-1);
+        accessDAO.getAll();
+        accessDAO.findByName(MISSING_USERNAME);
+        accessDAO.findByModule(MISSING_USERNAME);
+        accessDAO.findByActionType(MISSING_USERNAME);
+        accessDAO.existsByName(MISSING_USERNAME);
+        accessDAO.findAccessesByRole(-1);
+        accessDAO.exists(-1);
+
+        roleAccessDAO.exists(-1, -1);
+        roleAccessDAO.findAccessIdsByRole(-1);
+
+        roleHierarchyDAO.findAncestorIds(-1);
+        roleHierarchyDAO.findDescendantIds(-1);
+        roleHierarchyDAO.isAncestorOrSelf(-1, -1);
+        roleHierarchyDAO.getChildCount(-1);
+        roleHierarchyDAO.findEffectiveAccesses(-1);
+        roleHierarchyDAO.hasEffectiveAccess(-1, -1);
+        roleHierarchyDAO.hasEffectiveAccessByName(-1, MISSING_USERNAME);
+    }
+
+    /**
+     * Beban sintetis roleHasAccessByName/getUserByUsername per putaran sampai waktu kompilasi JIT
+     * per putaran di bawah ambang selama beberapa putaran berturut-turut, atau batas waktu tercapai
+     * @return jumlah putaran yang dijalankan
+     */
+    private int runSyntheticLoad(List<Role> roles, long start) {
+        List<String> accessNames = accessService.getAllAccess().stream().map(Access::getAccessName).toList();
+        List<String> usernames = new ArrayList<>(
+            jdbcTemplate.queryForList("SELECT username FROM user LIMIT 32", String.class));
+        usernames.add(MISSING_USERNAME);
+        if (roles.isEmpty() || accessNames.isEmpty()) {
+            return 0;
+        }
+
+        CompilationMXBean compiler = ManagementFactory.getCompilationMXBean();
+        boolean canMeasure = compiler != null && compiler.isCompilationTimeMonitoringSupported();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(maxDurationMs);
+        long previousCompileMs = canMeasure ? compiler.getTotalCompilationTime() : 0;
+        int stable = 0;
+        int rounds = 0;
+
+        while (System.nanoTime() < deadline && stable < stableRounds) {
+            for (int i = 0; i < iterationsPerRound; i++) {
+                Role role = roles.get(i % roles.size());
+                roleService.roleHasAccessByName(role.getRoleId(), accessNames.get(i % accessNames.size()));
+                // Jalur "user tidak ditemukan" juga ikut di-warm-up
+                userService.findUserByUsername(usernames.get(i % usernames.size()));
+            }
+            rounds++;
+
+            if (!canMeasure) {
+                // Tanpa pengukuran JIT, jalankan sejumlah putaran tetap
+                stable++;
+                continue;
+            }
+            long compileMs = compiler.getTotalCompilationTime();
+            stable = compileMs - previousCompileMs < compileThresholdMs ? stable + 1 : 0;
+            previousCompileMs = compileMs;
+        }
+        return rounds;
+    }
+}
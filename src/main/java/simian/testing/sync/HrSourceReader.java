@@ -0,0 +1,139 @@
+package simian.testing.sync;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Membaca file sumber HR baris per baris (streaming) dalam format CSV atau NDJSON
+ * File tidak pernah dimuat seluruhnya ke memory
+ */
+public class HrSourceReader implements Iterator<HrUserRecord>, Closeable {
+
+    /**
+     * Format file sumber HR
+     */
+    public enum Format {
+        /** CSV dengan header: username,email,firstName,lastName,division */
+        CSV,
+        /** Satu objek JSON per baris dengan field yang sama dengan CSV */
+        NDJSON
+    }
+
+    private static final ObjectMapper JSON = JsonMapper.builder().build();
+
+    private final BufferedReader reader;
+    private final Format format;
+    private Map<String, Integer> csvColumns;
+    private HrUserRecord next;
+    private int lineNumber;
+
+    public HrSourceReader(Reader source, Format format) {
+        this.reader = source instanceof BufferedReader buffered ? buffered : new BufferedReader(source);
+        this.format = format;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null) {
+            next = readNext();
+        }
+        return next != null;
+    }
+
+    @Override
+    public HrUserRecord next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        HrUserRecord current = next;
+        next = null;
+        return current;
+    }
+
+    private HrUserRecord readNext() {
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                if (format == Format.NDJSON) {
+                    return JSON.readValue(line, HrUserRecord.class);
+                }
+                List<String> fields = parseCsvLine(line);
+                if (csvColumns == null) {
+                    csvColumns = new HashMap<>();
+                    for (int i = 0; i < fields.size(); i++) {
+                        csvColumns.put(fields.get(i).trim(), i);
+                    }
+                    continue;
+                }
+                return new HrUserRecord(column(fields, "username"), column(fields, "email"),
+                    column(fields, "firstName"), column(fields, "lastName"), column(fields, "division"));
+            }
+            return null;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Gagal membaca sumber HR pada baris " + lineNumber, e);
+        }
+    }
+
+    private String column(List<String> fields, String name) {
+        Integer index = csvColumns.get(name);
+        if (index == null) {
+            throw new IllegalArgumentException("Kolom '" + name + "' tidak ada di header CSV");
+        }
+        if (index >= fields.size()) {
+            return null;
+        }
+        String value = fields.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    /**
+     * Parser CSV sederhana (RFC 4180 tanpa field multi-baris)
+     */
+    private static List<String> parseCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
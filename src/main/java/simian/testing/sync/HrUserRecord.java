@@ -0,0 +1,9 @@
+package simian.testing.sync;
+
+/**
+ * Satu baris data karyawan dari file sumber HR
+ * Division dipetakan ke role berdasarkan role_name
+ */
+public record HrUserRecord(String username, String email, String firstName,
+                           String lastName, String division) {
+}
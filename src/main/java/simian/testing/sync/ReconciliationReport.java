@@ -0,0 +1,17 @@
+package simian.testing.sync;
+
+import java.time.Duration;
+
+/**
+ * Ringkasan hasil satu kali rekonsiliasi user dengan sumber HR
+ * @param inserted Jumlah user baru yang di-insert
+ * @param updated Jumlah user yang datanya berubah
+ * @param deactivated Jumlah user yang tidak ada lagi di sumber dan dinonaktifkan
+ * @param unchanged Jumlah user yang tidak berubah (tidak disentuh sama sekali)
+ * @param skipped Jumlah baris sumber yang dilewati (division tidak dikenal)
+ * @param failed Jumlah baris yang gagal ditulis (mis. email bentrok)
+ * @param duration Durasi total rekonsiliasi
+ */
+public record ReconciliationReport(int inserted, int updated, int deactivated, int unchanged,
+                                   int skipped, int failed, Duration duration) {
+}
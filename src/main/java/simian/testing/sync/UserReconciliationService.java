@@ -0,0 +1,480 @@
+package simian.testing.sync;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Stream;
+import javax.sql.DataSource;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import simian.testing.dao.RoleDAO;
+import simian.testing.dao.UserDAO;
+import simian.testing.entity.Role;
+import simian.testing.event.RbacChangeEvent;
+import simian.testing.event.RbacChangeEvent.Action;
+import simian.testing.event.RbacChangeEvent.EntityType;
+
+/**
+ * Rekonsiliasi tabel user dengan daftar karyawan lengkap dari HR
+ * Sumber dan tabel user di-stream terurut berdasarkan username lalu di-merge-join,
+ * sehingga hanya baris yang benar-benar berubah yang ditulis (updated_date user lain tidak tersentuh)
+ *
+ * User di user_archive ikut di-stream: karyawan yang kembali muncul di sumber dipulihkan dengan ID lamanya,
+ * dan user baru tidak boleh memakai username/email milik user arsip
+ *
+ * Sengaja tidak @Transactional: stream baca dan batch tulis memakai koneksi yang berbeda,
+ * dan setiap batch di-commit dalam transaksinya sendiri. Setiap baris yang benar-benar tertulis mempublish
+ * RbacChangeEvent USER di transaksi batch-nya (CREATED untuk insert dan pemulihan arsip, UPDATED untuk
+ * update dan nonaktifasi), sama seperti mutasi lewat UserService
+ */
+@Service
+public class UserReconciliationService {
+
+    private static final Logger log = LoggerFactory.getLogger(UserReconciliationService.class);
+
+    /**
+     * Urutan biner (code point), sama dengan ORDER BY username COLLATE utf8mb4_bin
+     * Collation tabel (utf8mb4_unicode_ci) tidak dipakai karena urutannya untuk '_', tanda baca dan aksen
+     * tidak bisa ditiru secara persis di Java
+     */
+    static final Comparator<String> USERNAME_ORDER = UserReconciliationService::compareCodePoints;
+
+    private static final String SELECT_SQL =
+        "SELECT user_id, username, email, first_name, last_name, role_id, is_active, 0 AS archived FROM user "
+        + "UNION ALL "
+        + "SELECT user_id, username, email, first_name, last_name, role_id, is_active, 1 AS archived FROM user_archive "
+        + "ORDER BY username";
+    private static final String INSERT_SQL =
+        "INSERT INTO user (username, email, password, first_name, last_name, is_active, role_id) "
+        + "SELECT ?, ?, ?, ?, ?, 1, ? FROM DUAL "
+        + "WHERE NOT EXISTS (SELECT 1 FROM user_archive WHERE email = ?)";
+    private static final String UPDATE_SQL =
+        "UPDATE user SET email = ?, first_name = ?, last_name = ?, role_id = ?, is_active = 1, version = version + 1 "
+        + "WHERE user_id = ? AND NOT EXISTS (SELECT 1 FROM user_archive WHERE email = ?)";
+    private static final String DEACTIVATE_SQL =
+        "UPDATE user SET is_active = 0, version = version + 1 WHERE user_id = ?";
+
+    private static final Statement INSERT = new Statement(INSERT_SQL, Action.CREATED, -1);
+    private static final Statement UPDATE = new Statement(UPDATE_SQL, Action.UPDATED, 4);
+    private static final Statement DEACTIVATE = new Statement(DEACTIVATE_SQL, Action.UPDATED, 0);
+
+    /**
+     * Batas parameter IN saat mencari ID user yang baru di-insert
+     */
+    private static final int ID_LOOKUP_CHUNK = 500;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private RoleDAO roleDAO;
+
+    @Autowired
+    private UserDAO userDAO;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${simian.sync.batch-size:500}")
+    private int batchSize;
+
+    /**
+     * Integer.MIN_VALUE membuat MySQL Connector/J men-stream result set baris per baris
+     */
+    @Value("${simian.sync.fetch-size:-2147483648}")
+    private int fetchSize;
+
+    /**
+     * Collation biner untuk ORDER BY username; kosong untuk database yang sudah mengurutkan string secara biner (H2)
+     */
+    @Value("${simian.sync.username-collation:utf8mb4_bin}")
+    private String usernameCollation;
+
+    private JdbcTemplate streamingJdbcTemplate;
+    private String selectSql;
+
+    @PostConstruct
+    void init() {
+        streamingJdbcTemplate = new JdbcTemplate(dataSource);
+        streamingJdbcTemplate.setFetchSize(fetchSize);
+        selectSql = usernameCollation == null || usernameCollation.isBlank()
+            ? SELECT_SQL : SELECT_SQL + " COLLATE " + usernameCollation;
+    }
+
+    /**
+     * Rekonsiliasi dari file, format ditentukan dari ekstensi (.csv atau .ndjson/.jsonl)
+     * @param sourceFile File sumber HR, terurut biner berdasarkan username
+     * @return Ringkasan hasil rekonsiliasi
+     */
+    public ReconciliationReport reconcile(Path sourceFile) throws IOException {
+        String name = sourceFile.getFileName().toString().toLowerCase();
+        HrSourceReader.Format format = name.endsWith(".csv")
+            ? HrSourceReader.Format.CSV : HrSourceReader.Format.NDJSON;
+        try (Reader reader = Files.newBufferedReader(sourceFile, StandardCharsets.UTF_8)) {
+            return reconcile(reader, format);
+        }
+    }
+
+    /**
+     * Rekonsiliasi dari stream sumber HR
+     * Baris sumber wajib terurut biner berdasarkan username (urutan code point, huruf besar sebelum huruf kecil)
+     * Username dicocokkan persis; perubahan huruf besar/kecil di HR dianggap user lain
+     * @param source Reader sumber HR
+     * @param format Format sumber
+     * @return Ringkasan hasil rekonsiliasi
+     * @throws IllegalArgumentException jika sumber tidak terurut
+     */
+    public ReconciliationReport reconcile(Reader source, HrSourceReader.Format format) throws IOException {
+        long start = System.nanoTime();
+        Map<String, Integer> roleIdsByName = new HashMap<>();
+        for (Role role : roleDAO.getAll()) {
+            roleIdsByName.put(role.getRoleName(), role.getRoleId());
+        }
+
+        Counts counts = new Counts();
+        BatchWriter writer = new BatchWriter(counts);
+
+        try (HrSourceReader sourceReader = new HrSourceReader(source, format);
+             Stream<UserRow> rows = streamingJdbcTemplate.queryForStream(selectSql, (rs, rowNum) ->
+                 new UserRow(rs.getInt("user_id"), rs.getString("username"), rs.getString("email"),
+                     rs.getString("first_name"), rs.getString("last_name"),
+                     rs.getInt("role_id"), rs.getInt("is_active"), rs.getInt("archived") == 1))) {
+
+            SourceCursor sourceCursor = new SourceCursor(sourceReader, roleIdsByName, counts);
+            Iterator<UserRow> dbCursor = rows.iterator();
+            SourceRow src = sourceCursor.next();
+            UserRow db = nextDbRow(dbCursor, null);
+
+            while (src != null || db != null) {
+                int cmp = src == null ? 1 : db == null ? -1 : USERNAME_ORDER.compare(src.username(), db.username());
+                if (cmp < 0) {
+                    writer.insert(src);
+                    src = sourceCursor.next();
+                } else if (cmp > 0) {
+                    if (db.isActive() == 1) {
+                        writer.deactivate(db.userId());
+                    } else {
+                        counts.unchanged++;
+                    }
+                    db = nextDbRow(dbCursor, db);
+                } else {
+                    if (db.archived()) {
+                        // Pemulihan langsung (jarang terjadi) agar UPDATE di batch berikutnya mengenai barisnya
+                        restore(db.userId());
+                        writer.update(db.userId(), src);
+                    } else if (src.contentHash() != db.contentHash()) {
+                        writer.update(db.userId(), src);
+                    } else {
+                        counts.unchanged++;
+                    }
+                    src = sourceCursor.next();
+                    db = nextDbRow(dbCursor, db);
+                }
+            }
+            writer.flushAll();
+        }
+
+        ReconciliationReport report = new ReconciliationReport(counts.inserted, counts.updated,
+            counts.deactivated, counts.unchanged, counts.skipped, counts.failed,
+            Duration.ofNanos(System.nanoTime() - start));
+        log.info("Rekonsiliasi HR selesai: {}", report);
+        return report;
+    }
+
+    private void restore(int userId) {
+        transactionTemplate.executeWithoutResult(status -> {
+            if (userDAO.restoreFromArchive(userId)) {
+                eventPublisher.publishEvent(RbacChangeEvent.of(EntityType.USER, Action.CREATED, userId));
+            }
+        });
+        log.info("User arsip {} muncul kembali di sumber HR dan dipulihkan", userId);
+    }
+
+    private static UserRow nextDbRow(Iterator<UserRow> cursor, UserRow previous) {
+        if (!cursor.hasNext()) {
+            return null;
+        }
+        UserRow row = cursor.next();
+        if (previous != null && USERNAME_ORDER.compare(previous.username(), row.username()) > 0) {
+            throw new IllegalStateException(
+                "Urutan username dari database tidak konsisten dengan urutan rekonsiliasi: '"
+                + previous.username() + "' sebelum '" + row.username() + "'");
+        }
+        return row;
+    }
+
+    private static int compareCodePoints(String a, String b) {
+        int i = 0;
+        int j = 0;
+        while (i < a.length() && j < b.length()) {
+            int ca = a.codePointAt(i);
+            int cb = b.codePointAt(j);
+            if (ca != cb) {
+                return Integer.compare(ca, cb);
+            }
+            i += Character.charCount(ca);
+            j += Character.charCount(cb);
+        }
+        return Boolean.compare(i < a.length(), j < b.length());
+    }
+
+    /**
+     * Hash 64-bit (FNV-1a) dari kolom yang dikelola HR
+     */
+    static long contentHash(String email, String firstName, String lastName, int roleId, int isActive) {
+        long hash = 0xcbf29ce484222325L;
+        for (String value : new String[] {email, firstName, lastName}) {
+            if (value != null) {
+                for (int i = 0; i < value.length(); i++) {
+                    hash = (hash ^ value.charAt(i)) * 0x100000001b3L;
+                }
+            }
+            // Separator juga membedakan null dari string kosong
+            hash = (hash ^ (value == null ? 0x1e : 0x1f)) * 0x100000001b3L;
+        }
+        hash = (hash ^ roleId) * 0x100000001b3L;
+        return (hash ^ isActive) * 0x100000001b3L;
+    }
+
+    /**
+     * Mempublish event untuk baris yang tertulis; dipanggil di dalam transaksi tulisnya
+     * ID user baru dicari berdasarkan username (unik) karena INSERT ... SELECT di batch tidak mengembalikan key
+     */
+    private void publishApplied(Statement statement, List<Object[]> applied) {
+        List<Integer> userIds = new ArrayList<>(applied.size());
+        if (statement.userIdIndex() >= 0) {
+            for (Object[] args : applied) {
+                userIds.add((Integer) args[statement.userIdIndex()]);
+            }
+        } else {
+            for (int from = 0; from < applied.size(); from += ID_LOOKUP_CHUNK) {
+                List<Object[]> chunk = applied.subList(from, Math.min(from + ID_LOOKUP_CHUNK, applied.size()));
+                Object[] usernames = chunk.stream().map(args -> args[0]).toArray();
+                String placeholders = String.join(", ", Collections.nCopies(usernames.length, "?"));
+                userIds.addAll(jdbcTemplate.queryForList(
+                    "SELECT user_id FROM user WHERE username IN (" + placeholders + ") ORDER BY user_id",
+                    Integer.class, usernames));
+            }
+        }
+        for (Integer userId : userIds) {
+            eventPublisher.publishEvent(RbacChangeEvent.of(EntityType.USER, statement.action(), userId));
+        }
+    }
+
+    /**
+     * Statement tulis rekonsiliasi
+     * @param userIdIndex Posisi user_id di argumen, -1 untuk insert (ID dicari dari username di argumen 0)
+     */
+    private record Statement(String sql, Action action, int userIdIndex) {
+    }
+
+    /**
+     * Baris tabel user yang relevan untuk rekonsiliasi
+     */
+    private record UserRow(int userId, String username, String email, String firstName,
+                           String lastName, int roleId, int isActive, boolean archived) {
+
+        long contentHash() {
+            return UserReconciliationService.contentHash(email, firstName, lastName, roleId, isActive);
+        }
+    }
+
+    /**
+     * Baris sumber yang sudah divalidasi dan dipetakan ke role
+     */
+    private record SourceRow(String username, String email, String firstName, String lastName, int roleId) {
+
+        long contentHash() {
+            return UserReconciliationService.contentHash(email, firstName, lastName, roleId, 1);
+        }
+    }
+
+    /**
+     * Membaca sumber HR, memetakan division ke role, dan memvalidasi urutan username
+     */
+    private static class SourceCursor {
+
+        private final HrSourceReader reader;
+        private final Map<String, Integer> roleIdsByName;
+        private final Counts counts;
+        private String previousUsername;
+
+        SourceCursor(HrSourceReader reader, Map<String, Integer> roleIdsByName, Counts counts) {
+            this.reader = reader;
+            this.roleIdsByName = roleIdsByName;
+            this.counts = counts;
+        }
+
+        SourceRow next() {
+            while (reader.hasNext()) {
+                HrUserRecord record = reader.next();
+                if (record.username() == null || record.email() == null) {
+                    log.warn("Baris HR tanpa username/email dilewati: {}", record);
+                    counts.skipped++;
+                    continue;
+                }
+                if (previousUsername != null) {
+                    int cmp = USERNAME_ORDER.compare(previousUsername, record.username());
+                    if (cmp > 0) {
+                        throw new IllegalArgumentException("Sumber HR harus terurut berdasarkan username: '"
+                            + previousUsername + "' sebelum '" + record.username() + "'");
+                    }
+                    if (cmp == 0) {
+                        log.warn("Username duplikat di sumber HR dilewati: {}", record.username());
+                        counts.skipped++;
+                        continue;
+                    }
+                }
+                previousUsername = record.username();
+
+                Integer roleId = roleIdsByName.get(record.division());
+                if (roleId == null) {
+                    log.warn("Division '{}' untuk user '{}' tidak dikenal, baris dilewati",
+                        record.division(), record.username());
+                    counts.skipped++;
+                    continue;
+                }
+                return new SourceRow(record.username(), record.email(), record.firstName(),
+                    record.lastName(), roleId);
+            }
+            return null;
+        }
+    }
+
+    private static class Counts {
+        int inserted;
+        int updated;
+        int deactivated;
+        int unchanged;
+        int skipped;
+        int failed;
+    }
+
+    /**
+     * Menampung perubahan dan menulisnya dalam JDBC batch
+     * Jika satu batch gagal (mis. email bentrok), batch tersebut diulang per baris
+     * agar satu baris buruk tidak menggagalkan seluruh batch
+     */
+    private class BatchWriter {
+
+        private final Counts counts;
+        private final List<Object[]> inserts = new ArrayList<>();
+        private final List<Object[]> updates = new ArrayList<>();
+        private final List<Object[]> deactivations = new ArrayList<>();
+
+        BatchWriter(Counts counts) {
+            this.counts = counts;
+        }
+
+        void insert(SourceRow row) {
+            // Password acak yang tidak diketahui siapa pun; user harus reset password
+            String placeholderPassword = "!" + UUID.randomUUID();
+            inserts.add(new Object[] {row.username(), row.email(), placeholderPassword,
+                row.firstName(), row.lastName(), row.roleId(), row.email()});
+            if (inserts.size() >= batchSize) {
+                counts.inserted += write(INSERT, inserts);
+            }
+        }
+
+        void update(int userId, SourceRow row) {
+            updates.add(new Object[] {row.email(), row.firstName(), row.lastName(), row.roleId(), userId, row.email()});
+            if (updates.size() >= batchSize) {
+                counts.updated += write(UPDATE, updates);
+            }
+        }
+
+        void deactivate(int userId) {
+            deactivations.add(new Object[] {userId});
+            if (deactivations.size() >= batchSize) {
+                counts.deactivated += write(DEACTIVATE, deactivations);
+            }
+        }
+
+        void flushAll() {
+            counts.inserted += write(INSERT, inserts);
+            counts.updated += write(UPDATE, updates);
+            counts.deactivated += write(DEACTIVATE, deactivations);
+        }
+
+        private int write(Statement statement, List<Object[]> batch) {
+            if (batch.isEmpty()) {
+                return 0;
+            }
+            int written = 0;
+            try {
+                // Satu transaksi per batch agar batch yang gagal ter-rollback utuh sebelum diulang per baris
+                int[] affected = transactionTemplate.execute(status -> {
+                    int[] result = jdbcTemplate.batchUpdate(statement.sql(), batch);
+                    List<Object[]> applied = new ArrayList<>(batch.size());
+                    for (int i = 0; i < result.length; i++) {
+                        if (result[i] != 0) {
+                            applied.add(batch.get(i));
+                        }
+                    }
+                    publishApplied(statement, applied);
+                    return result;
+                });
+                for (int i = 0; i < affected.length; i++) {
+                    // 0 baris: email sudah dipakai user arsip (SUCCESS_NO_INFO dihitung tertulis)
+                    if (affected[i] == 0) {
+                        rejected(batch.get(i));
+                    } else {
+                        written++;
+                    }
+                }
+            } catch (DataAccessException batchFailure) {
+                for (Object[] args : batch) {
+                    try {
+                        boolean applied = transactionTemplate.execute(status -> {
+                            if (jdbcTemplate.update(statement.sql(), args) == 0) {
+                                return false;
+                            }
+                            publishApplied(statement, List.<Object[]>of(args));
+                            return true;
+                        });
+                        if (applied) {
+                            written++;
+                        } else {
+                            rejected(args);
+                        }
+                    } catch (DataAccessException rowFailure) {
+                        log.warn("Rekonsiliasi gagal menulis baris {}: {}", args[0], rowFailure.getMessage());
+                        counts.failed++;
+                    }
+                }
+            }
+            batch.clear();
+            return written;
+        }
+
+        private void rejected(Object[] args) {
+            log.warn("Rekonsiliasi melewati baris {}: email sudah dipakai user arsip", args[0]);
+            counts.failed++;
+        }
+    }
+}
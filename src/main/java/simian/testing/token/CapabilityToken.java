@@ -0,0 +1,67 @@
+package simian.testing.token;
+
+import java.time.Instant;
+import java.util.BitSet;
+
+/**
+ * Isi capability token yang sudah diverifikasi
+ * Permission efektif role user disimpan sebagai bitmap dengan accessId sebagai nomor bit
+ */
+public final class CapabilityToken {
+
+    private final int userId;
+    private final int roleId;
+    private final Instant issuedAt;
+    private final Instant expiresAt;
+    private final long[] accessBits;
+
+    CapabilityToken(int userId, int roleId, Instant issuedAt, Instant expiresAt, long[] accessBits) {
+        this.userId = userId;
+        this.roleId = roleId;
+        this.issuedAt = issuedAt;
+        this.expiresAt = expiresAt;
+        this.accessBits = accessBits;
+    }
+
+    public int getUserId() {
+        return userId;
+    }
+
+    public int getRoleId() {
+        return roleId;
+    }
+
+    public Instant getIssuedAt() {
+        return issuedAt;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    /**
+     * Mengecek apakah token memberi access (grant langsung, warisan atau wildcard saat token diterbitkan)
+     */
+    public boolean hasAccess(int accessId) {
+        int word = accessId >>> 6;
+        return accessId >= 0 && word < accessBits.length && (accessBits[word] & (1L << accessId)) != 0;
+    }
+
+    /**
+     * Salinan bitmap accessId
+     */
+    public BitSet getAccessIds() {
+        return BitSet.valueOf(accessBits);
+    }
+
+    @Override
+    public String toString() {
+        return "CapabilityToken{" +
+                "userId=" + userId +
+                ", roleId=" + roleId +
+                ", issuedAt=" + issuedAt +
+                ", expiresAt=" + expiresAt +
+                ", accessIds=" + getAccessIds() +
+                '}';
+    }
+}
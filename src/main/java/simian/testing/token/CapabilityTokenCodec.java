@@ -0,0 +1,183 @@
+package simian.testing.token;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.security.SignatureException;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.BitSet;
+
+/**
+ * Format biner capability token, dikirim sebagai base64url tanpa padding
+ * <pre>
+ * version (1 byte) | userId | roleId | issuedAt (epoch detik) | ttl (detik) | panjang bitmap | bitmap accessId
+ * | tanda tangan Ed25519 (64 byte) dari semua byte sebelumnya
+ * </pre>
+ * Ditandatangani dengan private key yang hanya dimiliki penerbit; verifier hanya memegang public key,
+ * sehingga service downstream tidak bisa membuat token sendiri
+ * Semua angka memakai varint unsigned (7 bit per byte) sehingga ID kecil cukup 1-2 byte;
+ * bitmap memakai urutan BitSet.toByteArray (bit 0 = accessId 0)
+ */
+final class CapabilityTokenCodec {
+
+    static final byte VERSION = 2;
+    static final String ALGORITHM = "Ed25519";
+    static final int SIGNATURE_LENGTH = 64;
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private CapabilityTokenCodec() {
+    }
+
+    /**
+     * @param pkcs8 Private key Ed25519 dalam encoding PKCS#8 DER
+     * @throws IllegalArgumentException jika bukan private key Ed25519 yang valid
+     */
+    static PrivateKey privateKey(byte[] pkcs8) {
+        try {
+            return KeyFactory.getInstance(ALGORITHM).generatePrivate(new PKCS8EncodedKeySpec(pkcs8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalArgumentException("Bukan private key Ed25519 (PKCS#8) yang valid", e);
+        }
+    }
+
+    /**
+     * @param x509 Public key Ed25519 dalam encoding X.509 DER
+     * @throws IllegalArgumentException jika bukan public key Ed25519 yang valid
+     */
+    static PublicKey publicKey(byte[] x509) {
+        try {
+            return KeyFactory.getInstance(ALGORITHM).generatePublic(new X509EncodedKeySpec(x509));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalArgumentException("Bukan public key Ed25519 (X.509) yang valid", e);
+        }
+    }
+
+    static Signature newSigner(PrivateKey key) {
+        try {
+            Signature signature = Signature.getInstance(ALGORITHM);
+            signature.initSign(key);
+            return signature;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Ed25519 tidak tersedia", e);
+        }
+    }
+
+    static Signature newVerifier(PublicKey key) {
+        try {
+            Signature signature = Signature.getInstance(ALGORITHM);
+            signature.initVerify(key);
+            return signature;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Ed25519 tidak tersedia", e);
+        }
+    }
+
+    static String encode(Signature signer, int userId, int roleId, Instant issuedAt, Instant expiresAt,
+                         BitSet accessIds) {
+        byte[] bitmap = accessIds.toByteArray();
+        ByteBuffer buffer = ByteBuffer.allocate(1 + 5 * 10 + bitmap.length + SIGNATURE_LENGTH);
+        buffer.put(VERSION);
+        putVarint(buffer, userId);
+        putVarint(buffer, roleId);
+        putVarint(buffer, issuedAt.getEpochSecond());
+        putVarint(buffer, expiresAt.getEpochSecond() - issuedAt.getEpochSecond());
+        putVarint(buffer, bitmap.length);
+        buffer.put(bitmap);
+
+        try {
+            signer.update(buffer.array(), 0, buffer.position());
+            buffer.put(signer.sign());
+        } catch (SignatureException e) {
+            throw new IllegalStateException("Token gagal ditandatangani", e);
+        }
+        return ENCODER.encodeToString(Arrays.copyOf(buffer.array(), buffer.position()));
+    }
+
+    /**
+     * Memverifikasi tanda tangan lalu membaca isi token (tanpa mengecek masa berlaku)
+     * @throws IllegalArgumentException jika token rusak atau tanda tangannya tidak valid
+     */
+    static CapabilityToken decode(Signature verifier, String token) {
+        byte[] bytes;
+        try {
+            bytes = DECODER.decode(token);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Token bukan base64url yang valid");
+        }
+        int signedLength = bytes.length - SIGNATURE_LENGTH;
+        if (signedLength < 1) {
+            throw new IllegalArgumentException("Token terlalu pendek");
+        }
+        boolean valid;
+        try {
+            verifier.update(bytes, 0, signedLength);
+            valid = verifier.verify(bytes, signedLength, SIGNATURE_LENGTH);
+        } catch (SignatureException e) {
+            valid = false;
+        }
+        if (!valid) {
+            throw new IllegalArgumentException("Tanda tangan token tidak valid");
+        }
+
+        ByteBuffer buffer = ByteBuffer.wrap(bytes, 0, signedLength);
+        if (buffer.get() != VERSION) {
+            throw new IllegalArgumentException("Versi token tidak didukung");
+        }
+        try {
+            int userId = (int) getVarint(buffer);
+            int roleId = (int) getVarint(buffer);
+            long issuedAt = getVarint(buffer);
+            long ttl = getVarint(buffer);
+            int bitmapLength = (int) getVarint(buffer);
+            if (bitmapLength != buffer.remaining()) {
+                throw new IllegalArgumentException("Panjang bitmap token tidak sesuai");
+            }
+            long[] words = new long[(bitmapLength + 7) >>> 3];
+            ByteBuffer bitmap = buffer.slice().order(ByteOrder.LITTLE_ENDIAN);
+            for (int i = 0; i < words.length; i++) {
+                if (bitmap.remaining() >= 8) {
+                    words[i] = bitmap.getLong();
+                } else {
+                    for (int shift = 0; bitmap.hasRemaining(); shift += 8) {
+                        words[i] |= (bitmap.get() & 0xFFL) << shift;
+                    }
+                }
+            }
+            return new CapabilityToken(userId, roleId, Instant.ofEpochSecond(issuedAt),
+                Instant.ofEpochSecond(issuedAt + ttl), words);
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Token terpotong");
+        }
+    }
+
+    private static void putVarint(ByteBuffer buffer, long value) {
+        while ((value & ~0x7FL) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    private static long getVarint(ByteBuffer buffer) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Varint token tidak valid");
+    }
+}
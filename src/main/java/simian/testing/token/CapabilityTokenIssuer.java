@@ -0,0 +1,214 @@
+package simian.testing.token;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.PrivateKey;
+import java.security.Signature;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import simian.testing.event.RbacChangeEvent;
+import simian.testing.service.PermissionMatcher;
+
+/**
+ * Menerbitkan capability token berumur pendek berisi userId, roleId dan permission efektif role user
+ * Service downstream memverifikasinya dengan CapabilityTokenVerifier tanpa memanggil aplikasi ini lagi
+ *
+ * Bitmap permission per role di-cache dan dibuang setelah mutasi role, access atau grant commit.
+ * Token yang sudah terbit tetap berlaku sampai kedaluwarsa, sehingga TTL membatasi umur permission yang basi
+ *
+ * Token ditandatangani Ed25519 dengan simian.token.private-key; downstream hanya menerima
+ * simian.token.public-key dan tidak bisa memalsukan token. Tanpa private key penerbitan dan verifikasi
+ * dimatikan (dengan warning) alih-alih menandatangani dengan key acak: issue melempar IllegalStateException
+ * dan setiap token ditolak, sehingga endpoint @RequiresAccess menjawab 401
+ */
+@Service
+public class CapabilityTokenIssuer {
+
+    private static final Logger log = LoggerFactory.getLogger(CapabilityTokenIssuer.class);
+
+    /**
+     * Panjang minimum simian.token.service-key (karakter)
+     */
+    static final int MIN_SERVICE_KEY_LENGTH = 32;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PermissionMatcher permissionMatcher;
+
+    @Value("${simian.token.private-key:}")
+    private String privateKey;
+
+    @Value("${simian.token.public-key:}")
+    private String publicKey;
+
+    @Value("${simian.token.service-key:}")
+    private String serviceKey;
+
+    @Value("${simian.token.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    private final Map<Integer, Entry> permissionsByRole = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+    private final Clock clock = Clock.systemUTC();
+    private ThreadLocal<Signature> signers;
+    private CapabilityTokenVerifier verifier;
+
+    @PostConstruct
+    void init() {
+        if (!serviceKey.isBlank() && serviceKey.length() < MIN_SERVICE_KEY_LENGTH) {
+            throw new IllegalStateException(
+                "simian.token.service-key minimal " + MIN_SERVICE_KEY_LENGTH + " karakter");
+        }
+        if (privateKey == null || privateKey.isBlank()) {
+            log.warn("simian.token.private-key kosong: penerbitan dan verifikasi capability token dimatikan");
+            return;
+        }
+        if (publicKey == null || publicKey.isBlank()) {
+            throw new IllegalStateException("simian.token.public-key wajib diatur bersama simian.token.private-key");
+        }
+        CapabilityTokenVerifier keyVerifier;
+        PrivateKey signingKey;
+        try {
+            // Ed25519 hanya menerima key 256 bit; key lain (HMAC, RSA, EC) ditolak di sini
+            signingKey = CapabilityTokenCodec.privateKey(Base64.getDecoder().decode(privateKey.trim()));
+            keyVerifier = new CapabilityTokenVerifier(Base64.getDecoder().decode(publicKey.trim()), Map.of(), clock);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalStateException("Key capability token tidak valid: " + e.getMessage(), e);
+        }
+        ThreadLocal<Signature> keySigners = ThreadLocal.withInitial(() -> CapabilityTokenCodec.newSigner(signingKey));
+
+        // Token percobaan memastikan kedua key berpasangan sebelum token pertama diterbitkan
+        Instant now = Instant.ofEpochSecond(clock.instant().getEpochSecond());
+        String probe = CapabilityTokenCodec.encode(keySigners.get(), 0, 0, now, now.plusSeconds(60), new BitSet());
+        try {
+            keyVerifier.verify(probe);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalStateException("simian.token.public-key bukan pasangan simian.token.private-key", e);
+        }
+        signers = keySigners;
+        verifier = keyVerifier;
+    }
+
+    /**
+     * false jika simian.token.private-key kosong
+     */
+    public boolean isEnabled() {
+        return verifier != null;
+    }
+
+    /**
+     * Menerbitkan token untuk user aktif
+     * @param userId ID user
+     * @return Token base64url beserta waktu kedaluwarsanya
+     * @throws IllegalArgumentException jika user tidak ditemukan atau tidak aktif
+     * @throws IllegalStateException jika capability token dimatikan
+     */
+    public IssuedToken issue(Integer userId) {
+        if (!isEnabled()) {
+            throw new IllegalStateException("Capability token tidak aktif: simian.token.private-key belum diatur");
+        }
+        List<Integer> roleIds = jdbcTemplate.queryForList(
+            "SELECT role_id FROM user WHERE user_id = ? AND is_active = 1", Integer.class, userId);
+        if (roleIds.isEmpty()) {
+            throw new IllegalArgumentException("User aktif dengan ID " + userId + " tidak ditemukan");
+        }
+        Integer roleId = roleIds.get(0);
+        BitSet permissions = permissionsOf(roleId);
+
+        // Presisi detik: issuedAt dibulatkan ke bawah agar expiresAt - issuedAt tepat sama dengan TTL
+        Instant issuedAt = Instant.ofEpochSecond(clock.instant().getEpochSecond());
+        Instant expiresAt = issuedAt.plus(Duration.ofSeconds(ttlSeconds));
+        String token = CapabilityTokenCodec.encode(signers.get(), userId, roleId, issuedAt, expiresAt, permissions);
+        return new IssuedToken(token, expiresAt);
+    }
+
+    /**
+     * Mengecek credential service pemanggil yang boleh meminta token untuk user mana pun
+     * @param presented Nilai header credential dari request, boleh null
+     * @return false jika simian.token.service-key kosong (penerbitan atas nama user lain dimatikan)
+     */
+    public boolean isServiceKey(String presented) {
+        if (serviceKey.isBlank() || presented == null) {
+            return false;
+        }
+        return MessageDigest.isEqual(serviceKey.getBytes(StandardCharsets.UTF_8), presented.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Memverifikasi token yang diterbitkan dengan key instance ini
+     * @throws IllegalArgumentException jika token rusak, tanda tangannya tidak valid, sudah kedaluwarsa,
+     *         atau capability token dimatikan
+     */
+    public CapabilityToken verify(String token) {
+        if (!isEnabled()) {
+            throw new IllegalArgumentException("Capability token tidak aktif");
+        }
+        return verifier.verify(token);
+    }
+
+    /**
+     * Membuang bitmap permission setelah perubahan role, access atau grant commit
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRbacChange(RbacChangeEvent event) {
+        if (event.entityType() != RbacChangeEvent.EntityType.USER) {
+            generation.incrementAndGet();
+            permissionsByRole.clear();
+        }
+    }
+
+    private BitSet permissionsOf(Integer roleId) {
+        long currentGeneration = generation.get();
+        Entry cached = permissionsByRole.get(roleId);
+        if (cached != null && cached.generation() == currentGeneration) {
+            return cached.permissions();
+        }
+        // Entry membawa generation saat compile dimulai; hasil compile yang tersusul perubahan
+        // tetap tersimpan tetapi tidak pernah dikembalikan karena generation-nya sudah lama
+        BitSet compiled = compile(roleId);
+        permissionsByRole.merge(roleId, new Entry(compiled, currentGeneration),
+            (existing, built) -> existing.generation() >= built.generation() ? existing : built);
+        return compiled;
+    }
+
+    private BitSet compile(Integer roleId) {
+        BitSet permissions = new BitSet();
+        for (Integer accessId : jdbcTemplate.queryForList("SELECT access_id FROM access", Integer.class)) {
+            if (permissionMatcher.hasAccess(roleId, accessId)) {
+                permissions.set(accessId);
+            }
+        }
+        return permissions;
+    }
+
+    /**
+     * Bitmap permission beserta generation saat mulai di-compile
+     */
+    private record Entry(BitSet permissions, long generation) {
+    }
+
+    /**
+     * Token yang diterbitkan
+     * @param token Token base64url
+     * @param expiresAt Waktu kedaluwarsa
+     */
+    public record IssuedToken(String token, Instant expiresAt) {
+    }
+}
@@ -0,0 +1,72 @@
+package simian.testing.token;
+
+import java.security.PublicKey;
+import java.security.Signature;
+import java.time.Clock;
+import java.util.Map;
+
+/**
+ * Verifier capability token untuk service downstream
+ * Tidak membutuhkan database, jaringan maupun Spring: cukup public key penerbit (simian.token.public-key)
+ * dan, untuk pengecekan berdasarkan nama, mapping accessName -> accessId dari /api/catalog/accesses.
+ * Public key hanya bisa memverifikasi, sehingga service downstream tidak bisa menerbitkan token
+ *
+ * Thread-safe; instance Signature disimpan per thread
+ */
+public class CapabilityTokenVerifier {
+
+    private final ThreadLocal<Signature> signatures;
+    private final Map<String, Integer> accessIdsByName;
+    private final Clock clock;
+
+    /**
+     * Verifier untuk pengecekan berdasarkan accessId saja
+     */
+    public CapabilityTokenVerifier(byte[] publicKey) {
+        this(publicKey, Map.of(), Clock.systemUTC());
+    }
+
+    /**
+     * @param publicKey Public key Ed25519 penerbit token (X.509 DER)
+     * @param accessIdsByName Mapping accessName -> accessId
+     * @param clock Sumber waktu untuk mengecek masa berlaku
+     * @throws IllegalArgumentException jika publicKey bukan public key Ed25519
+     */
+    public CapabilityTokenVerifier(byte[] publicKey, Map<String, Integer> accessIdsByName, Clock clock) {
+        PublicKey key = CapabilityTokenCodec.publicKey(publicKey);
+        this.signatures = ThreadLocal.withInitial(() -> CapabilityTokenCodec.newVerifier(key));
+        this.accessIdsByName = Map.copyOf(accessIdsByName);
+        this.clock = clock;
+    }
+
+    /**
+     * Memverifikasi tanda tangan dan masa berlaku token
+     * @return Isi token
+     * @throws IllegalArgumentException jika token rusak, tanda tangannya tidak valid atau sudah kedaluwarsa
+     */
+    public CapabilityToken verify(String token) {
+        CapabilityToken verified = CapabilityTokenCodec.decode(signatures.get(), token);
+        if (!clock.instant().isBefore(verified.getExpiresAt())) {
+            throw new IllegalArgumentException("Token sudah kedaluwarsa");
+        }
+        return verified;
+    }
+
+    /**
+     * Memverifikasi token lalu mengecek access berdasarkan ID
+     * @throws IllegalArgumentException jika token tidak valid atau kedaluwarsa
+     */
+    public boolean isPermitted(String token, int accessId) {
+        return verify(token).hasAccess(accessId);
+    }
+
+    /**
+     * Memverifikasi token lalu mengecek access berdasarkan nama; nama yang tidak dikenal selalu ditolak
+     * @throws IllegalArgumentException jika token tidak valid atau kedaluwarsa
+     */
+    public boolean isPermitted(String token, String accessName) {
+        CapabilityToken verified = verify(token);
+        Integer accessId = accessIdsByName.get(accessName);
+        return accessId != null && verified.hasAccess(accessId);
+    }
+}
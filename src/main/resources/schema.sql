@@ -3,8 +3,11 @@ CREATE TABLE IF NOT EXISTS role (
     role_id INT AUTO_INCREMENT PRIMARY KEY,
     role_name VARCHAR(50) NOT NULL UNIQUE,
     role_description VARCHAR(255),
+    parent_role_id INT NULL,
+    version INT NOT NULL DEFAULT 0,
     created_date TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
-    updated_date TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
+    updated_date TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    CONSTRAINT fk_role_parent FOREIGN KEY (parent_role_id) REFERENCES role(role_id) ON DELETE RESTRICT
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
 
 -- Create Access Table
@@ -14,6 +17,7 @@ CREATE TABLE IF NOT EXISTS access (
     access_description VARCHAR(255),
     module_name VARCHAR(50),
     action_type VARCHAR(50),
+    version INT NOT NULL DEFAULT 0,
     created_date TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     updated_date TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
@@ -28,28 +32,114 @@ CREATE TABLE IF NOT EXISTS user (
     last_name VARCHAR(100),
     is_active TINYINT(1) DEFAULT 1,
     role_id INT NOT NULL,
+    last_login_date TIMESTAMP NULL,
+    last_activity_date TIMESTAMP NULL,
+    version INT NOT NULL DEFAULT 0,
     created_date TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     updated_date TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
     CONSTRAINT fk_user_role FOREIGN KEY (role_id) REFERENCES role(role_id) ON DELETE RESTRICT ON UPDATE CASCADE
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
 
+-- Create User_Archive Table (user nonaktif lama yang dipindahkan dari tabel user oleh UserArchiver)
+-- user_id dipertahankan agar user bisa dipulihkan dengan ID yang sama; username/email unik lintas kedua tabel
+CREATE TABLE IF NOT EXISTS user_archive (
+    user_id INT PRIMARY KEY,
+    username VARCHAR(50) NOT NULL UNIQUE,
+    email VARCHAR(100) NOT NULL UNIQUE,
+    password VARCHAR(255) NOT NULL,
+    first_name VARCHAR(100),
+    last_name VARCHAR(100),
+    is_active TINYINT(1) DEFAULT 0,
+    role_id INT NOT NULL,
+    last_login_date TIMESTAMP NULL,
+    last_activity_date TIMESTAMP NULL,
+    version INT NOT NULL DEFAULT 0,
+    created_date TIMESTAMP NULL,
+    updated_date TIMESTAMP NULL,
+    archived_date TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT fk_user_archive_role FOREIGN KEY (role_id) REFERENCES role(role_id) ON DELETE RESTRICT ON UPDATE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
 -- Create Role_Access Junction Table (Many-to-Many relationship)
 CREATE TABLE IF NOT EXISTS role_access (
     role_access_id INT AUTO_INCREMENT PRIMARY KEY,
     role_id INT NOT NULL,
     access_id INT NOT NULL,
     created_date TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    valid_until TIMESTAMP NULL DEFAULT NULL,
     CONSTRAINT fk_role_access_role FOREIGN KEY (role_id) REFERENCES role(role_id) ON DELETE CASCADE ON UPDATE CASCADE,
     CONSTRAINT fk_role_access_access FOREIGN KEY (access_id) REFERENCES access(access_id) ON DELETE CASCADE ON UPDATE CASCADE,
     UNIQUE KEY uk_role_access (role_id, access_id)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
 
+-- Create Role_Closure Table (transitive closure hierarki role)
+-- Satu baris per pasangan (ancestor, descendant), termasuk baris diri sendiri dengan depth 0
+CREATE TABLE IF NOT EXISTS role_closure (
+    ancestor_id INT NOT NULL,
+    descendant_id INT NOT NULL,
+    depth INT NOT NULL,
+    PRIMARY KEY (ancestor_id, descendant_id),
+    CONSTRAINT fk_role_closure_ancestor FOREIGN KEY (ancestor_id) REFERENCES role(role_id) ON DELETE CASCADE,
+    CONSTRAINT fk_role_closure_descendant FOREIGN KEY (descendant_id) REFERENCES role(role_id) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- Create Audit_Log Table (append-only, ditulis asinkron oleh AuditLogWriter)
+-- Tanpa foreign key agar jejak audit tetap ada setelah data aslinya dihapus
+CREATE TABLE IF NOT EXISTS audit_log (
+    audit_id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    entity_type VARCHAR(20) NOT NULL,
+    action VARCHAR(20) NOT NULL,
+    entity_id INT,
+    related_id INT,
+    occurred_at TIMESTAMP(3) NOT NULL,
+    recorded_at TIMESTAMP(3) DEFAULT CURRENT_TIMESTAMP(3)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- Create Change_Tombstone Table (penghapusan untuk consumer change feed)
+CREATE TABLE IF NOT EXISTS change_tombstone (
+    tombstone_id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    entity_type VARCHAR(20) NOT NULL,
+    entity_id INT,
+    related_id INT,
+    role_access_id INT,
+    deleted_date TIMESTAMP(3) DEFAULT CURRENT_TIMESTAMP(3)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- Create Model_Version Table (versi model role/access untuk client delta sync, satu baris)
+CREATE TABLE IF NOT EXISTS model_version (
+    id TINYINT PRIMARY KEY,
+    version BIGINT NOT NULL
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- Create Model_Change Table (riwayat perubahan per versi, dipangkas ke simian.model-sync.history-size)
+CREATE TABLE IF NOT EXISTS model_change (
+    version BIGINT PRIMARY KEY,
+    entity_type VARCHAR(20) NOT NULL,
+    action VARCHAR(20) NOT NULL,
+    entity_id INT,
+    related_id INT,
+    changed_date TIMESTAMP(3) DEFAULT CURRENT_TIMESTAMP(3)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
 -- Create indexes for better query performance
 CREATE INDEX idx_user_role_id ON user(role_id);
 CREATE INDEX idx_user_username ON user(username);
 CREATE INDEX idx_user_email ON user(email);
 CREATE INDEX idx_role_access_role_id ON role_access(role_id);
 CREATE INDEX idx_role_access_access_id ON role_access(access_id);
+CREATE INDEX idx_role_access_valid_until ON role_access(valid_until);
+CREATE INDEX idx_role_parent_role_id ON role(parent_role_id);
+CREATE INDEX idx_role_closure_descendant ON role_closure(descendant_id, ancestor_id);
+CREATE INDEX idx_audit_log_entity ON audit_log(entity_type, entity_id);
+CREATE INDEX idx_audit_log_occurred_at ON audit_log(occurred_at);
+-- Keyset paging change feed: (timestamp, id)
+CREATE INDEX idx_user_updated_date ON user(updated_date, user_id);
+CREATE INDEX idx_role_updated_date ON role(updated_date, role_id);
+CREATE INDEX idx_role_access_created_date ON role_access(created_date, role_access_id);
+CREATE INDEX idx_change_tombstone_deleted_date ON change_tombstone(deleted_date, tombstone_id);
+
+-- Versi awal model
+INSERT INTO model_version (id, version) VALUES (1, 0);
 
 -- Insert Default Roles
 INSERT INTO role (role_name, role_description) VALUES 
@@ -57,6 +147,10 @@ INSERT INTO role (role_name, role_description) VALUES
 ('Consultant', 'Divisi Konsultan - Membuat dan update sub task'),
 ('Development', 'Divisi Development - Mengerjakan dan update sub task');
 
+-- Baris closure diri sendiri untuk role default (belum ada pewarisan)
+INSERT INTO role_closure (ancestor_id, descendant_id, depth)
+SELECT role_id, role_id, 0 FROM role;
+
 -- Insert Default Access Permissions
 INSERT INTO access (access_name, access_description, module_name, action_type) VALUES 
 ('CREATE_PROJECT_ORDER', 'Create project order', 'PROJECT_ORDER', 'CREATE'),
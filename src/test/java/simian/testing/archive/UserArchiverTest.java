@@ -0,0 +1,143 @@
+package simian.testing.archive;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Supplier;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.Configuration;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.orm.jpa.hibernate.HibernateTransactionManager;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+import simian.testing.dao.HibernateUserDAO;
+import simian.testing.dao.UserDAO;
+import simian.testing.entity.Access;
+import simian.testing.entity.Role;
+import simian.testing.entity.RoleAccess;
+import simian.testing.entity.User;
+import simian.testing.event.RbacChangeEvent;
+import simian.testing.event.RbacChangeEvent.Action;
+import simian.testing.event.RbacChangeEvent.EntityType;
+
+/**
+ * Pengarsipan dan pemulihan user di H2, JdbcTemplate dan Hibernate berbagi transaksi yang sama
+ * User 1-5 nonaktif sejak 2 tahun lalu, user 6 nonaktif sejak kemarin, user 7 aktif sejak 2 tahun lalu
+ */
+class UserArchiverTest {
+
+    private static final LocalDateTime LONG_AGO = LocalDateTime.now().minusYears(2);
+
+    private static JdbcTemplate jdbcTemplate;
+    private static SessionFactory sessionFactory;
+    private static TransactionTemplate transactionTemplate;
+
+    private final List<Object> events = new CopyOnWriteArrayList<>();
+    private final UserArchiver archiver = new UserArchiver();
+    private UserDAO userDAO;
+
+    @BeforeAll
+    static void setUpDatabase() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+            "jdbc:h2:mem:archive;MODE=MySQL;NON_KEYWORDS=USER,VALUE;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+        new ResourceDatabasePopulator(new ClassPathResource("schema.sql")).execute(dataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+
+        Configuration configuration = new Configuration()
+            .addAnnotatedClass(Role.class)
+            .addAnnotatedClass(Access.class)
+            .addAnnotatedClass(User.class)
+            .addAnnotatedClass(RoleAccess.class)
+            .setProperty("hibernate.current_session_context_class",
+                "org.springframework.orm.jpa.hibernate.SpringSessionContext");
+        configuration.getProperties().put("hibernate.connection.datasource", dataSource);
+        sessionFactory = configuration.buildSessionFactory();
+        HibernateTransactionManager transactionManager = new HibernateTransactionManager(sessionFactory);
+        transactionManager.setDataSource(dataSource);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @AfterAll
+    static void tearDown() {
+        if (sessionFactory != null) {
+            sessionFactory.close();
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM user");
+        jdbcTemplate.update("DELETE FROM user_archive");
+        for (int userId = 1; userId <= 7; userId++) {
+            LocalDateTime updated = userId == 6 ? LocalDateTime.now().minusDays(1) : LONG_AGO;
+            jdbcTemplate.update("INSERT INTO user (user_id, username, email, password, is_active, role_id, "
+                    + "created_date, updated_date) VALUES (?, ?, ?, 'x', ?, 2, ?, ?)",
+                userId, "user" + userId, "user" + userId + "@simian.test", userId == 7 ? 1 : 0,
+                Timestamp.valueOf(LONG_AGO), Timestamp.valueOf(updated));
+        }
+
+        ApplicationEventPublisher eventPublisher = events::add;
+        ReflectionTestUtils.setField(archiver, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(archiver, "transactionManager", transactionTemplate.getTransactionManager());
+        ReflectionTestUtils.setField(archiver, "eventPublisher", eventPublisher);
+        ReflectionTestUtils.setField(archiver, "enabled", false);
+        ReflectionTestUtils.setField(archiver, "batchSize", 2);
+        ReflectionTestUtils.setField(archiver, "pauseMs", 0L);
+        ReflectionTestUtils.invokeMethod(archiver, "start");
+
+        HibernateUserDAO hibernateUserDAO = new HibernateUserDAO();
+        ReflectionTestUtils.setField(hibernateUserDAO, "sessionFactory", sessionFactory);
+        userDAO = hibernateUserDAO;
+    }
+
+    @Test
+    void movesOnlyLongInactiveUsersInBatchesAndPublishesDeletion() {
+        ArchiveReport report = archiver.archiveInactiveUsers(LocalDateTime.now().minusDays(365));
+
+        assertEquals(5, report.moved());
+        assertEquals(3, report.batches());
+        assertEquals(List.of(6, 7), jdbcTemplate.queryForList("SELECT user_id FROM user ORDER BY user_id", Integer.class));
+        assertEquals(List.of(1, 2, 3, 4, 5),
+            jdbcTemplate.queryForList("SELECT user_id FROM user_archive ORDER BY user_id", Integer.class));
+        assertEquals(List.of(deleted(1), deleted(2), deleted(3), deleted(4), deleted(5)), events);
+    }
+
+    @Test
+    void archivedUsernameAndEmailStayTakenAndUserIsRestoredWithSameId() {
+        archiver.archiveInactiveUsers(LocalDateTime.now().minusDays(365));
+
+        assertTrue(inTransaction(() -> userDAO.existsByUsername("user3")));
+        assertTrue(inTransaction(() -> userDAO.existsByEmail("user3@simian.test")));
+        assertFalse(inTransaction(() -> userDAO.existsByUsername("user8")));
+        assertTrue(inTransaction(() -> userDAO.read(3)).isEmpty());
+
+        assertTrue(inTransaction(() -> userDAO.restoreFromArchive(3)));
+        User restored = inTransaction(() -> userDAO.read(3)).orElseThrow();
+        assertEquals("user3", restored.getUsername());
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM user_archive WHERE user_id = 3", Integer.class));
+        assertTrue(inTransaction(() -> userDAO.existsByUsername("user3")));
+        assertFalse(inTransaction(() -> userDAO.restoreFromArchive(3)));
+        assertFalse(inTransaction(() -> userDAO.restoreFromArchive(7)));
+    }
+
+    private static RbacChangeEvent deleted(int userId) {
+        return RbacChangeEvent.of(EntityType.USER, Action.DELETED, userId);
+    }
+
+    private static <T> T inTransaction(Supplier<T> work) {
+        return transactionTemplate.execute(status -> work.get());
+    }
+}
@@ -0,0 +1,236 @@
+package simian.testing.audit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListenerFactory;
+import org.springframework.transaction.support.TransactionTemplate;
+import simian.testing.event.RbacChangeEvent;
+import simian.testing.event.RbacChangeEvent.Action;
+import simian.testing.event.RbacChangeEvent.EntityType;
+
+/**
+ * AuditLogWriter di atas H2
+ * Untuk kondisi buffer penuh, thread writer ditahan di dalam batch pertamanya (batchUpdate menunggu latch)
+ * sementara buffer berkapasitas 2 diisi penuh
+ */
+class AuditLogWriterTest {
+
+    private static final AtomicInteger DATABASES = new AtomicInteger();
+    private static final String WRITER_THREAD = "audit-log-writer";
+
+    private final CountDownLatch writerEntered = new CountDownLatch(1);
+    private final CountDownLatch releaseWriter = new CountDownLatch(1);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private DriverManagerDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private AuditLogWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new DriverManagerDataSource("jdbc:h2:mem:audit" + DATABASES.incrementAndGet()
+            + ";MODE=MySQL;NON_KEYWORDS=USER,VALUE;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+        new ResourceDatabasePopulator(new ClassPathResource("schema.sql")).execute(dataSource);
+        jdbcTemplate = spy(new JdbcTemplate(dataSource));
+    }
+
+    @AfterEach
+    void tearDown() {
+        releaseWriter.countDown();
+        if (writer != null) {
+            ReflectionTestUtils.invokeMethod(writer, "stop");
+        }
+        jdbcTemplate.execute("SHUTDOWN");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void writesOnlyCommittedEventsInBatches() {
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext()) {
+            context.getEnvironment().getPropertySources().addFirst(new MapPropertySource("audit",
+                Map.of("simian.audit.batch-size", "40", "simian.audit.idle-wait-ms", "60000")));
+            context.registerBean(JdbcTemplate.class, () -> jdbcTemplate);
+            context.registerBean(PlatformTransactionManager.class, () -> transactionManager);
+            context.registerBean(MeterRegistry.class, () -> meterRegistry);
+            context.registerBean(TransactionalEventListenerFactory.class);
+            context.registerBean(AuditLogWriter.class);
+            context.refresh();
+            AuditLogWriter auditWriter = context.getBean(AuditLogWriter.class);
+            Thread writerThread = (Thread) ReflectionTestUtils.getField(auditWriter, "writerThread");
+            // Writer sedang menunggu (idle wait 60 detik) agar semua event transaksi masuk buffer lebih dulu
+            awaitTrue(() -> writerThread.getState() == Thread.State.TIMED_WAITING);
+
+            TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+            transactionTemplate.executeWithoutResult(status -> {
+                for (int userId = 1; userId <= 100; userId++) {
+                    context.publishEvent(RbacChangeEvent.of(EntityType.USER, Action.CREATED, userId));
+                }
+                // Belum commit: belum ada yang masuk buffer
+                assertEquals(0, auditWriter.getPendingCount());
+            });
+            transactionTemplate.executeWithoutResult(status -> {
+                context.publishEvent(RbacChangeEvent.of(EntityType.ROLE, Action.DELETED, 3));
+                status.setRollbackOnly();
+            });
+            assertEquals(100, auditWriter.getPendingCount());
+
+            LockSupport.unpark(writerThread);
+            awaitTrue(() -> meterRegistry.counter("simian.audit.written").count() == 100);
+            verify(jdbcTemplate, times(3)).batchUpdate(anyString(), anyCollection(), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class));
+        }
+        assertEquals(100, auditRows());
+        assertEquals(0, jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM audit_log WHERE entity_type = 'ROLE'", Integer.class));
+        assertEquals(List.of(1, 100), jdbcTemplate.queryForList(
+            "SELECT MIN(entity_id) FROM audit_log UNION ALL SELECT MAX(entity_id) FROM audit_log", Integer.class));
+    }
+
+    @Test
+    void dropDiscardsNewEntryWithoutWaiting() throws Exception {
+        startWithFullBuffer(BackpressurePolicy.DROP, 5_000);
+
+        long start = System.nanoTime();
+        writer.enqueue(entry(4));
+        assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(500));
+        assertEquals(1.0, meterRegistry.counter("simian.audit.dropped").count());
+
+        releaseWriter.countDown();
+        awaitTrue(() -> meterRegistry.counter("simian.audit.written").count() == 3);
+        assertEquals(List.of(1, 2, 3), auditedIds());
+    }
+
+    @Test
+    void blockWaitsForFreeSlot() throws Exception {
+        startWithFullBuffer(BackpressurePolicy.BLOCK, 10_000);
+
+        CompletableFuture<Void> caller = CompletableFuture.runAsync(() -> writer.enqueue(entry(4)));
+        Thread.sleep(200);
+        assertFalse(caller.isDone());
+
+        releaseWriter.countDown();
+        caller.get(10, TimeUnit.SECONDS);
+        awaitTrue(() -> meterRegistry.counter("simian.audit.written").count() == 4);
+        assertEquals(List.of(1, 2, 3, 4), auditedIds());
+        assertEquals(0.0, meterRegistry.counter("simian.audit.dropped").count());
+    }
+
+    @Test
+    void blockDropsEntryAfterTimeout() throws Exception {
+        startWithFullBuffer(BackpressurePolicy.BLOCK, 100);
+
+        long start = System.nanoTime();
+        writer.enqueue(entry(4));
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(100));
+        assertEquals(1.0, meterRegistry.counter("simian.audit.dropped").count());
+
+        releaseWriter.countDown();
+        awaitTrue(() -> meterRegistry.counter("simian.audit.written").count() == 3);
+        assertEquals(List.of(1, 2, 3), auditedIds());
+    }
+
+    @Test
+    void callerRunsWritesEntryOnCallingThread() throws Exception {
+        startWithFullBuffer(BackpressurePolicy.CALLER_RUNS, 5_000);
+
+        writer.enqueue(entry(4));
+        // Entry 4 sudah tertulis oleh thread pemanggil walaupun writer masih tertahan di batch entry 1
+        assertEquals(List.of(4), auditedIds());
+        assertEquals(1.0, meterRegistry.counter("simian.audit.caller-runs").count());
+
+        releaseWriter.countDown();
+        awaitTrue(() -> meterRegistry.counter("simian.audit.written").count() == 4);
+        assertEquals(List.of(1, 2, 3, 4), auditedIds());
+        assertEquals(0.0, meterRegistry.counter("simian.audit.dropped").count());
+    }
+
+    /**
+     * Writer tertahan dengan entry 1, buffer (kapasitas 2) berisi entry 2 dan 3
+     */
+    @SuppressWarnings("unchecked")
+    private void startWithFullBuffer(BackpressurePolicy policy, long blockTimeoutMs) throws InterruptedException {
+        doAnswer(invocation -> {
+            if (WRITER_THREAD.equals(Thread.currentThread().getName()) && writerEntered.getCount() > 0) {
+                writerEntered.countDown();
+                releaseWriter.await();
+            }
+            return invocation.callRealMethod();
+        }).when(jdbcTemplate).batchUpdate(anyString(), anyCollection(), anyInt(),
+            any(ParameterizedPreparedStatementSetter.class));
+
+        writer = new AuditLogWriter();
+        ReflectionTestUtils.setField(writer, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(writer, "transactionManager", new DataSourceTransactionManager(dataSource));
+        ReflectionTestUtils.setField(writer, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(writer, "capacity", 2);
+        ReflectionTestUtils.setField(writer, "batchSize", 1);
+        ReflectionTestUtils.setField(writer, "idleWaitMs", 1L);
+        ReflectionTestUtils.setField(writer, "backpressure", policy);
+        ReflectionTestUtils.setField(writer, "blockTimeoutMs", blockTimeoutMs);
+        ReflectionTestUtils.setField(writer, "maxRetries", 0);
+        ReflectionTestUtils.invokeMethod(writer, "start");
+
+        writer.enqueue(entry(1));
+        assertTrue(writerEntered.await(10, TimeUnit.SECONDS));
+        writer.enqueue(entry(2));
+        writer.enqueue(entry(3));
+        assertEquals(2, writer.getPendingCount());
+    }
+
+    private static AuditEntry entry(int userId) {
+        return new AuditEntry(RbacChangeEvent.of(EntityType.USER, Action.UPDATED, userId), Instant.now(),
+            System.nanoTime());
+    }
+
+    private int auditRows() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM audit_log", Integer.class);
+    }
+
+    private List<Integer> auditedIds() {
+        return jdbcTemplate.queryForList("SELECT entity_id FROM audit_log ORDER BY entity_id", Integer.class);
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() - deadline >= 0) {
+                throw new AssertionError("Kondisi tidak terpenuhi dalam 10 detik");
+            }
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+        }
+    }
+}
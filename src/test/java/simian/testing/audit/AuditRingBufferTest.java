@@ -0,0 +1,100 @@
+package simian.testing.audit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+class AuditRingBufferTest {
+
+    @Test
+    void keepsFifoOrderAndRejectsWhenFull() {
+        AuditRingBuffer<Integer> buffer = new AuditRingBuffer<>(3);
+        assertEquals(4, buffer.capacity());
+
+        for (int i = 0; i < 4; i++) {
+            assertTrue(buffer.offer(i));
+        }
+        assertFalse(buffer.offer(99));
+        assertEquals(4, buffer.size());
+
+        List<Integer> drained = new ArrayList<>();
+        assertEquals(2, buffer.drainTo(drained, 2));
+        assertTrue(buffer.offer(4));
+        assertTrue(buffer.offer(5));
+        assertEquals(4, buffer.drainTo(drained, 10));
+
+        assertEquals(List.of(0, 1, 2, 3, 4, 5), drained);
+        assertNull(buffer.poll());
+    }
+
+    /**
+     * Banyak producer dan consumer bersamaan: setiap elemen harus diterima tepat satu kali
+     */
+    @Test
+    void deliversEveryElementExactlyOnceUnderContention() throws InterruptedException {
+        int producers = 4;
+        int consumers = 2;
+        int perProducer = 50_000;
+        int total = producers * perProducer;
+        AuditRingBuffer<Integer> buffer = new AuditRingBuffer<>(1024);
+        AtomicIntegerArray seen = new AtomicIntegerArray(total);
+        AtomicLong consumed = new AtomicLong();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(producers + consumers);
+
+        for (int p = 0; p < producers; p++) {
+            int offset = p * perProducer;
+            executor.execute(() -> {
+                await(start);
+                for (int i = 0; i < perProducer; i++) {
+                    while (!buffer.offer(offset + i)) {
+                        Thread.onSpinWait();
+                    }
+                }
+            });
+        }
+        for (int c = 0; c < consumers; c++) {
+            executor.execute(() -> {
+                await(start);
+                while (consumed.get() < total) {
+                    Integer value = buffer.poll();
+                    if (value == null) {
+                        Thread.onSpinWait();
+                        continue;
+                    }
+                    seen.incrementAndGet(value);
+                    consumed.incrementAndGet();
+                }
+            });
+        }
+
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(60, TimeUnit.SECONDS));
+
+        assertEquals(total, consumed.get());
+        for (int i = 0; i < total; i++) {
+            assertEquals(1, seen.get(i), "Elemen " + i);
+        }
+        assertEquals(0, buffer.size());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package simian.testing.authz;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import simian.testing.authz.AuthorizationFixture.ProjectOrderController;
+import simian.testing.authz.AuthorizationFixture.PublicController;
+import simian.testing.event.RbacChangeEvent;
+import simian.testing.snapshot.PermissionSnapshot;
+import simian.testing.snapshot.PermissionSnapshotService;
+import simian.testing.snapshot.SnapshotContent;
+
+class AccessInterceptorTest {
+
+    private final AuthorizationFixture fixture = new AuthorizationFixture();
+
+    @Test
+    void unannotatedHandlerNeedsNoToken() throws Exception {
+        assertEquals(200, call(handler(new PublicController(), "health"), null));
+    }
+
+    @Test
+    void rejectsMissingOrInvalidToken() throws Exception {
+        assertEquals(401, call(handler(new ProjectOrderController(), "list"), null));
+        assertEquals(401, call(handler(new ProjectOrderController(), "list"), "token-palsu"));
+    }
+
+    @Test
+    void enforcesMethodAnnotationOverClassAnnotation() throws Exception {
+        // list hanya mewarisi anotasi class (READ), close butuh READ dan CLOSE
+        assertEquals(200, call(handler(new ProjectOrderController(), "list"), AuthorizationFixture.tokenOf(2)));
+        assertEquals(403, call(handler(new ProjectOrderController(), "close"), AuthorizationFixture.tokenOf(2)));
+        assertEquals(200, call(handler(new ProjectOrderController(), "close"), AuthorizationFixture.tokenOf(1)));
+        assertEquals(403, call(handler(new ProjectOrderController(), "delete"), AuthorizationFixture.tokenOf(1)));
+    }
+
+    @Test
+    void wildcardGrantCoversAccessAndDeletedRoleIsForbidden() throws Exception {
+        assertEquals(200, call(handler(new ProjectOrderController(), "delete"), AuthorizationFixture.tokenOf(3)));
+        assertEquals(403, call(handler(new ProjectOrderController(), "list"),
+            AuthorizationFixture.tokenOf(AuthorizationFixture.DELETED_ROLE)));
+    }
+
+    @Test
+    void exposesResolvedPrincipalToController() throws Exception {
+        MockHttpServletRequest request = request(AuthorizationFixture.tokenOf(1));
+        assertTrue(fixture.interceptor.preHandle(request, new MockHttpServletResponse(),
+            handler(new ProjectOrderController(), "list")));
+        RequestPrincipal principal = (RequestPrincipal) request.getAttribute(RequestPrincipal.ATTRIBUTE);
+        assertEquals(101, principal.userId());
+        assertEquals(1, principal.roleId());
+        // Principal yang sudah di-resolve dipakai ulang, aktivitas dicatat sekali per request
+        fixture.principalResolver.resolve(request);
+        verify(fixture.activityTracker).recordActivity(101);
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        assertFalse(fixture.interceptor.preHandle(request(null), response, handler(new ProjectOrderController(), "list")));
+        assertEquals("Bearer", response.getHeader("WWW-Authenticate"));
+    }
+
+    @Test
+    void roleChangeAndDeactivationApplyToTokensAlreadyIssued() throws Exception {
+        String token = AuthorizationFixture.tokenOf(1);
+        assertEquals(200, call(handler(new ProjectOrderController(), "close"), token));
+
+        // User 101 dipindah ke role viewer; token lama masih berisi role 1
+        fixture.activeUserRoles.put(101, 2);
+        assertEquals(200, call(handler(new ProjectOrderController(), "close"), token));
+        fixture.principalResolver.onRbacChange(
+            RbacChangeEvent.of(RbacChangeEvent.EntityType.USER, RbacChangeEvent.Action.UPDATED, 101));
+        assertEquals(403, call(handler(new ProjectOrderController(), "close"), token));
+        assertEquals(200, call(handler(new ProjectOrderController(), "list"), token));
+
+        fixture.activeUserRoles.remove(101);
+        fixture.principalResolver.onRbacChange(
+            RbacChangeEvent.of(RbacChangeEvent.EntityType.USER, RbacChangeEvent.Action.DELETED, 101));
+        assertEquals(401, call(handler(new ProjectOrderController(), "list"), token));
+    }
+
+    @Test
+    void answersFromSnapshotUntilApplicationIsReady(@TempDir Path directory) throws Exception {
+        // Di snapshot, user 102 masih ber-role 1 (manager) dan user 101 sudah tidak aktif
+        Path file = directory.resolve("permission-snapshot.bin");
+        PermissionSnapshot.write(file, new SnapshotContent(1, Instant.now(),
+            Map.of(1, new int[] {1, 2}, 2, new int[] {1}),
+            Map.of("READ_PROJECT_ORDER", 1, "CLOSE_PROJECT_ORDER", 2),
+            Map.of(102, 1)));
+        PermissionSnapshotService snapshotService = new PermissionSnapshotService(true, file);
+        AuthorizationFixture early = new AuthorizationFixture(snapshotService);
+
+        assertEquals(200, call(early, handler(new ProjectOrderController(), "close"), AuthorizationFixture.tokenOf(2)));
+        assertEquals(401, call(early, handler(new ProjectOrderController(), "list"), AuthorizationFixture.tokenOf(1)));
+
+        snapshotService.onApplicationEvent(mock(ApplicationReadyEvent.class));
+        assertEquals(403, call(early, handler(new ProjectOrderController(), "close"), AuthorizationFixture.tokenOf(2)));
+        assertEquals(200, call(early, handler(new ProjectOrderController(), "close"), AuthorizationFixture.tokenOf(1)));
+    }
+
+    @Test
+    void missingSnapshotFallsBackToLiveData(@TempDir Path directory) {
+        PermissionSnapshotService snapshotService =
+            new PermissionSnapshotService(true, directory.resolve("belum-ada.bin"));
+        assertFalse(snapshotService.isServingFromSnapshot());
+        assertNull(snapshotService.currentSnapshot());
+        assertNull(snapshotService.snapshotForCheck());
+    }
+
+    private int call(HandlerMethod handler, String token) throws Exception {
+        return call(fixture, handler, token);
+    }
+
+    private static int call(AuthorizationFixture fixture, HandlerMethod handler, String token) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        boolean proceed = fixture.interceptor.preHandle(request(token), response, handler);
+        assertEquals(proceed, response.getStatus() == 200);
+        return response.getStatus();
+    }
+
+    private static MockHttpServletRequest request(String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/project-orders");
+        if (token != null) {
+            request.addHeader("Authorization", "Bearer " + token);
+        }
+        return request;
+    }
+
+    private static HandlerMethod handler(Object controller, String methodName) {
+        return AuthorizationFixture.handler(controller, methodName);
+    }
+}
@@ -0,0 +1,149 @@
+package simian.testing.authz;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.method.HandlerMethod;
+import simian.testing.dao.AccessDAO;
+import simian.testing.dao.RoleDAO;
+import simian.testing.dao.RoleHierarchyDAO;
+import simian.testing.entity.Access;
+import simian.testing.service.PermissionMatcher;
+import simian.testing.service.UserActivityTracker;
+import simian.testing.snapshot.PermissionSnapshotService;
+import simian.testing.token.CapabilityToken;
+import simian.testing.token.CapabilityTokenIssuer;
+
+/**
+ * AccessInterceptor dengan PermissionMatcher asli di atas DAO tiruan
+ * Role 1 = manager (READ + CLOSE), role 2 = viewer (READ), role 3 = wildcard PROJECT_ORDER:*,
+ * role 99 = sudah dihapus. Token "token-role-N" milik user 100 + N dengan role N; role user saat ini
+ * dibaca dari {@link #activeUserRoles} (user yang tidak ada di map dianggap tidak aktif)
+ */
+final class AuthorizationFixture {
+
+    static final int DELETED_ROLE = 99;
+
+    final AccessInterceptor interceptor = new AccessInterceptor();
+    final RequestPrincipalResolver principalResolver = new RequestPrincipalResolver();
+    final Map<Integer, Integer> activeUserRoles = new ConcurrentHashMap<>();
+    final UserActivityTracker activityTracker = mock(UserActivityTracker.class);
+    final PermissionSnapshotService snapshotService;
+
+    AuthorizationFixture() {
+        this(new PermissionSnapshotService(false, null));
+    }
+
+    AuthorizationFixture(PermissionSnapshotService snapshotService) {
+        this.snapshotService = snapshotService;
+        Access read = access(1, "READ_PROJECT_ORDER", "PROJECT_ORDER", "READ");
+        Access close = access(2, "CLOSE_PROJECT_ORDER", "PROJECT_ORDER", "CLOSE");
+        Access delete = access(3, "DELETE_PROJECT_ORDER", "PROJECT_ORDER", "DELETE");
+        Access allProjectOrder = access(4, "PROJECT_ORDER_ALL", "PROJECT_ORDER", "*");
+
+        RoleDAO roleDAO = mock(RoleDAO.class);
+        AccessDAO accessDAO = mock(AccessDAO.class);
+        RoleHierarchyDAO roleHierarchyDAO = mock(RoleHierarchyDAO.class);
+        when(roleDAO.exists(any())).thenAnswer(invocation -> !invocation.getArgument(0).equals(DELETED_ROLE));
+        when(accessDAO.getAll()).thenReturn(List.of(read, close, delete, allProjectOrder));
+        when(roleHierarchyDAO.findEffectiveAccesses(1)).thenReturn(List.of(read, close));
+        when(roleHierarchyDAO.findEffectiveAccesses(2)).thenReturn(List.of(read));
+        when(roleHierarchyDAO.findEffectiveAccesses(3)).thenReturn(List.of(allProjectOrder));
+
+        PermissionMatcher permissionMatcher = new PermissionMatcher();
+        ReflectionTestUtils.setField(permissionMatcher, "roleDAO", roleDAO);
+        ReflectionTestUtils.setField(permissionMatcher, "accessDAO", accessDAO);
+        ReflectionTestUtils.setField(permissionMatcher, "roleHierarchyDAO", roleHierarchyDAO);
+        ReflectionTestUtils.setField(permissionMatcher, "transactionManager", mock(PlatformTransactionManager.class));
+        ReflectionTestUtils.invokeMethod(permissionMatcher, "init");
+
+        Map<String, CapabilityToken> tokens = new HashMap<>();
+        for (int roleId : new int[] {1, 2, 3, DELETED_ROLE}) {
+            CapabilityToken token = mock(CapabilityToken.class);
+            when(token.getUserId()).thenReturn(100 + roleId);
+            when(token.getRoleId()).thenReturn(roleId);
+            when(token.getExpiresAt()).thenReturn(Instant.now().plusSeconds(300));
+            tokens.put(tokenOf(roleId), token);
+            activeUserRoles.put(100 + roleId, roleId);
+        }
+        CapabilityTokenIssuer tokenIssuer = mock(CapabilityTokenIssuer.class);
+        when(tokenIssuer.verify(any())).thenAnswer(invocation -> {
+            CapabilityToken token = tokens.get(invocation.<String>getArgument(0));
+            if (token == null) {
+                throw new IllegalArgumentException("Tanda tangan token tidak valid");
+            }
+            return token;
+        });
+
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        when(jdbcTemplate.queryForList(anyString(), eq(Integer.class), any(Object[].class))).thenAnswer(invocation -> {
+            Integer roleId = activeUserRoles.get(invocation.<Integer>getArgument(2));
+            return roleId == null ? List.of() : List.of(roleId);
+        });
+
+        ReflectionTestUtils.setField(principalResolver, "tokenIssuer", tokenIssuer);
+        ReflectionTestUtils.setField(principalResolver, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(principalResolver, "snapshotService", snapshotService);
+        ReflectionTestUtils.setField(principalResolver, "activityTracker", activityTracker);
+        ReflectionTestUtils.setField(principalResolver, "cacheSize", 100);
+
+        ReflectionTestUtils.setField(interceptor, "principalResolver", principalResolver);
+        ReflectionTestUtils.setField(interceptor, "permissionMatcher", permissionMatcher);
+        ReflectionTestUtils.setField(interceptor, "snapshotService", snapshotService);
+        interceptor.register(List.of(
+            handler(new ProjectOrderController(), "list"),
+            handler(new ProjectOrderController(), "close"),
+            handler(new ProjectOrderController(), "delete"),
+            handler(new PublicController(), "health")));
+    }
+
+    static String tokenOf(int roleId) {
+        return "token-role-" + roleId;
+    }
+
+    static HandlerMethod handler(Object controller, String methodName) {
+        try {
+            return new HandlerMethod(controller, methodName);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Access access(int accessId, String accessName, String moduleName, String actionType) {
+        Access access = new Access(accessName, null, moduleName, actionType);
+        access.setAccessId(accessId);
+        return access;
+    }
+
+    @RequiresAccess("READ_PROJECT_ORDER")
+    static class ProjectOrderController {
+
+        public void list() {
+        }
+
+        @RequiresAccess({"READ_PROJECT_ORDER", "CLOSE_PROJECT_ORDER"})
+        public void close() {
+        }
+
+        @RequiresAccess("DELETE_PROJECT_ORDER")
+        public void delete() {
+        }
+    }
+
+    static class PublicController {
+
+        public void health() {
+        }
+    }
+}
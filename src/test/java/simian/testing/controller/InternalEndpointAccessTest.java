@@ -0,0 +1,86 @@
+package simian.testing.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.ResponseStatusException;
+import simian.testing.feed.ChangeFeedService;
+import simian.testing.service.UserActivityTracker;
+import simian.testing.snapshot.SnapshotExportService;
+import simian.testing.token.CapabilityTokenIssuer;
+import simian.testing.token.CapabilityTokenIssuer.IssuedToken;
+
+/**
+ * Snapshot lengkap, change feed dan penerbitan token atas nama user hanya dilayani untuk pemanggil yang membawa credential service
+ */
+class InternalEndpointAccessTest {
+
+    private static final String SERVICE_KEY = "kunci-service-minimal-32-karakter";
+
+    private final ChangeFeedService changeFeedService = mock(ChangeFeedService.class);
+    private final SnapshotExportService snapshotExportService = mock(SnapshotExportService.class);
+    private final ChangeFeedController changeFeedController = new ChangeFeedController();
+    private final SnapshotController snapshotController = new SnapshotController();
+    private final CapabilityTokenController tokenController = new CapabilityTokenController();
+    private final UserActivityTracker activityTracker = mock(UserActivityTracker.class);
+
+    @BeforeEach
+    void setUp() {
+        CapabilityTokenIssuer tokenIssuer = mock(CapabilityTokenIssuer.class);
+        when(tokenIssuer.isServiceKey(any())).thenAnswer(invocation -> SERVICE_KEY.equals(invocation.getArgument(0)));
+        ReflectionTestUtils.setField(changeFeedController, "changeFeedService", changeFeedService);
+        ReflectionTestUtils.setField(changeFeedController, "tokenIssuer", tokenIssuer);
+        ReflectionTestUtils.setField(snapshotController, "snapshotExportService", snapshotExportService);
+        ReflectionTestUtils.setField(snapshotController, "tokenIssuer", tokenIssuer);
+
+        when(tokenIssuer.isEnabled()).thenReturn(true);
+        when(tokenIssuer.issue(7)).thenReturn(new IssuedToken("token-7", Instant.now().plusSeconds(300)));
+        ReflectionTestUtils.setField(tokenController, "tokenIssuer", tokenIssuer);
+        ReflectionTestUtils.setField(tokenController, "activityTracker", activityTracker);
+    }
+
+    @Test
+    void changeFeedRequiresServiceKey() {
+        assertForbidden(() -> changeFeedController.getUserChanges(null, 0, 500, null));
+        assertForbidden(() -> changeFeedController.getRoleChanges(null, 0, 500, "salah"));
+        assertForbidden(() -> changeFeedController.getGrantChanges(null, 0, 500, null));
+        assertForbidden(() -> changeFeedController.getTombstones(null, 0, 500, null));
+        verifyNoInteractions(changeFeedService);
+
+        changeFeedController.getUserChanges(null, 0, 500, SERVICE_KEY);
+        verify(changeFeedService).getUserChanges(null, 500);
+    }
+
+    @Test
+    void fullSnapshotRequiresServiceKey() {
+        assertForbidden(() -> snapshotController.getFullSnapshot(null));
+        assertForbidden(() -> snapshotController.getFullSnapshot("salah"));
+
+        assertEquals(200, snapshotController.getFullSnapshot(SERVICE_KEY).getStatusCode().value());
+        verifyNoInteractions(snapshotExportService);
+    }
+
+    @Test
+    void tokenForUserRequiresServiceKeyAndRecordsLogin() {
+        assertForbidden(() -> tokenController.issueForUser(7, null));
+        verify(activityTracker, never()).recordLogin(7);
+
+        assertEquals("token-7", tokenController.issueForUser(7, SERVICE_KEY).token());
+        verify(activityTracker).recordLogin(7);
+    }
+
+    private static void assertForbidden(Runnable call) {
+        ResponseStatusException error = assertThrows(ResponseStatusException.class, call::run);
+        assertEquals(403, error.getStatusCode().value());
+    }
+}
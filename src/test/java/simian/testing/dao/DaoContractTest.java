@@ -0,0 +1,242 @@
+package simian.testing.dao;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import simian.testing.dto.UserSummary;
+import simian.testing.entity.Access;
+import simian.testing.entity.Role;
+import simian.testing.entity.User;
+
+/**
+ * Kontrak bersama UserDAO, RoleDAO dan AccessDAO; setiap implementasi menjalankan test yang sama
+ * Subclass menyiapkan DAO di storage kosong sebelum setiap test
+ */
+abstract class DaoContractTest {
+
+    protected UserDAO userDAO;
+    protected RoleDAO roleDAO;
+    protected AccessDAO accessDAO;
+
+    /**
+     * Menjalankan operasi dalam satu transaksi, seperti satu panggilan method service
+     */
+    protected abstract <T> T inTransaction(Supplier<T> work);
+
+    @Test
+    void createReadUpdateDeleteRoundTrip() {
+        Integer roleId = createRole("Project Manager", null);
+        Integer userId = createUser("budi.santoso", "budi@simian.com", roleId, true);
+
+        User created = inTransaction(() -> userDAO.read(userId)).orElseThrow();
+        assertEquals("budi.santoso", created.getUsername());
+        assertEquals("Project Manager", created.getRole().getRoleName());
+        assertTrue(created.getCreatedDate() != null);
+
+        created.setFirstName("Budi");
+        inTransaction(() -> {
+            userDAO.update(created);
+            return null;
+        });
+        User updated = inTransaction(() -> userDAO.read(userId)).orElseThrow();
+        assertEquals("Budi", updated.getFirstName());
+        assertTrue(updated.getVersion() > created.getVersion());
+
+        inTransaction(() -> {
+            userDAO.delete(userId);
+            return null;
+        });
+        assertTrue(inTransaction(() -> userDAO.read(userId)).isEmpty());
+        assertFalse(inTransaction(() -> userDAO.existsByUsername("budi.santoso")));
+    }
+
+    @Test
+    void uniqueKeysIgnoreCase() {
+        Integer roleId = createRole("Consultant", null);
+        createUser("siti", "siti@simian.com", roleId, true);
+        createAccess("VIEW_SUBTASK", "SUBTASK", "VIEW");
+
+        assertThrows(DataIntegrityViolationException.class, () -> createUser("SITI", "lain@simian.com", roleId, true));
+        assertThrows(DataIntegrityViolationException.class, () -> createUser("lain", "Siti@Simian.com", roleId, true));
+        assertThrows(DataIntegrityViolationException.class, () -> createRole("CONSULTANT", null));
+        assertThrows(DataIntegrityViolationException.class, () -> createAccess("view_subtask", null, null));
+
+        assertTrue(inTransaction(() -> userDAO.existsByUsername("Siti")));
+        assertTrue(inTransaction(() -> userDAO.existsByEmail("SITI@simian.com")));
+        assertEquals("siti", inTransaction(() -> userDAO.findByEmail("siti@SIMIAN.com")).orElseThrow().getUsername());
+        assertTrue(inTransaction(() -> roleDAO.existsByName("consultant")));
+        assertTrue(inTransaction(() -> accessDAO.findByName("View_Subtask")).isPresent());
+        assertEquals(1, inTransaction(() -> userDAO.getAll()).size());
+    }
+
+    @Test
+    void updateRejectsTakenUsernameAndStaleVersion() {
+        Integer roleId = createRole("Development", null);
+        createUser("agus", "agus@simian.com", roleId, true);
+        Integer userId = createUser("dewi", "dewi@simian.com", roleId, true);
+
+        User renamed = inTransaction(() -> userDAO.read(userId)).orElseThrow();
+        renamed.setUsername("AGUS");
+        assertThrows(DataIntegrityViolationException.class, () -> inTransaction(() -> {
+            userDAO.update(renamed);
+            return null;
+        }));
+        assertEquals("dewi", inTransaction(() -> userDAO.read(userId)).orElseThrow().getUsername());
+
+        User first = inTransaction(() -> userDAO.read(userId)).orElseThrow();
+        User stale = inTransaction(() -> userDAO.read(userId)).orElseThrow();
+        first.setLastName("Lestari");
+        inTransaction(() -> {
+            userDAO.update(first);
+            return null;
+        });
+        stale.setLastName("Wijaya");
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> inTransaction(() -> {
+            userDAO.update(stale);
+            return null;
+        }));
+        assertEquals("Lestari", inTransaction(() -> userDAO.read(userId)).orElseThrow().getLastName());
+    }
+
+    @Test
+    void rejectsMissingRequiredColumns() {
+        Integer roleId = createRole("Development", null);
+        assertThrows(DataIntegrityViolationException.class, () -> createUser(null, "kosong@simian.com", roleId, true));
+        assertThrows(DataIntegrityViolationException.class, () -> createRole(null, null));
+        assertTrue(inTransaction(() -> userDAO.getAll()).isEmpty());
+    }
+
+    @Test
+    void bulkLookupsKeepDocumentedOrder() {
+        Integer managers = createRole("Project Manager", null);
+        Integer developers = createRole("Development", null);
+        Integer u1 = createUser("u1", "u1@simian.com", developers, true);
+        Integer u2 = createUser("u2", "u2@simian.com", managers, false);
+        Integer u3 = createUser("u3", "u3@simian.com", developers, false);
+        Integer u4 = createUser("u4", "u4@simian.com", managers, true);
+
+        assertEquals(List.of(u3, u1), userIds(inTransaction(() -> userDAO.readAll(List.of(u3, u1, u3, 99_999)))));
+        assertEquals(List.of(u2, u4, u1, u3),
+            userIds(inTransaction(() -> userDAO.findByRoles(List.of(developers, managers, developers)))));
+        assertEquals(List.of(u1, u3), inTransaction(() -> userDAO.findSummariesByIds(List.of(u3, 99_999, u1)))
+            .stream().map(UserSummary::userId).toList());
+        assertEquals(Set.of(u1, u3), Set.copyOf(userIds(inTransaction(() -> userDAO.findByRole(developers)))));
+        assertEquals(List.of(u1), userIds(inTransaction(() -> userDAO.findActiveByRole(developers))));
+        assertEquals(Set.of(u1, u4), Set.copyOf(userIds(inTransaction(() -> userDAO.findAllActive()))));
+        assertEquals(List.of(developers, managers), inTransaction(() -> roleDAO.readAll(List.of(developers, managers)))
+            .stream().map(Role::getRoleId).toList());
+    }
+
+    @Test
+    void roleAndAccessLookups() {
+        Integer roleId = createRole("Consultant", null);
+        Integer create = createAccess("CREATE_TASK", "TASK", "CREATE");
+        Integer view = createAccess("VIEW_TASK", "TASK", "VIEW");
+        createAccess("VIEW_REPORT", "REPORT", "VIEW");
+        createUser("rina", "rina@simian.com", roleId, true);
+        grant(roleId, create, view);
+
+        assertEquals(roleId, inTransaction(() -> roleDAO.findByName("consultant")).orElseThrow().getRoleId());
+        assertTrue(inTransaction(() -> roleDAO.exists(roleId)));
+        assertFalse(inTransaction(() -> roleDAO.exists(99_999)));
+        assertEquals(1L, inTransaction(() -> roleDAO.getUserCountByRole(roleId)));
+        assertEquals(0L, inTransaction(() -> roleDAO.getArchivedUserCountByRole(roleId)));
+        assertEquals(Set.of(create, view), accessIds(inTransaction(() -> accessDAO.findByModule("task"))));
+        assertEquals(2, inTransaction(() -> accessDAO.findByActionType("VIEW")).size());
+        assertEquals(Set.of(create, view), accessIds(inTransaction(() -> accessDAO.findAccessesByRole(roleId))));
+        assertEquals(Set.of(create, view),
+            accessIds(inTransaction(() -> roleDAO.read(roleId)).orElseThrow().getAccesses()));
+        assertTrue(inTransaction(() -> accessDAO.existsByName("Create_Task")));
+        assertEquals(3, inTransaction(() -> accessDAO.getAll()).size());
+    }
+
+    @Test
+    void deletingRoleCascadesToUsersAndParentIsRestricted() {
+        Integer parentId = createRole("Project Manager", null);
+        Integer childId = createRole("Senior Manager", parentId);
+        Integer userId = createUser("joko", "joko@simian.com", parentId, true);
+
+        assertThrows(DataIntegrityViolationException.class, () -> inTransaction(() -> {
+            roleDAO.delete(parentId);
+            return null;
+        }));
+        assertTrue(inTransaction(() -> userDAO.read(userId)).isPresent());
+
+        inTransaction(() -> {
+            roleDAO.delete(childId);
+            roleDAO.delete(parentId);
+            return null;
+        });
+        assertTrue(inTransaction(() -> userDAO.read(userId)).isEmpty());
+        assertFalse(inTransaction(() -> userDAO.existsByEmail("joko@simian.com")));
+        assertTrue(inTransaction(() -> roleDAO.getAll()).isEmpty());
+    }
+
+    @Test
+    void deletingAccessRevokesGrants() {
+        Integer roleId = createRole("Consultant", null);
+        Integer removed = createAccess("DELETE_TASK", "TASK", "DELETE");
+        Integer kept = createAccess("READ_TASK", "TASK", "READ");
+        grant(roleId, removed, kept);
+
+        inTransaction(() -> {
+            accessDAO.delete(removed);
+            return null;
+        });
+        assertFalse(inTransaction(() -> accessDAO.exists(removed)));
+        assertEquals(Set.of(kept), accessIds(inTransaction(() -> accessDAO.findAccessesByRole(roleId))));
+        assertEquals(Set.of(kept), accessIds(inTransaction(() -> roleDAO.read(roleId)).orElseThrow().getAccesses()));
+    }
+
+    @Test
+    void restoreOfUnknownUserReturnsFalse() {
+        assertFalse(inTransaction(() -> userDAO.restoreFromArchive(99_999)));
+    }
+
+    private Integer createRole(String name, Integer parentRoleId) {
+        Role role = new Role(name, null);
+        role.setParentRoleId(parentRoleId);
+        return inTransaction(() -> roleDAO.create(role));
+    }
+
+    private Integer createAccess(String name, String module, String action) {
+        return inTransaction(() -> accessDAO.create(new Access(name, null, module, action)));
+    }
+
+    private Integer createUser(String username, String email, Integer roleId, boolean active) {
+        return inTransaction(() -> {
+            User user = new User(username, email, "rahasia", null, null, roleDAO.read(roleId).orElseThrow());
+            user.setIsActive(active ? 1 : 0);
+            return userDAO.create(user);
+        });
+    }
+
+    private void grant(Integer roleId, Integer... accessIds) {
+        inTransaction(() -> {
+            Role role = roleDAO.read(roleId).orElseThrow();
+            for (Integer accessId : accessIds) {
+                role.getAccesses().add(accessDAO.read(accessId).orElseThrow());
+            }
+            roleDAO.update(role);
+            return null;
+        });
+    }
+
+    private static List<Integer> userIds(List<User> users) {
+        return users.stream().map(User::getUserId).toList();
+    }
+
+    private static Set<Integer> accessIds(Collection<Access> accesses) {
+        return accesses.stream().map(Access::getAccessId).collect(Collectors.toSet());
+    }
+}
@@ -0,0 +1,87 @@
+package simian.testing.dao;
+
+import java.util.function.Supplier;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.Configuration;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.dao.support.PersistenceExceptionTranslationInterceptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.orm.jpa.hibernate.HibernateExceptionTranslator;
+import org.springframework.orm.jpa.hibernate.HibernateTransactionManager;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+import simian.testing.entity.Access;
+import simian.testing.entity.Role;
+import simian.testing.entity.RoleAccess;
+import simian.testing.entity.User;
+
+/**
+ * Kontrak DAO terhadap HibernateXDAO di H2 (mode MySQL, IGNORECASE agar unique key tidak membedakan huruf
+ * seperti collation utf8mb4_unicode_ci). Exception diterjemahkan seperti @Repository di aplikasi
+ */
+class HibernateDaoContractTest extends DaoContractTest {
+
+    private static SessionFactory sessionFactory;
+    private static JdbcTemplate jdbcTemplate;
+    private static TransactionTemplate transactionTemplate;
+
+    @BeforeAll
+    static void setUpDatabase() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+            "jdbc:h2:mem:dao-contract;MODE=MySQL;NON_KEYWORDS=USER,VALUE;DATABASE_TO_LOWER=TRUE;IGNORECASE=TRUE;"
+            + "DB_CLOSE_DELAY=-1");
+        new ResourceDatabasePopulator(new ClassPathResource("schema.sql")).execute(dataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+
+        Configuration configuration = new Configuration()
+            .addAnnotatedClass(Role.class)
+            .addAnnotatedClass(Access.class)
+            .addAnnotatedClass(User.class)
+            .addAnnotatedClass(RoleAccess.class)
+            .setProperty("hibernate.current_session_context_class",
+                "org.springframework.orm.jpa.hibernate.SpringSessionContext");
+        configuration.getProperties().put("hibernate.connection.datasource", dataSource);
+        sessionFactory = configuration.buildSessionFactory();
+        transactionTemplate = new TransactionTemplate(new HibernateTransactionManager(sessionFactory));
+    }
+
+    @AfterAll
+    static void tearDown() {
+        if (sessionFactory != null) {
+            sessionFactory.close();
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        // Data awal schema.sql dibuang agar kedua implementasi mulai dari storage kosong
+        jdbcTemplate.update("DELETE FROM user");
+        jdbcTemplate.update("DELETE FROM role_access");
+        jdbcTemplate.update("DELETE FROM role_closure");
+        jdbcTemplate.update("DELETE FROM access");
+        jdbcTemplate.update("UPDATE role SET parent_role_id = NULL");
+        jdbcTemplate.update("DELETE FROM role");
+        userDAO = translated(new HibernateUserDAO(), UserDAO.class);
+        roleDAO = translated(new HibernateRoleDAO(), RoleDAO.class);
+        accessDAO = translated(new HibernateAccessDAO(), AccessDAO.class);
+    }
+
+    @Override
+    protected <T> T inTransaction(Supplier<T> work) {
+        return transactionTemplate.execute(status -> work.get());
+    }
+
+    private static <T> T translated(T dao, Class<T> type) {
+        ReflectionTestUtils.setField(dao, "sessionFactory", sessionFactory);
+        ProxyFactory proxyFactory = new ProxyFactory(dao);
+        proxyFactory.addInterface(type);
+        proxyFactory.addAdvice(new PersistenceExceptionTranslationInterceptor(new HibernateExceptionTranslator()));
+        return type.cast(proxyFactory.getProxy());
+    }
+}
@@ -0,0 +1,33 @@
+package simian.testing.dao;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+class InListsTest {
+
+    @Test
+    void dropsDuplicatesAndNullsKeepingInputOrder() {
+        assertEquals(List.of(List.of(3, 1, 2)), InLists.chunks(Arrays.asList(3, null, 1, 3, 2, null, 1)));
+        assertEquals(List.of(), InLists.chunks(Arrays.asList(null, null)));
+        assertEquals(List.of(), InLists.chunks(List.<Integer>of()));
+    }
+
+    @Test
+    void splitsIntoChunksOfAtMostChunkSize() {
+        List<Integer> ids = new ArrayList<>(IntStream.rangeClosed(1, 1203).boxed().toList());
+        ids.addAll(IntStream.rangeClosed(1, 100).boxed().toList());
+
+        List<List<Integer>> chunks = InLists.chunks(ids);
+        assertEquals(List.of(500, 500, 203), chunks.stream().map(List::size).toList());
+        assertEquals(List.of(1, 501, 1001), chunks.stream().map(chunk -> chunk.get(0)).toList());
+        assertEquals(1203, chunks.get(2).get(202));
+
+        assertEquals(1, InLists.chunks(IntStream.rangeClosed(1, InLists.CHUNK_SIZE).boxed().toList()).size());
+        assertEquals(2, InLists.chunks(IntStream.rangeClosed(1, InLists.CHUNK_SIZE + 1).boxed().toList()).size());
+    }
+}
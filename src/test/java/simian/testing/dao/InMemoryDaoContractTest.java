@@ -0,0 +1,27 @@
+package simian.testing.dao;
+
+import java.util.function.Supplier;
+import org.junit.jupiter.api.BeforeEach;
+import simian.testing.dao.memory.InMemoryAccessDAO;
+import simian.testing.dao.memory.InMemoryRoleDAO;
+import simian.testing.dao.memory.InMemoryStore;
+import simian.testing.dao.memory.InMemoryUserDAO;
+
+class InMemoryDaoContractTest extends DaoContractTest {
+
+    @BeforeEach
+    void setUp() {
+        InMemoryStore store = new InMemoryStore();
+        userDAO = new InMemoryUserDAO(store);
+        roleDAO = new InMemoryRoleDAO(store);
+        accessDAO = new InMemoryAccessDAO(store);
+    }
+
+    /**
+     * Tanpa transaksi: setiap operasi langsung terlihat dan operasi yang ditolak tidak mengubah apa pun
+     */
+    @Override
+    protected <T> T inTransaction(Supplier<T> work) {
+        return work.get();
+    }
+}
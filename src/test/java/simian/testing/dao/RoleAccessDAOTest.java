@@ -0,0 +1,105 @@
+package simian.testing.dao;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Timestamp;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.Configuration;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.orm.jpa.hibernate.HibernateTransactionManager;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+import simian.testing.entity.Access;
+import simian.testing.entity.GrantClock;
+import simian.testing.entity.Role;
+import simian.testing.entity.RoleAccess;
+import simian.testing.entity.User;
+
+/**
+ * Grant sementara yang sudah lewat valid_until tetapi belum dihapus scheduler dianggap tidak ada
+ * oleh RoleAccessDAO maupun koleksi Role.accesses. Role 1 (Project Manager) memegang access 1-3,
+ * ditambah access 8 sampai 5 menit lagi dan access 9 yang sudah lewat 5 menit lalu
+ */
+class RoleAccessDAOTest {
+
+    private static JdbcTemplate jdbcTemplate;
+    private static SessionFactory sessionFactory;
+    private static TransactionTemplate transactionTemplate;
+    private static RoleAccessDAO roleAccessDAO;
+    private static RoleDAO roleDAO;
+
+    @BeforeAll
+    static void setUpDatabase() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+            "jdbc:h2:mem:role-access;MODE=MySQL;NON_KEYWORDS=USER,VALUE;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+        new ResourceDatabasePopulator(new ClassPathResource("schema.sql")).execute(dataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+
+        Configuration configuration = new Configuration()
+            .addAnnotatedClass(Role.class)
+            .addAnnotatedClass(Access.class)
+            .addAnnotatedClass(User.class)
+            .addAnnotatedClass(RoleAccess.class)
+            .setProperty("hibernate.current_session_context_class",
+                "org.springframework.orm.jpa.hibernate.SpringSessionContext");
+        configuration.getProperties().put("hibernate.connection.datasource", dataSource);
+        sessionFactory = configuration.buildSessionFactory();
+        transactionTemplate = new TransactionTemplate(new HibernateTransactionManager(sessionFactory));
+
+        roleAccessDAO = new RoleAccessDAO();
+        ReflectionTestUtils.setField(roleAccessDAO, "sessionFactory", sessionFactory);
+        HibernateRoleDAO hibernateRoleDAO = new HibernateRoleDAO();
+        ReflectionTestUtils.setField(hibernateRoleDAO, "sessionFactory", sessionFactory);
+        roleDAO = hibernateRoleDAO;
+    }
+
+    @AfterAll
+    static void tearDown() {
+        if (sessionFactory != null) {
+            sessionFactory.close();
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM role_access WHERE role_id = 1 AND access_id IN (8, 9)");
+        jdbcTemplate.update("INSERT INTO role_access (role_id, access_id, valid_until) VALUES (1, 8, ?), (1, 9, ?)",
+            Timestamp.valueOf(GrantClock.now().plusMinutes(5)), Timestamp.valueOf(GrantClock.now().minusMinutes(5)));
+    }
+
+    @Test
+    void lapsedGrantIsNotCountedAsPresent() {
+        assertTrue(inTransaction(() -> roleAccessDAO.exists(1, 8)));
+        assertFalse(inTransaction(() -> roleAccessDAO.exists(1, 9)));
+        assertEquals(Set.of(1, 2, 3, 8), inTransaction(() -> roleAccessDAO.findAccessIdsByRole(1)));
+        assertEquals(Set.of(1, 2, 3, 8), inTransaction(() -> roleDAO.read(1).orElseThrow().getAccesses().stream()
+            .map(Access::getAccessId).collect(Collectors.toSet())));
+    }
+
+    @Test
+    void lapsedGrantRowIsReplacedByNewGrant() {
+        assertFalse(inTransaction(() -> roleAccessDAO.deleteLapsed(1, 8)).isPresent());
+        inTransaction(() -> {
+            assertTrue(roleAccessDAO.deleteLapsed(1, 9).isPresent());
+            return roleAccessDAO.create(new RoleAccess(1, 9));
+        });
+        assertTrue(inTransaction(() -> roleAccessDAO.exists(1, 9)));
+        assertFalse(inTransaction(() -> roleAccessDAO.deleteLapsed(1, 9)).isPresent());
+    }
+
+    private static <T> T inTransaction(Supplier<T> work) {
+        return transactionTemplate.execute(status -> work.get());
+    }
+}
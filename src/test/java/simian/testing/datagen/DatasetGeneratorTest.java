@@ -0,0 +1,91 @@
+package simian.testing.datagen;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+class DatasetGeneratorTest {
+
+    private static final AtomicInteger DATABASES = new AtomicInteger();
+    private static final Clock CLOCK = Clock.fixed(Instant.parse("2026-01-15T00:00:00Z"), ZoneId.of("UTC"));
+    private static final DatasetSpec SPEC = DatasetSpec.production()
+        .withUsers(25_000).withRoles(40).withAccesses(120).withGrantsPerRole(6).withThreads(4).withBatchSize(500);
+
+    @Test
+    void generatesRequestedVolumesWithSkewAndInactiveMix() {
+        JdbcTemplate jdbc = new JdbcTemplate(newDatabase());
+        GenerationReport report = new DatasetGenerator(jdbc.getDataSource(), CLOCK).generate(SPEC);
+
+        assertEquals(25_000, count(jdbc, "SELECT COUNT(*) FROM user"));
+        assertEquals(3 + 40, count(jdbc, "SELECT COUNT(*) FROM role"));
+        assertEquals(9 + 120, count(jdbc, "SELECT COUNT(*) FROM access"));
+        assertEquals(report.grants(), count(jdbc, "SELECT COUNT(*) FROM role_access") - 10);
+        // Setiap role sintetis punya baris closure diri sendiri dan ancestor-nya
+        assertEquals(report.closureRows(), count(jdbc,
+            "SELECT COUNT(*) FROM role_closure c JOIN role r ON r.role_id = c.descendant_id WHERE r.role_name LIKE 'Gen Role %'"));
+        assertTrue(report.closureRows() > 40);
+
+        double inactiveRatio = count(jdbc, "SELECT COUNT(*) FROM user WHERE is_active = 0") / 25_000.0;
+        assertEquals(report.inactiveUsers() / 25_000.0, inactiveRatio);
+        assertTrue(Math.abs(inactiveRatio - 0.15) < 0.02, "Rasio nonaktif " + inactiveRatio);
+
+        // Zipf 1.1 atas 40 role: role terbesar memegang jauh lebih dari bagian rata-rata (1/40)
+        long largestRole = count(jdbc, "SELECT MAX(c) FROM (SELECT COUNT(*) c FROM user GROUP BY role_id) t");
+        assertTrue(largestRole > 25_000 / 40 * 5, "Role terbesar hanya " + largestRole + " user");
+    }
+
+    @Test
+    void sameSeedProducesSameDataRegardlessOfThreads() {
+        JdbcTemplate first = new JdbcTemplate(newDatabase());
+        JdbcTemplate second = new JdbcTemplate(newDatabase());
+        new DatasetGenerator(first.getDataSource(), CLOCK).generate(SPEC.withUsers(12_345).withThreads(1));
+        new DatasetGenerator(second.getDataSource(), CLOCK).generate(SPEC.withUsers(12_345).withThreads(6));
+
+        String sql = "SELECT u.username, u.email, u.password, u.is_active, r.role_name, u.last_login_date, "
+            + "u.created_date FROM user u JOIN role r ON r.role_id = u.role_id ORDER BY u.username";
+        List<String> expected = first.query(sql, (rs, rowNum) -> rowOf(rs));
+        assertEquals(12_345, expected.size());
+        assertEquals(expected, second.query(sql, (rs, rowNum) -> rowOf(rs)));
+    }
+
+    @Test
+    void refusesNonEmptyUserTable() {
+        DataSource dataSource = newDatabase();
+        DatasetGenerator generator = new DatasetGenerator(dataSource, CLOCK);
+        generator.generate(SPEC.withUsers(10));
+        assertThrows(IllegalStateException.class, () -> generator.generate(SPEC.withUsers(10)));
+    }
+
+    private static DataSource newDatabase() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:datagen"
+            + DATABASES.incrementAndGet() + ";MODE=MySQL;NON_KEYWORDS=USER,VALUE;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+        new ResourceDatabasePopulator(new ClassPathResource("schema.sql")).execute(dataSource);
+        return dataSource;
+    }
+
+    private static long count(JdbcTemplate jdbc, String sql) {
+        return jdbc.queryForObject(sql, Long.class);
+    }
+
+    private static String rowOf(ResultSet rs) throws SQLException {
+        StringBuilder row = new StringBuilder();
+        for (int column = 1; column <= 7; column++) {
+            row.append(rs.getString(column)).append('|');
+        }
+        return row.toString();
+    }
+}
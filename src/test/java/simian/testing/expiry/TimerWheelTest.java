@@ -0,0 +1,84 @@
+package simian.testing.expiry;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class TimerWheelTest {
+
+    private static final long TICK = 100;
+    private static final long START = 1_768_464_000_000L;
+
+    @Test
+    void firesNeverEarlyAndAtMostOneTickLate() {
+        TimerWheel<Long> wheel = new TimerWheel<>(TICK, START);
+        Random random = new Random(42);
+        int timers = 20_000;
+        // Deadline tersebar dari milidetik sampai berhari-hari agar semua level wheel terpakai
+        for (int i = 0; i < timers; i++) {
+            long range = 1L << random.nextInt(34);
+            long deadline = START + (long) (random.nextDouble() * range);
+            wheel.schedule(deadline, deadline);
+        }
+        wheel.schedule(START - 5_000, START - 5_000);
+
+        List<Long> expired = new ArrayList<>();
+        long now = START;
+        int fired = 0;
+        while (wheel.size() > 0) {
+            now += TICK * (1 + random.nextInt(50));
+            expired.clear();
+            fired += wheel.advance(now, expired);
+            for (long deadline : expired) {
+                assertTrue(deadline <= now, "Kedaluwarsa lebih awal: " + deadline);
+            }
+        }
+        assertEquals(timers + 1, fired);
+    }
+
+    @Test
+    void firesExactlyOnDeadlineTick() {
+        TimerWheel<Long> wheel = new TimerWheel<>(TICK, START);
+        long[] deadlines = {START + 1, START + 6_400, START + 6_401, START + 409_600, START + 26_214_400 + 50};
+        for (long deadline : deadlines) {
+            wheel.schedule(deadline, deadline);
+        }
+        List<Long> expired = new ArrayList<>();
+        for (long now = START; wheel.size() > 0; now += TICK) {
+            expired.clear();
+            wheel.advance(now, expired);
+            for (long deadline : expired) {
+                assertTrue(deadline <= now && now - deadline < TICK, "Deadline " + deadline + " pada " + now);
+            }
+        }
+    }
+
+    @Test
+    void handlesOneMillionPendingTimers() {
+        TimerWheel<Integer> wheel = new TimerWheel<>(TICK, START);
+        Random random = new Random(7);
+        int timers = 1_000_000;
+        long horizon = TimeUnit.HOURS.toMillis(48);
+        long begin = System.nanoTime();
+        for (int i = 0; i < timers; i++) {
+            wheel.schedule(i, START + (long) (random.nextDouble() * horizon));
+        }
+        long scheduled = System.nanoTime();
+        List<Integer> expired = new ArrayList<>();
+        int fired = 0;
+        for (long now = START; now <= START + horizon + TICK; now += TimeUnit.SECONDS.toMillis(1)) {
+            expired.clear();
+            fired += wheel.advance(now, expired);
+        }
+        long done = System.nanoTime();
+        assertEquals(timers, fired);
+        assertEquals(0, wheel.size());
+        System.out.printf("TimerWheel 1M: schedule %d ms, expire 48 jam %d ms%n",
+            TimeUnit.NANOSECONDS.toMillis(scheduled - begin), TimeUnit.NANOSECONDS.toMillis(done - scheduled));
+    }
+}
@@ -0,0 +1,150 @@
+package simian.testing.feed;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.test.util.ReflectionTestUtils;
+import simian.testing.event.RbacChangeEvent;
+import simian.testing.event.RbacChangeEvent.Action;
+import simian.testing.event.RbacChangeEvent.EntityType;
+
+/**
+ * ChangeFeedService dan TombstoneRecorder di atas H2
+ * Timestamp baris ditulis eksplisit relatif terhadap CURRENT_TIMESTAMP database, sehingga safety lag
+ * diuji terhadap jam database dan bukan jam JVM
+ */
+class ChangeFeedServiceTest {
+
+    private static final AtomicInteger DATABASES = new AtomicInteger();
+    private static final LocalDateTime T1 = LocalDateTime.of(2026, 3, 1, 9, 0, 0);
+    private static final LocalDateTime T2 = T1.plusSeconds(1);
+
+    private final ChangeFeedService feedService = new ChangeFeedService();
+    private final TombstoneRecorder tombstoneRecorder = new TombstoneRecorder();
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:changefeed"
+            + DATABASES.incrementAndGet() + ";MODE=MySQL;NON_KEYWORDS=USER,VALUE;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+        new ResourceDatabasePopulator(new ClassPathResource("schema.sql")).execute(dataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        ReflectionTestUtils.setField(feedService, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(feedService, "safetyLagMs", 0L);
+        ReflectionTestUtils.setField(feedService, "maxLimit", 5000);
+        ReflectionTestUtils.setField(tombstoneRecorder, "jdbcTemplate", jdbcTemplate);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("SHUTDOWN");
+    }
+
+    @Test
+    void pagesThroughTiesOnTimestampWithoutGapsOrRepeats() {
+        // Tiga user dengan timestamp sama, lalu dua user satu detik kemudian
+        int carol = insertUser("carol", T1);
+        int alice = insertUser("alice", T1);
+        int bob = insertUser("bob", T1);
+        int dave = insertUser("dave", T2);
+        int erin = insertUser("erin", T2);
+
+        List<Integer> seen = new ArrayList<>();
+        List<Watermark> watermarks = new ArrayList<>();
+        Watermark after = null;
+        ChangePage<UserChange> page;
+        do {
+            page = feedService.getUserChanges(after, 2);
+            page.items().forEach(change -> seen.add(change.userId()));
+            after = page.next();
+            watermarks.add(after);
+        } while (page.hasMore());
+
+        assertEquals(List.of(carol, alice, bob, dave, erin), seen);
+        // Halaman pertama berhenti di tengah grup T1: halaman kedua melanjutkan dari (T1, alice)
+        assertEquals(List.of(new Watermark(T1, alice), new Watermark(T2, dave), new Watermark(T2, erin)), watermarks);
+
+        // Tidak ada perubahan baru: watermark dikembalikan apa adanya
+        ChangePage<UserChange> empty = feedService.getUserChanges(after, 2);
+        assertTrue(empty.items().isEmpty());
+        assertFalse(empty.hasMore());
+        assertEquals(after, empty.next());
+
+        // Baris yang diubah lagi muncul kembali dengan timestamp barunya
+        jdbcTemplate.update("UPDATE user SET first_name = 'Bobby', updated_date = ? WHERE user_id = ?",
+            T2.plusSeconds(1), bob);
+        assertEquals(List.of(bob), feedService.getUserChanges(after, 2).items().stream()
+            .map(UserChange::userId).toList());
+        assertThrows(IllegalArgumentException.class, () -> feedService.getUserChanges(null, 0));
+    }
+
+    @Test
+    void safetyLagIsMeasuredOnDatabaseClock() {
+        int settled = insertUserAgo("settled", 10);
+        int recent = insertUserAgo("recent", 2);
+
+        ReflectionTestUtils.setField(feedService, "safetyLagMs", 5000L);
+        assertEquals(List.of(settled), userIds(feedService.getUserChanges(null, 10)));
+
+        ReflectionTestUtils.setField(feedService, "safetyLagMs", 1000L);
+        assertEquals(List.of(settled, recent), userIds(feedService.getUserChanges(null, 10)));
+    }
+
+    @Test
+    void recordsTombstonesForDeletionsOnly() {
+        jdbcTemplate.update("INSERT INTO role_access (role_id, access_id) VALUES (1, 9)");
+        int roleAccessId = jdbcTemplate.queryForObject(
+            "SELECT role_access_id FROM role_access WHERE role_id = 1 AND access_id = 9", Integer.class);
+        jdbcTemplate.update("DELETE FROM role_access WHERE role_access_id = ?", roleAccessId);
+
+        tombstoneRecorder.onRbacChange(RbacChangeEvent.of(EntityType.USER, Action.UPDATED, 7));
+        tombstoneRecorder.onRbacChange(RbacChangeEvent.grantRemoved(1, 9, roleAccessId));
+        tombstoneRecorder.onRbacChange(RbacChangeEvent.of(EntityType.USER, Action.DELETED, 7));
+        tombstoneRecorder.onRbacChange(RbacChangeEvent.of(EntityType.ROLE, Action.DELETED, 3));
+
+        ChangePage<Tombstone> first = feedService.getTombstones(null, 2);
+        assertTrue(first.hasMore());
+        ChangePage<Tombstone> second = feedService.getTombstones(first.next(), 2);
+        assertFalse(second.hasMore());
+
+        List<Tombstone> tombstones = new ArrayList<>(first.items());
+        tombstones.addAll(second.items());
+        assertEquals(List.of("GRANT", "USER", "ROLE"), tombstones.stream().map(Tombstone::entityType).toList());
+        Tombstone grant = tombstones.get(0);
+        assertEquals(1, grant.entityId());
+        assertEquals(9, grant.relatedId());
+        assertEquals(roleAccessId, grant.roleAccessId());
+        assertEquals(null, tombstones.get(1).roleAccessId());
+        assertEquals(7, tombstones.get(1).entityId());
+    }
+
+    private int insertUser(String username, LocalDateTime updatedDate) {
+        jdbcTemplate.update("INSERT INTO user (username, email, password, is_active, role_id, updated_date) "
+            + "VALUES (?, ?, 'x', 1, 1, ?)", username, username + "@simian.test", updatedDate);
+        return jdbcTemplate.queryForObject("SELECT user_id FROM user WHERE username = ?", Integer.class, username);
+    }
+
+    private int insertUserAgo(String username, int seconds) {
+        jdbcTemplate.update("INSERT INTO user (username, email, password, is_active, role_id, updated_date) "
+                + "VALUES (?, ?, 'x', 1, 1, TIMESTAMPADD(SECOND, ?, CURRENT_TIMESTAMP(3)))",
+            username, username + "@simian.test", -seconds);
+        return jdbcTemplate.queryForObject("SELECT user_id FROM user WHERE username = ?", Integer.class, username);
+    }
+
+    private static List<Integer> userIds(ChangePage<UserChange> page) {
+        return page.items().stream().map(UserChange::userId).toList();
+    }
+}
@@ -0,0 +1,200 @@
+package simian.testing.feed;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.test.util.ReflectionTestUtils;
+import simian.testing.dto.AccessView;
+import simian.testing.dto.RoleView;
+import simian.testing.entity.Access;
+import simian.testing.entity.Role;
+import simian.testing.event.RbacChangeEvent;
+import simian.testing.event.RbacChangeEvent.Action;
+import simian.testing.event.RbacChangeEvent.EntityType;
+import simian.testing.service.AccessService;
+import simian.testing.service.RoleService;
+
+/**
+ * ModelVersionRecorder dan ModelSyncService di atas H2 dengan RoleService/AccessService tiruan
+ * Riwayat model_change ditulis recorder; keadaan entity terbaru diambil dari map roles dan accesses
+ */
+class ModelSyncServiceTest {
+
+    private static final AtomicInteger DATABASES = new AtomicInteger();
+
+    private final Map<Integer, Role> roles = new LinkedHashMap<>();
+    private final Map<Integer, Access> accesses = new LinkedHashMap<>();
+    private final ModelVersionRecorder recorder = new ModelVersionRecorder();
+    private final ModelSyncService syncService = new ModelSyncService();
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:modelsync"
+            + DATABASES.incrementAndGet() + ";MODE=MySQL;NON_KEYWORDS=USER,VALUE;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+        new ResourceDatabasePopulator(new ClassPathResource("schema.sql")).execute(dataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+
+        ReflectionTestUtils.setField(recorder, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(recorder, "transactionManager", new DataSourceTransactionManager(dataSource));
+        ReflectionTestUtils.setField(recorder, "historySize", 10000L);
+        ReflectionTestUtils.invokeMethod(recorder, "init");
+
+        RoleService roleService = mock(RoleService.class);
+        when(roleService.getRolesByIds(any())).thenAnswer(invocation -> {
+            Map<Integer, Role> found = new HashMap<>();
+            for (Integer roleId : invocation.<Collection<Integer>>getArgument(0)) {
+                if (roles.containsKey(roleId)) {
+                    found.put(roleId, roles.get(roleId));
+                }
+            }
+            return found;
+        });
+        when(roleService.getAllRoles()).thenAnswer(invocation -> List.copyOf(roles.values()));
+        AccessService accessService = mock(AccessService.class);
+        when(accessService.findAccessById(anyInt())).thenAnswer(invocation ->
+            Optional.ofNullable(accesses.get(invocation.<Integer>getArgument(0))));
+        when(accessService.getAllAccess()).thenAnswer(invocation -> List.copyOf(accesses.values()));
+
+        ReflectionTestUtils.setField(syncService, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(syncService, "roleService", roleService);
+        ReflectionTestUtils.setField(syncService, "accessService", accessService);
+    }
+
+    @Test
+    void coalescesRepeatedChangesToLatestState() {
+        long since = syncService.getCurrentVersion();
+
+        // Access 50: dibuat, dihapus, lalu dibuat lagi dengan ID yang sama
+        accesses.put(50, access(50, "EXPORT_REPORT"));
+        record(EntityType.ACCESS, Action.CREATED, 50);
+        accesses.remove(50);
+        record(EntityType.ACCESS, Action.DELETED, 50);
+        accesses.put(50, access(50, "EXPORT_REPORT_V2"));
+        record(EntityType.ACCESS, Action.CREATED, 50);
+        // Role 60: dibuat lalu dihapus
+        roles.put(60, role(60, "Auditor"));
+        record(EntityType.ROLE, Action.CREATED, 60);
+        roles.remove(60);
+        record(EntityType.ROLE, Action.DELETED, 60);
+        // Role 61: diubah dua kali dan diberi grant, dikirim sekali
+        roles.put(61, role(61, "Reviewer"));
+        record(EntityType.ROLE, Action.UPDATED, 61);
+        record(EntityType.GRANT, Action.CREATED, 61);
+        record(EntityType.ROLE, Action.UPDATED, 61);
+
+        ModelDelta delta = syncService.getChangesSince(since);
+
+        assertFalse(delta.full());
+        assertEquals(since + 8, delta.version());
+        assertEquals(List.of(AccessView.from(accesses.get(50))), delta.accesses());
+        assertEquals("EXPORT_REPORT_V2", delta.accesses().get(0).accessName());
+        assertEquals(List.of(), delta.deletedAccessIds());
+        assertEquals(List.of(61), delta.roles().stream().map(RoleView::roleId).toList());
+        assertEquals(List.of(60), delta.deletedRoleIds());
+
+        ModelDelta upToDate = syncService.getChangesSince(delta.version());
+        assertTrue(upToDate.roles().isEmpty() && upToDate.accesses().isEmpty());
+    }
+
+    @Test
+    void renamingAccessResendsEveryRoleGrantingIt() {
+        int accessId = jdbcTemplate.queryForObject(
+            "SELECT access_id FROM access WHERE access_name = 'UPDATE_SUBTASK'", Integer.class);
+        List<Integer> holders = jdbcTemplate.queryForList(
+            "SELECT role_id FROM role_access WHERE access_id = ? ORDER BY role_id", Integer.class, accessId);
+        assertEquals(List.of(2, 3), holders);
+        roles.put(1, role(1, "Project Manager"));
+        roles.put(2, role(2, "Consultant", access(accessId, "EDIT_SUBTASK")));
+        roles.put(3, role(3, "Development", access(accessId, "EDIT_SUBTASK")));
+        accesses.put(accessId, access(accessId, "EDIT_SUBTASK"));
+        long since = syncService.getCurrentVersion();
+
+        record(EntityType.ACCESS, Action.UPDATED, accessId);
+        ModelDelta delta = syncService.getChangesSince(since);
+
+        assertFalse(delta.full());
+        assertEquals(List.of(accessId), delta.accesses().stream().map(AccessView::accessId).toList());
+        assertEquals(holders, delta.roles().stream().map(RoleView::roleId).sorted().toList());
+        for (RoleView role : delta.roles()) {
+            assertEquals(List.of("EDIT_SUBTASK"), role.accessNames());
+        }
+    }
+
+    @Test
+    void fallsBackToFullSnapshotOnceHistoryIsPruned() {
+        ReflectionTestUtils.setField(recorder, "historySize", 5L);
+        roles.put(1, role(1, "Project Manager"));
+        accesses.put(1, access(1, "CREATE_PROJECT_ORDER"));
+        for (int i = 0; i < 100; i++) {
+            record(EntityType.ROLE, Action.UPDATED, 1);
+        }
+        // Versi 100 memangkas riwayat sampai versi 95
+        assertEquals(100, syncService.getCurrentVersion());
+        assertEquals(96, jdbcTemplate.queryForObject("SELECT MIN(version) FROM model_change", Long.class));
+
+        ModelDelta pruned = syncService.getChangesSince(94L);
+        assertTrue(pruned.full());
+        assertEquals(100, pruned.version());
+        assertEquals(List.of(1), pruned.roles().stream().map(RoleView::roleId).toList());
+        assertEquals(List.of(1), pruned.accesses().stream().map(AccessView::accessId).toList());
+
+        ModelDelta oldestKept = syncService.getChangesSince(95L);
+        assertFalse(oldestKept.full());
+        assertEquals(List.of(1), oldestKept.roles().stream().map(RoleView::roleId).toList());
+        assertTrue(oldestKept.accesses().isEmpty());
+
+        assertTrue(syncService.getChangesSince(null).full());
+        assertTrue(syncService.getChangesSince(101L).full());
+    }
+
+    @Test
+    void seedsMissingVersionRow() {
+        jdbcTemplate.update("DELETE FROM model_version");
+
+        record(EntityType.ROLE, Action.CREATED, 1);
+        record(EntityType.ROLE, Action.UPDATED, 1);
+        record(EntityType.USER, Action.UPDATED, 1);
+
+        assertEquals(2, syncService.getCurrentVersion());
+        assertEquals(List.of(1L, 2L),
+            jdbcTemplate.queryForList("SELECT version FROM model_change ORDER BY version", Long.class));
+    }
+
+    private void record(EntityType type, Action action, int entityId) {
+        recorder.onRbacChange(RbacChangeEvent.of(type, action, entityId));
+    }
+
+    private static Role role(int roleId, String roleName, Access... granted) {
+        Role role = new Role(roleName, null);
+        role.setRoleId(roleId);
+        role.getAccesses().addAll(List.of(granted));
+        return role;
+    }
+
+    private static Access access(int accessId, String accessName) {
+        String[] parts = accessName.split("_", 2);
+        Access access = new Access(accessName, null, parts[1], parts[0]);
+        access.setAccessId(accessId);
+        return access;
+    }
+}
@@ -0,0 +1,214 @@
+package simian.testing.profile;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import javax.sql.DataSource;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.Configuration;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.orm.jpa.hibernate.HibernateTransactionManager;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+import simian.testing.dao.AccessDAO;
+import simian.testing.dao.HibernateAccessDAO;
+import simian.testing.dao.HibernateRoleDAO;
+import simian.testing.dao.HibernateUserDAO;
+import simian.testing.dao.RoleDAO;
+import simian.testing.dao.RoleHierarchyDAO;
+import simian.testing.dao.UserDAO;
+import simian.testing.datagen.DatasetGenerator;
+import simian.testing.datagen.DatasetSpec;
+import simian.testing.dto.AccessView;
+import simian.testing.dto.RoleView;
+import simian.testing.entity.Access;
+import simian.testing.entity.Role;
+import simian.testing.entity.RoleAccess;
+import simian.testing.entity.User;
+import simian.testing.service.AccessService;
+import simian.testing.service.ReadCoalescer;
+import simian.testing.service.RoleService;
+import simian.testing.service.UserService;
+
+/**
+ * Benchmark latensi profil user: load paralel di virtual thread (UserProfileService) dibanding
+ * load yang sama dipanggil berurutan lewat UserService/RoleService/AccessService
+ * H2 in-memory dengan jeda ROUND_TRIP_MS per statement dan commit untuk meniru round trip ke MySQL
+ *
+ * Jalankan: mvn test -Dtest=UserProfileBenchmarkTest -Dbenchmark=true
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class UserProfileBenchmarkTest {
+
+    private static final long ROUND_TRIP_MS = 2;
+    private static final int PROFILES = 200;
+
+    private static HikariDataSource dataSource;
+    private static SessionFactory sessionFactory;
+    private static UserProfileService profileService;
+    private static UserService userService;
+    private static RoleService roleService;
+    private static AccessService accessService;
+    private static TransactionTemplate readTemplate;
+    private static List<Integer> userIds;
+
+    @BeforeAll
+    static void setUp() {
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl(
+            "jdbc:h2:mem:profile-benchmark;MODE=MySQL;NON_KEYWORDS=USER,VALUE;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+        config.setMaximumPoolSize(10);
+        dataSource = new HikariDataSource(config);
+        new ResourceDatabasePopulator(new ClassPathResource("schema.sql")).execute(dataSource);
+        new DatasetGenerator(dataSource).generate(DatasetSpec.production()
+            .withUsers(20_000).withRoles(100).withAccesses(400).withGrantsPerRole(25).withThreads(4));
+        List<Integer> allUserIds = new JdbcTemplate(dataSource).queryForList("SELECT user_id FROM user", Integer.class);
+        Random random = new Random(7);
+        userIds = random.ints(PROFILES, 0, allUserIds.size()).mapToObj(allUserIds::get).toList();
+
+        Configuration configuration = new Configuration()
+            .addAnnotatedClass(Role.class)
+            .addAnnotatedClass(Access.class)
+            .addAnnotatedClass(User.class)
+            .addAnnotatedClass(RoleAccess.class)
+            .setProperty("hibernate.current_session_context_class",
+                "org.springframework.orm.jpa.hibernate.SpringSessionContext");
+        configuration.getProperties().put("hibernate.connection.datasource", withRoundTrip(dataSource));
+        sessionFactory = configuration.buildSessionFactory();
+        HibernateTransactionManager transactionManager = new HibernateTransactionManager(sessionFactory);
+
+        UserDAO userDAO = new HibernateUserDAO();
+        RoleDAO roleDAO = new HibernateRoleDAO();
+        AccessDAO accessDAO = new HibernateAccessDAO();
+        RoleHierarchyDAO roleHierarchyDAO = new RoleHierarchyDAO();
+        for (Object dao : List.of(userDAO, roleDAO, accessDAO, roleHierarchyDAO)) {
+            ReflectionTestUtils.setField(dao, "sessionFactory", sessionFactory);
+        }
+        // Coalescer tanpa @Value: enabled false, read langsung ke DAO
+        ReadCoalescer readCoalescer = new ReadCoalescer();
+        userService = new UserService();
+        ReflectionTestUtils.setField(userService, "userDAO", userDAO);
+        ReflectionTestUtils.setField(userService, "readCoalescer", readCoalescer);
+        roleService = new RoleService();
+        ReflectionTestUtils.setField(roleService, "roleDAO", roleDAO);
+        ReflectionTestUtils.setField(roleService, "accessDAO", accessDAO);
+        ReflectionTestUtils.setField(roleService, "readCoalescer", readCoalescer);
+        accessService = new AccessService();
+        ReflectionTestUtils.setField(accessService, "accessDAO", accessDAO);
+        ReflectionTestUtils.setField(accessService, "roleHierarchyDAO", roleHierarchyDAO);
+
+        profileService = new UserProfileService();
+        ReflectionTestUtils.setField(profileService, "userService", userService);
+        ReflectionTestUtils.setField(profileService, "roleService", roleService);
+        ReflectionTestUtils.setField(profileService, "accessService", accessService);
+        ReflectionTestUtils.setField(profileService, "transactionManager", transactionManager);
+        ReflectionTestUtils.setField(profileService, "timeoutMs", 10_000L);
+        profileService.init();
+
+        readTemplate = new TransactionTemplate(transactionManager);
+        readTemplate.setReadOnly(true);
+    }
+
+    @AfterAll
+    static void tearDown() {
+        profileService.shutdown();
+        sessionFactory.close();
+        dataSource.close();
+    }
+
+    @Test
+    void parallelVersusSequential() {
+        // Pemanasan JIT sekaligus memastikan kedua jalur menghasilkan profil yang sama
+        for (Integer userId : userIds) {
+            assertEquals(sequential(userId), profileService.getProfile(userId));
+        }
+
+        long[] sequential = new long[PROFILES];
+        long[] parallel = new long[PROFILES];
+        for (int i = 0; i < PROFILES; i++) {
+            long start = System.nanoTime();
+            sequential(userIds.get(i));
+            sequential[i] = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            profileService.getProfile(userIds.get(i));
+            parallel[i] = System.nanoTime() - start;
+        }
+
+        System.out.printf("berurutan: p50 %.1f ms, p95 %.1f ms%n", percentile(sequential, 50), percentile(sequential, 95));
+        System.out.printf("paralel  : p50 %.1f ms, p95 %.1f ms%n", percentile(parallel, 50), percentile(parallel, 95));
+        System.out.printf("paralel %.1fx lebih cepat (p50)%n", percentile(sequential, 50) / percentile(parallel, 50));
+    }
+
+    /**
+     * Alur lama halaman profil: load yang sama dipanggil berurutan, masing-masing di transaksi
+     * read-only sendiri seperti pemanggilan service @Transactional dari controller
+     */
+    private static UserProfile sequential(Integer userId) {
+        User user = readTemplate.execute(status -> userService.getUserById(userId));
+        Integer roleId = user.getRole().getRoleId();
+        RoleView role = readTemplate.execute(status -> RoleView.from(roleService.getRoleById(roleId)));
+        List<AccessView> accesses = readTemplate.execute(
+            status -> UserProfileService.toViews(accessService.getAccessesByRole(roleId)));
+        long userCount = readTemplate.execute(status -> roleService.getUserCountByRole(roleId));
+        return new UserProfile(UserProfileService.toSummary(user), role, accesses, userCount,
+            UserProfileService.permissionsByModule(accesses));
+    }
+
+    private static double percentile(long[] nanos, int percentile) {
+        long[] sorted = nanos.clone();
+        Arrays.sort(sorted);
+        return sorted[Math.min(sorted.length - 1, sorted.length * percentile / 100)] / 1_000_000.0;
+    }
+
+    private static DataSource withRoundTrip(DataSource target) {
+        return new DelegatingDataSource(target) {
+            @Override
+            public Connection getConnection() throws SQLException {
+                return delayed(Connection.class, super.getConnection());
+            }
+        };
+    }
+
+    /**
+     * Proxy JDBC yang menunda setiap execute dan commit sebesar ROUND_TRIP_MS
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> T delayed(Class<T> type, T target) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, (proxy, method, args) -> {
+            if (method.getName().startsWith("execute") || method.getName().equals("commit")) {
+                Thread.sleep(ROUND_TRIP_MS);
+            }
+            Object result;
+            try {
+                result = method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+            if (result instanceof PreparedStatement statement) {
+                return delayed(PreparedStatement.class, statement);
+            }
+            if (result instanceof Statement statement) {
+                return delayed(Statement.class, statement);
+            }
+            return result;
+        });
+    }
+}
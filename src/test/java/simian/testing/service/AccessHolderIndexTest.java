@@ -0,0 +1,204 @@
+package simian.testing.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.test.util.ReflectionTestUtils;
+import simian.testing.event.RbacChangeEvent;
+import simian.testing.event.RbacChangeEvent.Action;
+import simian.testing.event.RbacChangeEvent.EntityType;
+
+/**
+ * AccessHolderIndex di atas H2 dengan PermissionMatcher tiruan
+ * Role 1 = Project Manager dengan child role 4, role 2 = Consultant, role 3 = Development;
+ * user 1..4 aktif dengan role yang sama dengan ID-nya, user 5 (role 2) tidak aktif.
+ * Access 10 = wildcard PROJECT_ORDER:* yang belum diberikan ke role mana pun
+ */
+class AccessHolderIndexTest {
+
+    private static final AtomicInteger DATABASES = new AtomicInteger();
+    private static final int WILDCARD_ACCESS = 10;
+
+    private final Map<Integer, Set<Integer>> effectiveAccesses = new HashMap<>();
+    private final PermissionMatcher permissionMatcher = mock(PermissionMatcher.class);
+    private final AccessHolderIndex index = new AccessHolderIndex();
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:holders"
+            + DATABASES.incrementAndGet() + ";MODE=MySQL;NON_KEYWORDS=USER,VALUE;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+        new ResourceDatabasePopulator(new ClassPathResource("schema.sql")).execute(dataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.update("INSERT INTO role (role_name, parent_role_id) VALUES ('Project Manager Junior', 1)");
+        jdbcTemplate.update("INSERT INTO role_closure (ancestor_id, descendant_id, depth) VALUES (1, 4, 1), (4, 4, 0)");
+        jdbcTemplate.update("INSERT INTO access (access_name, module_name, action_type) "
+            + "VALUES ('PROJECT_ORDER_ALL', 'PROJECT_ORDER', '*')");
+        for (int userId = 1; userId <= 5; userId++) {
+            jdbcTemplate.update("INSERT INTO user (username, email, password, is_active, role_id) VALUES (?, ?, 'x', ?, ?)",
+                "user" + userId, "user" + userId + "@simian.test", userId == 5 ? 0 : 1, userId == 5 ? 2 : userId);
+        }
+
+        effectiveAccesses.put(1, new HashSet<>(Set.of(1, 2, 3)));
+        effectiveAccesses.put(4, new HashSet<>(Set.of(1, 2, 3)));
+        effectiveAccesses.put(2, new HashSet<>(Set.of(4, 5, 6, 7)));
+        effectiveAccesses.put(3, new HashSet<>(Set.of(6, 8, 9)));
+        when(permissionMatcher.hasAccess(anyInt(), anyInt())).thenAnswer(invocation ->
+            effectiveAccesses.getOrDefault(invocation.<Integer>getArgument(0), Set.of())
+                .contains(invocation.<Integer>getArgument(1)));
+
+        ReflectionTestUtils.setField(index, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(index, "permissionMatcher", permissionMatcher);
+    }
+
+    @Test
+    void answersSetOperationsOverActiveHolders() {
+        assertEquals(bits(1, 4), index.holdersOf(1));
+        assertEquals(bits(2), index.holdersOf(4));
+        assertEquals(bits(2), index.holdersOfAll(List.of(4, 5)));
+        assertEquals(bits(), index.holdersOfAll(List.of(1, 4)));
+        assertEquals(bits(), index.holdersOfAll(List.of()));
+        assertEquals(bits(1, 3, 4), index.holdersOfAny(List.of(1, 8)));
+        assertEquals(bits(3), index.holdersOfExcept(6, 5));
+        assertEquals(bits(), index.holdersOf(999));
+
+        // Bitmap hasil boleh diubah pemanggil tanpa merusak index
+        index.holdersOf(1).set(50);
+        assertEquals(bits(1, 4), index.holdersOf(1));
+    }
+
+    @Test
+    void grantRecomputesOnlyTheRoleSubtreeAndGrantedColumn() {
+        index.holdersOf(1);
+        clearInvocations(permissionMatcher);
+
+        effectiveAccesses.get(1).add(8);
+        effectiveAccesses.get(4).add(8);
+        index.onRbacChange(RbacChangeEvent.grant(Action.CREATED, 1, 8));
+
+        assertEquals(bits(1, 3, 4), index.holdersOf(8));
+        verify(permissionMatcher, times(2)).hasAccess(anyInt(), anyInt());
+        verify(permissionMatcher, never()).hasAccess(eq(2), anyInt());
+        verify(permissionMatcher, never()).hasAccess(eq(3), anyInt());
+    }
+
+    @Test
+    void wildcardGrantAndAccessChangeRecomputeCoveredColumns() {
+        index.holdersOf(1);
+        clearInvocations(permissionMatcher);
+
+        // Wildcard PROJECT_ORDER:* untuk Development mencakup semua access module PROJECT_ORDER
+        effectiveAccesses.get(3).addAll(Set.of(1, 2, 3, 4, WILDCARD_ACCESS));
+        index.onRbacChange(RbacChangeEvent.grant(Action.CREATED, 3, WILDCARD_ACCESS));
+        assertEquals(bits(1, 3, 4), index.holdersOf(1));
+        assertEquals(bits(2, 3), index.holdersOf(4));
+        verify(permissionMatcher, never()).hasAccess(anyInt(), eq(5));
+        verify(permissionMatcher, never()).hasAccess(eq(1), anyInt());
+
+        // Wildcard dipindah ke module SUBTASK: kolom module lama dan baru dihitung ulang untuk semua role
+        clearInvocations(permissionMatcher);
+        jdbcTemplate.update("UPDATE access SET module_name = 'SUBTASK' WHERE access_id = ?", WILDCARD_ACCESS);
+        effectiveAccesses.get(3).removeAll(Set.of(1, 2, 3, 4));
+        effectiveAccesses.get(3).addAll(Set.of(5, 7));
+        index.onRbacChange(RbacChangeEvent.of(EntityType.ACCESS, Action.UPDATED, WILDCARD_ACCESS));
+        assertEquals(bits(1, 4), index.holdersOf(1));
+        assertEquals(bits(2, 3), index.holdersOf(5));
+        verify(permissionMatcher, atLeastOnce()).hasAccess(eq(2), eq(1));
+        verify(permissionMatcher, atLeastOnce()).hasAccess(eq(2), eq(5));
+
+        // Access wildcard dihapus: kolomnya hilang dan kolom yang dicakupnya dihitung ulang
+        jdbcTemplate.update("DELETE FROM access WHERE access_id = ?", WILDCARD_ACCESS);
+        effectiveAccesses.get(3).removeAll(Set.of(5, 7, WILDCARD_ACCESS));
+        index.onRbacChange(RbacChangeEvent.of(EntityType.ACCESS, Action.DELETED, WILDCARD_ACCESS));
+        assertEquals(bits(2), index.holdersOf(5));
+        assertEquals(bits(), index.holdersOf(WILDCARD_ACCESS));
+    }
+
+    @Test
+    void userChangesMoveOneBitWithoutPermissionProbes() {
+        index.holdersOf(1);
+        clearInvocations(permissionMatcher);
+
+        jdbcTemplate.update("UPDATE user SET role_id = 3 WHERE user_id = 2");
+        index.onRbacChange(RbacChangeEvent.of(EntityType.USER, Action.UPDATED, 2));
+        assertEquals(bits(2, 3), index.holdersOf(8));
+        assertEquals(bits(), index.holdersOf(4));
+
+        jdbcTemplate.update("UPDATE user SET is_active = 0 WHERE user_id = 2");
+        index.onRbacChange(RbacChangeEvent.of(EntityType.USER, Action.UPDATED, 2));
+        jdbcTemplate.update("UPDATE user SET is_active = 1 WHERE user_id = 5");
+        index.onRbacChange(RbacChangeEvent.of(EntityType.USER, Action.UPDATED, 5));
+        assertEquals(bits(3), index.holdersOf(8));
+        assertEquals(bits(5), index.holdersOf(4));
+        verifyNoInteractions(permissionMatcher);
+    }
+
+    @Test
+    void parentChangeRecomputesSubtreeAndDeletedRoleIsDropped() {
+        index.holdersOf(1);
+        clearInvocations(permissionMatcher);
+
+        // Role 4 pindah ke bawah Consultant
+        jdbcTemplate.update("DELETE FROM role_closure WHERE ancestor_id = 1 AND descendant_id = 4");
+        effectiveAccesses.put(4, new HashSet<>(Set.of(4, 5, 6, 7)));
+        index.onRbacChange(RbacChangeEvent.of(EntityType.ROLE, Action.UPDATED, 4));
+        assertEquals(bits(1), index.holdersOf(1));
+        assertEquals(bits(2, 4), index.holdersOf(4));
+        verify(permissionMatcher, never()).hasAccess(eq(1), anyInt());
+
+        jdbcTemplate.update("DELETE FROM user WHERE user_id = 4");
+        index.onRbacChange(RbacChangeEvent.of(EntityType.ROLE, Action.DELETED, 4));
+        assertEquals(bits(2), index.holdersOf(4));
+    }
+
+    @Test
+    void readersAreNotBlockedWhileAnUpdateIsRunning() {
+        index.holdersOf(1);
+        AtomicReference<BitSet> readDuringUpdate = new AtomicReference<>();
+        when(permissionMatcher.hasAccess(anyInt(), anyInt())).thenAnswer(invocation -> {
+            if (readDuringUpdate.get() == null) {
+                // Pembaca di thread lain harus langsung dijawab dari index sebelum update
+                readDuringUpdate.set(CompletableFuture.supplyAsync(() -> index.holdersOf(1)).get(5, TimeUnit.SECONDS));
+            }
+            return invocation.<Integer>getArgument(0) != 1 && effectiveAccesses
+                .getOrDefault(invocation.<Integer>getArgument(0), Set.of()).contains(invocation.<Integer>getArgument(1));
+        });
+
+        index.onRbacChange(RbacChangeEvent.grant(Action.DELETED, 1, 1));
+        assertEquals(bits(1, 4), readDuringUpdate.get());
+        assertEquals(bits(4), index.holdersOf(1));
+    }
+
+    private static BitSet bits(int... values) {
+        BitSet result = new BitSet();
+        for (int value : values) {
+            result.set(value);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,144 @@
+package simian.testing.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import simian.testing.entity.Access;
+import simian.testing.entity.Role;
+import simian.testing.entity.User;
+
+/**
+ * getUsersByIds, getUsersByRoles, getRolesByIds dan getAccessesByRoles lewat service asli di H2
+ * Jumlah statement dihitung dengan statistik Hibernate; IN list di atas 500 ID dipecah per 500
+ */
+class BulkReadTest {
+
+    private static final Integer MISSING = 99_999;
+
+    private final ServiceFixture fixture = new ServiceFixture();
+
+    @AfterEach
+    void tearDown() {
+        fixture.close();
+    }
+
+    @Test
+    void getUsersByIdsKeepsInputOrderAndSkipsMissingIds() {
+        List<Integer> userIds = insertUsers(50);
+        List<Integer> requested = new ArrayList<>(userIds.reversed());
+        requested.add(2, MISSING);
+        requested.add(userIds.get(0));
+        requested.add(null);
+
+        fixture.resetStatistics();
+        Map<Integer, User> users = fixture.userService.getUsersByIds(requested);
+
+        // Satu multi-load user (join role), lalu Role.accesses ketiga role dalam satu batch
+        assertEquals(2, fixture.statementCount());
+        assertEquals(userIds.reversed(), List.copyOf(users.keySet()));
+        users.forEach((userId, user) -> assertEquals(userId, user.getUserId()));
+        assertEquals("Consultant", users.get(userIds.get(1)).getRole().getRoleName());
+        assertEquals(Map.of(), fixture.userService.getUsersByIds(List.of(MISSING)));
+    }
+
+    @Test
+    void getUsersByIdsChunksLargeIdLists() {
+        List<Integer> userIds = insertUsers(600);
+        List<Integer> requested = new ArrayList<>(userIds);
+        IntStream.rangeClosed(1, 603).forEach(i -> requested.add(MISSING + i));
+
+        fixture.resetStatistics();
+        Map<Integer, User> users = fixture.userService.getUsersByIds(requested);
+
+        // Tiga potongan ID (500, 500, 203) ditambah satu batch Role.accesses
+        assertEquals(4, fixture.statementCount());
+        assertEquals(userIds, List.copyOf(users.keySet()));
+    }
+
+    @Test
+    void getUsersByRolesGivesEveryRequestedRoleAnEntry() {
+        List<Integer> userIds = insertUsers(9);
+
+        fixture.resetStatistics();
+        Map<Integer, List<User>> users = fixture.userService.getUsersByRoles(Arrays.asList(3, MISSING, 1, null, 3));
+
+        assertEquals(2, fixture.statementCount());
+        assertEquals(List.of(3, MISSING, 1), List.copyOf(users.keySet()));
+        assertEquals(List.of(userIds.get(2), userIds.get(5), userIds.get(8)), userIdsOf(users.get(3)));
+        assertEquals(List.of(userIds.get(0), userIds.get(3), userIds.get(6)), userIdsOf(users.get(1)));
+        assertEquals(List.of(), users.get(MISSING));
+    }
+
+    @Test
+    void getRolesByIdsSkipsMissingIdsAndChunks() {
+        fixture.resetStatistics();
+        Map<Integer, Role> roles = fixture.roleService.getRolesByIds(Arrays.asList(3, MISSING, 1, null, 3));
+
+        // Multi-load role lalu satu batch Role.accesses
+        assertEquals(2, fixture.statementCount());
+        assertEquals(List.of(3, 1), List.copyOf(roles.keySet()));
+        assertEquals("Development", roles.get(3).getRoleName());
+        assertEquals(3, roles.get(1).getAccesses().size());
+
+        fixture.resetStatistics();
+        roles = fixture.roleService.getRolesByIds(IntStream.rangeClosed(1, 1203).boxed().toList());
+        assertEquals(List.of(1, 2, 3), List.copyOf(roles.keySet()));
+        assertEquals(4, fixture.statementCount());
+    }
+
+    @Test
+    void getAccessesByRolesMatchesPerRoleLookup() {
+        // Development (3) mewarisi grant Project Manager (1)
+        fixture.roleService.setParentRole(3, 1);
+        List<Integer> roleIds = List.of(3, MISSING, 2, 1);
+
+        fixture.resetStatistics();
+        Map<Integer, List<Access>> accesses = fixture.accessService.getAccessesByRoles(roleIds);
+
+        // Satu query pasangan role/access lewat role_closure, satu multi-load access
+        assertEquals(2, fixture.statementCount());
+        assertEquals(roleIds, List.copyOf(accesses.keySet()));
+        assertEquals(List.of(), accesses.get(MISSING));
+        assertEquals(List.of(1, 2, 3, 6, 8, 9), accessIdsOf(accesses.get(3)));
+        for (Integer roleId : List.of(1, 2, 3)) {
+            assertEquals(accessIdsOf(fixture.accessService.getAccessesByRole(roleId)), accessIdsOf(accesses.get(roleId)));
+        }
+
+        // 1203 roleId: tiga query closure dan satu load access
+        List<Integer> requested = IntStream.rangeClosed(1, 1203).boxed().toList();
+        fixture.resetStatistics();
+        accesses = fixture.accessService.getAccessesByRoles(requested);
+        assertEquals(4, fixture.statementCount());
+        assertEquals(1203, accesses.size());
+        assertTrue(accesses.get(1203).isEmpty());
+        assertEquals(List.of(4, 5, 6, 7), accessIdsOf(accesses.get(2)));
+    }
+
+    /**
+     * User ke-i mendapat role (i % 3) + 1
+     */
+    private List<Integer> insertUsers(int count) {
+        List<Object[]> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            rows.add(new Object[] {"user" + i, "user" + i + "@simian.test", i % 3 + 1});
+        }
+        fixture.jdbcTemplate.batchUpdate(
+            "INSERT INTO user (username, email, password, is_active, role_id) VALUES (?, ?, 'x', 1, ?)", rows);
+        return fixture.jdbcTemplate.queryForList("SELECT user_id FROM user ORDER BY user_id", Integer.class);
+    }
+
+    private static List<Integer> userIdsOf(List<User> users) {
+        return users.stream().map(User::getUserId).toList();
+    }
+
+    private static List<Integer> accessIdsOf(List<Access> accesses) {
+        return accesses.stream().map(Access::getAccessId).sorted().toList();
+    }
+}
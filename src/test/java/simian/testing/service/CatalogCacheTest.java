@@ -0,0 +1,47 @@
+package simian.testing.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import simian.testing.entity.Role;
+import simian.testing.event.RbacChangeEvent;
+import tools.jackson.databind.json.JsonMapper;
+
+class CatalogCacheTest {
+
+    @Test
+    void buildOverlappingChangeIsNotServedAfterwards() {
+        CatalogCache cache = new CatalogCache();
+        AtomicInteger loads = new AtomicInteger();
+        RoleService roleService = new RoleService() {
+            @Override
+            public List<Role> getAllRoles() {
+                int load = loads.incrementAndGet();
+                if (load == 1) {
+                    // Perubahan commit saat build pertama masih membaca data lama
+                    cache.onRbacChange(new RbacChangeEvent(RbacChangeEvent.EntityType.ROLE,
+                        RbacChangeEvent.Action.UPDATED, 1, null));
+                }
+                return List.of(new Role("Role versi " + load, null));
+            }
+        };
+        ReflectionTestUtils.setField(cache, "roleService", roleService);
+        ReflectionTestUtils.setField(cache, "jsonMapper", JsonMapper.builder().build());
+
+        CatalogCache.CachedJson stale = cache.getRoles();
+        CatalogCache.CachedJson fresh = cache.getRoles();
+
+        assertEquals(2, loads.get());
+        assertNotEquals(stale.etag(), fresh.etag());
+        assertTrue(new String(fresh.body(), StandardCharsets.UTF_8).contains("Role versi 2"));
+        // Hasil build kedua tersimpan dan dipakai ulang
+        assertEquals(fresh.etag(), cache.getRoles().etag());
+        assertEquals(2, loads.get());
+    }
+}
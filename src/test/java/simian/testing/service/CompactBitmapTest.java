@@ -0,0 +1,89 @@
+package simian.testing.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.BitSet;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+
+class CompactBitmapTest {
+
+    @Test
+    void matchesBitSetUnderRandomUpdates() {
+        SplittableRandom random = new SplittableRandom(42);
+        BitSet expected = new BitSet();
+        CompactBitmap bitmap = CompactBitmap.EMPTY;
+        // Tiga blok: satu padat (melewati batas 4096 dan kembali), dua jarang
+        for (int i = 0; i < 60_000; i++) {
+            int block = random.nextInt(3);
+            int value = block == 0 ? random.nextInt(10_000) : block * 300_000 + random.nextInt(65_536);
+            if (random.nextInt(3) == 0) {
+                expected.clear(value);
+                bitmap = bitmap.without(value);
+            } else {
+                expected.set(value);
+                bitmap = bitmap.with(value);
+            }
+        }
+
+        assertEquals(expected.cardinality(), bitmap.cardinality());
+        BitSet actual = new BitSet();
+        bitmap.orInto(actual);
+        assertEquals(expected, actual);
+        for (int value = 0; value < 10_000; value++) {
+            assertEquals(expected.get(value), bitmap.contains(value));
+        }
+
+        // Semua anggota dibuang satu per satu sampai bitmap kosong
+        for (int value = expected.nextSetBit(0); value >= 0; value = expected.nextSetBit(value + 1)) {
+            bitmap = bitmap.without(value);
+        }
+        assertTrue(bitmap.isEmpty());
+        assertSame(CompactBitmap.EMPTY, bitmap);
+    }
+
+    @Test
+    void updatesNeverChangePublishedBitmap() {
+        CompactBitmap original = new CompactBitmap.Builder().add(7).add(70_000).add(7).build();
+        CompactBitmap added = original.with(8);
+        CompactBitmap removed = original.without(70_000);
+
+        assertEquals(2, original.cardinality());
+        assertTrue(original.contains(70_000) && !original.contains(8));
+        assertTrue(added.contains(8) && added.contains(70_000));
+        assertFalse(removed.contains(70_000));
+        assertSame(original, original.with(7));
+        assertSame(original, original.without(9));
+        assertThrows(IllegalArgumentException.class, () -> original.with(-1));
+    }
+
+    @Test
+    void memoryFollowsMembersNotLargestId() {
+        // 10 ribu user per role yang tersebar di 5 juta userId (satu role dari 500 dengan 5 juta user)
+        SplittableRandom random = new SplittableRandom(7);
+        CompactBitmap.Builder builder = new CompactBitmap.Builder();
+        BitSet reference = new BitSet();
+        for (int i = 0; i < 10_000; i++) {
+            int userId = 1 + random.nextInt(5_000_000);
+            builder.add(userId);
+            reference.set(userId);
+        }
+        CompactBitmap users = builder.build();
+
+        assertEquals(reference.cardinality(), users.cardinality());
+        long bitSetBytes = reference.size() / 8;
+        assertTrue(users.estimatedBytes() < 25_000, "perkiraan " + users.estimatedBytes() + " byte");
+        assertTrue(bitSetBytes > 600_000);
+
+        // Blok padat memakai bitmap tetap 8 KB, bukan 2 byte per anggota
+        CompactBitmap.Builder dense = new CompactBitmap.Builder();
+        for (int userId = 0; userId < 65_536; userId++) {
+            dense.add(userId);
+        }
+        assertTrue(dense.build().estimatedBytes() < 8_300);
+    }
+}
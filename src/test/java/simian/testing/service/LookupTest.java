@@ -0,0 +1,84 @@
+package simian.testing.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import simian.testing.entity.Access;
+
+/**
+ * Varian find* (Optional, tanpa exception saat miss) dan get* (IllegalArgumentException) lewat service asli di H2
+ */
+class LookupTest {
+
+    private final ServiceFixture fixture = new ServiceFixture();
+    private final UserService userService = fixture.userService;
+    private final RoleService roleService = fixture.roleService;
+    private final AccessService accessService = fixture.accessService;
+
+    @AfterEach
+    void tearDown() {
+        fixture.close();
+    }
+
+    @Test
+    void userLookups() {
+        int userId = fixture.insertUser("alice", 2);
+
+        assertEquals("alice", userService.findUserById(userId).orElseThrow().getUsername());
+        assertEquals(userId, userService.findUserByUsername("alice").orElseThrow().getUserId());
+        assertEquals(userId, userService.findUserByEmail("alice@simian.test").orElseThrow().getUserId());
+        assertEquals(userId, userService.getUserByUsername("alice").getUserId());
+
+        assertEquals(Optional.empty(), userService.findUserById(999));
+        assertEquals(Optional.empty(), userService.findUserByUsername("bob"));
+        assertEquals(Optional.empty(), userService.findUserByEmail("bob@simian.test"));
+
+        assertMissing("User dengan ID 999 tidak ditemukan", () -> userService.getUserById(999));
+        assertMissing("User dengan username 'bob' tidak ditemukan", () -> userService.getUserByUsername("bob"));
+        assertMissing("User dengan email 'bob@simian.test' tidak ditemukan",
+            () -> userService.getUserByEmail("bob@simian.test"));
+    }
+
+    @Test
+    void roleAndAccessLookups() {
+        assertEquals("Consultant", roleService.findRoleById(2).orElseThrow().getRoleName());
+        assertEquals(Optional.empty(), roleService.findRoleById(99));
+        assertMissing("Role dengan ID 99 tidak ditemukan", () -> roleService.getRoleById(99));
+
+        assertEquals("READ_PROJECT_ORDER", accessService.findAccessById(4).orElseThrow().getAccessName());
+        assertEquals(4, accessService.findAccessByName("READ_PROJECT_ORDER").orElseThrow().getAccessId());
+        assertEquals(4, accessService.getAccessById(4).getAccessId());
+        assertEquals(Optional.empty(), accessService.findAccessById(99));
+        assertEquals(Optional.empty(), accessService.findAccessByName("EXPORT_REPORT"));
+        assertMissing("Access dengan ID 99 tidak ditemukan", () -> accessService.getAccessById(99));
+        assertMissing("Access 'EXPORT_REPORT' tidak ditemukan", () -> accessService.getAccessByName("EXPORT_REPORT"));
+    }
+
+    @Test
+    void roleAggregatesCheckExistenceWithoutLoadingRole() {
+        fixture.insertUser("alice", 2);
+        fixture.insertUser("bob", 2);
+
+        fixture.resetStatistics();
+        assertEquals(2L, roleService.getUserCountByRole(2));
+        assertEquals(List.of(4, 5, 6, 7),
+            roleService.getRoleAccesses(2).stream().map(Access::getAccessId).sorted().toList());
+        // Masing-masing satu query exists dan satu query data; entity Role tidak di-load
+        assertEquals(4, fixture.statementCount());
+        assertEquals(0, fixture.sessionFactory.getStatistics().getEntityStatistics(
+            "simian.testing.entity.Role").getLoadCount());
+
+        assertEquals(0L, roleService.getUserCountByRole(3));
+        assertMissing("Role dengan ID 99 tidak ditemukan", () -> roleService.getUserCountByRole(99));
+        assertMissing("Role dengan ID 99 tidak ditemukan", () -> roleService.getRoleAccesses(99));
+    }
+
+    private static void assertMissing(String message, Runnable lookup) {
+        IllegalArgumentException missing = assertThrows(IllegalArgumentException.class, lookup::run);
+        assertEquals(message, missing.getMessage());
+    }
+}
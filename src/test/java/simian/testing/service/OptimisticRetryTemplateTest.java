@@ -0,0 +1,159 @@
+package simian.testing.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import simian.testing.entity.Role;
+
+class OptimisticRetryTemplateTest {
+
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final OptimisticRetryTemplate retryTemplate = new OptimisticRetryTemplate();
+
+    @BeforeEach
+    void setUp() {
+        when(transactionManager.getTransaction(any())).thenAnswer(invocation -> new SimpleTransactionStatus());
+        ReflectionTestUtils.setField(retryTemplate, "transactionManager", transactionManager);
+        ReflectionTestUtils.setField(retryTemplate, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(retryTemplate, "maxAttempts", 4);
+        ReflectionTestUtils.setField(retryTemplate, "baseBackoffMs", 1L);
+        ReflectionTestUtils.setField(retryTemplate, "maxBackoffMs", 2L);
+        ReflectionTestUtils.invokeMethod(retryTemplate, "init");
+    }
+
+    @Test
+    void retriesVersionConflictInNewTransactionUntilSuccess() {
+        AtomicInteger attempts = new AtomicInteger();
+        String result = retryTemplate.execute("role.update", () -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw versionConflict();
+            }
+            return "tersimpan";
+        });
+
+        assertEquals("tersimpan", result);
+        assertEquals(3, attempts.get());
+        verify(transactionManager, times(3)).getTransaction(any());
+        verify(transactionManager, times(2)).rollback(any());
+        verify(transactionManager).commit(any());
+        assertEquals(2.0, count("simian.optimistic.conflicts"));
+        assertEquals(2.0, count("simian.optimistic.retries"));
+        assertEquals(0.0, count("simian.optimistic.exhausted"));
+    }
+
+    @Test
+    void propagatesLastConflictAfterMaxAttempts() {
+        List<RuntimeException> thrown = new ArrayList<>();
+        RuntimeException error = assertThrows(ObjectOptimisticLockingFailureException.class, () ->
+            retryTemplate.run("user.update", () -> {
+                RuntimeException conflict = versionConflict();
+                thrown.add(conflict);
+                throw conflict;
+            }));
+
+        assertEquals(4, thrown.size());
+        assertSame(thrown.get(3), error);
+        assertEquals(4.0, count("simian.optimistic.conflicts"));
+        assertEquals(3.0, count("simian.optimistic.retries"));
+        assertEquals(1.0, count("simian.optimistic.exhausted"));
+    }
+
+    @Test
+    void retriesDeadlockButNotLockWaitTimeout() {
+        AtomicInteger attempts = new AtomicInteger();
+        retryTemplate.run("role.set-parent", () -> {
+            if (attempts.incrementAndGet() == 1) {
+                throw new CannotAcquireLockException("Deadlock", new SQLException("Deadlock found", "40001", 1213));
+            }
+        });
+        assertEquals(2, attempts.get());
+        assertEquals(1.0, count("simian.optimistic.deadlocks"));
+
+        attempts.set(0);
+        assertThrows(PessimisticLockingFailureException.class, () -> retryTemplate.run("role.set-parent", () -> {
+            attempts.incrementAndGet();
+            throw new PessimisticLockingFailureException("Lock wait timeout",
+                new SQLException("Lock wait timeout exceeded", "HY000", 1205));
+        }));
+        assertEquals(1, attempts.get());
+        assertEquals(1.0, count("simian.optimistic.lock-timeouts"));
+        assertEquals(0.0, count("simian.optimistic.conflicts"));
+        assertEquals(1.0, count("simian.optimistic.retries"));
+    }
+
+    @Test
+    void otherErrorsAndOuterTransactionsAreNotRetried() {
+        AtomicInteger attempts = new AtomicInteger();
+        assertThrows(IllegalArgumentException.class, () -> retryTemplate.run("user.update", () -> {
+            attempts.incrementAndGet();
+            throw new IllegalArgumentException("User tidak ada");
+        }));
+        assertEquals(1, attempts.get());
+
+        // Di dalam transaksi pemanggil: dijalankan sekali dan konflik diteruskan
+        attempts.set(0);
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try {
+            assertThrows(ObjectOptimisticLockingFailureException.class, () -> retryTemplate.run("user.update", () -> {
+                attempts.incrementAndGet();
+                throw versionConflict();
+            }));
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+        }
+        assertEquals(1, attempts.get());
+        verify(transactionManager, never()).commit(any());
+        assertEquals(0.0, count("simian.optimistic.conflicts"));
+    }
+
+    @Test
+    void backoffIsFullJitterUpToCappedCeiling() {
+        ReflectionTestUtils.setField(retryTemplate, "baseBackoffMs", 10L);
+        ReflectionTestUtils.setField(retryTemplate, "maxBackoffMs", 200L);
+        // Ceiling: 20 ms untuk percobaan 1, 160 ms untuk percobaan 4, dibatasi 200 ms sejak percobaan 5
+        for (int[] attemptAndCeiling : new int[][] {{1, 20}, {4, 160}, {5, 200}, {30, 200}}) {
+            long min = Long.MAX_VALUE;
+            long max = 0;
+            for (int i = 0; i < 2000; i++) {
+                long backoff = retryTemplate.nextBackoffMs(attemptAndCeiling[0]);
+                min = Math.min(min, backoff);
+                max = Math.max(max, backoff);
+            }
+            int ceiling = attemptAndCeiling[1];
+            assertTrue(min >= 0 && min < ceiling / 4, "min " + min + " untuk ceiling " + ceiling);
+            assertTrue(max <= ceiling && max > ceiling * 3 / 4, "max " + max + " untuk ceiling " + ceiling);
+        }
+    }
+
+    private double count(String name) {
+        return meterRegistry.find(name).counters().stream().mapToDouble(Counter::count).sum();
+    }
+
+    private static RuntimeException versionConflict() {
+        return new ObjectOptimisticLockingFailureException(Role.class, 1);
+    }
+}
@@ -0,0 +1,94 @@
+package simian.testing.service;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import simian.testing.dao.AccessDAO;
+import simian.testing.dao.RoleDAO;
+import simian.testing.dao.RoleHierarchyDAO;
+import simian.testing.entity.Access;
+import simian.testing.event.RbacChangeEvent;
+
+class PermissionMatcherTest {
+
+    private final Access read = access(1, "READ_PROJECT_ORDER", "PROJECT_ORDER", "READ");
+    private final RoleHierarchyDAO roleHierarchyDAO = mock(RoleHierarchyDAO.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final PermissionMatcher matcher = new PermissionMatcher();
+
+    @BeforeEach
+    void setUp() {
+        RoleDAO roleDAO = mock(RoleDAO.class);
+        AccessDAO accessDAO = mock(AccessDAO.class);
+        when(roleDAO.exists(any())).thenReturn(true);
+        when(accessDAO.getAll()).thenReturn(List.of(read));
+        ReflectionTestUtils.setField(matcher, "roleDAO", roleDAO);
+        ReflectionTestUtils.setField(matcher, "accessDAO", accessDAO);
+        ReflectionTestUtils.setField(matcher, "roleHierarchyDAO", roleHierarchyDAO);
+        ReflectionTestUtils.setField(matcher, "transactionManager", transactionManager);
+        ReflectionTestUtils.invokeMethod(matcher, "init");
+    }
+
+    @Test
+    void compileOverlappingRevokeIsNotServedAfterwards() {
+        AtomicInteger compiles = new AtomicInteger();
+        when(roleHierarchyDAO.findEffectiveAccesses(1)).thenAnswer(invocation -> {
+            if (compiles.incrementAndGet() == 1) {
+                // Grant dicabut dan commit saat compile pertama masih membaca data lama
+                matcher.onRbacChange(new RbacChangeEvent(RbacChangeEvent.EntityType.GRANT,
+                    RbacChangeEvent.Action.DELETED, 1, read.getAccessId()));
+                return List.of(read);
+            }
+            return List.of();
+        });
+
+        assertTrue(matcher.hasAccess(1, read.getAccessId()));
+        assertFalse(matcher.hasAccess(1, read.getAccessId()));
+        assertFalse(matcher.hasAccess(1, "READ_PROJECT_ORDER"));
+        verify(roleHierarchyDAO, times(2)).findEffectiveAccesses(1);
+    }
+
+    @Test
+    void callerTransactionIsReusedAndNotCachedBeyondIt() {
+        when(roleHierarchyDAO.findEffectiveAccesses(1)).thenReturn(List.of(read));
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try {
+            assertTrue(matcher.hasAccess(1, read.getAccessId()));
+            assertTrue(matcher.isPermitted(1, "PROJECT_ORDER", "READ"));
+            // Tidak ada transaksi (dan koneksi) baru; compile dipakai ulang di transaksi yang sama
+            verifyNoInteractions(transactionManager);
+            verify(roleHierarchyDAO, times(1)).findEffectiveAccesses(1);
+        } finally {
+            for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+                synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+            }
+            TransactionSynchronizationManager.clear();
+        }
+
+        // Hasil compile di dalam transaksi tadi tidak masuk cache bersama
+        assertTrue(matcher.hasAccess(1, read.getAccessId()));
+        assertTrue(matcher.hasAccess(1, read.getAccessId()));
+        verify(roleHierarchyDAO, times(2)).findEffectiveAccesses(1);
+    }
+
+    private static Access access(int id, String name, String module, String action) {
+        Access access = new Access(name, null, module, action);
+        access.setAccessId(id);
+        return access;
+    }
+}
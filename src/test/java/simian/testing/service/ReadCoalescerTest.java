@@ -0,0 +1,127 @@
+package simian.testing.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import org.hibernate.LazyInitializationException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.AdditionalAnswers;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+import simian.testing.dao.RoleDAO;
+import simian.testing.entity.Role;
+import simian.testing.entity.User;
+
+/**
+ * ReadCoalescer lewat RoleService dan UserService asli di H2
+ * Di luar transaksi semua pemanggil yang digabung menerima instance detached yang sama (read-only);
+ * di dalam transaksi read berjalan langsung dan entity tetap managed
+ */
+class ReadCoalescerTest {
+
+    private static final int FOLLOWERS = 7;
+
+    private final ServiceFixture fixture = new ServiceFixture();
+
+    @AfterEach
+    void tearDown() {
+        fixture.close();
+    }
+
+    @Test
+    void concurrentReadsShareOneDetachedInstance() throws Exception {
+        // Leader ditahan di dalam RoleDAO.read sampai semua pemanggil lain ikut menunggu hasilnya
+        CountDownLatch leaderEntered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        RoleDAO roleDAO = mock(RoleDAO.class, AdditionalAnswers.delegatesTo(fixture.roleDAO));
+        doAnswer(invocation -> {
+            leaderEntered.countDown();
+            release.await();
+            return fixture.roleDAO.read(2);
+        }).when(roleDAO).read(2);
+        RoleService target = AopTestUtils.getTargetObject(fixture.roleService);
+        ReflectionTestUtils.setField(target, "roleDAO", roleDAO);
+
+        ExecutorService executor = Executors.newFixedThreadPool(FOLLOWERS + 1);
+        List<Future<Role>> results = new ArrayList<>();
+        try {
+            results.add(executor.submit(() -> fixture.roleService.getRoleById(2)));
+            assertTrue(leaderEntered.await(10, TimeUnit.SECONDS));
+            for (int i = 0; i < FOLLOWERS; i++) {
+                results.add(executor.submit(() -> fixture.roleService.getRoleById(2)));
+            }
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (deduplicated("role.by-id") < FOLLOWERS && System.nanoTime() < deadline) {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+            }
+            release.countDown();
+
+            Role shared = results.get(0).get(10, TimeUnit.SECONDS);
+            for (Future<Role> result : results) {
+                assertSame(shared, result.get(10, TimeUnit.SECONDS));
+            }
+            verify(roleDAO, times(1)).read(2);
+            assertEquals(FOLLOWERS, deduplicated("role.by-id"));
+
+            // Relasi eager sudah ter-load, relasi lazy tidak bisa di-load dari instance detached
+            assertEquals(4, shared.getAccesses().size());
+            assertThrows(LazyInitializationException.class, () -> shared.getUsers().size());
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void changesToDetachedResultAreNotSaved() {
+        int userId = fixture.insertUser("alice", 2);
+
+        User user = fixture.userService.getUserByUsername("alice");
+        assertEquals("Consultant", user.getRole().getRoleName());
+        assertThrows(LazyInitializationException.class, () -> user.getRole().getUsers().size());
+
+        // Hasil tidak di-cache: read berikutnya instance baru dari database, tanpa perubahan pemanggil sebelumnya
+        user.setEmail("ubah@simian.test");
+        User reread = fixture.userService.getUserById(userId);
+        assertNotSame(user, reread);
+        assertEquals("alice@simian.test", reread.getEmail());
+        assertEquals("alice@simian.test", fixture.jdbcTemplate.queryForObject(
+            "SELECT email FROM user WHERE user_id = ?", String.class, userId));
+    }
+
+    @Test
+    void readsInsideTransactionReturnManagedEntity() {
+        int userId = fixture.insertUser("alice", 2);
+
+        fixture.transactionTemplate.executeWithoutResult(status -> {
+            User user = fixture.userService.getUserById(userId);
+            assertTrue(fixture.sessionFactory.getCurrentSession().contains(user));
+            assertSame(user, fixture.userService.findUserByUsername("alice").orElseThrow());
+            assertEquals(1, user.getRole().getUsers().size());
+        });
+        assertEquals(0, deduplicated("user.by-id"));
+        assertTrue(fixture.meterRegistry.find("simian.singleflight.loads").tag("operation", "user.by-id")
+            .functionCounters().isEmpty());
+    }
+
+    private double deduplicated(String operation) {
+        return fixture.meterRegistry.find("simian.singleflight.deduplicated").tag("operation", operation)
+            .functionCounters().stream().mapToDouble(counter -> counter.count()).sum();
+    }
+}
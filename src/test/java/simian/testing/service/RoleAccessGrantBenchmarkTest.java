@@ -0,0 +1,179 @@
+package simian.testing.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.Configuration;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+import simian.testing.dao.AccessDAO;
+import simian.testing.dao.HibernateAccessDAO;
+import simian.testing.dao.HibernateRoleDAO;
+import simian.testing.dao.RoleAccessDAO;
+import simian.testing.dao.RoleDAO;
+import simian.testing.entity.Access;
+import simian.testing.entity.Role;
+import simian.testing.entity.RoleAccess;
+import simian.testing.entity.User;
+
+/**
+ * Benchmark grant access ke role yang sudah memiliki ribuan grant (H2 in-memory)
+ * Membandingkan alur lama (load role + seluruh koleksi access, lalu merge) dengan RoleAccessDAO
+ *
+ * Jalankan: mvn test -Dtest=RoleAccessGrantBenchmarkTest -Dbenchmark=true
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class RoleAccessGrantBenchmarkTest {
+
+    private static final int EXISTING_GRANTS = 3000;
+    private static final int NEW_GRANTS = 200;
+
+    private static SessionFactory sessionFactory;
+    private static RoleService roleService;
+    private static Integer legacyRoleId;
+    private static Integer roleId;
+    private static List<Integer> newAccessIds;
+
+    @BeforeAll
+    static void setUp() {
+        sessionFactory = new Configuration()
+            .addAnnotatedClass(Role.class)
+            .addAnnotatedClass(Access.class)
+            .addAnnotatedClass(User.class)
+            .addAnnotatedClass(RoleAccess.class)
+            .setProperty("hibernate.connection.url", "jdbc:h2:mem:grant-benchmark;MODE=MySQL;NON_KEYWORDS=USER")
+            .setProperty("hibernate.connection.username", "sa")
+            .setProperty("hibernate.hbm2ddl.auto", "create-drop")
+            .setProperty("hibernate.current_session_context_class", "thread")
+            .setProperty("hibernate.generate_statistics", "true")
+            .buildSessionFactory();
+
+        RoleDAO roleDAO = new HibernateRoleDAO();
+        AccessDAO accessDAO = new HibernateAccessDAO();
+        RoleAccessDAO roleAccessDAO = new RoleAccessDAO();
+        ReflectionTestUtils.setField(roleDAO, "sessionFactory", sessionFactory);
+        ReflectionTestUtils.setField(accessDAO, "sessionFactory", sessionFactory);
+        ReflectionTestUtils.setField(roleAccessDAO, "sessionFactory", sessionFactory);
+        roleService = new RoleService();
+        ReflectionTestUtils.setField(roleService, "roleDAO", roleDAO);
+        ReflectionTestUtils.setField(roleService, "accessDAO", accessDAO);
+        ReflectionTestUtils.setField(roleService, "roleAccessDAO", roleAccessDAO);
+        ReflectionTestUtils.setField(roleService, "eventPublisher", (ApplicationEventPublisher) event -> { });
+
+        inTransaction(session -> {
+            Role legacyRole = new Role("LEGACY", "Grant lewat koleksi");
+            Role role = new Role("DIRECT", "Grant lewat RoleAccessDAO");
+            session.persist(legacyRole);
+            session.persist(role);
+            legacyRoleId = legacyRole.getRoleId();
+            roleId = role.getRoleId();
+
+            newAccessIds = new ArrayList<>();
+            for (int i = 0; i < EXISTING_GRANTS + NEW_GRANTS; i++) {
+                Access access = new Access("ACCESS_" + i, null, "MODULE_" + (i % 20), "READ");
+                session.persist(access);
+                if (i < EXISTING_GRANTS) {
+                    session.persist(new RoleAccess(legacyRoleId, access.getAccessId()));
+                    session.persist(new RoleAccess(roleId, access.getAccessId()));
+                } else {
+                    newAccessIds.add(access.getAccessId());
+                }
+                if (i % 500 == 0) {
+                    session.flush();
+                    session.clear();
+                }
+            }
+        });
+    }
+
+    @AfterAll
+    static void tearDown() {
+        if (sessionFactory != null) {
+            sessionFactory.close();
+        }
+    }
+
+    @Test
+    void directGrantAvoidsHydratingCollection() {
+        // Pemanasan JIT untuk kedua jalur sebelum diukur
+        Result legacyWarmup = measure(accessId -> legacyGrant(legacyRoleId, accessId), newAccessIds.subList(0, 20));
+        Result directWarmup = measure(accessId -> roleService.addAccessToRole(roleId, accessId), newAccessIds.subList(0, 20));
+        assertEquals(legacyWarmup.grants(), directWarmup.grants());
+
+        List<Integer> measured = newAccessIds.subList(20, NEW_GRANTS);
+        Result legacy = measure(accessId -> legacyGrant(legacyRoleId, accessId), measured);
+        Result direct = measure(accessId -> roleService.addAccessToRole(roleId, accessId), measured);
+
+        System.out.printf("Role dengan %d grant, %d grant baru%n", EXISTING_GRANTS, measured.size());
+        System.out.printf("Load + merge koleksi: %8.1f us/grant, %7.1f entity di-load/grant, %5.1f statement/grant%n",
+            legacy.microsPerGrant(), legacy.entitiesPerGrant(), legacy.statementsPerGrant());
+        System.out.printf("RoleAccessDAO       : %8.1f us/grant, %7.1f entity di-load/grant, %5.1f statement/grant%n",
+            direct.microsPerGrant(), direct.entitiesPerGrant(), direct.statementsPerGrant());
+
+        assertEquals(EXISTING_GRANTS + NEW_GRANTS, countGrants(roleId));
+        assertEquals(EXISTING_GRANTS + NEW_GRANTS, countGrants(legacyRoleId));
+        assertTrue(direct.entitiesPerGrant() < 2, "Grant langsung tidak boleh me-load koleksi access");
+    }
+
+    /**
+     * Alur sebelum role_access dipetakan sebagai entity: load role (EAGER accesses), tambah ke set, merge
+     */
+    private static void legacyGrant(Integer targetRoleId, Integer accessId) {
+        Session session = sessionFactory.getCurrentSession();
+        Role role = session.find(Role.class, targetRoleId);
+        Access access = session.find(Access.class, accessId);
+        role.getAccesses().add(access);
+        session.merge(role);
+    }
+
+    private static Result measure(IntConsumer grant, List<Integer> accessIds) {
+        Statistics statistics = sessionFactory.getStatistics();
+        statistics.clear();
+        long start = System.nanoTime();
+        for (Integer accessId : accessIds) {
+            inTransaction(session -> grant.accept(accessId));
+        }
+        long elapsed = System.nanoTime() - start;
+        int grants = accessIds.size();
+        return new Result(grants, elapsed / 1e3 / grants,
+            (double) statistics.getEntityLoadCount() / grants,
+            (double) statistics.getPrepareStatementCount() / grants);
+    }
+
+    private static long countGrants(Integer targetRoleId) {
+        Session session = sessionFactory.openSession();
+        try {
+            return session.createQuery("SELECT COUNT(*) FROM RoleAccess WHERE roleId = :roleId", Long.class)
+                .setParameter("roleId", targetRoleId)
+                .uniqueResult();
+        } finally {
+            session.close();
+        }
+    }
+
+    private static void inTransaction(Consumer<Session> work) {
+        Session session = sessionFactory.getCurrentSession();
+        session.beginTransaction();
+        try {
+            work.accept(session);
+            session.getTransaction().commit();
+        } catch (RuntimeException e) {
+            session.getTransaction().rollback();
+            throw e;
+        }
+    }
+
+    private record Result(int grants, double microsPerGrant, double entitiesPerGrant, double statementsPerGrant) {
+    }
+}
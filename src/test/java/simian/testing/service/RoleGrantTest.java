@@ -0,0 +1,94 @@
+package simian.testing.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import simian.testing.entity.GrantClock;
+import simian.testing.event.RbacChangeEvent;
+import simian.testing.event.RbacChangeEvent.Action;
+
+/**
+ * addAccessToRole/addTemporaryAccessToRole/removeAccessFromRole lewat RoleService asli di H2
+ * Data awal: Consultant (role 2) memegang access 4-7, access 9 (VIEW_SUBTASK) belum di-grant ke role 2
+ */
+class RoleGrantTest {
+
+    private final ServiceFixture fixture = new ServiceFixture();
+    private final RoleService roleService = fixture.roleService;
+
+    @AfterEach
+    void tearDown() {
+        fixture.close();
+    }
+
+    @Test
+    void newGrantIsSingleInsert() {
+        fixture.resetStatistics();
+        roleService.addAccessToRole(2, 9);
+
+        assertEquals(1, fixture.statementCount());
+        assertEquals(List.of(RbacChangeEvent.grant(Action.CREATED, 2, 9)), fixture.events);
+        assertEquals(1, grantRows(2, 9));
+        // created_date diisi default kolom oleh database
+        assertEquals(0, fixture.jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM role_access WHERE role_id = 2 AND access_id = 9 AND created_date IS NULL",
+            Integer.class));
+    }
+
+    @Test
+    void rejectedGrantWritesNothing() {
+        IllegalArgumentException duplicate = assertThrows(IllegalArgumentException.class,
+            () -> roleService.addAccessToRole(2, 4));
+        assertEquals("Access 'READ_PROJECT_ORDER' sudah ada di role ini", duplicate.getMessage());
+        assertTrue(assertThrows(IllegalArgumentException.class, () -> roleService.addAccessToRole(99, 9))
+            .getMessage().contains("Role dengan ID 99"));
+        assertTrue(assertThrows(IllegalArgumentException.class, () -> roleService.addAccessToRole(2, 99))
+            .getMessage().contains("Access dengan ID 99"));
+
+        assertEquals(List.of(), fixture.events);
+        assertEquals(1, grantRows(2, 4));
+        assertEquals(0, grantRows(2, 99));
+    }
+
+    @Test
+    void lapsedTemporaryGrantIsReplaced() {
+        LocalDateTime lapsed = GrantClock.now().minusMinutes(5);
+        fixture.jdbcTemplate.update("INSERT INTO role_access (role_id, access_id, valid_until) VALUES (2, 9, ?)", lapsed);
+        int lapsedId = fixture.jdbcTemplate.queryForObject(
+            "SELECT role_access_id FROM role_access WHERE role_id = 2 AND access_id = 9", Integer.class);
+
+        LocalDateTime validUntil = GrantClock.now().plusHours(48);
+        roleService.addTemporaryAccessToRole(2, 9, validUntil);
+
+        assertEquals(List.of(RbacChangeEvent.grantRemoved(2, 9, lapsedId), RbacChangeEvent.grant(Action.CREATED, 2, 9)),
+            fixture.events);
+        assertEquals(1, grantRows(2, 9));
+        assertEquals(0, fixture.jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM role_access WHERE role_access_id = ?", Integer.class, lapsedId));
+
+        // Grant sementara yang masih berlaku tidak boleh ditimpa
+        assertThrows(IllegalArgumentException.class, () -> roleService.addAccessToRole(2, 9));
+        assertEquals(2, fixture.events.size());
+    }
+
+    @Test
+    void removedGrantCarriesItsRoleAccessId() {
+        int roleAccessId = fixture.jdbcTemplate.queryForObject(
+            "SELECT role_access_id FROM role_access WHERE role_id = 2 AND access_id = 4", Integer.class);
+
+        roleService.removeAccessFromRole(2, 4);
+        assertEquals(List.of(RbacChangeEvent.grantRemoved(2, 4, roleAccessId)), fixture.events);
+        assertEquals(0, grantRows(2, 4));
+        assertThrows(IllegalArgumentException.class, () -> roleService.removeAccessFromRole(2, 4));
+    }
+
+    private int grantRows(int roleId, int accessId) {
+        return fixture.jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM role_access WHERE role_id = ? AND access_id = ?", Integer.class, roleId, accessId);
+    }
+}
@@ -0,0 +1,122 @@
+package simian.testing.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import simian.testing.entity.Role;
+
+/**
+ * setParentRole/deleteRole lewat RoleService asli di H2; role_closure diperiksa setelah setiap langkah
+ * Data awal: role 1 (PM), 2 (Consultant), 3 (Development), masing-masing hanya punya baris closure diri sendiri
+ */
+class RoleHierarchyTest {
+
+    private static final List<String> SELF_ROWS = List.of("1>1@0", "2>2@0", "3>3@0");
+
+    private final ServiceFixture fixture = new ServiceFixture();
+    private final RoleService roleService = fixture.roleService;
+
+    @AfterEach
+    void tearDown() {
+        fixture.close();
+    }
+
+    @Test
+    void attachesLeafAndChain() {
+        assertEquals(SELF_ROWS, fixture.closureRows());
+
+        roleService.setParentRole(2, 1);
+        assertEquals(List.of("1>1@0", "1>2@1", "2>2@0", "3>3@0"), fixture.closureRows());
+
+        roleService.setParentRole(3, 2);
+        assertEquals(List.of("1>1@0", "1>2@1", "1>3@2", "2>2@0", "2>3@1", "3>3@0"), fixture.closureRows());
+        assertEquals(2, roleService.getRoleById(3).getParentRoleId());
+
+        Role auditor = roleService.createRole("Auditor", "Leaf baru");
+        int auditorId = auditor.getRoleId();
+        roleService.setParentRole(auditorId, 3);
+        assertEquals(List.of("1>1@0", "1>2@1", "1>3@2", "1>" + auditorId + "@3", "2>2@0", "2>3@1",
+            "2>" + auditorId + "@2", "3>3@0", "3>" + auditorId + "@1", auditorId + ">" + auditorId + "@0"),
+            fixture.closureRows());
+    }
+
+    @Test
+    void movesSubtreeAndDetaches() {
+        // 1 -> 2 -> 3 -> Auditor, lalu subtree 3 dipindah ke root baru Reviewer
+        roleService.setParentRole(2, 1);
+        roleService.setParentRole(3, 2);
+        int auditorId = roleService.createRole("Auditor", null).getRoleId();
+        roleService.setParentRole(auditorId, 3);
+        int reviewerId = roleService.createRole("Reviewer", null).getRoleId();
+
+        roleService.setParentRole(3, reviewerId);
+        assertEquals(List.of("1>1@0", "1>2@1", "2>2@0", "3>3@0", "3>" + auditorId + "@1",
+            auditorId + ">" + auditorId + "@0", reviewerId + ">3@1", reviewerId + ">" + auditorId + "@2",
+            reviewerId + ">" + reviewerId + "@0"), fixture.closureRows());
+        assertEquals(List.of(3, reviewerId),
+            roleService.getAncestorRoles(auditorId).stream().map(Role::getRoleId).toList());
+
+        // Melepas 3 dari parent: closure di dalam subtree (3 -> Auditor) tetap utuh
+        roleService.setParentRole(3, null);
+        assertEquals(List.of("1>1@0", "1>2@1", "2>2@0", "3>3@0", "3>" + auditorId + "@1",
+            auditorId + ">" + auditorId + "@0", reviewerId + ">" + reviewerId + "@0"), fixture.closureRows());
+        assertEquals(null, roleService.getRoleById(3).getParentRoleId());
+    }
+
+    @Test
+    void rejectsSelfAndIndirectCycles() {
+        roleService.setParentRole(2, 1);
+        roleService.setParentRole(3, 2);
+        List<String> chain = fixture.closureRows();
+
+        IllegalArgumentException self = assertThrows(IllegalArgumentException.class,
+            () -> roleService.setParentRole(1, 1));
+        assertTrue(self.getMessage().contains("siklus"));
+        IllegalArgumentException indirect = assertThrows(IllegalArgumentException.class,
+            () -> roleService.setParentRole(1, 3));
+        assertTrue(indirect.getMessage().contains("siklus"));
+
+        assertEquals(chain, fixture.closureRows());
+        assertEquals(null, roleService.getRoleById(1).getParentRoleId());
+    }
+
+    @Test
+    void refusesToDeleteRoleWithChildren() {
+        roleService.setParentRole(3, 2);
+        int auditorId = roleService.createRole("Auditor", null).getRoleId();
+        roleService.setParentRole(auditorId, 3);
+
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+            () -> roleService.deleteRole(3));
+        assertTrue(error.getMessage().contains("parent dari 1 role"));
+        assertEquals(List.of("1>1@0", "2>2@0", "2>3@1", "2>" + auditorId + "@2", "3>3@0", "3>" + auditorId + "@1",
+            auditorId + ">" + auditorId + "@0"), fixture.closureRows());
+
+        // Leaf boleh dihapus dan seluruh baris closure-nya ikut terhapus
+        roleService.deleteRole(auditorId);
+        assertEquals(List.of("1>1@0", "2>2@0", "2>3@1", "3>3@0"), fixture.closureRows());
+    }
+
+    @Test
+    void loadsAncestorsWithSingleBatchRead() {
+        roleService.setParentRole(2, 1);
+        roleService.setParentRole(3, 2);
+        int auditorId = roleService.createRole("Auditor", null).getRoleId();
+        roleService.setParentRole(auditorId, 3);
+
+        fixture.resetStatistics();
+        assertEquals(List.of(1), roleService.getAncestorRoles(2).stream().map(Role::getRoleId).toList());
+        long oneAncestor = fixture.statementCount();
+
+        fixture.resetStatistics();
+        List<Role> ancestors = roleService.getAncestorRoles(auditorId);
+
+        assertEquals(List.of(3, 2, 1), ancestors.stream().map(Role::getRoleId).toList());
+        // Jumlah statement tidak bertambah dengan kedalaman: semua ancestor dibaca dengan satu batch
+        assertEquals(oneAncestor, fixture.statementCount());
+    }
+}
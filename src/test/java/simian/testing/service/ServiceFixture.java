@@ -0,0 +1,192 @@
+package simian.testing.service;
+
+import static org.mockito.Mockito.mock;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.Configuration;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.dao.support.PersistenceExceptionTranslationInterceptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.orm.jpa.hibernate.HibernateExceptionTranslator;
+import org.springframework.orm.jpa.hibernate.HibernateTransactionManager;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.AnnotationTransactionAttributeSource;
+import org.springframework.transaction.interceptor.TransactionInterceptor;
+import org.springframework.transaction.support.TransactionTemplate;
+import simian.testing.dao.AccessDAO;
+import simian.testing.dao.HibernateAccessDAO;
+import simian.testing.dao.HibernateRoleDAO;
+import simian.testing.dao.HibernateUserDAO;
+import simian.testing.dao.RoleAccessDAO;
+import simian.testing.dao.RoleDAO;
+import simian.testing.dao.RoleHierarchyDAO;
+import simian.testing.dao.UserDAO;
+import simian.testing.entity.Access;
+import simian.testing.entity.Role;
+import simian.testing.entity.RoleAccess;
+import simian.testing.entity.User;
+
+/**
+ * RoleService, UserService dan AccessService asli di atas Hibernate dan H2 (mode MySQL)
+ * Service dibungkus proxy @Transactional dan DAO dibungkus translasi exception seperti @Repository, sehingga
+ * propagation (SUPPORTS, REQUIRES_NEW) dan TransactionSynchronization berjalan seperti di aplikasi.
+ * Setiap fixture memakai database baru berisi data awal schema.sql; event yang dipublish dikumpulkan di events.
+ * Statistik Hibernate aktif untuk menghitung statement
+ */
+final class ServiceFixture implements AutoCloseable {
+
+    private static final AtomicInteger DATABASES = new AtomicInteger();
+
+    final JdbcTemplate jdbcTemplate;
+    final SessionFactory sessionFactory;
+    final HibernateTransactionManager transactionManager;
+    final TransactionTemplate transactionTemplate;
+    final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    final List<Object> events = new CopyOnWriteArrayList<>();
+    final UserReservationRegistry reservationRegistry = new UserReservationRegistry(30_000);
+    final RoleHierarchyDAO roleHierarchyDAO = new RoleHierarchyDAO();
+    final RoleAccessDAO roleAccessDAO = new RoleAccessDAO();
+    final UserDAO userDAO;
+    final RoleDAO roleDAO;
+    final AccessDAO accessDAO;
+    final OptimisticRetryTemplate retryTemplate = new OptimisticRetryTemplate();
+    final ReadCoalescer readCoalescer = new ReadCoalescer();
+    final PermissionMatcher permissionMatcher = new PermissionMatcher();
+    final AccessHolderIndex accessHolderIndex = mock(AccessHolderIndex.class);
+    final RoleService roleService;
+    final UserService userService;
+    final AccessService accessService;
+
+    ServiceFixture() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:services"
+            + DATABASES.incrementAndGet() + ";MODE=MySQL;NON_KEYWORDS=USER,VALUE;DATABASE_TO_LOWER=TRUE;"
+            + "IGNORECASE=TRUE;DB_CLOSE_DELAY=-1");
+        new ResourceDatabasePopulator(new ClassPathResource("schema.sql")).execute(dataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+
+        Configuration configuration = new Configuration()
+            .addAnnotatedClass(Role.class)
+            .addAnnotatedClass(Access.class)
+            .addAnnotatedClass(User.class)
+            .addAnnotatedClass(RoleAccess.class)
+            .setProperty("hibernate.current_session_context_class",
+                "org.springframework.orm.jpa.hibernate.SpringSessionContext")
+            .setProperty("hibernate.generate_statistics", "true");
+        configuration.getProperties().put("hibernate.connection.datasource", dataSource);
+        sessionFactory = configuration.buildSessionFactory();
+        transactionManager = new HibernateTransactionManager(sessionFactory);
+        transactionManager.setDataSource(dataSource);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+
+        userDAO = repository(new HibernateUserDAO(), UserDAO.class);
+        roleDAO = repository(new HibernateRoleDAO(), RoleDAO.class);
+        accessDAO = repository(new HibernateAccessDAO(), AccessDAO.class);
+        ReflectionTestUtils.setField(roleHierarchyDAO, "sessionFactory", sessionFactory);
+        ReflectionTestUtils.setField(roleAccessDAO, "sessionFactory", sessionFactory);
+
+        ReflectionTestUtils.setField(retryTemplate, "transactionManager", transactionManager);
+        ReflectionTestUtils.setField(retryTemplate, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(retryTemplate, "maxAttempts", 8);
+        ReflectionTestUtils.setField(retryTemplate, "baseBackoffMs", 1L);
+        ReflectionTestUtils.setField(retryTemplate, "maxBackoffMs", 5L);
+        ReflectionTestUtils.invokeMethod(retryTemplate, "init");
+
+        ReflectionTestUtils.setField(readCoalescer, "transactionManager", transactionManager);
+        ReflectionTestUtils.setField(readCoalescer, "sessionFactory", sessionFactory);
+        ReflectionTestUtils.setField(readCoalescer, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(readCoalescer, "enabled", true);
+        ReflectionTestUtils.invokeMethod(readCoalescer, "init");
+
+        ReflectionTestUtils.setField(permissionMatcher, "roleDAO", roleDAO);
+        ReflectionTestUtils.setField(permissionMatcher, "accessDAO", accessDAO);
+        ReflectionTestUtils.setField(permissionMatcher, "roleHierarchyDAO", roleHierarchyDAO);
+        ReflectionTestUtils.setField(permissionMatcher, "transactionManager", transactionManager);
+        ReflectionTestUtils.invokeMethod(permissionMatcher, "init");
+
+        ApplicationEventPublisher eventPublisher = events::add;
+
+        RoleService roles = new RoleService();
+        ReflectionTestUtils.setField(roles, "roleDAO", roleDAO);
+        ReflectionTestUtils.setField(roles, "accessDAO", accessDAO);
+        ReflectionTestUtils.setField(roles, "roleAccessDAO", roleAccessDAO);
+        ReflectionTestUtils.setField(roles, "roleHierarchyDAO", roleHierarchyDAO);
+        ReflectionTestUtils.setField(roles, "permissionMatcher", permissionMatcher);
+        ReflectionTestUtils.setField(roles, "eventPublisher", eventPublisher);
+        ReflectionTestUtils.setField(roles, "retryTemplate", retryTemplate);
+        ReflectionTestUtils.setField(roles, "readCoalescer", readCoalescer);
+        roleService = transactional(roles);
+
+        UserService users = new UserService();
+        ReflectionTestUtils.setField(users, "userDAO", userDAO);
+        ReflectionTestUtils.setField(users, "roleDAO", roleDAO);
+        ReflectionTestUtils.setField(users, "reservationRegistry", reservationRegistry);
+        ReflectionTestUtils.setField(users, "retryTemplate", retryTemplate);
+        ReflectionTestUtils.setField(users, "eventPublisher", eventPublisher);
+        ReflectionTestUtils.setField(users, "readCoalescer", readCoalescer);
+        userService = transactional(users);
+
+        AccessService accesses = new AccessService();
+        ReflectionTestUtils.setField(accesses, "accessDAO", accessDAO);
+        ReflectionTestUtils.setField(accesses, "roleHierarchyDAO", roleHierarchyDAO);
+        ReflectionTestUtils.setField(accesses, "eventPublisher", eventPublisher);
+        ReflectionTestUtils.setField(accesses, "retryTemplate", retryTemplate);
+        ReflectionTestUtils.setField(accesses, "accessHolderIndex", accessHolderIndex);
+        ReflectionTestUtils.setField(accesses, "userDAO", userDAO);
+        accessService = transactional(accesses);
+    }
+
+    /**
+     * Jumlah statement JDBC yang disiapkan Hibernate sejak resetStatistics
+     */
+    long statementCount() {
+        return sessionFactory.getStatistics().getPrepareStatementCount();
+    }
+
+    void resetStatistics() {
+        sessionFactory.getStatistics().clear();
+    }
+
+    /**
+     * Baris role_closure sebagai "ancestor>descendant@depth", terurut
+     */
+    List<String> closureRows() {
+        return jdbcTemplate.queryForList("SELECT CONCAT(ancestor_id, '>', descendant_id, '@', depth) FROM role_closure "
+            + "ORDER BY ancestor_id, descendant_id", String.class);
+    }
+
+    int insertUser(String username, int roleId) {
+        jdbcTemplate.update("INSERT INTO user (username, email, password, is_active, role_id) VALUES (?, ?, 'x', 1, ?)",
+            username, username + "@simian.test", roleId);
+        return jdbcTemplate.queryForObject("SELECT user_id FROM user WHERE username = ?", Integer.class, username);
+    }
+
+    @Override
+    public void close() {
+        jdbcTemplate.execute("SHUTDOWN");
+        sessionFactory.close();
+    }
+
+    private <T> T repository(T dao, Class<T> type) {
+        ReflectionTestUtils.setField(dao, "sessionFactory", sessionFactory);
+        ProxyFactory proxyFactory = new ProxyFactory(dao);
+        proxyFactory.addInterface(type);
+        proxyFactory.addAdvice(new PersistenceExceptionTranslationInterceptor(new HibernateExceptionTranslator()));
+        return type.cast(proxyFactory.getProxy());
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T transactional(T service) {
+        ProxyFactory proxyFactory = new ProxyFactory(service);
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAdvice(new TransactionInterceptor(transactionManager, new AnnotationTransactionAttributeSource()));
+        return (T) proxyFactory.getProxy();
+    }
+}
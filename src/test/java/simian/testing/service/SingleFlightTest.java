@@ -0,0 +1,97 @@
+package simian.testing.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class SingleFlightTest {
+
+    private static final int THREADS = 32;
+
+    @Test
+    void concurrentCallersShareOneLoad() throws Exception {
+        SingleFlight<String, Object> flight = new SingleFlight<>();
+        AtomicInteger loaderCalls = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<Object>> results = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                results.add(executor.submit(() -> flight.execute("john.doe", () -> {
+                    loaderCalls.incrementAndGet();
+                    awaitQuietly(release);
+                    return new Object();
+                })));
+            }
+            // Tahan leader sampai semua pemanggil lain ikut menunggu
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (flight.getDeduplicatedCount() < THREADS - 1 && System.nanoTime() < deadline) {
+                Thread.onSpinWait();
+            }
+            release.countDown();
+
+            Object first = results.get(0).get(10, TimeUnit.SECONDS);
+            for (Future<Object> result : results) {
+                assertSame(first, result.get(10, TimeUnit.SECONDS));
+            }
+            assertEquals(1, loaderCalls.get());
+            assertEquals(1, flight.getLoadCount());
+            assertEquals(THREADS - 1, flight.getDeduplicatedCount());
+            assertEquals(0, flight.getInFlightCount());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void failureReachesWaitersAndNextCallLoadsAgain() throws Exception {
+        SingleFlight<Integer, String> flight = new SingleFlight<>();
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<String> leader = executor.submit(() -> flight.execute(1, () -> {
+                leaderStarted.countDown();
+                awaitQuietly(release);
+                throw new IllegalArgumentException("Role dengan ID 1 tidak ditemukan");
+            }));
+            leaderStarted.await(10, TimeUnit.SECONDS);
+
+            Future<String> waiter = executor.submit(() -> flight.execute(1, () -> "tidak dipanggil"));
+            while (flight.getDeduplicatedCount() < 1) {
+                Thread.onSpinWait();
+            }
+            release.countDown();
+            for (Future<String> call : List.of(leader, waiter)) {
+                ExecutionException e = assertThrows(ExecutionException.class, () -> call.get(10, TimeUnit.SECONDS));
+                assertInstanceOf(IllegalArgumentException.class, e.getCause());
+            }
+
+            // Key sudah dilepas: kegagalan tidak di-cache
+            assertEquals("Manager", flight.execute(1, () -> "Manager"));
+            assertEquals(2, flight.getLoadCount());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
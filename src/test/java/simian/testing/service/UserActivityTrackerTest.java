@@ -0,0 +1,152 @@
+package simian.testing.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doCallRealMethod;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * UserActivityTracker di atas H2; flush dipanggil langsung (interval scheduler dibuat sangat panjang)
+ */
+class UserActivityTrackerTest {
+
+    private static final AtomicInteger DATABASES = new AtomicInteger();
+    private static final LocalDateTime UPDATED = LocalDateTime.of(2026, 1, 5, 8, 0, 0);
+
+    private final UserActivityTracker tracker = new UserActivityTracker();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:activity"
+            + DATABASES.incrementAndGet() + ";MODE=MySQL;NON_KEYWORDS=USER,VALUE;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+        new ResourceDatabasePopulator(new ClassPathResource("schema.sql")).execute(dataSource);
+        jdbcTemplate = spy(new JdbcTemplate(dataSource));
+
+        ReflectionTestUtils.setField(tracker, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(tracker, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(tracker, "flushIntervalMs", 3_600_000L);
+        ReflectionTestUtils.setField(tracker, "maxPending", 100);
+        ReflectionTestUtils.setField(tracker, "batchSize", 500);
+        ReflectionTestUtils.invokeMethod(tracker, "start");
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReflectionTestUtils.invokeMethod(tracker, "stop");
+        jdbcTemplate.execute("SHUTDOWN");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void coalescesUpdatesPerUserIntoOneBatchRow() {
+        int alice = insertUser("alice");
+        int bob = insertUser("bob");
+        tracker.recordActivity(alice);
+        tracker.recordLogin(alice);
+        tracker.recordActivity(alice);
+        tracker.recordActivity(bob);
+        tracker.recordActivity(bob);
+        assertEquals(2, tracker.getPendingCount());
+
+        assertEquals(2, tracker.flush());
+        ArgumentCaptor<List<Object[]>> batch = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(anyString(), batch.capture());
+        assertEquals(2, batch.getValue().size());
+        assertEquals(0, tracker.getPendingCount());
+
+        Map<String, Object> aliceRow = activityOf(alice);
+        Map<String, Object> bobRow = activityOf(bob);
+        assertNotNull(aliceRow.get("last_login_date"));
+        assertTrue(toLocalDateTime(aliceRow.get("last_activity_date"))
+            .isAfter(toLocalDateTime(aliceRow.get("last_login_date"))));
+        assertNull(bobRow.get("last_login_date"));
+        assertNotNull(bobRow.get("last_activity_date"));
+        // Flush aktivitas tidak boleh menggeser updated_date (change feed user)
+        assertEquals(UPDATED, toLocalDateTime(aliceRow.get("updated_date")));
+        assertEquals(0, tracker.flush());
+    }
+
+    @Test
+    void keepsNewerValueAlreadyInDatabase() {
+        int alice = insertUser("alice");
+        LocalDateTime later = LocalDateTime.now().plusHours(1).withNano(0);
+        jdbcTemplate.update("UPDATE user SET last_activity_date = ? WHERE user_id = ?", later, alice);
+
+        tracker.recordActivity(alice);
+        tracker.flush();
+        assertEquals(later, toLocalDateTime(activityOf(alice).get("last_activity_date")));
+    }
+
+    @Test
+    void requeuesUnwrittenEntriesWhenFlushFails() {
+        ReflectionTestUtils.setField(tracker, "batchSize", 1);
+        int alice = insertUser("alice");
+        int bob = insertUser("bob");
+        int carol = insertUser("carol");
+        tracker.recordLogin(alice);
+        tracker.recordLogin(bob);
+        tracker.recordLogin(carol);
+
+        // Batch pertama tertulis, batch kedua gagal: dua user sisanya kembali ke buffer
+        doCallRealMethod()
+            .doThrow(new DataAccessResourceFailureException("Koneksi terputus"))
+            .doCallRealMethod()
+            .when(jdbcTemplate).batchUpdate(anyString(), anyList());
+        assertThrows(DataAccessResourceFailureException.class, tracker::flush);
+        assertEquals(2, tracker.getPendingCount());
+        assertEquals(1, countWithLogin());
+
+        // Aktivitas baru untuk user yang dikembalikan di-coalesce dengan entry lamanya
+        tracker.recordActivity(alice);
+        tracker.recordActivity(bob);
+        tracker.recordActivity(carol);
+        assertEquals(3, tracker.getPendingCount());
+        assertEquals(3, tracker.flush());
+        assertEquals(3, countWithLogin());
+        assertEquals(4.0, meterRegistry.counter("simian.user.activity.flushed").count());
+    }
+
+    private int insertUser(String username) {
+        jdbcTemplate.update("INSERT INTO user (username, email, password, is_active, role_id, updated_date) "
+            + "VALUES (?, ?, 'x', 1, 1, ?)", username, username + "@simian.test", UPDATED);
+        return jdbcTemplate.queryForObject("SELECT user_id FROM user WHERE username = ?", Integer.class, username);
+    }
+
+    private Map<String, Object> activityOf(int userId) {
+        return jdbcTemplate.queryForMap(
+            "SELECT last_login_date, last_activity_date, updated_date FROM user WHERE user_id = ?", userId);
+    }
+
+    private int countWithLogin() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM user WHERE last_login_date IS NOT NULL", Integer.class);
+    }
+
+    private static LocalDateTime toLocalDateTime(Object value) {
+        return ((Timestamp) value).toLocalDateTime();
+    }
+}
@@ -0,0 +1,109 @@
+package simian.testing.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import simian.testing.entity.User;
+
+/**
+ * createUser lewat UserService asli di H2, termasuk klaim username/email di UserReservationRegistry
+ */
+class UserCreationTest {
+
+    private static final int THREADS = 16;
+
+    private final ServiceFixture fixture = new ServiceFixture();
+    private final UserService userService = fixture.userService;
+
+    @AfterEach
+    void tearDown() {
+        fixture.close();
+    }
+
+    @Test
+    void concurrentDuplicateUsernameCreatesExactlyOneUser() throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<User>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < THREADS; i++) {
+                // Username sama dengan huruf besar/kecil berbeda; email tiap request unik
+                String username = i % 2 == 0 ? "popular" : "Popular";
+                String email = "popular" + i + "@simian.test";
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return userService.createUser(username, email, "rahasia", "Pop", "Ular", 1);
+                }));
+            }
+            start.countDown();
+
+            int created = 0;
+            for (Future<User> result : results) {
+                try {
+                    result.get(30, TimeUnit.SECONDS);
+                    created++;
+                } catch (ExecutionException e) {
+                    assertTrue(e.getCause() instanceof IllegalArgumentException, e.getCause().toString());
+                    assertTrue(e.getCause().getMessage().contains("sudah digunakan"), e.getCause().getMessage());
+                }
+            }
+            assertEquals(1, created);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, fixture.jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM user WHERE LOWER(username) = 'popular'", Integer.class));
+        assertEquals(0, fixture.reservationRegistry.size());
+    }
+
+    @Test
+    void rolledBackInsertReleasesReservation() throws Exception {
+        fixture.transactionTemplate.executeWithoutResult(status -> {
+            userService.createUser("john", "john@simian.test", "rahasia", "John", "Doe", 1);
+            assertEquals(2, fixture.reservationRegistry.size());
+
+            // Selama transaksi pertama terbuka, request lain untuk username yang sama ditolak tanpa menunggu
+            // lock unique index baris yang belum commit
+            CompletableFuture<Void> competitor = CompletableFuture.runAsync(() ->
+                userService.createUser("John", "john.other@simian.test", "rahasia", "John", "Lain", 1));
+            ExecutionException rejected = assertThrows(ExecutionException.class,
+                () -> competitor.get(10, TimeUnit.SECONDS));
+            assertTrue(rejected.getCause() instanceof IllegalArgumentException);
+            status.setRollbackOnly();
+        });
+
+        assertEquals(0, fixture.reservationRegistry.size());
+        assertEquals(0, fixture.jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM user WHERE username = 'john'", Integer.class));
+        User user = userService.createUser("john", "john@simian.test", "rahasia", "John", "Doe", 1);
+        assertEquals("john", userService.getUserById(user.getUserId()).getUsername());
+        assertEquals(0, fixture.reservationRegistry.size());
+    }
+
+    @Test
+    void validationFailureAfterClaimReleasesReservation() {
+        IllegalArgumentException missingRole = assertThrows(IllegalArgumentException.class,
+            () -> userService.createUser("jane", "jane@simian.test", "rahasia", "Jane", "Doe", 999));
+        assertTrue(missingRole.getMessage().contains("999"));
+        assertEquals(0, fixture.reservationRegistry.size());
+
+        userService.createUser("jane", "jane@simian.test", "rahasia", "Jane", "Doe", 2);
+        IllegalArgumentException duplicate = assertThrows(IllegalArgumentException.class,
+            () -> userService.createUser("jane.two", "JANE@simian.test", "rahasia", "Jane", "Dua", 2));
+        assertEquals("Email 'JANE@simian.test' sudah digunakan", duplicate.getMessage());
+        assertEquals(0, fixture.reservationRegistry.size());
+    }
+}
@@ -0,0 +1,133 @@
+package simian.testing.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import org.junit.jupiter.api.Test;
+
+class UserReservationRegistryTest {
+
+    private static final int THREADS = 32;
+    /** Setiap putaran, semua thread berebut satu username populer yang sama */
+    private static final int POPULAR_USERNAMES = 50;
+    /** Biaya simulasi existsByUsername (satu round trip) */
+    private static final long READ_COST_NANOS = TimeUnit.MICROSECONDS.toNanos(300);
+    /** Biaya simulasi transaksi insert, termasuk yang berakhir constraint violation + rollback */
+    private static final long INSERT_COST_NANOS = TimeUnit.MILLISECONDS.toNanos(2);
+
+    @Test
+    void secondClaimFailsUntilReleased() {
+        UserReservationRegistry registry = new UserReservationRegistry(TimeUnit.SECONDS.toNanos(30), System::nanoTime);
+        UserReservationRegistry.Reservation first = registry.newReservation();
+        UserReservationRegistry.Reservation second = registry.newReservation();
+
+        assertTrue(registry.claimUsername(first, "John.Doe"));
+        assertFalse(registry.claimUsername(second, "john.doe"));
+
+        registry.release(first);
+        assertTrue(registry.claimUsername(second, "john.doe"));
+        assertEquals(1, registry.size());
+    }
+
+    @Test
+    void expiredClaimCanBeTakenOverAndStaleReleaseKeepsNewOwner() {
+        AtomicLong now = new AtomicLong();
+        UserReservationRegistry registry = new UserReservationRegistry(100, now::get);
+        UserReservationRegistry.Reservation stale = registry.newReservation();
+        assertTrue(registry.claimEmail(stale, "john@simian.com"));
+
+        now.set(100);
+        UserReservationRegistry.Reservation fresh = registry.newReservation();
+        assertTrue(registry.claimEmail(fresh, "john@simian.com"));
+
+        // Pemilik lama yang terlambat melepas tidak boleh menghapus klaim pemilik baru
+        registry.release(stale);
+        assertFalse(registry.claimEmail(registry.newReservation(), "john@simian.com"));
+    }
+
+    /**
+     * Simulasi mass-signup: setiap putaran, semua thread berebut username populer yang sama
+     * Alur tanpa reservasi bisa berakhir constraint violation, alur reservasi membuat yang kalah gagal cepat
+     * tanpa round trip. Jalur createUser yang sebenarnya diuji di UserCreationTest
+     */
+    @Test
+    void reservationCutsDuplicateKeyContention() throws InterruptedException {
+        Result withoutReservation = runSignupStorm(null);
+        Result withReservation = runSignupStorm(
+            new UserReservationRegistry(TimeUnit.SECONDS.toNanos(30), System::nanoTime));
+
+        assertEquals(POPULAR_USERNAMES, withoutReservation.created());
+        assertEquals(POPULAR_USERNAMES, withReservation.created());
+        assertEquals(0, withReservation.violations());
+    }
+
+    private Result runSignupStorm(UserReservationRegistry registry) throws InterruptedException {
+        Map<String, Boolean> database = new ConcurrentHashMap<>();
+        AtomicInteger created = new AtomicInteger();
+        AtomicInteger violations = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(THREADS);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+
+        for (int t = 0; t < THREADS; t++) {
+            executor.execute(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < POPULAR_USERNAMES; i++) {
+                        String username = "popular" + i;
+                        signup(registry, database, username, created, violations);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+
+        start.countDown();
+        done.await();
+        executor.shutdown();
+        return new Result(created.get(), violations.get());
+    }
+
+    private static void signup(UserReservationRegistry registry, Map<String, Boolean> database, String username,
+                               AtomicInteger created, AtomicInteger violations) {
+        UserReservationRegistry.Reservation reservation = null;
+        if (registry != null) {
+            reservation = registry.newReservation();
+            if (!registry.claimUsername(reservation, username)) {
+                return;
+            }
+        }
+        try {
+            LockSupport.parkNanos(READ_COST_NANOS);
+            if (database.containsKey(username)) {
+                return;
+            }
+            LockSupport.parkNanos(INSERT_COST_NANOS);
+            if (database.putIfAbsent(username, Boolean.TRUE) == null) {
+                created.incrementAndGet();
+            } else {
+                violations.incrementAndGet();
+            }
+        } finally {
+            if (reservation != null) {
+                registry.release(reservation);
+            }
+        }
+    }
+
+    private record Result(int created, int violations) {
+    }
+}
@@ -0,0 +1,87 @@
+package simian.testing.snapshot;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class PermissionSnapshotTest {
+
+    private static final Instant GENERATED_AT = Instant.parse("2026-01-15T08:00:00Z");
+
+    private static SnapshotContent content(long version) {
+        return new SnapshotContent(version, GENERATED_AT,
+            Map.of(1, new int[] {3, 1, 2}, 2, new int[] {5}, 7, new int[0]),
+            Map.of("PROJECT_ORDER_VIEW", 1, "PROJECT_ORDER_CREATE", 2, "SUBTASK_UPDATE", 3,
+                "SUBTASK_VIEW", 5, "LAPORAN_ÜBERSICHT", 9),
+            Map.of(10, 1, 11, 2, 12, 7));
+    }
+
+    @Test
+    void answersLookupsFromMappedFile(@TempDir Path directory) throws IOException {
+        Path file = directory.resolve("permission-snapshot.bin");
+        PermissionSnapshot.write(file, content(4));
+
+        PermissionSnapshot snapshot = PermissionSnapshot.open(file);
+        assertEquals(4, snapshot.getDataVersion());
+        assertEquals(GENERATED_AT, snapshot.getGeneratedAt());
+        assertEquals(3, snapshot.getRoleCount());
+        assertEquals(3, snapshot.getUserCount());
+
+        assertTrue(snapshot.roleHasAccess(1, 2));
+        assertTrue(snapshot.roleHasAccess(1, "SUBTASK_UPDATE"));
+        assertFalse(snapshot.roleHasAccess(1, "SUBTASK_VIEW"));
+        assertFalse(snapshot.roleHasAccess(7, 1));
+        assertFalse(snapshot.roleHasAccess(99, 1));
+        assertEquals(9, snapshot.findAccessId("LAPORAN_ÜBERSICHT"));
+        assertEquals(-1, snapshot.findAccessId("TIDAK_ADA"));
+
+        assertTrue(snapshot.userHasAccess(11, "SUBTASK_VIEW"));
+        assertFalse(snapshot.userHasAccess(12, "SUBTASK_VIEW"));
+        assertFalse(snapshot.userHasAccess(13, "SUBTASK_VIEW"));
+        assertEquals(-1, snapshot.findRoleOfUser(13));
+    }
+
+    @Test
+    void replacesFileAtomicallyWithoutLeftovers(@TempDir Path directory) throws IOException {
+        Path file = directory.resolve("permission-snapshot.bin");
+        PermissionSnapshot.write(file, content(1));
+        PermissionSnapshot previous = PermissionSnapshot.open(file);
+        PermissionSnapshot.write(file, content(2));
+
+        assertEquals(2, PermissionSnapshot.open(file).getDataVersion());
+        // Mapping lama tetap utuh setelah file diganti
+        assertEquals(1, previous.getDataVersion());
+        assertTrue(previous.roleHasAccess(1, "PROJECT_ORDER_VIEW"));
+        try (var files = Files.list(directory)) {
+            assertEquals(1, files.count());
+        }
+    }
+
+    @Test
+    void rejectsCorruptedOrUnsupportedSnapshot() throws IOException {
+        byte[] bytes = PermissionSnapshot.encode(content(1));
+        PermissionSnapshot.wrap(bytes.clone());
+
+        byte[] corrupted = bytes.clone();
+        corrupted[corrupted.length - 1] ^= 0x01;
+        assertThrows(IOException.class, () -> PermissionSnapshot.wrap(corrupted));
+
+        byte[] futureVersion = bytes.clone();
+        ByteBuffer.wrap(futureVersion).putInt(4, PermissionSnapshot.FORMAT_VERSION + 1);
+        assertThrows(IOException.class, () -> PermissionSnapshot.wrap(futureVersion));
+
+        byte[] truncated = new byte[bytes.length - 4];
+        System.arraycopy(bytes, 0, truncated, 0, truncated.length);
+        assertThrows(IOException.class, () -> PermissionSnapshot.wrap(truncated));
+    }
+}
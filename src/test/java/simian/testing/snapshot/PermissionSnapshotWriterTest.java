@@ -0,0 +1,113 @@
+package simian.testing.snapshot;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.test.util.ReflectionTestUtils;
+import simian.testing.event.RbacChangeEvent;
+import simian.testing.event.RbacChangeEvent.Action;
+import simian.testing.event.RbacChangeEvent.EntityType;
+import simian.testing.service.PermissionMatcher;
+
+/**
+ * PermissionSnapshotWriter di atas H2; writeSnapshot dipanggil langsung (debounce dimatikan lewat enabled=false)
+ */
+class PermissionSnapshotWriterTest {
+
+    private static final AtomicInteger DATABASES = new AtomicInteger();
+
+    private final PermissionMatcher permissionMatcher = mock(PermissionMatcher.class);
+    private final PermissionSnapshotWriter writer = new PermissionSnapshotWriter();
+    private JdbcTemplate jdbcTemplate;
+    private Path path;
+
+    @BeforeEach
+    void setUp(@TempDir Path directory) throws Exception {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:snapshotwriter"
+            + DATABASES.incrementAndGet() + ";MODE=MySQL;NON_KEYWORDS=USER,VALUE;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+        new ResourceDatabasePopulator(new ClassPathResource("schema.sql")).execute(dataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        path = directory.resolve("permission-snapshot.bin");
+        when(permissionMatcher.hasAccess(anyInt(), anyInt())).thenAnswer(invocation ->
+            invocation.<Integer>getArgument(0) == 1);
+
+        ReflectionTestUtils.setField(writer, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(writer, "permissionMatcher", permissionMatcher);
+        ReflectionTestUtils.setField(writer, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(writer, "enabled", false);
+        ReflectionTestUtils.setField(writer, "path", path);
+        ReflectionTestUtils.invokeMethod(writer, "start");
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        ReflectionTestUtils.invokeMethod(writer, "stop");
+        jdbcTemplate.execute("SHUTDOWN");
+    }
+
+    @Test
+    void userChangesPatchUserSectionWithoutRecomputingPermissions() throws IOException {
+        int alice = insertUser("alice", 1);
+        int bob = insertUser("bob", 2);
+        writer.writeSnapshot();
+        verify(permissionMatcher, atLeastOnce()).hasAccess(anyInt(), anyInt());
+        assertEquals(2, PermissionSnapshot.open(path).getUserCount());
+
+        clearInvocations(permissionMatcher);
+        int carol = insertUser("carol", 3);
+        jdbcTemplate.update("UPDATE user SET role_id = 3 WHERE user_id = ?", alice);
+        jdbcTemplate.update("UPDATE user SET is_active = 0 WHERE user_id = ?", bob);
+        writer.onRbacChange(RbacChangeEvent.of(EntityType.USER, Action.CREATED, carol));
+        writer.onRbacChange(RbacChangeEvent.of(EntityType.USER, Action.UPDATED, alice));
+        writer.onRbacChange(RbacChangeEvent.of(EntityType.USER, Action.UPDATED, bob));
+        writer.writeSnapshot();
+
+        verify(permissionMatcher, never()).hasAccess(anyInt(), anyInt());
+        PermissionSnapshot patched = PermissionSnapshot.open(path);
+        assertEquals(2, patched.getDataVersion());
+        assertEquals(3, patched.findRoleOfUser(alice));
+        assertEquals(-1, patched.findRoleOfUser(bob));
+        assertEquals(3, patched.findRoleOfUser(carol));
+        // Bagian permission disalin dari snapshot sebelumnya
+        assertTrue(patched.roleHasAccess(1, 1));
+        assertFalse(patched.roleHasAccess(2, 1));
+    }
+
+    @Test
+    void roleAccessAndGrantChangesRebuildFully() throws IOException {
+        writer.writeSnapshot();
+        for (EntityType type : new EntityType[] {EntityType.ROLE, EntityType.ACCESS, EntityType.GRANT}) {
+            clearInvocations(permissionMatcher);
+            writer.onRbacChange(RbacChangeEvent.of(type, Action.UPDATED, 1));
+            writer.writeSnapshot();
+            verify(permissionMatcher, atLeastOnce()).hasAccess(anyInt(), anyInt());
+        }
+        assertEquals(4, PermissionSnapshot.open(path).getDataVersion());
+    }
+
+    private int insertUser(String username, int roleId) {
+        jdbcTemplate.update("INSERT INTO user (username, email, password, is_active, role_id) VALUES (?, ?, 'x', 1, ?)",
+            username, username + "@simian.test", roleId);
+        return jdbcTemplate.queryForObject("SELECT user_id FROM user WHERE username = ?", Integer.class, username);
+    }
+}
@@ -0,0 +1,131 @@
+package simian.testing.snapshot;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Benchmark ukuran serta throughput encode/decode snapshot biner dibanding JSON dari data yang sama
+ * (record datar, bukan graph entity yang bisa siklik): 10 ribu access, 500 role, 200 ribu user
+ *
+ * Jalankan: mvn test -Dtest=SnapshotWireBenchmarkTest -Dbenchmark=true
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class SnapshotWireBenchmarkTest {
+
+    private static final int ACCESSES = 10_000;
+    private static final int ROLES = 500;
+    private static final int USERS = 200_000;
+    private static final int ROUNDS = 8;
+    private static final String[] FIRST_NAMES = {"Budi", "Siti", "Agus", "Dewi", "Rina", "Joko", "Putri", "Wahyu"};
+    private static final String[] LAST_NAMES = {"Santoso", "Lestari", "Wijaya", "Nugroho", "Siregar", "Pratama"};
+    private static final String[] DOMAINS = {"simian.com", "simian.co.id", "partner.simian.com"};
+    private static final String[] ACTIONS = {"CREATE", "READ", "UPDATE", "DELETE", "VIEW"};
+
+    @Test
+    void binaryVersusJson() throws IOException {
+        Snapshot snapshot = generate(new Random(42));
+        JsonMapper mapper = JsonMapper.builder().build();
+
+        byte[] binary = encodeBinary(snapshot);
+        byte[] json = mapper.writeValueAsBytes(snapshot);
+        assertEquals(snapshot.users().size(), decodeBinary(binary));
+        assertEquals(snapshot.users().size(), mapper.readValue(json, Snapshot.class).users().size());
+
+        long binaryEncode = Long.MAX_VALUE;
+        long binaryDecode = Long.MAX_VALUE;
+        long jsonEncode = Long.MAX_VALUE;
+        long jsonDecode = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            encodeBinary(snapshot);
+            binaryEncode = Math.min(binaryEncode, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            decodeBinary(binary);
+            binaryDecode = Math.min(binaryDecode, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            mapper.writeValueAsBytes(snapshot);
+            jsonEncode = Math.min(jsonEncode, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            mapper.readValue(json, Snapshot.class);
+            jsonDecode = Math.min(jsonDecode, System.nanoTime() - start);
+        }
+
+        System.out.printf("biner: %,d byte, encode %d ms, decode %d ms%n",
+            binary.length, binaryEncode / 1_000_000, binaryDecode / 1_000_000);
+        System.out.printf("JSON : %,d byte, encode %d ms, decode %d ms%n",
+            json.length, jsonEncode / 1_000_000, jsonDecode / 1_000_000);
+        System.out.printf("biner %.1f%% ukuran JSON, %.1fx lebih cepat encode, %.1fx lebih cepat decode%n",
+            100.0 * binary.length / json.length, (double) jsonEncode / binaryEncode, (double) jsonDecode / binaryDecode);
+        assertTrue(binary.length < json.length);
+    }
+
+    private static byte[] encodeBinary(Snapshot snapshot) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(8 * 1024 * 1024);
+        SnapshotWireWriter writer = new SnapshotWireWriter(out, Instant.EPOCH);
+        for (WireRecord.Access access : snapshot.accesses()) {
+            writer.writeAccess(access.accessId(), access.name(), access.module(), access.action());
+        }
+        for (WireRecord.Role role : snapshot.roles()) {
+            writer.writeRole(role.roleId(), role.name(), role.parentRoleId(), role.accessIds());
+        }
+        for (WireRecord.User user : snapshot.users()) {
+            writer.writeUser(user.userId(), user.username(), user.email(), user.firstName(), user.lastName(),
+                user.active(), user.roleId());
+        }
+        writer.finish();
+        return out.toByteArray();
+    }
+
+    private static int decodeBinary(byte[] binary) throws IOException {
+        SnapshotWireReader reader = new SnapshotWireReader(new ByteArrayInputStream(binary));
+        int users = 0;
+        for (WireRecord record = reader.next(); record != null; record = reader.next()) {
+            if (record instanceof WireRecord.User) {
+                users++;
+            }
+        }
+        return users;
+    }
+
+    private static Snapshot generate(Random random) {
+        List<WireRecord.Access> accesses = new ArrayList<>(ACCESSES);
+        for (int accessId = 1; accessId <= ACCESSES; accessId++) {
+            String module = "MODULE_" + (accessId / ACTIONS.length);
+            String action = ACTIONS[accessId % ACTIONS.length];
+            accesses.add(new WireRecord.Access(accessId, module + "_" + action, module, action));
+        }
+        List<WireRecord.Role> roles = new ArrayList<>(ROLES);
+        for (int roleId = 1; roleId <= ROLES; roleId++) {
+            int[] accessIds = random.ints(1, ACCESSES + 1).limit(20 + random.nextInt(200)).distinct().sorted()
+                .toArray();
+            Integer parent = roleId > 1 && random.nextInt(3) == 0 ? 1 + random.nextInt(roleId - 1) : null;
+            roles.add(new WireRecord.Role(roleId, "Role " + roleId, parent, accessIds));
+        }
+        List<WireRecord.User> users = new ArrayList<>(USERS);
+        for (int userId = 1; userId <= USERS; userId++) {
+            String firstName = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+            String lastName = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+            String username = (firstName + "." + lastName).toLowerCase() + userId;
+            users.add(new WireRecord.User(userId, username, username + "@" + DOMAINS[random.nextInt(DOMAINS.length)],
+                firstName, lastName, random.nextInt(10) > 0, 1 + random.nextInt(ROLES)));
+        }
+        return new Snapshot(accesses, roles, users);
+    }
+
+    record Snapshot(List<WireRecord.Access> accesses, List<WireRecord.Role> roles, List<WireRecord.User> users) {
+    }
+}
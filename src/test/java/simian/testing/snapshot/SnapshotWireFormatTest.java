@@ -0,0 +1,103 @@
+package simian.testing.snapshot;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.Arrays;
+import org.junit.jupiter.api.Test;
+
+class SnapshotWireFormatTest {
+
+    private static final Instant GENERATED_AT = Instant.parse("2026-01-15T08:00:00.123Z");
+
+    @Test
+    void roundTripPreservesRecordsInOrder() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        SnapshotWireWriter writer = new SnapshotWireWriter(out, GENERATED_AT);
+        writer.writeAccess(1, "CREATE_PROJECT_ORDER", "PROJECT_ORDER", "CREATE");
+        writer.writeAccess(4, "READ_PROJECT_ORDER", "PROJECT_ORDER", "READ");
+        writer.writeAccess(900, "PROJECT_ORDER:*", "PROJECT_ORDER", "*");
+        writer.writeAccess(901, "LEGACY", null, null);
+        writer.writeRole(1, "Project Manager", null, new int[] {900, 1});
+        writer.writeRole(7, "Konsultan Senior", 1, new int[0]);
+        writer.writeUser(10, "budi.santoso", "budi.santoso@simian.co.id", "Budi", "Santoso", true, 1);
+        writer.writeUser(11, "siti", "siti@simian.co.id", "Siti", null, false, 7);
+        writer.writeUser(300_000, "tanpa.email", "tanpa-domain", null, null, true, 7);
+        writer.finish();
+
+        SnapshotWireReader reader = new SnapshotWireReader(new ByteArrayInputStream(out.toByteArray()));
+        assertEquals(GENERATED_AT, reader.getGeneratedAt());
+        assertEquals(new WireRecord.Access(1, "CREATE_PROJECT_ORDER", "PROJECT_ORDER", "CREATE"), reader.next());
+        assertEquals(new WireRecord.Access(4, "READ_PROJECT_ORDER", "PROJECT_ORDER", "READ"), reader.next());
+        assertEquals(new WireRecord.Access(900, "PROJECT_ORDER:*", "PROJECT_ORDER", "*"), reader.next());
+        assertEquals(new WireRecord.Access(901, "LEGACY", null, null), reader.next());
+
+        WireRecord.Role manager = (WireRecord.Role) reader.next();
+        assertEquals("Project Manager", manager.name());
+        assertNull(manager.parentRoleId());
+        // accessId dikembalikan sesuai urutan access di stream
+        assertArrayEquals(new int[] {1, 900}, manager.accessIds());
+        WireRecord.Role senior = (WireRecord.Role) reader.next();
+        assertEquals(7, senior.roleId());
+        assertEquals(1, senior.parentRoleId());
+        assertEquals(0, senior.accessIds().length);
+
+        assertEquals(new WireRecord.User(10, "budi.santoso", "budi.santoso@simian.co.id", "Budi", "Santoso", true, 1),
+            reader.next());
+        assertEquals(new WireRecord.User(11, "siti", "siti@simian.co.id", "Siti", null, false, 7), reader.next());
+        assertEquals(new WireRecord.User(300_000, "tanpa.email", "tanpa-domain", null, null, true, 7), reader.next());
+        assertNull(reader.next());
+        assertNull(reader.next());
+    }
+
+    @Test
+    void repeatedNamesAreWrittenOnce() throws IOException {
+        int single = snapshotSize(1);
+        int perUser = (snapshotSize(1000) - single) / 999;
+        // Tag, delta id, flags, roleId, username (bagian lokal email sama), lalu 3 referensi kamus 1 byte
+        assertTrue(perUser <= 16, "Rata-rata " + perUser + " byte per user");
+    }
+
+    @Test
+    void rejectsOutOfOrderWritesAndTruncatedStreams() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        SnapshotWireWriter writer = new SnapshotWireWriter(out, GENERATED_AT);
+        writer.writeAccess(5, "A", null, null);
+        assertThrows(IllegalArgumentException.class, () -> writer.writeAccess(5, "B", null, null));
+        assertThrows(IllegalArgumentException.class, () -> writer.writeRole(1, "R", null, new int[] {6}));
+        writer.writeUser(1, "u", "u@simian.com", null, null, true, 1);
+        assertThrows(IllegalStateException.class, () -> writer.writeRole(2, "R", null, new int[0]));
+        writer.finish();
+
+        byte[] bytes = out.toByteArray();
+        SnapshotWireReader truncated = new SnapshotWireReader(
+            new ByteArrayInputStream(Arrays.copyOf(bytes, bytes.length - 4)));
+        assertThrows(EOFException.class, () -> {
+            while (truncated.next() != null) {
+                // baca sampai habis
+            }
+        });
+        bytes[0] = 'X';
+        assertThrows(IOException.class, () -> new SnapshotWireReader(new ByteArrayInputStream(bytes)));
+    }
+
+    private static int snapshotSize(int users) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        SnapshotWireWriter writer = new SnapshotWireWriter(out, GENERATED_AT);
+        writer.writeAccess(1, "VIEW_SUBTASK", "SUBTASK", "VIEW");
+        writer.writeRole(1, "Development", null, new int[] {1});
+        for (int userId = 1; userId <= users; userId++) {
+            writer.writeUser(userId, "user" + userId, "user" + userId + "@simian.com", "Dewi", "Lestari", true, 1);
+        }
+        writer.finish();
+        return out.size();
+    }
+}
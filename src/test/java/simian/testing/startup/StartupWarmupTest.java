@@ -0,0 +1,137 @@
+package simian.testing.startup;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import javax.sql.DataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.availability.ApplicationAvailability;
+import org.springframework.boot.availability.ApplicationAvailabilityBean;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import simian.testing.dao.AccessDAO;
+import simian.testing.dao.RoleAccessDAO;
+import simian.testing.dao.RoleDAO;
+import simian.testing.dao.RoleHierarchyDAO;
+import simian.testing.dao.UserDAO;
+import simian.testing.entity.Access;
+import simian.testing.entity.Role;
+import simian.testing.service.AccessService;
+import simian.testing.service.CatalogCache;
+import simian.testing.service.RoleService;
+import simian.testing.service.UserService;
+
+/**
+ * StartupWarmup dijalankan oleh SpringApplication (tanpa web server) dengan DAO dan service tiruan
+ * Urutan warm-up dan event availability dicatat di events
+ */
+class StartupWarmupTest {
+
+    private final List<String> events = new CopyOnWriteArrayList<>();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RoleService roleService = mock(RoleService.class);
+    private final UserService userService = mock(UserService.class);
+    private final AccessService accessService = mock(AccessService.class);
+    private final DataSource dataSource = mock(DataSource.class);
+
+    @BeforeEach
+    void setUp() throws Exception {
+        when(dataSource.getConnection()).thenAnswer(invocation -> mock(Connection.class));
+        Role role = new Role();
+        role.setRoleId(1);
+        Access access = new Access();
+        access.setAccessName("READ_PROJECT_ORDER");
+        when(roleService.getAllRoles()).thenAnswer(invocation -> {
+            events.add("preload");
+            return List.of(role);
+        });
+        when(accessService.getAllAccess()).thenReturn(List.of(access));
+        when(roleService.roleHasAccessByName(1, "READ_PROJECT_ORDER")).thenAnswer(invocation -> {
+            if (!events.contains("load")) {
+                events.add("load");
+            }
+            return true;
+        });
+    }
+
+    @Test
+    void warmUpCompletesBeforeReadiness() {
+        try (ConfigurableApplicationContext context = application().run()) {
+            StartupWarmup warmup = context.getBean(StartupWarmup.class);
+            assertEquals(List.of("preload", "load", "ACCEPTING_TRAFFIC"), events);
+            assertSame(ReadinessState.ACCEPTING_TRAFFIC,
+                context.getBean(ApplicationAvailability.class).getReadinessState());
+            assertNotNull(warmup.getLastDuration());
+            assertEquals(1, meterRegistry.timer("simian.warmup.duration").count());
+        }
+    }
+
+    @Test
+    void failedWarmUpStopsStartupBeforeReadiness() {
+        doAnswer(invocation -> {
+            events.add("preload");
+            throw new DataAccessResourceFailureException("Database tidak bisa diakses");
+        }).when(roleService).getAllRoles();
+
+        IllegalStateException failure = assertThrows(IllegalStateException.class, () -> application().run());
+        Throwable cause = failure;
+        while (cause != null && !(cause instanceof DataAccessResourceFailureException)) {
+            cause = cause.getCause();
+        }
+        assertNotNull(cause, failure.toString());
+        assertEquals(List.of("preload"), events);
+        assertEquals(1, meterRegistry.timer("simian.warmup.duration").count());
+    }
+
+    private SpringApplication application() {
+        SpringApplication application = new SpringApplication(StartupWarmup.class);
+        application.setWebApplicationType(WebApplicationType.NONE);
+        application.setDefaultProperties(Map.of(
+            "simian.warmup.iterations-per-round", "10",
+            "simian.warmup.stable-rounds", "1",
+            "spring.main.banner-mode", "off"));
+        application.addInitializers(context -> {
+            // Dependency didaftarkan langsung sebagai singleton agar field @Autowired di dalam mock tidak ikut diproses
+            ConfigurableListableBeanFactory singletons = context.getBeanFactory();
+            ((GenericApplicationContext) context).registerBean(ApplicationAvailabilityBean.class);
+            singletons.registerSingleton("dataSource", dataSource);
+            singletons.registerSingleton("jdbcTemplate", mock(JdbcTemplate.class));
+            singletons.registerSingleton("userDAO", mock(UserDAO.class));
+            singletons.registerSingleton("roleDAO", mock(RoleDAO.class));
+            singletons.registerSingleton("accessDAO", mock(AccessDAO.class));
+            singletons.registerSingleton("roleAccessDAO", mock(RoleAccessDAO.class));
+            singletons.registerSingleton("roleHierarchyDAO", mock(RoleHierarchyDAO.class));
+            singletons.registerSingleton("userService", userService);
+            singletons.registerSingleton("roleService", roleService);
+            singletons.registerSingleton("accessService", accessService);
+            singletons.registerSingleton("catalogCache", mock(CatalogCache.class));
+            singletons.registerSingleton("meterRegistry", meterRegistry);
+            context.addApplicationListener((ApplicationListener<AvailabilityChangeEvent<?>>) event -> {
+                if (event.getState() instanceof ReadinessState state) {
+                    events.add(state.name());
+                }
+            });
+        });
+        return application;
+    }
+}
@@ -0,0 +1,165 @@
+package simian.testing.sync;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+import simian.testing.dao.RoleDAO;
+import simian.testing.dao.memory.InMemoryRoleDAO;
+import simian.testing.dao.memory.InMemoryStore;
+import simian.testing.dao.memory.InMemoryUserDAO;
+import simian.testing.entity.Role;
+import simian.testing.event.RbacChangeEvent;
+import simian.testing.event.RbacChangeEvent.Action;
+import simian.testing.event.RbacChangeEvent.EntityType;
+
+/**
+ * Merge-join rekonsiliasi HR di H2 (urutan string bawaan H2 biner, sama dengan utf8mb4_bin di MySQL)
+ */
+class UserReconciliationServiceTest {
+
+    private static final String HEADER = "username,email,firstName,lastName,division\n";
+
+    private static JdbcTemplate jdbcTemplate;
+    private static UserReconciliationService service;
+    private static final List<Object> events = new CopyOnWriteArrayList<>();
+
+    @BeforeAll
+    static void setUpDatabase() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+            "jdbc:h2:mem:reconciliation;MODE=MySQL;NON_KEYWORDS=USER,VALUE;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+        new ResourceDatabasePopulator(new ClassPathResource("schema.sql")).execute(dataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+
+        // Role dengan ID yang sama dengan data awal schema.sql; restore arsip tidak dipakai di test ini
+        InMemoryStore store = new InMemoryStore();
+        RoleDAO roleDAO = new InMemoryRoleDAO(store);
+        for (String roleName : List.of("Project Manager", "Consultant", "Development")) {
+            roleDAO.create(new Role(roleName, null));
+        }
+        service = new UserReconciliationService();
+        ReflectionTestUtils.setField(service, "dataSource", dataSource);
+        ReflectionTestUtils.setField(service, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(service, "transactionTemplate",
+            new TransactionTemplate(new DataSourceTransactionManager(dataSource)));
+        ReflectionTestUtils.setField(service, "roleDAO", roleDAO);
+        ReflectionTestUtils.setField(service, "userDAO", new InMemoryUserDAO(store));
+        ApplicationEventPublisher eventPublisher = events::add;
+        ReflectionTestUtils.setField(service, "eventPublisher", eventPublisher);
+        ReflectionTestUtils.setField(service, "batchSize", 2);
+        ReflectionTestUtils.setField(service, "fetchSize", 100);
+        ReflectionTestUtils.setField(service, "usernameCollation", "");
+        service.init();
+    }
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM user");
+        jdbcTemplate.update("DELETE FROM user_archive");
+        insertUser("alice", "alice@simian.com", "Alice", 2);
+        insertUser("John_Doe", "john@simian.com", "John", 3);
+        insertUser("johnathan", "johnathan@simian.com", "Johnathan", 3);
+        insertUser("josé", "jose@simian.com", "José", 1);
+        insertUser("Zoe", "zoe@simian.com", "Zoe", 2);
+        events.clear();
+    }
+
+    @Test
+    void mergeJoinFollowsBinaryUsernameOrder() throws IOException {
+        // Urutan code point: huruf besar sebelum huruf kecil, '_' sebelum huruf kecil, 'é' setelah ASCII
+        String source = HEADER
+            + "John_Doe,john.doe@simian.com,John,,Development\n"
+            + "Zoe,zoe@simian.com,Zoe,,Consultant\n"
+            + "alice,alice@simian.com,Alice,,Consultant\n"
+            + "bob_new,bob@simian.com,Bob,,Development\n"
+            + "john_doe,john.lower@simian.com,John,,Development\n"
+            + "josé,jose@simian.com,José,,Project Manager\n";
+
+        ReconciliationReport report = service.reconcile(new StringReader(source), HrSourceReader.Format.CSV);
+
+        assertEquals(2, report.inserted());
+        assertEquals(1, report.updated());
+        assertEquals(1, report.deactivated());
+        assertEquals(3, report.unchanged());
+        assertEquals(0, report.failed());
+        Map<String, Object> johnathan = jdbcTemplate.queryForMap(
+            "SELECT is_active FROM user WHERE username = 'johnathan'");
+        assertEquals(0, ((Number) johnathan.get("is_active")).intValue());
+        assertEquals("john.doe@simian.com",
+            jdbcTemplate.queryForObject("SELECT email FROM user WHERE username = 'John_Doe'", String.class));
+        assertEquals(List.of("John_Doe", "Zoe", "alice", "bob_new", "john_doe", "johnathan", "josé"), usernames());
+    }
+
+    @Test
+    void publishesUserEventForEveryWrittenRow() throws IOException {
+        // carol memakai email alice: batch insert gagal dan diulang per baris, hanya bob yang tertulis
+        String source = HEADER
+            + "John_Doe,john.doe@simian.com,John,,Development\n"
+            + "Zoe,zoe@simian.com,Zoe,,Consultant\n"
+            + "alice,alice@simian.com,Alice,,Consultant\n"
+            + "bob_new,bob@simian.com,Bob,,Development\n"
+            + "carol,alice@simian.com,Carol,,Development\n"
+            + "josé,jose@simian.com,José,,Project Manager\n";
+
+        ReconciliationReport report = service.reconcile(new StringReader(source), HrSourceReader.Format.CSV);
+
+        assertEquals(1, report.inserted());
+        assertEquals(1, report.failed());
+        assertEquals(List.of(
+                userEvent(Action.CREATED, "bob_new"),
+                userEvent(Action.UPDATED, "John_Doe"),
+                userEvent(Action.UPDATED, "johnathan")),
+            events);
+    }
+
+    @Test
+    void rejectsSourceSortedCaseInsensitively() {
+        String source = HEADER
+            + "alice,alice@simian.com,Alice,,Consultant\n"
+            + "Zoe,zoe@simian.com,Zoe,,Consultant\n";
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+            () -> service.reconcile(new StringReader(source), HrSourceReader.Format.CSV));
+        assertTrue(e.getMessage().contains("terurut"));
+    }
+
+    @Test
+    void usernameOrderComparesCodePoints() {
+        List<String> usernames = new ArrayList<>(List.of("johnathan", "josé", "john_doe", "Zoe", "jose", "John"));
+        usernames.sort(UserReconciliationService.USERNAME_ORDER);
+        assertEquals(List.of("John", "Zoe", "john_doe", "johnathan", "jose", "josé"), usernames);
+        // Karakter di luar BMP diurutkan sesuai code point-nya, bukan unit UTF-16
+        assertTrue(UserReconciliationService.USERNAME_ORDER.compare("a\uD83D\uDE00", "a\uFFFD") > 0);
+    }
+
+    private static void insertUser(String username, String email, String firstName, int roleId) {
+        jdbcTemplate.update("INSERT INTO user (username, email, password, first_name, is_active, role_id) "
+            + "VALUES (?, ?, 'rahasia', ?, 1, ?)", username, email, firstName, roleId);
+    }
+
+    private static RbacChangeEvent userEvent(Action action, String username) {
+        Integer userId = jdbcTemplate.queryForObject("SELECT user_id FROM user WHERE username = ?", Integer.class, username);
+        return RbacChangeEvent.of(EntityType.USER, action, userId);
+    }
+
+    private static List<String> usernames() {
+        return jdbcTemplate.queryForList("SELECT username FROM user ORDER BY username", String.class);
+    }
+}
@@ -0,0 +1,60 @@
+package simian.testing.token;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.security.KeyPair;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.BitSet;
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+/**
+ * Benchmark ukuran capability token dan biaya verifikasi lokal (Ed25519 + decode bitmap + cek satu bit)
+ * untuk katalog access dengan ukuran berbeda, setengah access dimiliki role
+ *
+ * Jalankan: mvn test -Dtest=CapabilityTokenBenchmarkTest -Dbenchmark=true
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class CapabilityTokenBenchmarkTest {
+
+    private static final KeyPair KEYS = CapabilityTokenVerifierTest.generateKeyPair();
+    private static final int WARMUP = 2_000;
+    private static final int ITERATIONS = 5_000;
+
+    @Test
+    void tokenSizeAndVerifyTime() {
+        Instant issuedAt = Instant.parse("2026-01-15T08:00:00Z");
+        CapabilityTokenVerifier verifier = new CapabilityTokenVerifier(KEYS.getPublic().getEncoded(), Map.of(),
+            Clock.fixed(issuedAt, ZoneOffset.UTC));
+        Random random = new Random(42);
+
+        for (int catalogSize : new int[] {10, 100, 1000, 5000}) {
+            BitSet accessIds = new BitSet();
+            for (int accessId = 1; accessId <= catalogSize; accessId++) {
+                if (random.nextBoolean()) {
+                    accessIds.set(accessId);
+                }
+            }
+            String token = CapabilityTokenCodec.encode(CapabilityTokenCodec.newSigner(KEYS.getPrivate()),
+                123_456, 42, issuedAt, issuedAt.plusSeconds(300), accessIds);
+
+            int permitted = 0;
+            for (int i = 0; i < WARMUP; i++) {
+                permitted += verifier.isPermitted(token, 1 + i % catalogSize) ? 1 : 0;
+            }
+            long start = System.nanoTime();
+            for (int i = 0; i < ITERATIONS; i++) {
+                permitted += verifier.isPermitted(token, 1 + i % catalogSize) ? 1 : 0;
+            }
+            long nanosPerVerify = (System.nanoTime() - start) / ITERATIONS;
+
+            System.out.printf("%5d access: token %4d karakter, verify %d ns/op%n",
+                catalogSize, token.length(), nanosPerVerify);
+            assertTrue(permitted > 0);
+        }
+    }
+}
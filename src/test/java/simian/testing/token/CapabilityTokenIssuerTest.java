@@ -0,0 +1,105 @@
+package simian.testing.token;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.security.KeyPair;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import simian.testing.event.RbacChangeEvent;
+import simian.testing.service.PermissionMatcher;
+
+class CapabilityTokenIssuerTest {
+
+    private static final KeyPair KEYS = CapabilityTokenVerifierTest.generateKeyPair();
+    private static final String PRIVATE_KEY = base64(KEYS.getPrivate().getEncoded());
+    private static final String PUBLIC_KEY = base64(KEYS.getPublic().getEncoded());
+    private static final String SERVICE_KEY = "kunci-service-minimal-32-karakter";
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final PermissionMatcher permissionMatcher = mock(PermissionMatcher.class);
+
+    @Test
+    void disablesIssuanceAndVerificationWithoutPrivateKey() {
+        CapabilityTokenIssuer issuer = issuer("  ", "", "");
+        ReflectionTestUtils.invokeMethod(issuer, "init");
+
+        assertFalse(issuer.isEnabled());
+        assertThrows(IllegalStateException.class, () -> issuer.issue(42));
+        assertThrows(IllegalArgumentException.class, () -> issuer.verify("AQ"));
+    }
+
+    @Test
+    void rejectsMismatchedForeignAndShortKeys() {
+        String otherPublicKey = base64(CapabilityTokenVerifierTest.generateKeyPair().getPublic().getEncoded());
+        String hmacSecret = base64("rahasia-bersama-penerbit-dan-verifier".getBytes());
+        for (CapabilityTokenIssuer issuer : List.of(
+                issuer(PRIVATE_KEY, otherPublicKey, ""),
+                issuer(PRIVATE_KEY, "", ""),
+                issuer(hmacSecret, PUBLIC_KEY, ""),
+                issuer(PRIVATE_KEY, PUBLIC_KEY, "kunci-pendek"))) {
+            assertThrows(IllegalStateException.class, () -> ReflectionTestUtils.invokeMethod(issuer, "init"));
+        }
+    }
+
+    @Test
+    void serviceKeyIsRequiredAndDisabledWhenBlank() {
+        CapabilityTokenIssuer issuer = issuer(PRIVATE_KEY, PUBLIC_KEY, SERVICE_KEY);
+        assertTrue(issuer.isServiceKey(SERVICE_KEY));
+        assertFalse(issuer.isServiceKey(SERVICE_KEY + "-lain"));
+        assertFalse(issuer.isServiceKey(null));
+        assertFalse(issuer("", "", "").isServiceKey(""));
+    }
+
+    @Test
+    void bitmapCompiledAcrossRevokeIsNotReused() {
+        CapabilityTokenIssuer issuer = issuer(PRIVATE_KEY, PUBLIC_KEY, "");
+        ReflectionTestUtils.invokeMethod(issuer, "init");
+        when(jdbcTemplate.queryForList(anyString(), eq(Integer.class), any(Object[].class))).thenReturn(List.of(2));
+        when(jdbcTemplate.queryForList("SELECT access_id FROM access", Integer.class)).thenReturn(List.of(5));
+        AtomicInteger probes = new AtomicInteger();
+        when(permissionMatcher.hasAccess(eq(2), anyInt())).thenAnswer(invocation -> {
+            if (probes.incrementAndGet() == 1) {
+                // Grant dicabut dan commit saat bitmap pertama masih di-compile
+                issuer.onRbacChange(RbacChangeEvent.grant(RbacChangeEvent.Action.DELETED, 2, 5));
+                return true;
+            }
+            return false;
+        });
+
+        assertTrue(issuer.verify(issuer.issue(42).token()).hasAccess(5));
+        assertFalse(issuer.verify(issuer.issue(42).token()).hasAccess(5));
+        String token = issuer.issue(42).token();
+        assertFalse(issuer.verify(token).hasAccess(5));
+
+        // Downstream memverifikasi dengan public key saja
+        assertEquals(42, new CapabilityTokenVerifier(KEYS.getPublic().getEncoded()).verify(token).getUserId());
+    }
+
+    private CapabilityTokenIssuer issuer(String privateKey, String publicKey, String serviceKey) {
+        CapabilityTokenIssuer issuer = new CapabilityTokenIssuer();
+        ReflectionTestUtils.setField(issuer, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(issuer, "permissionMatcher", permissionMatcher);
+        ReflectionTestUtils.setField(issuer, "privateKey", privateKey);
+        ReflectionTestUtils.setField(issuer, "publicKey", publicKey);
+        ReflectionTestUtils.setField(issuer, "serviceKey", serviceKey);
+        ReflectionTestUtils.setField(issuer, "ttlSeconds", 300L);
+        return issuer;
+    }
+
+    private static String base64(byte[] bytes) {
+        return Base64.getEncoder().encodeToString(bytes);
+    }
+}
@@ -0,0 +1,107 @@
+package simian.testing.token;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.BitSet;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class CapabilityTokenVerifierTest {
+
+    private static final KeyPair KEYS = generateKeyPair();
+    private static final byte[] PUBLIC_KEY = KEYS.getPublic().getEncoded();
+    private static final Instant ISSUED_AT = Instant.parse("2026-01-15T08:00:00Z");
+    private static final Instant EXPIRES_AT = ISSUED_AT.plusSeconds(300);
+
+    @Test
+    void roundTripsIdsExpiryAndPermissions() {
+        BitSet accessIds = new BitSet();
+        accessIds.set(1);
+        accessIds.set(63);
+        accessIds.set(64);
+        accessIds.set(1000);
+        String token = issue(accessIds);
+
+        CapabilityToken verified = verifierAt(ISSUED_AT.plusSeconds(10)).verify(token);
+        assertEquals(42, verified.getUserId());
+        assertEquals(7, verified.getRoleId());
+        assertEquals(ISSUED_AT, verified.getIssuedAt());
+        assertEquals(EXPIRES_AT, verified.getExpiresAt());
+        assertEquals(accessIds, verified.getAccessIds());
+        assertTrue(verified.hasAccess(64));
+        assertFalse(verified.hasAccess(2));
+        assertFalse(verified.hasAccess(5000));
+    }
+
+    @Test
+    void checksAccessByName() {
+        BitSet accessIds = new BitSet();
+        accessIds.set(3);
+        String token = issue(accessIds);
+        CapabilityTokenVerifier verifier = new CapabilityTokenVerifier(PUBLIC_KEY,
+            Map.of("CLOSE_PROJECT_ORDER", 3, "DELETE_PROJECT_ORDER", 4),
+            Clock.fixed(ISSUED_AT, ZoneOffset.UTC));
+
+        assertTrue(verifier.isPermitted(token, "CLOSE_PROJECT_ORDER"));
+        assertFalse(verifier.isPermitted(token, "DELETE_PROJECT_ORDER"));
+        assertFalse(verifier.isPermitted(token, "TIDAK_ADA"));
+    }
+
+    @Test
+    void rejectsExpiredTamperedAndForeignTokens() {
+        BitSet accessIds = new BitSet();
+        accessIds.set(3);
+        String token = issue(accessIds);
+
+        assertThrows(IllegalArgumentException.class, () -> verifierAt(EXPIRES_AT).verify(token));
+
+        // Menambah bit access di payload tanpa menandatangani ulang
+        byte[] bytes = Base64.getUrlDecoder().decode(token);
+        bytes[bytes.length - CapabilityTokenCodec.SIGNATURE_LENGTH - 1] |= 0x10;
+        String tampered = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        assertThrows(IllegalArgumentException.class, () -> verifierAt(ISSUED_AT).verify(tampered));
+
+        CapabilityTokenVerifier otherKey = new CapabilityTokenVerifier(
+            generateKeyPair().getPublic().getEncoded(), Map.of(), Clock.fixed(ISSUED_AT, ZoneOffset.UTC));
+        assertThrows(IllegalArgumentException.class, () -> otherKey.verify(token));
+        assertThrows(IllegalArgumentException.class, () -> verifierAt(ISSUED_AT).verify("bukan*token"));
+        assertThrows(IllegalArgumentException.class, () -> verifierAt(ISSUED_AT).verify("AQ"));
+    }
+
+    @Test
+    void rejectsKeysOtherThanEd25519PublicKey() {
+        // Secret HMAC lama dan private key tidak boleh dipakai sebagai key verifier
+        assertThrows(IllegalArgumentException.class,
+            () -> new CapabilityTokenVerifier("rahasia-bersama".getBytes(StandardCharsets.UTF_8)));
+        assertThrows(IllegalArgumentException.class,
+            () -> new CapabilityTokenVerifier(KEYS.getPrivate().getEncoded()));
+    }
+
+    private static String issue(BitSet accessIds) {
+        return CapabilityTokenCodec.encode(CapabilityTokenCodec.newSigner(KEYS.getPrivate()),
+            42, 7, ISSUED_AT, EXPIRES_AT, accessIds);
+    }
+
+    static KeyPair generateKeyPair() {
+        try {
+            return KeyPairGenerator.getInstance("Ed25519").generateKeyPair();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static CapabilityTokenVerifier verifierAt(Instant now) {
+        return new CapabilityTokenVerifier(PUBLIC_KEY, Map.of(), Clock.fixed(now, ZoneOffset.UTC));
+    }
+}